@@ -0,0 +1,32 @@
+package edu.uic.marketplace.config;
+
+import edu.uic.marketplace.service.listing.FavoriteBitmapCache;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Multi-instance invalidation of FavoriteBitmapCache: every instance subscribes to the channel
+ * favorite changes are published to, and drops the user's bitmap locally.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.favorites.cache.invalidation", havingValue = "redis")
+public class FavoriteCacheInvalidationConfig {
+
+    @Bean
+    public RedisMessageListenerContainer favoriteCacheInvalidationListener(RedisConnectionFactory connectionFactory,
+                                                                           FavoriteBitmapCache favoriteBitmapCache) {
+
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener((message, pattern) ->
+                favoriteBitmapCache.onInvalidation(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(FavoriteBitmapCache.INVALIDATION_CHANNEL));
+        return container;
+    }
+}
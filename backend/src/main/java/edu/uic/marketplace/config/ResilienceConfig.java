@@ -0,0 +1,92 @@
+package edu.uic.marketplace.config;
+
+import com.amazonaws.AmazonServiceException;
+import edu.uic.marketplace.service.common.RemoteCallGuard;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.function.Predicate;
+
+/**
+ * One bulkhead + circuit breaker per remote dependency, configured under
+ * {@code app.resilience.<name>.*}. State, calls and rejections are exported as
+ * resilience4j.circuitbreaker.* / resilience4j.bulkhead.* metrics.
+ */
+@Configuration
+public class ResilienceConfig {
+
+    @Bean
+    public CircuitBreakerRegistry circuitBreakerRegistry(MeterRegistry meterRegistry) {
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.ofDefaults();
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+        return registry;
+    }
+
+    @Bean
+    public BulkheadRegistry bulkheadRegistry(MeterRegistry meterRegistry) {
+        BulkheadRegistry registry = BulkheadRegistry.ofDefaults();
+        TaggedBulkheadMetrics.ofBulkheadRegistry(registry).bindTo(meterRegistry);
+        return registry;
+    }
+
+    /**
+     * S3: only server-side trouble (5xx, throttling) and I/O failures count as failures;
+     * a 403/404 is the caller's problem, not an outage.
+     */
+    @Bean
+    public RemoteCallGuard s3CallGuard(CircuitBreakerRegistry circuitBreakerRegistry,
+                                       BulkheadRegistry bulkheadRegistry,
+                                       Environment env) {
+        return guard("s3", 32, circuitBreakerRegistry, bulkheadRegistry, env,
+                e -> !(e instanceof AmazonServiceException ase) || ase.getStatusCode() >= 500 || ase.getStatusCode() == 429);
+    }
+
+    @Bean
+    public RemoteCallGuard mailCallGuard(CircuitBreakerRegistry circuitBreakerRegistry,
+                                         BulkheadRegistry bulkheadRegistry,
+                                         Environment env) {
+        return guard("mail", 8, circuitBreakerRegistry, bulkheadRegistry, env,
+                e -> !(e instanceof IllegalArgumentException));
+    }
+
+    // ------------------------------------------------------------------
+
+    private static RemoteCallGuard guard(String name, int defaultConcurrency,
+                                         CircuitBreakerRegistry circuitBreakerRegistry,
+                                         BulkheadRegistry bulkheadRegistry,
+                                         Environment env,
+                                         Predicate<Throwable> isFailure) {
+
+        String prefix = "app.resilience." + name + ".";
+
+        BulkheadConfig bulkhead = BulkheadConfig.custom()
+                .maxConcurrentCalls(env.getProperty(prefix + "max-concurrent-calls", Integer.class, defaultConcurrency))
+                .maxWaitDuration(env.getProperty(prefix + "max-wait", Duration.class, Duration.ofMillis(50)))
+                .build();
+
+        CircuitBreakerConfig circuitBreaker = CircuitBreakerConfig.custom()
+                .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+                .slidingWindowSize(env.getProperty(prefix + "sliding-window-size", Integer.class, 20))
+                .minimumNumberOfCalls(env.getProperty(prefix + "minimum-calls", Integer.class, 10))
+                .failureRateThreshold(env.getProperty(prefix + "failure-rate-threshold", Float.class, 50f))
+                .slowCallDurationThreshold(env.getProperty(prefix + "slow-call-threshold", Duration.class, Duration.ofSeconds(5)))
+                .slowCallRateThreshold(env.getProperty(prefix + "slow-call-rate-threshold", Float.class, 80f))
+                .waitDurationInOpenState(env.getProperty(prefix + "open-duration", Duration.class, Duration.ofSeconds(30)))
+                .permittedNumberOfCallsInHalfOpenState(env.getProperty(prefix + "half-open-calls", Integer.class, 3))
+                .recordException(isFailure)
+                .build();
+
+        return new RemoteCallGuard(
+                bulkheadRegistry.bulkhead(name, bulkhead),
+                circuitBreakerRegistry.circuitBreaker(name, circuitBreaker));
+    }
+}
@@ -1,5 +1,6 @@
 package edu.uic.marketplace.config;
 
+import com.amazonaws.ClientConfiguration;
 import com.amazonaws.auth.AWSStaticCredentialsProvider;
 import com.amazonaws.auth.BasicAWSCredentials;
 import com.amazonaws.services.s3.AmazonS3;
@@ -8,6 +9,8 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
 @Configuration
 public class S3Config {
 
@@ -20,6 +23,16 @@ public class S3Config {
     @Value("${AWS_REGION:us-east-2}")
     private String region;
 
+    // explicit instead of the SDK defaults (50s socket timeout), so a slow S3 can't hold request threads for long
+    @Value("${app.resilience.s3.connect-timeout:2s}")
+    private Duration connectTimeout;
+
+    @Value("${app.resilience.s3.read-timeout:10s}")
+    private Duration readTimeout;
+
+    @Value("${app.resilience.s3.max-connections:50}")
+    private int maxConnections;
+
     @Bean
     public AmazonS3 amazonS3() {
 
@@ -30,9 +43,15 @@ public class S3Config {
         // 2. ~/.aws/credentials
         // 3. EC2/ECS IAM Role
         // Search in order
+        ClientConfiguration client = new ClientConfiguration()
+                .withConnectionTimeout((int) connectTimeout.toMillis())
+                .withSocketTimeout((int) readTimeout.toMillis())
+                .withMaxConnections(maxConnections);
+
         return AmazonS3ClientBuilder.standard()
                 .withRegion(region)
                 .withCredentials(new AWSStaticCredentialsProvider(creds))
+                .withClientConfiguration(client)
                 .build();
     }
 }
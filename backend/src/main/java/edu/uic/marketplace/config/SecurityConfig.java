@@ -2,6 +2,8 @@ package edu.uic.marketplace.config;
 
 import edu.uic.marketplace.security.JwtAuthenticationFilter;
 import edu.uic.marketplace.security.JwtTokenProvider;
+import edu.uic.marketplace.security.TokenVersionCache;
+import edu.uic.marketplace.service.auth.RevokedSessionRegistry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -47,8 +49,10 @@ public class SecurityConfig {
 
     @Bean
     public JwtAuthenticationFilter jwtAuthenticationFilter(JwtTokenProvider jwtTokenProvider,
-                                                           UserDetailsService userDetailsService) {
-        return new JwtAuthenticationFilter(jwtTokenProvider, userDetailsService);
+                                                           UserDetailsService userDetailsService,
+                                                           TokenVersionCache tokenVersionCache,
+                                                           RevokedSessionRegistry revokedSessionRegistry) {
+        return new JwtAuthenticationFilter(jwtTokenProvider, userDetailsService, tokenVersionCache, revokedSessionRegistry);
     }
 
     @Bean
@@ -100,11 +104,14 @@ public class SecurityConfig {
                         .requestMatchers(
                                 "/api/auth/signup",
                                 "/api/auth/login",
+                                "/api/auth/refresh",
+                                "/api/auth/logout",
                                 "/api/auth/verify-email",
                                 "/swagger-ui.html",
                                 "/swagger-ui",
                                 "/v3/api-docs",
-                                "/health"
+                                "/health",
+                                "/api/uploads/local/**" // local storage stand-in, PUTs are signed
                         ).permitAll()
                         .anyRequest().authenticated()
                 )
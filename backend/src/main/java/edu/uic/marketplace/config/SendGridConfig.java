@@ -1,15 +1,39 @@
 package edu.uic.marketplace.config;
 
+import com.sendgrid.Client;
 import com.sendgrid.SendGrid;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.HttpClients;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
 @Configuration
+@ConditionalOnProperty(name = "app.mail.transport", havingValue = "sendgrid", matchIfMissing = true)
 public class SendGridConfig {
 
+    /**
+     * The default client has no timeouts, so a hung SendGrid would hold request threads indefinitely
+     */
     @Bean
-    public SendGrid sendGrid(@Value("${sendgrid.api-key}") String apiKey) {
-        return new SendGrid(apiKey);
+    public SendGrid sendGrid(@Value("${sendgrid.api-key}") String apiKey,
+                             @Value("${app.resilience.mail.connect-timeout:2s}") Duration connectTimeout,
+                             @Value("${app.resilience.mail.read-timeout:5s}") Duration readTimeout,
+                             @Value("${app.resilience.mail.max-connections:16}") int maxConnections) {
+
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout((int) connectTimeout.toMillis())
+                .setConnectionRequestTimeout((int) connectTimeout.toMillis())
+                .setSocketTimeout((int) readTimeout.toMillis())
+                .build();
+
+        return new SendGrid(apiKey, new Client(HttpClients.custom()
+                .setDefaultRequestConfig(requestConfig)
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnections)
+                .build()));
     }
 }
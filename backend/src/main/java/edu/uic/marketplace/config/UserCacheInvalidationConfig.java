@@ -0,0 +1,39 @@
+package edu.uic.marketplace.config;
+
+import edu.uic.marketplace.service.user.UserSnapshotCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Multi-instance invalidation of UserSnapshotCache: every instance subscribes to the channel
+ * the cache publishes user ids to, and evicts them locally.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "app.users.cache.invalidation", havingValue = "redis")
+public class UserCacheInvalidationConfig {
+
+    @Bean
+    public RedisMessageListenerContainer userCacheInvalidationListener(RedisConnectionFactory connectionFactory,
+                                                                       UserSnapshotCache userSnapshotCache) {
+
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener((message, pattern) -> {
+            String body = new String(message.getBody(), StandardCharsets.UTF_8);
+            try {
+                userSnapshotCache.evict(Long.valueOf(body));
+            } catch (NumberFormatException e) {
+                log.warn("Ignoring malformed user cache invalidation: {}", body);
+            }
+        }, new ChannelTopic(UserSnapshotCache.INVALIDATION_CHANNEL));
+        return container;
+    }
+}
@@ -2,11 +2,14 @@ package edu.uic.marketplace.controller.auth.api;
 
 import edu.uic.marketplace.controller.auth.docs.AuthApiDocs;
 import edu.uic.marketplace.dto.request.auth.LoginRequest;
+import edu.uic.marketplace.dto.request.auth.RefreshTokenRequest;
 import edu.uic.marketplace.dto.request.auth.SignupRequest;
 import edu.uic.marketplace.dto.response.auth.LoginResponse;
+import edu.uic.marketplace.dto.response.auth.TokenResponse;
 import edu.uic.marketplace.dto.response.common.CommonResponse;
 import edu.uic.marketplace.service.auth.AuthService;
 import edu.uic.marketplace.validator.auth.AuthValidator;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -39,9 +42,18 @@ public class AuthController implements AuthApiDocs {
     }
 
     @Override
-    public ResponseEntity<CommonResponse<Void>> logout(@RequestBody String refreshToken) {
+    @PostMapping("/refresh")
+    public ResponseEntity<CommonResponse<TokenResponse>> refresh(@Valid @RequestBody RefreshTokenRequest req) {
 
-        // TODO: implement to expire session
+        TokenResponse res = authService.refreshToken(req.getRefreshToken());
+        return ResponseEntity.ok(CommonResponse.success(res));
+    }
+
+    @Override
+    @PostMapping("/logout")
+    public ResponseEntity<CommonResponse<Void>> logout(@Valid @RequestBody RefreshTokenRequest req) {
+
+        authService.logout(req.getRefreshToken());
         return ResponseEntity.ok(CommonResponse.success());
     }
 }
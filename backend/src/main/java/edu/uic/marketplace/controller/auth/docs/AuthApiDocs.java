@@ -1,8 +1,10 @@
 package edu.uic.marketplace.controller.auth.docs;
 
 import edu.uic.marketplace.dto.request.auth.LoginRequest;
+import edu.uic.marketplace.dto.request.auth.RefreshTokenRequest;
 import edu.uic.marketplace.dto.request.auth.SignupRequest;
 import edu.uic.marketplace.dto.response.auth.LoginResponse;
+import edu.uic.marketplace.dto.response.auth.TokenResponse;
 import edu.uic.marketplace.dto.response.common.CommonResponse;
 import io.swagger.v3.oas.annotations.parameters.RequestBody;
 import org.springframework.http.ResponseEntity;
@@ -12,5 +14,6 @@ public interface AuthApiDocs {
     ResponseEntity<CommonResponse<Void>> signUp(@RequestBody SignupRequest req);
     ResponseEntity<CommonResponse<LoginResponse>> logIn(@RequestBody LoginRequest req);
 
-    ResponseEntity<CommonResponse<Void>> logout(@RequestBody String refreshToken);
+    ResponseEntity<CommonResponse<TokenResponse>> refresh(@RequestBody RefreshTokenRequest req);
+    ResponseEntity<CommonResponse<Void>> logout(@RequestBody RefreshTokenRequest req);
 }
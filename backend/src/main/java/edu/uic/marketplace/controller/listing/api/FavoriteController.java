@@ -1,11 +1,14 @@
 package edu.uic.marketplace.controller.listing.api;
 
 import edu.uic.marketplace.controller.listing.docs.FavoriteApiDocs;
+import edu.uic.marketplace.dto.request.listing.SyncFavoritesRequest;
 import edu.uic.marketplace.dto.response.common.CommonResponse;
 import edu.uic.marketplace.dto.response.common.PageResponse;
 import edu.uic.marketplace.dto.response.listing.ListingSummaryResponse;
+import edu.uic.marketplace.dto.response.listing.SyncFavoritesResponse;
 import edu.uic.marketplace.service.listing.FavoriteService;
 import edu.uic.marketplace.validator.auth.AuthValidator;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -31,6 +34,17 @@ public class FavoriteController implements FavoriteApiDocs {
         return ResponseEntity.ok(CommonResponse.success());
     }
 
+    @Override
+    @PutMapping
+    public ResponseEntity<CommonResponse<SyncFavoritesResponse>> sync(
+            @Valid @RequestBody SyncFavoritesRequest request) {
+
+        String username = authValidator.extractUsername();
+        SyncFavoritesResponse res = favoriteService.syncFavorites(username, request);
+
+        return ResponseEntity.ok(CommonResponse.success(res));
+    }
+
     @Override
     @GetMapping("/me")
     public ResponseEntity<CommonResponse<PageResponse<ListingSummaryResponse>>> getMyFavorites(
@@ -5,8 +5,11 @@ import edu.uic.marketplace.dto.response.common.CommonResponse;
 import edu.uic.marketplace.dto.response.listing.CategoryResponse;
 import edu.uic.marketplace.service.listing.CategoryService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -19,10 +22,19 @@ public class ListingCategoryController implements ListingCategoryApiDocs {
 
     @Override
     @GetMapping
-    public ResponseEntity<CommonResponse<List<CategoryResponse>>> getAllCategories() {
+    public ResponseEntity<byte[]> getAllCategories(WebRequest webRequest) {
 
-        List<CategoryResponse> res = categoryService.getAllCategories();
-        return ResponseEntity.ok(CommonResponse.success(res));
+        // pre-rendered tree; clients revalidate with If-None-Match and get a 304 while unchanged
+        CategoryService.RenderedTree tree = categoryService.getRenderedTree();
+        if (webRequest.checkNotModified(tree.etag())) {
+            return null;
+        }
+
+        return ResponseEntity.ok()
+                .eTag(tree.etag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(tree.json());
     }
 
     @Override
@@ -8,6 +8,7 @@ import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -19,6 +20,7 @@ import edu.uic.marketplace.controller.listing.docs.ListingApiDocs;
 import edu.uic.marketplace.dto.request.listing.CreateListingRequest;
 import edu.uic.marketplace.dto.request.listing.NearbyListingRequest;
 import edu.uic.marketplace.dto.request.listing.SearchListingRequest;
+import edu.uic.marketplace.dto.request.listing.UpdateListingImagesRequest;
 import edu.uic.marketplace.dto.request.listing.UpdateListingRequest;
 import edu.uic.marketplace.dto.response.common.CommonResponse;
 import edu.uic.marketplace.dto.response.common.PageResponse;
@@ -67,6 +69,19 @@ public class ListingController implements ListingApiDocs {
         return ResponseEntity.ok(CommonResponse.success(res));
     }
 
+    @Override
+    @PutMapping(value = "/images", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<CommonResponse<ListingResponse>> updateImages(
+            @RequestParam("publicId") String publicId,
+            @Valid @RequestPart("request") UpdateListingImagesRequest request,
+            @RequestPart(value = "images", required = false) List<MultipartFile> images) {
+
+        String username = authValidator.extractUsername();
+        ListingResponse res = listingService.updateListingImages(publicId, username, request, images);
+
+        return ResponseEntity.ok(CommonResponse.success(res));
+    }
+
     /* -------------------- State changes -------------------- */
 
     @Override
@@ -1,12 +1,15 @@
 package edu.uic.marketplace.controller.listing.docs;
 
+import edu.uic.marketplace.dto.request.listing.SyncFavoritesRequest;
 import edu.uic.marketplace.dto.response.common.CommonResponse;
 import edu.uic.marketplace.dto.response.common.PageResponse;
 import edu.uic.marketplace.dto.response.listing.ListingSummaryResponse;
+import edu.uic.marketplace.dto.response.listing.SyncFavoritesResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.parameters.RequestBody;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.http.ResponseEntity;
@@ -39,6 +42,22 @@ public interface FavoriteApiDocs {
             @PathVariable("publicId") String listingPublicId
     );
 
+    @Operation(
+            summary = "Sync favorites (batch)",
+            description = "Idempotently set or unset favorites for up to 100 listings in one transaction. Re-sending the same batch has no further effect; the last item wins per listing. Unknown or deleted listings are skipped. Sellers receive one notification per batch. Requires authentication.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Synced successfully",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = SyncFavoritesResponse.class))),
+                    @ApiResponse(responseCode = "400", description = "Bad request"),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized"),
+                    @ApiResponse(responseCode = "500", description = "Internal server error")
+            }
+    )
+    ResponseEntity<CommonResponse<SyncFavoritesResponse>> sync(
+            @RequestBody(description = "Favorite states to apply", required = true) SyncFavoritesRequest request
+    );
+
     @Operation(
             summary = "Get my favorite listings (paged)",
             description = "Returns a paginated list of the current user's favorited listings. Only ACTIVE & non-deleted listings are included.",
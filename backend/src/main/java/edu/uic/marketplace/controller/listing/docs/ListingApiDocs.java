@@ -3,6 +3,7 @@ package edu.uic.marketplace.controller.listing.docs;
 import edu.uic.marketplace.dto.request.listing.CreateListingRequest;
 import edu.uic.marketplace.dto.request.listing.NearbyListingRequest;
 import edu.uic.marketplace.dto.request.listing.SearchListingRequest;
+import edu.uic.marketplace.dto.request.listing.UpdateListingImagesRequest;
 import edu.uic.marketplace.dto.request.listing.UpdateListingRequest;
 import edu.uic.marketplace.dto.response.common.CommonResponse;
 import edu.uic.marketplace.dto.response.common.PageResponse;
@@ -72,6 +73,26 @@ public interface ListingApiDocs {
             @RequestPart(value = "images", required = false) List<MultipartFile> images
     );
 
+    @Operation(
+            summary = "Update listing images",
+            description = "Applies an image manifest: the final list of images in display order. Existing images are referenced by publicId and kept/reordered, new files are referenced by their index in the images part, and existing images not listed are removed. Only new files are uploaded; removed files are deleted after the change is saved.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Images updated",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = ListingResponse.class))),
+                    @ApiResponse(responseCode = "400", description = "Invalid manifest"),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized"),
+                    @ApiResponse(responseCode = "403", description = "Forbidden"),
+                    @ApiResponse(responseCode = "404", description = "Listing not found")
+            }
+    )
+    ResponseEntity<CommonResponse<ListingResponse>> updateImages(
+            @Parameter(description = "Listing public ID", required = true) String publicId,
+            @Parameter(description = "Image manifest", required = true) UpdateListingImagesRequest request,
+
+            @RequestPart(value = "images", required = false) List<MultipartFile> images
+    );
+
     @Operation(
             summary = "Delete (soft) a listing",
             description = "Soft-deletes a listing. Only the seller or an authorized admin can delete.",
@@ -269,7 +290,7 @@ public interface ListingApiDocs {
 
     @Operation(
             summary = "Get seller's total listing count",
-            description = "Returns the total number of listings for the given seller.",
+            description = "Returns the total number of (non-deleted) listings for the given seller.",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Count returned",
                             content = @Content(mediaType = "application/json",
@@ -10,6 +10,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -21,15 +22,19 @@ public interface ListingCategoryApiDocs {
 
     @Operation(
             summary = "Get all categories (tree structure)",
-            description = "Returns all top-level categories with their subcategories recursively.",
+            description = "Returns all top-level categories with their subcategories recursively. " +
+                    "The response carries an ETag; send it back in If-None-Match to get a 304 while the tree is unchanged. " +
+                    "Listing counts are approximate: they may lag changes by up to 10 minutes and can differ between server instances " +
+                    "(and with them the ETag).",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Successfully retrieved all categories",
                             content = @Content(mediaType = "application/json",
                                     schema = @Schema(implementation = CategoryResponse.class))),
+                    @ApiResponse(responseCode = "304", description = "Category tree unchanged since the given ETag"),
                     @ApiResponse(responseCode = "500", description = "Internal server error")
             }
     )
-    ResponseEntity<CommonResponse<List<CategoryResponse>>> getAllCategories();
+    ResponseEntity<byte[]> getAllCategories(@Parameter(hidden = true) WebRequest webRequest);
 
 
     @Operation(
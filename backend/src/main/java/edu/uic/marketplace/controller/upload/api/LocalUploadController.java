@@ -0,0 +1,91 @@
+package edu.uic.marketplace.controller.upload.api;
+
+import edu.uic.marketplace.service.common.LocalObjectStorage;
+import edu.uic.marketplace.service.upload.LocalDirectUploadStorage;
+import io.swagger.v3.oas.annotations.Hidden;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Receives presigned PUTs and serves objects for the local storage backend.
+ * Only active with app.storage.type=local; in production clients talk to S3 directly.
+ */
+@Hidden
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/uploads/local")
+@ConditionalOnProperty(name = "app.storage.type", havingValue = "local")
+public class LocalUploadController {
+
+    // Tomcat sends files itself (sendfile) when these request attributes are set
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final LocalDirectUploadStorage uploads;
+    private final LocalObjectStorage objects;
+
+    @PutMapping("/{*key}")
+    public ResponseEntity<Void> put(@PathVariable String key,
+                                    @RequestParam String contentType,
+                                    @RequestParam long size,
+                                    @RequestParam long expires,
+                                    @RequestParam String signature,
+                                    HttpServletRequest request) throws IOException {
+
+        uploads.acceptUpload(key.substring(1), contentType, size, expires, signature,
+                request.getContentType(), request.getInputStream());
+
+        return ResponseEntity.ok().build();
+    }
+
+    /**
+     * Whole objects go out through sendfile (no copy through the JVM) when the connector
+     * supports it; Range requests get 206 partial content from the Resource.
+     */
+    @GetMapping("/{*key}")
+    public ResponseEntity<?> get(@PathVariable String key,
+                                 @RequestHeader HttpHeaders headers,
+                                 HttpServletRequest request) throws IOException {
+
+        String objectKey = key.substring(1);
+        if (!objects.exists(objectKey)) {
+            return ResponseEntity.notFound().build();
+        }
+
+        Path file = objects.path(objectKey);
+        String contentType = objects.contentType(objectKey);
+        MediaType mediaType = contentType != null ? MediaType.parseMediaType(contentType) : MediaType.APPLICATION_OCTET_STREAM;
+
+        if (headers.getRange().isEmpty()
+                && HttpMethod.GET.matches(request.getMethod())
+                && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            long length = Files.size(file);
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, length);
+
+            return ResponseEntity.ok()
+                    .contentType(mediaType)
+                    .contentLength(length)
+                    .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                    .build();
+        }
+
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .body(new FileSystemResource(file));
+    }
+}
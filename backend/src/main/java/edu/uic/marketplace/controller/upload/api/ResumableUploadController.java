@@ -0,0 +1,71 @@
+package edu.uic.marketplace.controller.upload.api;
+
+import edu.uic.marketplace.controller.upload.docs.ResumableUploadApiDocs;
+import edu.uic.marketplace.dto.request.upload.CreateUploadSessionRequest;
+import edu.uic.marketplace.dto.response.common.CommonResponse;
+import edu.uic.marketplace.dto.response.upload.UploadSessionResponse;
+import edu.uic.marketplace.service.upload.ResumableUploadService;
+import edu.uic.marketplace.validator.auth.AuthValidator;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/uploads/resumable")
+@RequiredArgsConstructor
+public class ResumableUploadController implements ResumableUploadApiDocs {
+
+    private final ResumableUploadService resumableUploadService;
+    private final AuthValidator authValidator;
+
+    @Override
+    @PostMapping
+    public ResponseEntity<CommonResponse<UploadSessionResponse>> create(
+            @Valid @RequestBody CreateUploadSessionRequest request) {
+
+        String username = authValidator.extractUsername();
+        UploadSessionResponse res = resumableUploadService.create(username, request);
+
+        return ResponseEntity.ok(CommonResponse.success(res));
+    }
+
+    @Override
+    @GetMapping("/{sessionId}")
+    public ResponseEntity<CommonResponse<UploadSessionResponse>> status(
+            @PathVariable String sessionId) {
+
+        String username = authValidator.extractUsername();
+        UploadSessionResponse res = resumableUploadService.getStatus(username, sessionId);
+
+        return ResponseEntity.ok(CommonResponse.success(res));
+    }
+
+    @Override
+    @PutMapping("/{sessionId}/chunks")
+    public ResponseEntity<CommonResponse<UploadSessionResponse>> appendChunk(
+            @PathVariable String sessionId,
+            @RequestParam long offset,
+            HttpServletRequest request) throws IOException {
+
+        String username = authValidator.extractUsername();
+        UploadSessionResponse res = resumableUploadService.appendChunk(
+                username, sessionId, offset, request.getContentLengthLong(), request.getInputStream());
+
+        return ResponseEntity.ok(CommonResponse.success(res));
+    }
+
+    @Override
+    @PostMapping("/{sessionId}/finalize")
+    public ResponseEntity<CommonResponse<UploadSessionResponse>> finalizeUpload(
+            @PathVariable String sessionId) {
+
+        String username = authValidator.extractUsername();
+        UploadSessionResponse res = resumableUploadService.finalizeUpload(username, sessionId);
+
+        return ResponseEntity.ok(CommonResponse.success(res));
+    }
+}
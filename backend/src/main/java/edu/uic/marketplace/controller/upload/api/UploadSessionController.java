@@ -0,0 +1,43 @@
+package edu.uic.marketplace.controller.upload.api;
+
+import edu.uic.marketplace.controller.upload.docs.UploadSessionApiDocs;
+import edu.uic.marketplace.dto.request.upload.CreateUploadSessionRequest;
+import edu.uic.marketplace.dto.response.common.CommonResponse;
+import edu.uic.marketplace.dto.response.upload.UploadSessionResponse;
+import edu.uic.marketplace.service.upload.UploadSessionService;
+import edu.uic.marketplace.validator.auth.AuthValidator;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/uploads/sessions")
+@RequiredArgsConstructor
+public class UploadSessionController implements UploadSessionApiDocs {
+
+    private final UploadSessionService uploadSessionService;
+    private final AuthValidator authValidator;
+
+    @Override
+    @PostMapping
+    public ResponseEntity<CommonResponse<UploadSessionResponse>> create(
+            @Valid @RequestBody CreateUploadSessionRequest request) {
+
+        String username = authValidator.extractUsername();
+        UploadSessionResponse res = uploadSessionService.createSession(username, request);
+
+        return ResponseEntity.ok(CommonResponse.success(res));
+    }
+
+    @Override
+    @PostMapping("/{sessionId}/confirm")
+    public ResponseEntity<CommonResponse<UploadSessionResponse>> confirm(
+            @PathVariable String sessionId) {
+
+        String username = authValidator.extractUsername();
+        UploadSessionResponse res = uploadSessionService.confirmSession(username, sessionId);
+
+        return ResponseEntity.ok(CommonResponse.success(res));
+    }
+}
@@ -0,0 +1,93 @@
+package edu.uic.marketplace.controller.upload.docs;
+
+import edu.uic.marketplace.dto.request.upload.CreateUploadSessionRequest;
+import edu.uic.marketplace.dto.response.common.CommonResponse;
+import edu.uic.marketplace.dto.response.upload.UploadSessionResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.parameters.RequestBody;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.ResponseEntity;
+
+import java.io.IOException;
+
+@Tag(
+        name = "Resumable Uploads",
+        description = "Chunked image uploads that can resume after a dropped connection"
+)
+public interface ResumableUploadApiDocs {
+
+    @Operation(
+            summary = "Start a resumable upload",
+            description = "Creates a session for one image (JPEG, PNG, WebP or GIF) of the declared content type and exact size. The response carries the maximum chunkSize. Requires authentication.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Session created",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = UploadSessionResponse.class))),
+                    @ApiResponse(responseCode = "400", description = "Unsupported type or file too large"),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized"),
+                    @ApiResponse(responseCode = "500", description = "Internal server error")
+            }
+    )
+    ResponseEntity<CommonResponse<UploadSessionResponse>> create(
+            @RequestBody(description = "Purpose, content type and size of the image", required = true)
+            CreateUploadSessionRequest request
+    );
+
+    @Operation(
+            summary = "Get a resumable upload",
+            description = "Returns the session status and receivedBytes, the offset to resume from after an interruption.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Session retrieved",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = UploadSessionResponse.class))),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized"),
+                    @ApiResponse(responseCode = "404", description = "Upload session not found"),
+                    @ApiResponse(responseCode = "500", description = "Internal server error")
+            }
+    )
+    ResponseEntity<CommonResponse<UploadSessionResponse>> status(
+            @Parameter(description = "Upload session ID", required = true) String sessionId
+    );
+
+    @Operation(
+            summary = "Upload a chunk",
+            description = "Raw request body with a Content-Length of at most chunkSize bytes. The offset must equal the session's receivedBytes; otherwise 409 is returned and the client should fetch the session and resume from there.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Chunk stored",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = UploadSessionResponse.class))),
+                    @ApiResponse(responseCode = "400", description = "Invalid chunk size, session expired or not accepting chunks"),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized"),
+                    @ApiResponse(responseCode = "404", description = "Upload session not found"),
+                    @ApiResponse(responseCode = "409", description = "Offset does not match the bytes received so far"),
+                    @ApiResponse(responseCode = "500", description = "Internal server error")
+            }
+    )
+    ResponseEntity<CommonResponse<UploadSessionResponse>> appendChunk(
+            @Parameter(description = "Upload session ID", required = true) String sessionId,
+            @Parameter(description = "Byte offset of the chunk", required = true) long offset,
+            @Parameter(hidden = true) HttpServletRequest request
+    ) throws IOException;
+
+    @Operation(
+            summary = "Finalize a resumable upload",
+            description = "Once every byte was received, the file is stored in the background (status STORING, then CONFIRMED). Idempotent. Confirmed uploads are attached to listings via uploadIds.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Upload finalized",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = UploadSessionResponse.class))),
+                    @ApiResponse(responseCode = "400", description = "Upload incomplete, expired or failed"),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized"),
+                    @ApiResponse(responseCode = "404", description = "Upload session not found"),
+                    @ApiResponse(responseCode = "500", description = "Internal server error")
+            }
+    )
+    ResponseEntity<CommonResponse<UploadSessionResponse>> finalizeUpload(
+            @Parameter(description = "Upload session ID", required = true) String sessionId
+    );
+}
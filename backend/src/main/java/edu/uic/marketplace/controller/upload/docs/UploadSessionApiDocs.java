@@ -0,0 +1,54 @@
+package edu.uic.marketplace.controller.upload.docs;
+
+import edu.uic.marketplace.dto.request.upload.CreateUploadSessionRequest;
+import edu.uic.marketplace.dto.response.common.CommonResponse;
+import edu.uic.marketplace.dto.response.upload.UploadSessionResponse;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.parameters.RequestBody;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+
+@Tag(
+        name = "Uploads",
+        description = "Direct-to-storage image uploads via presigned URLs"
+)
+public interface UploadSessionApiDocs {
+
+    @Operation(
+            summary = "Create an upload session",
+            description = "Issues a presigned PUT URL for one image (JPEG, PNG, WebP or GIF) of the declared content type and exact size. The client uploads the bytes directly to storage with the returned headers, then confirms the session. Requires authentication.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Session created",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = UploadSessionResponse.class))),
+                    @ApiResponse(responseCode = "400", description = "Unsupported type or file too large"),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized"),
+                    @ApiResponse(responseCode = "500", description = "Internal server error")
+            }
+    )
+    ResponseEntity<CommonResponse<UploadSessionResponse>> create(
+            @RequestBody(description = "Purpose, content type and size of the image", required = true)
+            CreateUploadSessionRequest request
+    );
+
+    @Operation(
+            summary = "Confirm an upload session",
+            description = "Checks that the object was uploaded with the declared type and size. Idempotent. The returned objectKey can then be referenced from listings (imageKeys / uploadKey) and profile avatar/banner endpoints.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Upload confirmed",
+                            content = @Content(mediaType = "application/json",
+                                    schema = @Schema(implementation = UploadSessionResponse.class))),
+                    @ApiResponse(responseCode = "400", description = "Not uploaded yet or does not match the session"),
+                    @ApiResponse(responseCode = "401", description = "Unauthorized"),
+                    @ApiResponse(responseCode = "404", description = "Upload session not found"),
+                    @ApiResponse(responseCode = "500", description = "Internal server error")
+            }
+    )
+    ResponseEntity<CommonResponse<UploadSessionResponse>> confirm(
+            @Parameter(description = "Upload session ID", required = true) String sessionId
+    );
+}
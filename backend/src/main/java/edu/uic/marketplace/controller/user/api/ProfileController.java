@@ -1,11 +1,13 @@
 package edu.uic.marketplace.controller.user.api;
 
 import edu.uic.marketplace.controller.user.docs.ProfileApiDocs;
+import edu.uic.marketplace.dto.request.upload.UseUploadRequest;
 import edu.uic.marketplace.dto.request.user.UpdateProfileRequest;
 import edu.uic.marketplace.dto.response.common.CommonResponse;
 import edu.uic.marketplace.dto.response.user.ProfileResponse;
 import edu.uic.marketplace.service.user.ProfileService;
 import edu.uic.marketplace.validator.auth.AuthValidator;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -76,6 +78,24 @@ public class ProfileController implements ProfileApiDocs {
         return ResponseEntity.ok(CommonResponse.success(res));
     }
 
+    @Override
+    @PutMapping("/me/avatar/upload")
+    public ResponseEntity<CommonResponse<ProfileResponse>> setAvatarFromUpload(
+            @Valid @RequestBody UseUploadRequest request) {
+        String username = authValidator.extractUsername();
+        ProfileResponse res = profileService.setAvatarFromUpload(username, request.getUploadKey());
+        return ResponseEntity.ok(CommonResponse.success(res));
+    }
+
+    @Override
+    @PutMapping("/me/banner/upload")
+    public ResponseEntity<CommonResponse<ProfileResponse>> setBannerFromUpload(
+            @Valid @RequestBody UseUploadRequest request) {
+        String username = authValidator.extractUsername();
+        ProfileResponse res = profileService.setBannerFromUpload(username, request.getUploadKey());
+        return ResponseEntity.ok(CommonResponse.success(res));
+    }
+
     /**
      * Upload banner image file
      */
@@ -1,5 +1,6 @@
 package edu.uic.marketplace.controller.user.docs;
 
+import edu.uic.marketplace.dto.request.upload.UseUploadRequest;
 import edu.uic.marketplace.dto.request.user.UpdateProfileRequest;
 import edu.uic.marketplace.dto.response.common.CommonResponse;
 import edu.uic.marketplace.dto.response.user.ProfileResponse;
@@ -140,4 +141,68 @@ public interface ProfileApiDocs {
             )
             String imageUrl
     );
+
+    // ========= Avatar / banner from direct upload =========
+
+    @Operation(
+            summary = "Set avatar from a direct upload",
+            description = """
+                    Use a confirmed AVATAR upload session (see /api/uploads/sessions) as the avatar.
+                    The image bytes never pass through the app; the previous avatar is deleted after saving.
+                    """
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Avatar updated successfully",
+                    content = @Content(schema = @Schema(implementation = ProfileResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Upload not confirmed, already used or of another purpose"
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Upload not found"
+            )
+    })
+    ResponseEntity<CommonResponse<ProfileResponse>> setAvatarFromUpload(
+            @RequestBody(
+                    description = "Object key of the confirmed upload",
+                    required = true,
+                    content = @Content(schema = @Schema(implementation = UseUploadRequest.class))
+            )
+            UseUploadRequest request
+    );
+
+    @Operation(
+            summary = "Set banner from a direct upload",
+            description = """
+                    Use a confirmed BANNER upload session (see /api/uploads/sessions) as the banner.
+                    The image bytes never pass through the app; the previous banner is deleted after saving.
+                    """
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Banner updated successfully",
+                    content = @Content(schema = @Schema(implementation = ProfileResponse.class))
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "Upload not confirmed, already used or of another purpose"
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Upload not found"
+            )
+    })
+    ResponseEntity<CommonResponse<ProfileResponse>> setBannerFromUpload(
+            @RequestBody(
+                    description = "Object key of the confirmed upload",
+                    required = true,
+                    content = @Content(schema = @Schema(implementation = UseUploadRequest.class))
+            )
+            UseUploadRequest request
+    );
 }
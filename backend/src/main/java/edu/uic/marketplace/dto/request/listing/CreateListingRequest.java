@@ -5,6 +5,7 @@ import jakarta.validation.constraints.*;
 import lombok.*;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 @Getter
 @Setter
@@ -44,4 +45,16 @@ public class CreateListingRequest {
 
     @Builder.Default
     private Boolean isNegotiable = false;
+
+    /**
+     * Keys of confirmed direct uploads (see /api/uploads/sessions), shown before any multipart images
+     */
+    @Size(max = 10, message = "You can upload up to 10 images.")
+    private List<String> imageKeys;
+
+    /**
+     * IDs of finalized resumable uploads (see /api/uploads/resumable), shown after imageKeys
+     */
+    @Size(max = 10, message = "You can upload up to 10 images.")
+    private List<String> uploadIds;
 }
\ No newline at end of file
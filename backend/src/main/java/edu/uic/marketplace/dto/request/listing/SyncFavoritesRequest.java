@@ -0,0 +1,36 @@
+package edu.uic.marketplace.dto.request.listing;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SyncFavoritesRequest {
+
+    @NotEmpty(message = "Items are required")
+    @Size(max = 100, message = "Up to 100 items can be synced at once")
+    private List<@Valid Item> items;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Item {
+
+        @NotBlank(message = "Listing public ID is required")
+        private String listingPublicId;
+
+        @NotNull(message = "Favorited flag is required")
+        private Boolean favorited;
+    }
+}
@@ -0,0 +1,50 @@
+package edu.uic.marketplace.dto.request.listing;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Image manifest: the final list of images in display order.
+ * Existing images not listed are removed; new files are referenced by their index in the "images" part
+ * or by the key of a confirmed direct upload.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UpdateListingImagesRequest {
+
+    @NotNull(message = "Images manifest is required")
+    @Size(max = 10, message = "You can upload up to 10 images.")
+    private List<@Valid ImageSlot> images;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class ImageSlot {
+
+        /**
+         * Public ID of an existing image to keep
+         */
+        private String imagePublicId;
+
+        /**
+         * Index of a newly uploaded file
+         */
+        @PositiveOrZero(message = "New file index must be 0 or greater")
+        private Integer newFileIndex;
+
+        /**
+         * Key of a confirmed direct upload (see /api/uploads/sessions)
+         */
+        private String uploadKey;
+    }
+}
@@ -0,0 +1,25 @@
+package edu.uic.marketplace.dto.request.upload;
+
+import edu.uic.marketplace.model.upload.UploadPurpose;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CreateUploadSessionRequest {
+
+    @NotNull(message = "Purpose is required")
+    private UploadPurpose purpose;
+
+    @NotBlank(message = "Content type is required")
+    private String contentType;
+
+    @NotNull(message = "Content length is required")
+    @Positive(message = "Content length must be greater than 0")
+    private Long contentLength;
+}
@@ -0,0 +1,15 @@
+package edu.uic.marketplace.dto.request.upload;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UseUploadRequest {
+
+    @NotBlank(message = "Upload key is required")
+    private String uploadKey;
+}
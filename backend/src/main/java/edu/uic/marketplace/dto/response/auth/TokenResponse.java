@@ -10,6 +10,7 @@ import lombok.*;
 public class TokenResponse {
 
     private String accessToken;
+    private String refreshToken;
     private String tokenType;
     private Integer expiresIn;
 }
\ No newline at end of file
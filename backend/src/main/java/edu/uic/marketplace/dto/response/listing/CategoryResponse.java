@@ -1,10 +1,12 @@
 package edu.uic.marketplace.dto.response.listing;
 
 import edu.uic.marketplace.model.listing.Category;
+import edu.uic.marketplace.service.listing.CategoryTree;
 import lombok.*;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Getter
@@ -18,6 +20,11 @@ public class CategoryResponse {
     private String name;
     private String parentSlug;
 
+    /**
+     * ACTIVE listings in this category and all of its subcategories
+     */
+    private Long listingCount;
+
     @Builder.Default
     private List<CategoryResponse> children = new ArrayList<>();
 
@@ -35,4 +42,20 @@ public class CategoryResponse {
                         .collect(Collectors.toList()))
                 .build();
     }
-}
\ No newline at end of file
+
+    public static CategoryResponse from(CategoryTree.Node node, Map<String, Long> listingCounts) {
+        if (node == null) {
+            return null;
+        }
+
+        return CategoryResponse.builder()
+                .categorySlug(node.slug())
+                .name(node.name())
+                .parentSlug(node.parentSlug())
+                .listingCount(listingCounts.getOrDefault(node.slug(), 0L))
+                .children(node.children().stream()
+                        .map(child -> from(child, listingCounts))
+                        .collect(Collectors.toList()))
+                .build();
+    }
+}
@@ -11,13 +11,23 @@ import lombok.*;
 public class ListingImageResponse {
 
     private Long imageId;
+    private String publicId;
     private String imageUrl;
+    private String thumbnailUrl;
+    private String mediumUrl;
+    private String largeUrl;
+    private String blurHash;
     private Integer displayOrder;
 
     public static ListingImageResponse from(ListingImage image) {
         return ListingImageResponse.builder()
                 .imageId(image.getImageId())
+                .publicId(image.getPublicId())
                 .imageUrl(image.getImageUrl())
+                .thumbnailUrl(image.getThumbnailUrl())
+                .mediumUrl(image.getMediumUrl())
+                .largeUrl(image.getLargeUrl())
+                .blurHash(image.getBlurHash())
                 .displayOrder(image.getDisplayOrder())
                 .build();
     }
@@ -2,6 +2,7 @@ package edu.uic.marketplace.dto.response.listing;
 
 import edu.uic.marketplace.model.listing.ItemCondition;
 import edu.uic.marketplace.model.listing.Listing;
+import edu.uic.marketplace.model.listing.ListingImage;
 import edu.uic.marketplace.model.listing.ListingStatus;
 import lombok.*;
 
@@ -21,6 +22,7 @@ public class ListingSummaryResponse {
     private ItemCondition condition;
     private ListingStatus status;
     private String thumbnailUrl;
+    private String thumbnailBlurHash;
     private Integer viewCount;
     private Integer favoriteCount;
     private Boolean isFavorite;
@@ -31,9 +33,9 @@ public class ListingSummaryResponse {
     }
 
     public static ListingSummaryResponse from(Listing listing, boolean isFavorite) {
-        String thumbnailUrl = listing.getImages().isEmpty()
-                ? null
-                : listing.getImages().get(0).getImageUrl();
+        // prefer the smallest variant; the original until variants are generated
+        ListingImage first = listing.getImages().isEmpty() ? null : listing.getImages().get(0);
+        String thumbnailUrl = first == null ? null : first.getThumbnailOrOriginalUrl();
 
         return ListingSummaryResponse.builder()
                 .publicId(listing.getPublicId())
@@ -42,6 +44,7 @@ public class ListingSummaryResponse {
                 .condition(listing.getCondition())
                 .status(listing.getStatus())
                 .thumbnailUrl(thumbnailUrl)
+                .thumbnailBlurHash(first == null ? null : first.getBlurHash())
                 .viewCount(listing.getViewCount())
                 .favoriteCount(listing.getFavoriteCount())
                 .isFavorite(isFavorite)
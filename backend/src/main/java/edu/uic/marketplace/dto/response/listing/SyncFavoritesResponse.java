@@ -0,0 +1,34 @@
+package edu.uic.marketplace.dto.response.listing;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SyncFavoritesResponse {
+
+    /**
+     * Number of favorites actually added / removed by this batch
+     */
+    private int added;
+    private int removed;
+
+    /**
+     * Final state per listing (unknown or deleted listings are skipped)
+     */
+    private List<Item> items;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Item {
+        private String listingPublicId;
+        private boolean favorited;
+    }
+}
@@ -0,0 +1,55 @@
+package edu.uic.marketplace.dto.response.upload;
+
+import edu.uic.marketplace.model.upload.UploadPurpose;
+import edu.uic.marketplace.model.upload.UploadSession;
+import edu.uic.marketplace.model.upload.UploadSessionStatus;
+import lombok.*;
+
+import java.time.Instant;
+import java.util.Map;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UploadSessionResponse {
+
+    private String sessionId;
+    private UploadPurpose purpose;
+    private UploadSessionStatus status;
+
+    /**
+     * Key to reference from listings/profiles once confirmed
+     */
+    private String objectKey;
+
+    /**
+     * Presigned PUT (only on creation)
+     */
+    private String uploadUrl;
+    private String uploadMethod;
+    private Map<String, String> uploadHeaders;
+    private Instant expiresAt;
+
+    /**
+     * Public URL of the object (after confirmation)
+     */
+    private String fileUrl;
+
+    /**
+     * Resumable sessions only: bytes received so far (next chunk offset) and the maximum chunk size
+     */
+    private Long receivedBytes;
+    private Long chunkSize;
+
+    public static UploadSessionResponse from(UploadSession session) {
+        return UploadSessionResponse.builder()
+                .sessionId(session.getPublicId())
+                .purpose(session.getPurpose())
+                .status(session.getStatus())
+                .objectKey(session.getObjectKey())
+                .expiresAt(session.getExpiresAt())
+                .build();
+    }
+}
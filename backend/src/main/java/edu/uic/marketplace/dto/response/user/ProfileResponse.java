@@ -16,6 +16,7 @@ public class ProfileResponse {
     private String username;
     private String displayName;
     private String avatarUrl;
+    private String avatarBlurHash;
     private String bannerUrl;
     private String bio;
     private String major;
@@ -29,6 +30,7 @@ public class ProfileResponse {
                 .username(profile.getUser() != null ? profile.getUser().getUsername() : null)
                 .displayName(profile.getDisplayName())
                 .avatarUrl(profile.getAvatarUrl())
+                .avatarBlurHash(profile.getAvatarBlurHash())
                 .bannerUrl(profile.getBannerUrl())
                 .bio(profile.getBio())
                 .major(profile.getMajor())
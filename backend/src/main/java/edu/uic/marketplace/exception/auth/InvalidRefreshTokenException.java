@@ -0,0 +1,12 @@
+package edu.uic.marketplace.exception.auth;
+
+import edu.uic.marketplace.exception.CustomException;
+import lombok.Getter;
+
+@Getter
+public class InvalidRefreshTokenException extends CustomException {
+
+    public InvalidRefreshTokenException(String message) {
+        super(message, 401);
+    }
+}
@@ -0,0 +1,19 @@
+package edu.uic.marketplace.exception.common;
+
+import edu.uic.marketplace.exception.CustomException;
+import lombok.Getter;
+
+/**
+ * A remote dependency (S3, SendGrid) is failing or saturated and the call was rejected
+ * without waiting on it; the client may retry later
+ */
+@Getter
+public class DependencyUnavailableException extends CustomException {
+
+    private final String dependency;
+
+    public DependencyUnavailableException(String dependency, String reason) {
+        super(dependency + " is temporarily unavailable (" + reason + ")", 503);
+        this.dependency = dependency;
+    }
+}
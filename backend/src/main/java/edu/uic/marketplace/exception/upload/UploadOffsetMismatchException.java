@@ -0,0 +1,16 @@
+package edu.uic.marketplace.exception.upload;
+
+import edu.uic.marketplace.exception.CustomException;
+import lombok.Getter;
+
+/**
+ * Chunk sent at an offset other than the bytes received so far; the client should
+ * fetch the session and resume from its receivedBytes
+ */
+@Getter
+public class UploadOffsetMismatchException extends CustomException {
+
+    public UploadOffsetMismatchException(String message) {
+        super(message, 409);
+    }
+}
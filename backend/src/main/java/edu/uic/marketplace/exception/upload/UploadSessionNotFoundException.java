@@ -0,0 +1,12 @@
+package edu.uic.marketplace.exception.upload;
+
+import edu.uic.marketplace.exception.CustomException;
+import lombok.Getter;
+
+@Getter
+public class UploadSessionNotFoundException extends CustomException {
+
+    public UploadSessionNotFoundException(String message) {
+        super(message, 404);
+    }
+}
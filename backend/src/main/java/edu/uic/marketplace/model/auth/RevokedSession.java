@@ -0,0 +1,37 @@
+package edu.uic.marketplace.model.auth;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+
+/**
+ * A session (refresh token family) whose access tokens are rejected until they would
+ * have expired anyway
+ */
+@Entity
+@Table(
+        name = "revoked_sessions",
+        indexes = {
+                @Index(name = "idx_revoked_sessions_expires_at", columnList = "expires_at")
+        }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RevokedSession {
+
+    @Id
+    @Column(name = "session_id", length = 36)
+    private String sessionId;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,7 @@
+package edu.uic.marketplace.model.listing;
+
+public enum ImageVariantStatus {
+    PENDING,    // waiting for resize
+    READY,      // thumbnail/medium/large URLs set
+    FAILED      // not decodable, too large or out of attempts - clients fall back to the original
+}
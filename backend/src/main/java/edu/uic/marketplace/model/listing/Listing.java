@@ -93,15 +93,10 @@ public class Listing {
     private Boolean isNegotiable = false;
 
     /**
-     * Statistics
+     * Statistics (view/favorite counters live in listing_stats)
      */
-    @Column(name = "view_count", nullable = false)
-    @Builder.Default
-    private Integer viewCount = 0;
-
-    @Column(name = "favorite_count", nullable = false)
-    @Builder.Default
-    private Integer favoriteCount = 0;
+    @OneToOne(mappedBy = "listing", fetch = FetchType.LAZY, cascade = CascadeType.ALL)
+    private ListingStats stats;
 
     /**
      * Timestamps
@@ -129,6 +124,8 @@ public class Listing {
     public void prePersist() {
         if (this.publicId == null)
             this.publicId = UUID.randomUUID().toString();
+        if (this.stats == null)
+            this.stats = ListingStats.builder().listing(this).build();
     }
 
     /**
@@ -138,18 +135,12 @@ public class Listing {
         this.status = ListingStatus.SOLD;
     }
 
-    public void incrementViewCount() {
-        this.viewCount++;
+    public Integer getViewCount() {
+        return stats != null ? stats.getViewCount() : 0;
     }
 
-    public void incrementFavoriteCount() {
-        this.favoriteCount++;
-    }
-
-    public void decrementFavoriteCount() {
-        if (this.favoriteCount > 0) {
-            this.favoriteCount--;
-        }
+    public Integer getFavoriteCount() {
+        return stats != null ? stats.getFavoriteCount() : 0;
     }
 
     public boolean isActive() {
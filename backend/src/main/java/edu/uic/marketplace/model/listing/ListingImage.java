@@ -5,14 +5,18 @@ import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Entity
 @Table(
         name = "listing_images",
         indexes = {
                 @Index(name = "idx_listing_images_listing_id", columnList = "listing_id"),
-                @Index(name = "idx_listing_images_display_order", columnList = "display_order")
+                @Index(name = "idx_listing_images_display_order", columnList = "display_order"),
+                @Index(name = "idx_listing_images_variant_status", columnList = "variant_status, created_at")
         }
 )
 @Getter
@@ -40,6 +44,33 @@ public class ListingImage {
     @Column(name = "display_order", nullable = false)
     private Integer displayOrder;
 
+    // Resized variants (200 / 600 / 1200 px wide), filled in asynchronously
+    @Column(name = "thumbnail_url", length = 500)
+    private String thumbnailUrl;
+
+    @Column(name = "medium_url", length = 500)
+    private String mediumUrl;
+
+    @Column(name = "large_url", length = 500)
+    private String largeUrl;
+
+    // BlurHash placeholder, computed from the thumbnail together with the variants
+    @Column(name = "blur_hash", length = 64)
+    private String blurHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "variant_status", nullable = false, length = 20)
+    @Builder.Default
+    private ImageVariantStatus variantStatus = ImageVariantStatus.PENDING;
+
+    // Failed generations so far; the sweep skips the image until variantNextAttemptAt
+    @Column(name = "variant_attempts", nullable = false)
+    @Builder.Default
+    private Integer variantAttempts = 0;
+
+    @Column(name = "variant_next_attempt_at")
+    private Instant variantNextAttemptAt;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private Instant createdAt;
@@ -49,4 +80,20 @@ public class ListingImage {
         if (this.publicId == null)
             this.publicId = UUID.randomUUID().toString();
     }
+
+    /**
+     * Smallest available rendition for cards/feeds
+     */
+    public String getThumbnailOrOriginalUrl() {
+        return thumbnailUrl != null ? thumbnailUrl : imageUrl;
+    }
+
+    /**
+     * Original plus any generated variants (everything to delete with the image)
+     */
+    public List<String> getAllUrls() {
+        return Stream.of(imageUrl, thumbnailUrl, mediumUrl, largeUrl)
+                .filter(Objects::nonNull)
+                .toList();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,36 @@
+package edu.uic.marketplace.model.listing;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Hot counters of a listing, kept apart from the wide {@code listings} row
+ * so view/favorite traffic does not row-lock the listing itself.
+ * Counters are only ever changed through atomic UPDATEs in ListingStatsRepository.
+ */
+@Entity
+@Table(name = "listing_stats")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ListingStats {
+
+    @Id
+    @Column(name = "listing_id")
+    private Long listingId;
+
+    @OneToOne(fetch = FetchType.LAZY)
+    @MapsId
+    @JoinColumn(name = "listing_id", foreignKey = @ForeignKey(name = "fk_listing_stats_listing"))
+    private Listing listing;
+
+    @Column(name = "view_count", nullable = false)
+    @Builder.Default
+    private Integer viewCount = 0;
+
+    @Column(name = "favorite_count", nullable = false)
+    @Builder.Default
+    private Integer favoriteCount = 0;
+}
@@ -0,0 +1,49 @@
+package edu.uic.marketplace.model.listing;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+
+/**
+ * An object uploaded to S3 that is not yet referenced by a committed listing image.
+ * Deleted together with the listing save; leftovers are cleaned up by UploadOutboxWorker.
+ */
+@Entity
+@Table(
+        name = "upload_outbox",
+        indexes = {
+                @Index(name = "idx_upload_outbox_next_attempt_at", columnList = "next_attempt_at"),
+                @Index(name = "idx_upload_outbox_object_url", columnList = "object_url")
+        }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UploadOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "outbox_id")
+    private Long outboxId;
+
+    @Column(name = "object_url", nullable = false, length = 500)
+    private String objectUrl;
+
+    @Column(name = "attempts", nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,9 @@
+package edu.uic.marketplace.model.notification;
+
+/**
+ * Emails rendered from a template at send time (see EmailRenderer)
+ */
+public enum EmailTemplate {
+    VERIFICATION,   // param: email verification token
+    PASSWORD_RESET  // param: password reset token
+}
@@ -0,0 +1,53 @@
+package edu.uic.marketplace.model.upload;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.Instant;
+
+/**
+ * A storage object waiting to be deleted by StorageDeletionWorker: one reference to release,
+ * or an orphan found by reconciliation (see StorageDeletionKind).
+ */
+@Entity
+@Table(
+        name = "storage_deletion_queue",
+        indexes = {
+                @Index(name = "idx_storage_deletion_queue_next_attempt_at", columnList = "next_attempt_at")
+        }
+)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StorageDeletion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "deletion_id")
+    private Long deletionId;
+
+    @Column(name = "object_url", nullable = false, length = 500)
+    private String objectUrl;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "kind", nullable = false, length = 16)
+    @Builder.Default
+    private StorageDeletionKind kind = StorageDeletionKind.RELEASE;
+
+    @Column(name = "attempts", nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private Instant nextAttemptAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+}
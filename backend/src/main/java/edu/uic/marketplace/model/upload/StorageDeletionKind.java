@@ -0,0 +1,6 @@
+package edu.uic.marketplace.model.upload;
+
+public enum StorageDeletionKind {
+    RELEASE,    // drop one reference; the object is deleted once nothing references it
+    ORPHAN      // found unreferenced by reconciliation; deleted only if still untracked
+}
@@ -0,0 +1,20 @@
+package edu.uic.marketplace.model.upload;
+
+/**
+ * What a direct upload will be attached to (decides the key prefix)
+ */
+public enum UploadPurpose {
+    LISTING_IMAGE("listings"),
+    AVATAR("avatars"),
+    BANNER("banners");
+
+    private final String keyPrefix;
+
+    UploadPurpose(String keyPrefix) {
+        this.keyPrefix = keyPrefix;
+    }
+
+    public String getKeyPrefix() {
+        return keyPrefix;
+    }
+}
@@ -0,0 +1,9 @@
+package edu.uic.marketplace.model.upload;
+
+public enum UploadSessionStatus {
+    PENDING,    // presigned URL issued / resumable chunks still arriving
+    STORING,    // resumable upload finalized, being pushed to storage
+    CONFIRMED,  // object verified in storage, not attached yet
+    CONSUMED,   // attached to a listing or profile
+    FAILED      // resumable upload expired or could not be stored
+}
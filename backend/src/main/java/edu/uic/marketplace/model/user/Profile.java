@@ -55,6 +55,12 @@ public class Profile {
     @Column(name = "avatar_url", length = 500)
     private String avatarUrl;
 
+    /**
+     * BlurHash placeholder for the avatar, filled in asynchronously after upload
+     */
+    @Column(name = "avatar_blur_hash", length = 64)
+    private String avatarBlurHash;
+
     @Column(name = "banner_url", length = 500)
     private String bannerUrl;
 
@@ -80,6 +80,11 @@ public class User {
     @Column(name = "status", nullable = false, length = 20)
     private UserStatus status = UserStatus.PENDING;
 
+    // "sv" claim of access tokens; bumping it revokes every token issued before
+    @Builder.Default
+    @Column(name = "token_version", nullable = false)
+    private Integer tokenVersion = 0;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private Instant createdAt;
@@ -120,5 +125,30 @@ public class User {
     public void softDelete() {
         this.status = UserStatus.DELETED;
         this.deletedAt = Instant.now();
+        revokeTokens();
+    }
+
+    /**
+     * Change status and revoke issued tokens (they carry the old state)
+     */
+    public void changeStatus(UserStatus status) {
+        if (this.status != status) {
+            this.status = status;
+            revokeTokens();
+        }
+    }
+
+    /**
+     * Change role and revoke issued tokens (they carry the old role)
+     */
+    public void changeRole(UserRole role) {
+        if (this.role != role) {
+            this.role = role;
+            revokeTokens();
+        }
+    }
+
+    public void revokeTokens() {
+        this.tokenVersion = (tokenVersion == null ? 0 : tokenVersion) + 1;
     }
 }
@@ -0,0 +1,27 @@
+package edu.uic.marketplace.repository.auth;
+
+import edu.uic.marketplace.model.auth.RevokedSession;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface RevokedSessionRepository extends JpaRepository<RevokedSession, String> {
+
+    /**
+     * Session ids still revoked (their access tokens may not have expired yet)
+     */
+    @Query("SELECT r.sessionId FROM RevokedSession r WHERE r.expiresAt > :now")
+    List<String> findActiveSessionIds(@Param("now") Instant now);
+
+    boolean existsBySessionIdAndExpiresAtAfter(String sessionId, Instant now);
+
+    @Modifying
+    @Query("DELETE FROM RevokedSession r WHERE r.expiresAt < :before")
+    int deleteExpired(@Param("before") Instant before);
+}
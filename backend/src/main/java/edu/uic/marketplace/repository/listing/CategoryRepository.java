@@ -48,6 +48,12 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
     @Query("SELECT DISTINCT c FROM Category c LEFT JOIN FETCH c.children")
     List<Category> findAllWithChildren();
 
+    /**
+     * All categories as [categoryId, slug, name, parentId] rows (for the in-memory category tree)
+     */
+    @Query("SELECT c.categoryId, c.slug, c.name, p.categoryId FROM Category c LEFT JOIN c.parent p")
+    List<Object[]> findTreeRows();
+
     /**
      * Check if category has any subcategories
      */
@@ -7,6 +7,7 @@ import edu.uic.marketplace.model.user.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -25,6 +26,7 @@ public interface FavoriteRepository extends JpaRepository<Favorite, Favorite.Fav
         SELECT f
         FROM Favorite f
         JOIN FETCH f.listing l
+        LEFT JOIN FETCH l.stats
         WHERE f.user.username = :username
           AND l.deletedAt IS NULL
           AND l.status = :status
@@ -52,6 +54,30 @@ public interface FavoriteRepository extends JpaRepository<Favorite, Favorite.Fav
     List<String> findListingIdsByUser_Username(@Param("username") String username);
 
 
+    /**
+     * Internal listing ids favorited by a user (bitmap cache load)
+     */
+    @Query("SELECT f.id.listingId FROM Favorite f WHERE f.user.username = :username")
+    List<Long> findListingInternalIdsByUsername(@Param("username") String username);
+
+    /**
+     * Idempotent add - returns 1 when inserted, 0 when the favorite already existed.
+     * MySQL only (as is the schema): a concurrent duplicate is resolved by the primary key
+     * instead of failing. Not ON DUPLICATE KEY UPDATE - with Connector/J's default found-rows
+     * count a no-op update reports 1, not 0.
+     */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO favorites (user_id, listing_id, favorited_at) " +
+            "VALUES (:userId, :listingId, CURRENT_TIMESTAMP(6))", nativeQuery = true)
+    int insertIgnore(@Param("userId") Long userId, @Param("listingId") Long listingId);
+
+    /**
+     * Idempotent remove - returns 1 when deleted, 0 when there was nothing to delete
+     */
+    @Modifying
+    @Query("DELETE FROM Favorite f WHERE f.id.userId = :userId AND f.id.listingId = :listingId")
+    int deleteByIds(@Param("userId") Long userId, @Param("listingId") Long listingId);
+
     void deleteByUserAndListing(User user, Listing listing);
 
     void deleteByListing_ListingId(Long listingId);
@@ -1,9 +1,15 @@
 package edu.uic.marketplace.repository.listing;
 
 import edu.uic.marketplace.model.listing.ListingImage;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.List;
 
 @Repository
@@ -28,4 +34,54 @@ public interface ListingImageRepository extends JpaRepository<ListingImage, Long
      * Count images for listing
      */
     Long countByListing_ListingId(Long listingId);
+
+    // =================================================================
+    // Variants (called from the image worker, outside request transactions)
+    // =================================================================
+
+    /**
+     * Images still waiting for variants, created before the given time and not backing off
+     */
+    @Query("SELECT i.imageId FROM ListingImage i " +
+            "WHERE i.variantStatus = edu.uic.marketplace.model.listing.ImageVariantStatus.PENDING " +
+            "AND i.createdAt < :before " +
+            "AND (i.variantNextAttemptAt IS NULL OR i.variantNextAttemptAt <= :now) ORDER BY i.imageId ASC")
+    List<Long> findPendingVariantImageIds(@Param("before") Instant before, @Param("now") Instant now, Pageable pageable);
+
+    /**
+     * Store generated variants and placeholder, and swap the original for its metadata-free copy
+     * (only if still pending on the same original - no-op when the image was removed meanwhile)
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE ListingImage i SET i.imageUrl = :imageUrl, " +
+            "i.thumbnailUrl = :thumbnailUrl, i.mediumUrl = :mediumUrl, i.largeUrl = :largeUrl, " +
+            "i.blurHash = :blurHash, i.variantStatus = edu.uic.marketplace.model.listing.ImageVariantStatus.READY " +
+            "WHERE i.imageId = :imageId AND i.imageUrl = :originalUrl " +
+            "AND i.variantStatus = edu.uic.marketplace.model.listing.ImageVariantStatus.PENDING")
+    int completeVariants(@Param("imageId") Long imageId,
+                         @Param("originalUrl") String originalUrl,
+                         @Param("imageUrl") String imageUrl,
+                         @Param("thumbnailUrl") String thumbnailUrl,
+                         @Param("mediumUrl") String mediumUrl,
+                         @Param("largeUrl") String largeUrl,
+                         @Param("blurHash") String blurHash);
+
+    /**
+     * Count a failed attempt and leave the image to the sweep until the given time
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE ListingImage i SET i.variantAttempts = i.variantAttempts + 1, i.variantNextAttemptAt = :nextAttemptAt " +
+            "WHERE i.imageId = :imageId AND i.variantStatus = edu.uic.marketplace.model.listing.ImageVariantStatus.PENDING")
+    int retryVariantsLater(@Param("imageId") Long imageId, @Param("nextAttemptAt") Instant nextAttemptAt);
+
+    /**
+     * Give up on an image that can't be processed
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE ListingImage i SET i.variantStatus = edu.uic.marketplace.model.listing.ImageVariantStatus.FAILED " +
+            "WHERE i.imageId = :imageId AND i.variantStatus = edu.uic.marketplace.model.listing.ImageVariantStatus.PENDING")
+    int failVariants(@Param("imageId") Long imageId);
 }
@@ -5,6 +5,7 @@ import edu.uic.marketplace.model.listing.ListingStatus;
 import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -24,6 +25,7 @@ public interface ListingRepository extends JpaRepository<Listing, Long>, JpaSpec
     /**
      * Find listing by public ID where not deleted (for public/owner/admin views)
      */
+    @EntityGraph(attributePaths = "stats")
     Optional<Listing> findByPublicIdAndDeletedAtIsNull(String publicId);
 
     /**
@@ -34,6 +36,7 @@ public interface ListingRepository extends JpaRepository<Listing, Long>, JpaSpec
             "LEFT JOIN FETCH l.seller " +
             "LEFT JOIN FETCH l.category " +
             "LEFT JOIN FETCH l.images " +
+            "LEFT JOIN FETCH l.stats " +
             "WHERE l.publicId = :publicId AND l.deletedAt IS NULL")
     Optional<Listing> findByPublicIdWithDetails(@Param("publicId") String publicId);
 
@@ -45,23 +48,20 @@ public interface ListingRepository extends JpaRepository<Listing, Long>, JpaSpec
             "LEFT JOIN FETCH l.seller " +
             "LEFT JOIN FETCH l.category " +
             "LEFT JOIN FETCH l.images " +
+            "LEFT JOIN FETCH l.stats " +
             "WHERE l.publicId = :publicId AND l.status = 'ACTIVE' AND l.deletedAt IS NULL")
     Optional<Listing> findActiveByPublicIdWithDetails(@Param("publicId") String publicId);
 
     /**
-     * Find listing by public ID with specific status where not deleted
+     * Find listings by public IDs where not deleted, with seller/category/stats (OPTIMIZED - batch lookup)
      */
-    Optional<Listing> findByPublicIdAndStatusAndDeletedAtIsNull(String publicId, ListingStatus status);
-
-    /**
-     * Find listing by public ID with status in given set where not deleted
-     */
-    Optional<Listing> findByPublicIdAndStatusInAndDeletedAtIsNull(String publicId, Collection<ListingStatus> statuses);
+    @EntityGraph(attributePaths = {"seller", "category", "stats"})
+    List<Listing> findByPublicIdInAndDeletedAtIsNull(Collection<String> publicIds);
 
     /**
      * Find active listings (no user exclusion)
      */
-    @EntityGraph(attributePaths = {"seller", "category"})
+    @EntityGraph(attributePaths = {"seller", "category", "stats"})
     @Query("SELECT l FROM Listing l WHERE l.status = :status AND l.deletedAt IS NULL")
     @QueryHints(@QueryHint(name = "org.hibernate.readOnly", value = "true"))
     Page<Listing> findByStatus(@Param("status") ListingStatus status, Pageable pageable);
@@ -69,7 +69,7 @@ public interface ListingRepository extends JpaRepository<Listing, Long>, JpaSpec
     /**
      * Find active listings excluding specific users (OPTIMIZED)
      */
-    @EntityGraph(attributePaths = {"seller", "category"})
+    @EntityGraph(attributePaths = {"seller", "category", "stats"})
     @Query("SELECT l FROM Listing l " +
             "WHERE l.status = :status " +
             "AND l.seller.username NOT IN :excludedUsernames " +
@@ -86,26 +86,17 @@ public interface ListingRepository extends JpaRepository<Listing, Long>, JpaSpec
      */
     boolean existsByPublicId(String publicId);
 
-    // =================================================================
-    // Listing Update Operations - Optimized bulk updates
-    // =================================================================
-
     /**
-     * Increment view count without loading entity (OPTIMIZED)
-     * Single UPDATE query, no SELECT needed
+     * Specification search with seller, category and stats fetched (OPTIMIZED)
      */
-    @Modifying
-    @Query("UPDATE Listing l SET l.viewCount = l.viewCount + 1 WHERE l.publicId = :publicId")
-    void incrementViewCount(@Param("publicId") String publicId);
+    @Override
+    @EntityGraph(attributePaths = {"seller", "category", "stats"})
+    Page<Listing> findAll(Specification<Listing> spec, Pageable pageable);
 
-    /**
-     * Increment view count only if viewer is not the seller (OPTIMIZED)
-     * Conditional update in single query
-     */
-    @Modifying
-    @Query("UPDATE Listing l SET l.viewCount = l.viewCount + 1 " +
-            "WHERE l.publicId = :publicId AND l.seller.userId != :viewerId")
-    int incrementViewCountIfNotSeller(@Param("publicId") String publicId, @Param("viewerId") Long viewerId);
+    // =================================================================
+    // Listing Update Operations - Optimized bulk updates
+    // View/favorite counters are updated through ListingStatsRepository
+    // =================================================================
 
     /**
      * Update listing status efficiently (OPTIMIZED)
@@ -129,11 +120,13 @@ public interface ListingRepository extends JpaRepository<Listing, Long>, JpaSpec
     /**
      * Find all listings by seller's username where not deleted
      */
+    @EntityGraph(attributePaths = {"seller", "category", "stats"})
     Page<Listing> findBySeller_PublicIdAndDeletedAtIsNull(String sellerPublicId, Pageable pageable);
 
     /**
      * Find listings by seller's username and status where not deleted
      */
+    @EntityGraph(attributePaths = {"seller", "category", "stats"})
     Page<Listing> findBySeller_UsernameAndStatusAndDeletedAtIsNull(String username, ListingStatus status, Pageable pageable);
 
     /**
@@ -143,6 +136,7 @@ public interface ListingRepository extends JpaRepository<Listing, Long>, JpaSpec
         SELECT DISTINCT l FROM Listing l
         LEFT JOIN FETCH l.category c
         LEFT JOIN FETCH l.images imgs
+        LEFT JOIN FETCH l.stats
         JOIN l.seller s
         JOIN s.profile p
         WHERE p.publicId = :sellerPublicId
@@ -164,6 +158,7 @@ public interface ListingRepository extends JpaRepository<Listing, Long>, JpaSpec
     /**
      * Find listings by seller's public ID with status in set where not deleted
      */
+    @EntityGraph(attributePaths = {"seller", "category", "stats"})
     Page<Listing> findBySeller_PublicIdAndStatusInAndDeletedAtIsNull(String sellerPublicId, Collection<ListingStatus> statuses, Pageable pageable);
 
     /**
@@ -176,13 +171,28 @@ public interface ListingRepository extends JpaRepository<Listing, Long>, JpaSpec
      */
     Long countBySeller_PublicIdAndStatusAndDeletedAtIsNull(String sellerPublicId, ListingStatus status);
 
+    /**
+     * [sellerPublicId, status, count] of non-deleted listings for the given sellers
+     */
+    @Query("SELECT s.publicId, l.status, COUNT(l) FROM Listing l JOIN l.seller s " +
+            "WHERE s.publicId IN :sellerPublicIds AND l.deletedAt IS NULL GROUP BY s.publicId, l.status")
+    List<Object[]> countBySellerPublicIdsGroupByStatus(@Param("sellerPublicIds") Collection<String> sellerPublicIds);
+
     // =================================================================
     // Public Feed and Category Listings - Use category slug
     // =================================================================
 
+    /**
+     * [categorySlug, count] of non-deleted listings in the given status, per category
+     */
+    @Query("SELECT c.slug, COUNT(l) FROM Listing l JOIN l.category c " +
+            "WHERE l.status = :status AND l.deletedAt IS NULL GROUP BY c.slug")
+    List<Object[]> countByCategorySlug(@Param("status") ListingStatus status);
+
     /**
      * Find listings by exact status where not deleted (for public feed)
      */
+    @EntityGraph(attributePaths = {"seller", "category", "stats"})
     Page<Listing> findByStatusAndDeletedAtIsNull(ListingStatus status, Pageable pageable);
 
     /**
@@ -193,6 +203,7 @@ public interface ListingRepository extends JpaRepository<Listing, Long>, JpaSpec
             "LEFT JOIN FETCH l.category " +
             "LEFT JOIN FETCH l.seller " +
             "LEFT JOIN FETCH l.images " +
+            "LEFT JOIN FETCH l.stats " +
             "WHERE l.status = :status AND l.deletedAt IS NULL")
     List<Listing> findByStatusWithDetailsNoPage(@Param("status") ListingStatus status);
 
@@ -203,6 +214,7 @@ public interface ListingRepository extends JpaRepository<Listing, Long>, JpaSpec
     @Query(value = "SELECT DISTINCT l FROM Listing l " +
             "LEFT JOIN FETCH l.category " +
             "LEFT JOIN FETCH l.seller " +
+            "LEFT JOIN FETCH l.stats " +
             "WHERE l.status = :status AND l.deletedAt IS NULL",
             countQuery = "SELECT COUNT(l) FROM Listing l WHERE l.status = :status AND l.deletedAt IS NULL")
     Page<Listing> findByStatusWithDetails(@Param("status") ListingStatus status, Pageable pageable);
@@ -210,16 +222,19 @@ public interface ListingRepository extends JpaRepository<Listing, Long>, JpaSpec
     /**
      * Find listings by status in set where not deleted (flexible public feed)
      */
+    @EntityGraph(attributePaths = {"seller", "category", "stats"})
     Page<Listing> findByStatusInAndDeletedAtIsNull(Collection<ListingStatus> statuses, Pageable pageable);
 
     /**
      * Find listings by category slug where not deleted
      */
+    @EntityGraph(attributePaths = {"seller", "category", "stats"})
     Page<Listing> findByCategory_SlugAndDeletedAtIsNull(String categorySlug, Pageable pageable);
 
     /**
      * Find listings by category slug and status where not deleted
      */
+    @EntityGraph(attributePaths = {"seller", "category", "stats"})
     Page<Listing> findByCategory_SlugAndStatusAndDeletedAtIsNull(String categorySlug, ListingStatus status, Pageable pageable);
 
     /**
@@ -230,6 +245,7 @@ public interface ListingRepository extends JpaRepository<Listing, Long>, JpaSpec
             "LEFT JOIN FETCH l.category c " +
             "LEFT JOIN FETCH l.seller " +
             "LEFT JOIN FETCH l.images " +
+            "LEFT JOIN FETCH l.stats " +
             "WHERE c.slug = :categorySlug AND l.status = :status AND l.deletedAt IS NULL",
             countQuery = "SELECT COUNT(l) FROM Listing l WHERE l.category.slug = :categorySlug AND l.status = :status AND l.deletedAt IS NULL")
     Page<Listing> findByCategoryWithDetails(@Param("categorySlug") String categorySlug,
@@ -239,7 +255,7 @@ public interface ListingRepository extends JpaRepository<Listing, Long>, JpaSpec
     /**
      * Find listings by category slug excluding blocked users (OPTIMIZED)
      */
-    @EntityGraph(attributePaths = {"seller", "category"})
+    @EntityGraph(attributePaths = {"seller", "category", "stats"})
     @Query("SELECT l FROM Listing l " +
             "WHERE l.category.slug = :categorySlug " +
             "AND l.status = :status " +
@@ -256,6 +272,7 @@ public interface ListingRepository extends JpaRepository<Listing, Long>, JpaSpec
     /**
      * Find listings by category slug and status in set where not deleted
      */
+    @EntityGraph(attributePaths = {"seller", "category", "stats"})
     Page<Listing> findByCategory_SlugAndStatusInAndDeletedAtIsNull(String categorySlug, Collection<ListingStatus> statuses, Pageable pageable);
 
     // =================================================================
@@ -265,6 +282,7 @@ public interface ListingRepository extends JpaRepository<Listing, Long>, JpaSpec
     /**
      * Search listings by keyword with specific status, excluding deleted
      */
+    @EntityGraph(attributePaths = {"seller", "category", "stats"})
     @Query("""
            SELECT l FROM Listing l
            WHERE (LOWER(l.title) LIKE LOWER(CONCAT('%', :keyword, '%'))
@@ -285,6 +303,7 @@ public interface ListingRepository extends JpaRepository<Listing, Long>, JpaSpec
            LEFT JOIN FETCH l.category
            LEFT JOIN FETCH l.seller
            LEFT JOIN FETCH l.images
+           LEFT JOIN FETCH l.stats
            WHERE (LOWER(l.title) LIKE LOWER(CONCAT('%', :keyword, '%'))
                OR LOWER(l.description) LIKE LOWER(CONCAT('%', :keyword, '%')))
              AND l.status = :status
@@ -304,6 +323,7 @@ public interface ListingRepository extends JpaRepository<Listing, Long>, JpaSpec
     /**
      * Search listings by keyword with status in set, excluding deleted
      */
+    @EntityGraph(attributePaths = {"seller", "category", "stats"})
     @Query("""
            SELECT l FROM Listing l
            WHERE (LOWER(l.title) LIKE LOWER(CONCAT('%', :keyword, '%'))
@@ -318,6 +338,7 @@ public interface ListingRepository extends JpaRepository<Listing, Long>, JpaSpec
     /**
      * Search listings by keyword and category slug with status filter
      */
+    @EntityGraph(attributePaths = {"seller", "category", "stats"})
     @Query("""
            SELECT l FROM Listing l
            WHERE (LOWER(l.title) LIKE LOWER(CONCAT('%', :keyword, '%'))
@@ -339,6 +360,7 @@ public interface ListingRepository extends JpaRepository<Listing, Long>, JpaSpec
            LEFT JOIN FETCH l.category c
            LEFT JOIN FETCH l.seller
            LEFT JOIN FETCH l.images
+           LEFT JOIN FETCH l.stats
            WHERE (LOWER(l.title) LIKE LOWER(CONCAT('%', :keyword, '%'))
                OR LOWER(l.description) LIKE LOWER(CONCAT('%', :keyword, '%')))
              AND c.slug = :categorySlug
@@ -363,12 +385,13 @@ public interface ListingRepository extends JpaRepository<Listing, Long>, JpaSpec
     // =================================================================
 
     /**
-     * Find nearby listings within radius (miles) with single status filter
-     * Uses Haversine formula for distance calculation
+     * Ids of nearby listings within radius (miles) with single status filter, nearest first
+     * Uses Haversine formula for distance calculation; ids only, since a native query cannot
+     * fetch seller/category/stats - hydrate with findAllWithDetailsByListingIdIn
      * Note: For better performance, consider PostGIS or similar spatial database extensions
      */
     @Query(value = """
-            SELECT *
+            SELECT l.listing_id
             FROM listings l
             WHERE l.status = :#{#status.name()}
               AND l.deleted_at IS NULL
@@ -383,7 +406,7 @@ public interface ListingRepository extends JpaRepository<Listing, Long>, JpaSpec
                       sin(radians(:latitude)) * sin(radians(l.latitude))
                     ))
             """, nativeQuery = true)
-    List<Listing> findNearbyWithinRadius(@Param("latitude") Double latitude,
+    List<Long> findNearbyIdsWithinRadius(@Param("latitude") Double latitude,
                                          @Param("longitude") Double longitude,
                                          @Param("radiusMiles") Double radiusMiles,
                                          @Param("status") ListingStatus status);
@@ -425,10 +448,21 @@ public interface ListingRepository extends JpaRepository<Listing, Long>, JpaSpec
     /**
      * Find listing by internal ID where not deleted (for internal operations)
      */
+    @EntityGraph(attributePaths = "stats")
     Optional<Listing> findByListingIdAndDeletedAtIsNull(Long listingId);
 
+    /**
+     * Hydrate listings by internal IDs with seller, category and stats (OPTIMIZED)
+     * Order is not preserved - callers reorder by their own id list
+     */
+    @EntityGraph(attributePaths = {"seller", "category", "stats"})
+    @Query("SELECT l FROM Listing l WHERE l.listingId IN :listingIds")
+    @QueryHints(@QueryHint(name = "org.hibernate.readOnly", value = "true"))
+    List<Listing> findAllWithDetailsByListingIdIn(@Param("listingIds") Collection<Long> listingIds);
+
     /**
      * Find listings by seller's internal ID (for internal aggregations)
      */
+    @EntityGraph(attributePaths = {"seller", "category", "stats"})
     Page<Listing> findBySeller_UserIdAndDeletedAtIsNull(Long sellerId, Pageable pageable);
 }
\ No newline at end of file
@@ -0,0 +1,61 @@
+package edu.uic.marketplace.repository.listing;
+
+import edu.uic.marketplace.model.listing.ListingStats;
+import edu.uic.marketplace.model.listing.ListingStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ListingStatsRepository extends JpaRepository<ListingStats, Long> {
+
+    // =================================================================
+    // Atomic counter updates - never read-modify-write in Java
+    // =================================================================
+
+    /**
+     * Increment view count (single UPDATE on the narrow stats row)
+     */
+    @Modifying
+    @Query("UPDATE ListingStats s SET s.viewCount = s.viewCount + 1 WHERE s.listingId = :listingId")
+    int incrementViewCount(@Param("listingId") Long listingId);
+
+    /**
+     * Increment favorite count
+     */
+    @Modifying
+    @Query("UPDATE ListingStats s SET s.favoriteCount = s.favoriteCount + 1 WHERE s.listingId = :listingId")
+    int incrementFavoriteCount(@Param("listingId") Long listingId);
+
+    /**
+     * Decrement favorite count, never going below zero
+     */
+    @Modifying
+    @Query("UPDATE ListingStats s SET s.favoriteCount = s.favoriteCount - 1 " +
+            "WHERE s.listingId = :listingId AND s.favoriteCount > 0")
+    int decrementFavoriteCount(@Param("listingId") Long listingId);
+
+    // =================================================================
+    // Reads
+    // =================================================================
+
+    /**
+     * Read the current favorite count without loading the listing
+     */
+    @Query("SELECT s.favoriteCount FROM ListingStats s WHERE s.listingId = :listingId")
+    Optional<Integer> findFavoriteCountByListingId(@Param("listingId") Long listingId);
+
+    /**
+     * Leaderboard rows [listingId, categorySlug, viewCount, favoriteCount] for non-deleted listings in a status
+     */
+    @Query("SELECT s.listingId, c.slug, s.viewCount, s.favoriteCount FROM ListingStats s " +
+            "JOIN s.listing l " +
+            "LEFT JOIN l.category c " +
+            "WHERE l.status = :status AND l.deletedAt IS NULL")
+    List<Object[]> findLeaderboardRows(@Param("status") ListingStatus status);
+}
@@ -0,0 +1,39 @@
+package edu.uic.marketplace.repository.listing;
+
+import edu.uic.marketplace.model.listing.UploadOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.LockModeType;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface UploadOutboxRepository extends JpaRepository<UploadOutbox, Long> {
+
+    /**
+     * Entries whose cleanup is due, oldest first
+     */
+    @Query("SELECT o FROM UploadOutbox o WHERE o.nextAttemptAt <= :now ORDER BY o.nextAttemptAt ASC")
+    List<UploadOutbox> findDue(@Param("now") Instant now, Pageable pageable);
+
+    /**
+     * Lock an entry for cleanup; empty once another worker (or the listing save) removed it
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM UploadOutbox o WHERE o.outboxId = :outboxId")
+    Optional<UploadOutbox> findByIdForUpdate(@Param("outboxId") Long outboxId);
+
+    /**
+     * Entries for the given URLs. Content-addressed uploads can stage the same URL more than
+     * once (one entry per reference), so callers pick one entry per URL occurrence.
+     */
+    @Query("SELECT o FROM UploadOutbox o WHERE o.objectUrl IN :urls ORDER BY o.outboxId ASC")
+    List<UploadOutbox> findByObjectUrlIn(@Param("urls") Collection<String> urls);
+}
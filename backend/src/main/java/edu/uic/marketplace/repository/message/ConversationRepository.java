@@ -77,7 +77,8 @@ public interface ConversationRepository extends JpaRepository<Conversation, Long
             SELECT DISTINCT c FROM Conversation c
             LEFT JOIN FETCH c.buyer
             LEFT JOIN FETCH c.seller
-            LEFT JOIN FETCH c.listing
+            LEFT JOIN FETCH c.listing l
+            LEFT JOIN FETCH l.stats
             WHERE (c.seller.userId = :userId AND c.sellerDeletedAt IS NULL)
                OR (c.buyer.userId = :userId AND c.buyerDeletedAt IS NULL)
             ORDER BY c.lastMessageAt DESC
@@ -0,0 +1,24 @@
+package edu.uic.marketplace.repository.notification;
+
+import edu.uic.marketplace.model.notification.EmailOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.LockModeType;
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    /**
+     * Lock due entries (oldest first) so that concurrent workers claim disjoint batches
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM EmailOutbox e WHERE e.nextAttemptAt <= :now ORDER BY e.nextAttemptAt ASC")
+    List<EmailOutbox> findDueForUpdate(@Param("now") Instant now, Pageable pageable);
+}
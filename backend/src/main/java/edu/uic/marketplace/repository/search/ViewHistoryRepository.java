@@ -40,6 +40,7 @@ public interface ViewHistoryRepository extends JpaRepository<ViewHistory, Long>
             "JOIN FETCH vh.listing l " +
             "LEFT JOIN FETCH l.seller " +
             "LEFT JOIN FETCH l.category " +
+            "LEFT JOIN FETCH l.stats " +
             "JOIN vh.user u " +
             "WHERE u.username = :username " +
             "ORDER BY vh.viewedAt DESC",
@@ -57,6 +58,7 @@ public interface ViewHistoryRepository extends JpaRepository<ViewHistory, Long>
             "JOIN FETCH vh.listing l " +
             "LEFT JOIN FETCH l.seller " +
             "LEFT JOIN FETCH l.category " +
+            "LEFT JOIN FETCH l.stats " +
             "JOIN vh.user u " +
             "WHERE u.username = :username " +
             "ORDER BY vh.viewedAt DESC")
@@ -124,6 +126,7 @@ public interface ViewHistoryRepository extends JpaRepository<ViewHistory, Long>
             "JOIN FETCH vh.listing l " +
             "LEFT JOIN FETCH l.seller " +
             "LEFT JOIN FETCH l.category " +
+            "LEFT JOIN FETCH l.stats " +
             "JOIN vh.user u " +
             "WHERE u.username = :username " +
             "AND vh.viewedAt BETWEEN :startDate AND :endDate " +
@@ -2,6 +2,7 @@ package edu.uic.marketplace.repository.transaction;
 
 import edu.uic.marketplace.model.listing.OfferStatus;
 import edu.uic.marketplace.model.transaction.PriceOffer;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -22,6 +23,7 @@ public interface PriceOfferRepository extends JpaRepository<PriceOffer, Long> {
     @Query("""
            SELECT po FROM PriceOffer po
            LEFT JOIN FETCH po.listing l
+           LEFT JOIN FETCH l.stats
            LEFT JOIN FETCH l.seller
            LEFT JOIN FETCH po.buyer
            WHERE po.publicId = :publicId
@@ -32,6 +34,7 @@ public interface PriceOfferRepository extends JpaRepository<PriceOffer, Long> {
     boolean existsByPublicId(String publicId);
 
     /** Find all offers for a listing (optionally you can add OrderByCreatedAtDesc) */
+    @EntityGraph(attributePaths = {"listing", "listing.stats"})
     List<PriceOffer> findByListing_PublicId(String listingPublicId);
 
     /**
@@ -41,6 +44,7 @@ public interface PriceOfferRepository extends JpaRepository<PriceOffer, Long> {
            SELECT po FROM PriceOffer po
            LEFT JOIN FETCH po.buyer
            LEFT JOIN FETCH po.listing l
+           LEFT JOIN FETCH l.stats
            LEFT JOIN FETCH l.seller
            WHERE l.publicId = :listingPublicId
            ORDER BY po.createdAt DESC
@@ -48,6 +52,7 @@ public interface PriceOfferRepository extends JpaRepository<PriceOffer, Long> {
     List<PriceOffer> findByListing_PublicIdWithDetailsOptimized(@Param("listingPublicId") String listingPublicId);
 
     /** Find all offers for a listing by status */
+    @EntityGraph(attributePaths = {"listing", "listing.stats"})
     List<PriceOffer> findByListing_PublicIdAndStatus(String listingPublicId, OfferStatus status);
 
     /**
@@ -57,6 +62,7 @@ public interface PriceOfferRepository extends JpaRepository<PriceOffer, Long> {
            SELECT po FROM PriceOffer po
            LEFT JOIN FETCH po.buyer
            LEFT JOIN FETCH po.listing l
+           LEFT JOIN FETCH l.stats
            LEFT JOIN FETCH l.seller
            WHERE l.publicId = :listingPublicId 
              AND po.status = :status
@@ -68,6 +74,7 @@ public interface PriceOfferRepository extends JpaRepository<PriceOffer, Long> {
     );
 
     /** Find offers sent by a buyer */
+    @EntityGraph(attributePaths = {"listing", "listing.stats"})
     List<PriceOffer> findByBuyer_Username(String buyerUsername);
 
     /**
@@ -76,6 +83,7 @@ public interface PriceOfferRepository extends JpaRepository<PriceOffer, Long> {
     @Query("""
            SELECT po FROM PriceOffer po
            LEFT JOIN FETCH po.listing l
+           LEFT JOIN FETCH l.stats
            LEFT JOIN FETCH l.seller
            WHERE po.buyer.username = :buyerUsername
            ORDER BY po.createdAt DESC
@@ -83,6 +91,7 @@ public interface PriceOfferRepository extends JpaRepository<PriceOffer, Long> {
     List<PriceOffer> findByBuyer_UsernameWithDetailsOptimized(@Param("buyerUsername") String buyerUsername);
 
     /** Find offers received by a seller */
+    @EntityGraph(attributePaths = {"listing", "listing.stats"})
     List<PriceOffer> findByListing_Seller_Username(String sellerUsername);
 
     /**
@@ -92,6 +101,7 @@ public interface PriceOfferRepository extends JpaRepository<PriceOffer, Long> {
            SELECT po FROM PriceOffer po
            LEFT JOIN FETCH po.buyer
            LEFT JOIN FETCH po.listing l
+           LEFT JOIN FETCH l.stats
            WHERE l.seller.username = :sellerUsername
            ORDER BY po.createdAt DESC
            """)
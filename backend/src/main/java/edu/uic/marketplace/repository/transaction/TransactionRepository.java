@@ -2,6 +2,7 @@ package edu.uic.marketplace.repository.transaction;
 
 import edu.uic.marketplace.model.transaction.Transaction;
 import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.jpa.repository.QueryHints;
@@ -45,6 +46,7 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     /**
      * Find purchases by username.
      */
+    @EntityGraph(attributePaths = {"listing", "listing.stats"})
     @Query("""
         SELECT t FROM Transaction t
         WHERE t.buyer.username = :username
@@ -57,6 +59,7 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     /**
      * Find sales by seller username.
      */
+    @EntityGraph(attributePaths = {"listing", "listing.stats"})
     @Query("""
         SELECT t FROM Transaction t
         WHERE t.listing.seller.username = :sellerUsername
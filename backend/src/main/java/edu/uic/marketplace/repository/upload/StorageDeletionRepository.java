@@ -0,0 +1,37 @@
+package edu.uic.marketplace.repository.upload;
+
+import edu.uic.marketplace.model.upload.StorageDeletion;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.LockModeType;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StorageDeletionRepository extends JpaRepository<StorageDeletion, Long> {
+
+    /**
+     * Lock due entries (oldest first) so that concurrent workers claim disjoint batches
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT d FROM StorageDeletion d WHERE d.nextAttemptAt <= :now ORDER BY d.nextAttemptAt ASC")
+    List<StorageDeletion> findDueForUpdate(@Param("now") Instant now, Pageable pageable);
+
+    /**
+     * Lock claimed entries for processing. Entries another worker already processed are gone,
+     * so each entry's reference is released at most once.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT d FROM StorageDeletion d WHERE d.deletionId IN :ids ORDER BY d.deletionId ASC")
+    List<StorageDeletion> findAllForUpdateByDeletionIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT MIN(d.createdAt) FROM StorageDeletion d")
+    Optional<Instant> findOldestCreatedAt();
+}
@@ -0,0 +1,74 @@
+package edu.uic.marketplace.repository.upload;
+
+import edu.uic.marketplace.model.upload.StoredObject;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+@Repository
+public interface StoredObjectRepository extends JpaRepository<StoredObject, String> {
+
+    /**
+     * Add a reference, creating the row on first use (atomic, no read-modify-write)
+     */
+    @Modifying
+    @Query(value = "INSERT INTO stored_objects (object_key, ref_count, created_at, updated_at) " +
+            "VALUES (:key, 1, CURRENT_TIMESTAMP(6), CURRENT_TIMESTAMP(6)) " +
+            "ON DUPLICATE KEY UPDATE ref_count = ref_count + 1, updated_at = CURRENT_TIMESTAMP(6)",
+            nativeQuery = true)
+    int acquire(@Param("key") String key);
+
+    @Query("SELECT o.refCount FROM StoredObject o WHERE o.objectKey = :key")
+    Optional<Integer> findRefCount(@Param("key") String key);
+
+    /**
+     * Lock rows being released so a concurrent upload of the same content waits
+     * until the object is either kept or gone from storage
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM StoredObject o WHERE o.objectKey IN :keys")
+    List<StoredObject> findAllForUpdateByObjectKeyIn(@Param("keys") Collection<String> keys);
+
+    /**
+     * Every storage key the database still points at (listing images and their variants, avatars,
+     * banners, referenced content-addressed objects), in binary key order like an S3 listing.
+     * Keys are the part of stored URLs after the storage's key marker (ObjectStorage.keyMarker).
+     * Duplicates are possible. Streamed row by row (MySQL streaming fetch size): consume inside
+     * a read-only transaction and close the stream; the connection can't run other statements meanwhile.
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "-2147483648"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query(value = "SELECT ref.object_key FROM (" +
+            "  SELECT SUBSTRING(image_url, LOCATE(:marker, image_url) + LENGTH(:marker)) AS object_key" +
+            "    FROM listing_images WHERE LOCATE(:marker, image_url) > 0" +
+            "  UNION ALL SELECT SUBSTRING(thumbnail_url, LOCATE(:marker, thumbnail_url) + LENGTH(:marker))" +
+            "    FROM listing_images WHERE LOCATE(:marker, thumbnail_url) > 0" +
+            "  UNION ALL SELECT SUBSTRING(medium_url, LOCATE(:marker, medium_url) + LENGTH(:marker))" +
+            "    FROM listing_images WHERE LOCATE(:marker, medium_url) > 0" +
+            "  UNION ALL SELECT SUBSTRING(large_url, LOCATE(:marker, large_url) + LENGTH(:marker))" +
+            "    FROM listing_images WHERE LOCATE(:marker, large_url) > 0" +
+            "  UNION ALL SELECT SUBSTRING(avatar_url, LOCATE(:marker, avatar_url) + LENGTH(:marker))" +
+            "    FROM profiles WHERE LOCATE(:marker, avatar_url) > 0" +
+            "  UNION ALL SELECT SUBSTRING(banner_url, LOCATE(:marker, banner_url) + LENGTH(:marker))" +
+            "    FROM profiles WHERE LOCATE(:marker, banner_url) > 0" +
+            "  UNION ALL SELECT object_key FROM stored_objects WHERE ref_count > 0" +
+            ") ref ORDER BY ref.object_key COLLATE utf8mb4_bin",
+            nativeQuery = true)
+    Stream<String> streamReferencedKeys(@Param("marker") String keyMarker);
+}
@@ -0,0 +1,50 @@
+package edu.uic.marketplace.repository.upload;
+
+import edu.uic.marketplace.model.upload.UploadSession;
+import edu.uic.marketplace.model.upload.UploadSessionStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import jakarta.persistence.LockModeType;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface UploadSessionRepository extends JpaRepository<UploadSession, Long> {
+
+    @Query("SELECT s FROM UploadSession s JOIN FETCH s.user WHERE s.publicId = :publicId")
+    Optional<UploadSession> findByPublicId(@Param("publicId") String publicId);
+
+    /**
+     * Lock a resumable session while a chunk is committed or the upload finalized
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM UploadSession s WHERE s.publicId = :publicId")
+    Optional<UploadSession> findForUpdateByPublicId(@Param("publicId") String publicId);
+
+    @Query("SELECT s FROM UploadSession s WHERE s.publicId IN :publicIds")
+    List<UploadSession> findAllByPublicIdIn(@Param("publicIds") Collection<String> publicIds);
+
+    /**
+     * Resumable sessions in a status, expiring before the given time (cleanup / retry sweep)
+     */
+    @Query("SELECT s.publicId FROM UploadSession s " +
+            "WHERE s.resumable = true AND s.status = :status AND s.expiresAt < :before " +
+            "ORDER BY s.expiresAt ASC")
+    List<String> findResumableIds(@Param("status") UploadSessionStatus status,
+                                  @Param("before") Instant before,
+                                  Pageable pageable);
+
+    /**
+     * Lock sessions being attached so the same upload can't be consumed twice
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM UploadSession s JOIN FETCH s.user WHERE s.objectKey IN :keys")
+    List<UploadSession> findAllForUpdateByObjectKeyIn(@Param("keys") Collection<String> keys);
+}
@@ -3,9 +3,11 @@ package edu.uic.marketplace.repository.user;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import edu.uic.marketplace.model.user.Profile;
 
@@ -43,4 +45,14 @@ public interface ProfileRepository extends JpaRepository<Profile, Long> {
      * Delete profile by user ID
      */
     void deleteByUser_UserId(Long userId);
+
+    /**
+     * Store the avatar placeholder, unless the avatar changed in the meantime
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Profile p SET p.avatarBlurHash = :blurHash WHERE p.userId = :userId AND p.avatarUrl = :avatarUrl")
+    int updateAvatarBlurHash(@Param("userId") Long userId,
+                             @Param("avatarUrl") String avatarUrl,
+                             @Param("blurHash") String blurHash);
 }
@@ -2,6 +2,7 @@ package edu.uic.marketplace.repository.user;
 
 import edu.uic.marketplace.model.user.User;
 import edu.uic.marketplace.model.user.UserStatus;
+import edu.uic.marketplace.service.user.UserSnapshot;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -67,6 +68,14 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     Optional<User> findByUsername(String username);
 
+    /**
+     * Snapshot of a user by internal ID - a projection, so no managed entity is created
+     */
+    @Query("SELECT new edu.uic.marketplace.service.user.UserSnapshot(" +
+            "u.userId, u.publicId, u.username, u.role, u.status, u.tokenVersion, u.deletedAt) " +
+            "FROM User u WHERE u.userId = :userId")
+    Optional<UserSnapshot> findSnapshotById(@Param("userId") Long userId);
+
     /**
      * Find user by email (for authentication/password reset)
      */
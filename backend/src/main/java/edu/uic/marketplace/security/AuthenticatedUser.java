@@ -0,0 +1,31 @@
+package edu.uic.marketplace.security;
+
+import edu.uic.marketplace.model.user.UserRole;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Principal built straight from access-token claims (sub, uid, role), no user lookup.
+ * The token version was checked against TokenVersionCache before this is created.
+ */
+public record AuthenticatedUser(Long userId, String username, UserRole role) implements UserDetails {
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+}
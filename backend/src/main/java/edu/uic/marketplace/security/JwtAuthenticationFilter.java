@@ -1,5 +1,8 @@
 package edu.uic.marketplace.security;
 
+import edu.uic.marketplace.model.user.UserRole;
+import edu.uic.marketplace.service.auth.RevokedSessionRegistry;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -21,6 +24,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider jwtTokenProvider;
     private final UserDetailsService userDetailsService;
+    private final TokenVersionCache tokenVersionCache;
+    private final RevokedSessionRegistry revokedSessionRegistry;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -33,19 +38,21 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
+        // one signature check per request (or none, for a token verified earlier)
         String token = authHeader.substring(7);
-        if (token.isBlank() || !jwtTokenProvider.validateToken(token)) {
+        Claims claims = jwtTokenProvider.verify(token).orElse(null);
+        if (claims == null) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        String username = jwtTokenProvider.getUsernameFromJWT(token);
+        String username = claims.getSubject();
         if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            UserDetails principal = principalOf(claims);
 
-            if (jwtTokenProvider.validateToken(token)) {
+            if (principal != null) {
                 UsernamePasswordAuthenticationToken authToken =
-                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                        new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
                 authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authToken);
             }
@@ -53,4 +60,37 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         filterChain.doFilter(request, response);
     }
+
+    // Helper methods
+
+    /**
+     * Principal from the token itself when it carries uid/role/sv (the version must still be
+     * current and its session not revoked); older tokens without them fall back to loading the
+     * user. Null = not accepted.
+     */
+    private UserDetails principalOf(Claims claims) {
+
+        Object userId = claims.get(JwtTokenProvider.CLAIM_USER_ID);
+        Object role = claims.get(JwtTokenProvider.CLAIM_ROLE);
+        Object version = claims.get(JwtTokenProvider.CLAIM_TOKEN_VERSION);
+
+        if (!(userId instanceof Number uid) || !(role instanceof String roleName) || !(version instanceof Number sv)) {
+            return userDetailsService.loadUserByUsername(claims.getSubject());
+        }
+
+        if (!tokenVersionCache.isCurrent(uid.longValue(), sv.intValue())) {
+            return null;
+        }
+
+        // logged out / reused refresh token: no I/O unless the Bloom filter says maybe
+        if (claims.get(JwtTokenProvider.CLAIM_SESSION_ID) instanceof String sid && revokedSessionRegistry.isRevoked(sid)) {
+            return null;
+        }
+
+        try {
+            return new AuthenticatedUser(uid.longValue(), claims.getSubject(), UserRole.valueOf(roleName));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
 }
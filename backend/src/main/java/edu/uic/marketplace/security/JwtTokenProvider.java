@@ -1,6 +1,13 @@
 package edu.uic.marketplace.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import edu.uic.marketplace.model.user.User;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtBuilder;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -9,8 +16,14 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Base64;
 import java.util.Date;
+import java.util.Optional;
 
 @Component
 public class JwtTokenProvider {
@@ -27,9 +40,23 @@ public class JwtTokenProvider {
     @Value("${jwt.audience:frontend}")
     private String audience;
 
+    @Value("${jwt.claims-cache.max-size:10000}")
+    private long claimsCacheMaxSize;
+
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_ROLE = "role";
+    public static final String CLAIM_TOKEN_VERSION = "sv";
+    public static final String CLAIM_SESSION_ID = "sid";
+
     private SecretKey secretKey;
     private static final long CLOCK_SKEW_SEC = 60;
 
+    // immutable and thread-safe once built
+    private JwtParser parser;
+
+    // SHA-256(token) -> claims whose signature was already verified; an entry lives until the token's exp
+    private Cache<String, Claims> verifiedClaims;
+
     @PostConstruct
     public void init() {
 
@@ -38,14 +65,43 @@ public class JwtTokenProvider {
             throw new IllegalStateException("jwt.secret must be >= 64 bytes after Base64 decoding for HS512");
         }
         this.secretKey = Keys.hmacShaKeyFor(decodedKey);
+
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(secretKey)
+                .setAllowedClockSkewSeconds(CLOCK_SKEW_SEC)
+                .build();
+
+        this.verifiedClaims = Caffeine.newBuilder()
+                .maximumSize(claimsCacheMaxSize)
+                .expireAfter(Expiry.creating((String digest, Claims claims) -> untilExpiration(claims)))
+                .build();
     }
 
-    public String generateToken(String username) {
+    /**
+     * Self-contained access token: besides the username (sub) it carries the user id, role and
+     * token version, which is all JwtAuthenticationFilter needs to authenticate the request
+     */
+    public String generateToken(User user) {
+        return generateToken(user, null);
+    }
+
+    /**
+     * @param sessionId refresh token family the access token belongs to ("sid"), so revoking
+     *                  the session also rejects its outstanding access tokens; null for none
+     */
+    public String generateToken(User user, String sessionId) {
 
         Date now = new Date();
         Date exp = new Date(now.getTime() + jwtExpirationInMs);
-        return Jwts.builder()
-                .setSubject(username)
+        JwtBuilder builder = Jwts.builder()
+                .setSubject(user.getUsername())
+                .claim(CLAIM_USER_ID, user.getUserId())
+                .claim(CLAIM_ROLE, user.getRole().name())
+                .claim(CLAIM_TOKEN_VERSION, user.getTokenVersion());
+        if (sessionId != null) {
+            builder.claim(CLAIM_SESSION_ID, sessionId);
+        }
+        return builder
                 .setIssuer(issuer)
                 .setAudience(audience)
                 .setIssuedAt(now)
@@ -58,28 +114,74 @@ public class JwtTokenProvider {
         return jwtExpirationInMs;
     }
 
-    public String getUsernameFromJWT(String token) {
+    /**
+     * Latest moment an access token issued now is still accepted (expiration plus clock skew)
+     */
+    public Instant accessTokenDeadline() {
+        return Instant.now().plusMillis(jwtExpirationInMs).plusSeconds(CLOCK_SKEW_SEC);
+    }
 
-        return Jwts.parserBuilder()
-                .setSigningKey(secretKey)
-                .setAllowedClockSkewSeconds(CLOCK_SKEW_SEC)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+    /**
+     * Verify the token once and return its claims. A token seen before (and not yet expired)
+     * is answered from the verified-claims cache without re-checking the signature.
+     *
+     * @throws JwtException             invalid signature, malformed or expired token
+     * @throws IllegalArgumentException empty token
+     */
+    public Claims parseClaims(String token) {
+
+        if (token == null || token.isBlank()) {
+            throw new IllegalArgumentException("JWT must not be empty");
+        }
+
+        // 1) verified before
+        String digest = digest(token);
+        Claims cached = verifiedClaims.getIfPresent(digest);
+        if (cached != null) {
+            return cached;
+        }
+
+        // 2) verify signature + exp, remember only tokens that expire
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        if (claims.getExpiration() != null) {
+            verifiedClaims.put(digest, claims);
+        }
+        return claims;
     }
 
-    public boolean validateToken(String token) {
+    /**
+     * Claims of a valid token, empty for anything that doesn't verify
+     */
+    public Optional<Claims> verify(String token) {
 
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(secretKey)
-                    .setAllowedClockSkewSeconds(CLOCK_SKEW_SEC)
-                    .build()
-                    .parseClaimsJws(token);
-            return true;
+            return Optional.of(parseClaims(token));
         } catch (JwtException | IllegalArgumentException ex) {
-            return false;
+            return Optional.empty();
+        }
+    }
+
+    public String getUsernameFromJWT(String token) {
+        return parseClaims(token).getSubject();
+    }
+
+    public boolean validateToken(String token) {
+        return verify(token).isPresent();
+    }
+
+    // Helper methods
+
+    private static Duration untilExpiration(Claims claims) {
+        long remainingMs = claims.getExpiration().getTime() - System.currentTimeMillis();
+        return Duration.ofMillis(Math.max(0, remainingMs));
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
     }
 }
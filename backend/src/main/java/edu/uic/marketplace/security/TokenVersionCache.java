@@ -0,0 +1,28 @@
+package edu.uic.marketplace.security;
+
+import edu.uic.marketplace.service.user.UserSnapshot;
+import edu.uic.marketplace.service.user.UserSnapshotCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Current token version per user, so a self-contained access token can be accepted without
+ * loading the user. Suspending, deleting or re-roling a user bumps the version in the DB;
+ * versions are read from UserSnapshotCache, which drops the user on every instance after commit.
+ */
+@Component
+@RequiredArgsConstructor
+public class TokenVersionCache {
+
+    private final UserSnapshotCache userSnapshotCache;
+
+    /**
+     * The token's "sv" claim is still the user's current version (and the user is active)
+     */
+    public boolean isCurrent(Long userId, int tokenVersion) {
+        return userSnapshotCache.findById(userId)
+                .filter(UserSnapshot::isActive)
+                .map(snapshot -> snapshot.tokenVersion() == tokenVersion)
+                .orElse(false);
+    }
+}
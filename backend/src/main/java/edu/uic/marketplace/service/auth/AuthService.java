@@ -39,16 +39,15 @@ public interface AuthService {
     LoginResponse login(LoginRequest request);
     
     /**
-     * Logout (invalidate session/token)
-     * @param userId User ID
-     * @param token Access token
+     * Logout (revoke the session's refresh tokens and access tokens)
+     * @param refreshToken Refresh token of the session
      */
-    void logout(Long userId, String token);
+    void logout(String refreshToken);
     
     /**
-     * Refresh access token
+     * Refresh access token (the refresh token is rotated)
      * @param refreshToken Refresh token
-     * @return New token response
+     * @return New access and refresh token
      */
     TokenResponse refreshToken(String refreshToken);
     
@@ -4,6 +4,7 @@ import edu.uic.marketplace.dto.request.auth.*;
 import edu.uic.marketplace.dto.response.auth.LoginResponse;
 import edu.uic.marketplace.dto.response.auth.TokenResponse;
 import edu.uic.marketplace.dto.response.user.UserResponse;
+import edu.uic.marketplace.exception.auth.InvalidRefreshTokenException;
 import edu.uic.marketplace.model.user.User;
 import edu.uic.marketplace.model.user.UserStatus;
 import edu.uic.marketplace.model.verification.EmailVerification;
@@ -14,6 +15,7 @@ import edu.uic.marketplace.repository.verification.PasswordResetRepository;
 import edu.uic.marketplace.security.JwtTokenProvider;
 import edu.uic.marketplace.service.email.EmailService;
 import edu.uic.marketplace.service.user.ProfileService;
+import edu.uic.marketplace.service.user.UserSnapshotCache;
 import edu.uic.marketplace.validator.auth.AuthValidator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -40,6 +42,8 @@ public class AuthServiceImpl implements AuthService {
     private final ProfileService profileService;
 
     private final AuthValidator authValidator;
+    private final UserSnapshotCache userSnapshotCache;
+    private final RefreshTokenService refreshTokenService;
 
     @Override
     @Transactional
@@ -115,6 +119,7 @@ public class AuthServiceImpl implements AuthService {
         User user = verification.getUser();
         userRepository.updateEmailVerified(user.getUserId(), true);
         userRepository.updateStatus(user.getUserId(), UserStatus.ACTIVE);
+        userSnapshotCache.invalidate(user.getUserId());
 
         // 4) Mark verification as complete
         verification.verify();
@@ -163,9 +168,10 @@ public class AuthServiceImpl implements AuthService {
             throw new IllegalStateException("Email verification required");
         }
 
-        // JWT
-        String accessToken = jwtTokenProvider.generateToken(user.getUsername());
-        String refreshToken = jwtTokenProvider.generateToken(user.getUsername());
+        // Short-lived JWT + rotating refresh token, both bound to a new session
+        String sessionId = UUID.randomUUID().toString();
+        String accessToken = jwtTokenProvider.generateToken(user, sessionId);
+        String refreshToken = refreshTokenService.issue(user, sessionId).token();
         int expiresIn = (int) (jwtTokenProvider.getJwtExpirationInMs() / 1000);
 
         // Update lastLoginAt
@@ -186,14 +192,27 @@ public class AuthServiceImpl implements AuthService {
     }
 
     @Override
-    public void logout(Long userId, String token) {
-        // TODO: Implement token blacklist if needed
+    @Transactional
+    public void logout(String refreshToken) {
+        refreshTokenService.revoke(refreshToken);
     }
 
     @Override
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
     public TokenResponse refreshToken(String refreshToken) {
-        // TODO: Implement refresh token logic
-        return null;
+
+        // 1) Spend the refresh token (reuse revokes the session and throws)
+        IssuedRefreshToken rotated = refreshTokenService.rotate(refreshToken);
+
+        // 2) New access token for the same session
+        String accessToken = jwtTokenProvider.generateToken(rotated.user(), rotated.familyId());
+
+        return TokenResponse.builder()
+                .accessToken(accessToken)
+                .refreshToken(rotated.token())
+                .tokenType("Bearer")
+                .expiresIn((int) (jwtTokenProvider.getJwtExpirationInMs() / 1000))
+                .build();
     }
 
     @Override
@@ -248,8 +267,12 @@ public class AuthServiceImpl implements AuthService {
         User user = passwordReset.getUser();
         user.setPasswordHash(passwordEncoder.encode(request.getNewPassword()));
         userRepository.save(user);
+        userSnapshotCache.invalidate(user.getUserId());
+
+        // 4) Sign out every session (whoever knew the old password may hold one)
+        refreshTokenService.revokeAllForUser(user.getUserId());
 
-        // 4) Mark token as used
+        // 5) Mark token as used
         passwordReset.markAsUsed();
         passwordResetRepository.save(passwordReset);
     }
@@ -270,6 +293,7 @@ public class AuthServiceImpl implements AuthService {
         // 3) Update password
         user.setPasswordHash(passwordEncoder.encode(request.getNewPassword()));
         userRepository.save(user);
+        userSnapshotCache.invalidate(userId);
     }
 
     @Override
@@ -0,0 +1,10 @@
+package edu.uic.marketplace.service.auth;
+
+import edu.uic.marketplace.model.user.User;
+
+/**
+ * A refresh token handed to the client (the raw value is never stored) and the
+ * session (family) and user it belongs to
+ */
+public record IssuedRefreshToken(String token, String familyId, User user) {
+}
@@ -0,0 +1,38 @@
+package edu.uic.marketplace.service.auth;
+
+import edu.uic.marketplace.model.user.User;
+
+/**
+ * Rotating refresh tokens. Every login starts a family; every refresh spends the presented
+ * token and issues its successor in the same family. Presenting a spent token again is
+ * treated as theft: the whole family (and its access tokens) is revoked.
+ */
+public interface RefreshTokenService {
+
+    /**
+     * Issue a new refresh token in the given family
+     * @param user Token owner
+     * @param familyId Session (family) id, also the "sid" of its access tokens
+     * @return Raw refresh token for the client
+     */
+    IssuedRefreshToken issue(User user, String familyId);
+
+    /**
+     * Spend a refresh token and issue its successor
+     * @param refreshToken Raw refresh token
+     * @return Successor in the same family
+     */
+    IssuedRefreshToken rotate(String refreshToken);
+
+    /**
+     * Revoke the token's family (logout). Unknown tokens are ignored.
+     * @param refreshToken Raw refresh token
+     */
+    void revoke(String refreshToken);
+
+    /**
+     * Revoke every session of a user (e.g. after a password reset)
+     * @param userId User ID
+     */
+    void revokeAllForUser(Long userId);
+}
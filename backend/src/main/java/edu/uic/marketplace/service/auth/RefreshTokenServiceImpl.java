@@ -0,0 +1,156 @@
+package edu.uic.marketplace.service.auth;
+
+import edu.uic.marketplace.exception.auth.InvalidRefreshTokenException;
+import edu.uic.marketplace.model.auth.RefreshToken;
+import edu.uic.marketplace.model.user.User;
+import edu.uic.marketplace.repository.auth.RefreshTokenRepository;
+import edu.uic.marketplace.security.JwtTokenProvider;
+import edu.uic.marketplace.service.user.UserSnapshot;
+import edu.uic.marketplace.service.user.UserSnapshotCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+
+@Service
+@Slf4j
+public class RefreshTokenServiceImpl implements RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final RevokedSessionRegistry revokedSessionRegistry;
+    private final UserSnapshotCache userSnapshotCache;
+    private final JwtTokenProvider jwtTokenProvider;
+    private final Duration refreshTokenTtl;
+
+    private final SecureRandom random = new SecureRandom();
+
+    public RefreshTokenServiceImpl(RefreshTokenRepository refreshTokenRepository,
+                                   RevokedSessionRegistry revokedSessionRegistry,
+                                   UserSnapshotCache userSnapshotCache,
+                                   JwtTokenProvider jwtTokenProvider,
+                                   @Value("${jwt.refresh-token-expiration:604800}") long refreshTokenTtlSeconds) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.revokedSessionRegistry = revokedSessionRegistry;
+        this.userSnapshotCache = userSnapshotCache;
+        this.jwtTokenProvider = jwtTokenProvider;
+        this.refreshTokenTtl = Duration.ofSeconds(refreshTokenTtlSeconds);
+    }
+
+    @Override
+    @Transactional
+    public IssuedRefreshToken issue(User user, String familyId) {
+
+        // 1) random opaque token, only its hash is stored
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String raw = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        // 2) persist
+        RefreshToken token = RefreshToken.builder()
+                .tokenHash(hash(raw))
+                .user(user)
+                .familyId(familyId)
+                .expiresAt(Instant.now().plus(refreshTokenTtl))
+                .build();
+        refreshTokenRepository.save(token);
+
+        return new IssuedRefreshToken(raw, familyId, user);
+    }
+
+    @Override
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+    public IssuedRefreshToken rotate(String refreshToken) {
+
+        // 1) find token (locked: of two concurrent refreshes only one rotates, the other sees it spent)
+        RefreshToken token = refreshTokenRepository.findByTokenHashForUpdate(hash(refreshToken))
+                .orElseThrow(() -> new InvalidRefreshTokenException("Invalid refresh token"));
+
+        // 2) spent token presented again: someone else holds the family, end the session
+        if (token.isSpent()) {
+            if (token.getRevokedAt() == null) {
+                log.warn("Refresh token reuse detected, revoking session {}", token.getFamilyId());
+            }
+            revokeFamily(token.getFamilyId());
+            throw new InvalidRefreshTokenException("Refresh token has been revoked");
+        }
+
+        if (token.isExpired()) {
+            throw new InvalidRefreshTokenException("Refresh token has expired");
+        }
+
+        // 3) owner must still be allowed in
+        User user = token.getUser();
+        UserSnapshot snapshot = userSnapshotCache.findById(user.getUserId())
+                .orElseThrow(() -> new InvalidRefreshTokenException("Invalid refresh token"));
+        if (!snapshot.isActive()) {
+            revokeFamily(token.getFamilyId());
+            throw new InvalidRefreshTokenException("Account is not active");
+        }
+
+        // 4) spend it, hand out the successor
+        token.rotate();
+        return issue(user, token.getFamilyId());
+    }
+
+    @Override
+    @Transactional
+    public void revoke(String refreshToken) {
+
+        refreshTokenRepository.findByTokenHash(hash(refreshToken))
+                .ifPresent(token -> revokeFamily(token.getFamilyId()));
+    }
+
+    @Override
+    @Transactional
+    public void revokeAllForUser(Long userId) {
+
+        // 1) live sessions first (their access tokens have to be rejected too)
+        Instant now = Instant.now();
+        List<String> familyIds = refreshTokenRepository.findLiveFamilyIds(userId, now);
+
+        // 2) revoke
+        refreshTokenRepository.revokeAllForUser(userId, now);
+        Instant deadline = jwtTokenProvider.accessTokenDeadline();
+        familyIds.forEach(familyId -> revokedSessionRegistry.revoke(familyId, deadline));
+    }
+
+    @Scheduled(fixedDelayString = "${app.auth.refresh-tokens.purge-interval-ms:3600000}",
+            initialDelayString = "${app.auth.refresh-tokens.purge-interval-ms:3600000}")
+    @Transactional
+    public void purgeExpired() {
+
+        int purged = refreshTokenRepository.deleteExpired(Instant.now());
+        if (purged > 0) {
+            log.debug("Purged {} expired refresh token(s)", purged);
+        }
+    }
+
+    // Helper methods
+
+    private void revokeFamily(String familyId) {
+        refreshTokenRepository.revokeFamily(familyId, Instant.now());
+        revokedSessionRegistry.revoke(familyId, jwtTokenProvider.accessTokenDeadline());
+    }
+
+    static String hash(String raw) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(raw.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
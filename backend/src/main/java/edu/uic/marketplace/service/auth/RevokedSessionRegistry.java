@@ -0,0 +1,119 @@
+package edu.uic.marketplace.service.auth;
+
+import edu.uic.marketplace.model.auth.RevokedSession;
+import edu.uic.marketplace.repository.auth.RevokedSessionRepository;
+import edu.uic.marketplace.service.common.BloomFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sessions whose access tokens are revoked before they expire (logout, refresh token reuse).
+ * <p>
+ * The revoked_sessions table is the source of truth; an in-memory Bloom filter over it answers
+ * the common case - a session that was never revoked - without any I/O. Only filter hits
+ * (revoked sessions and the occasional false positive) are confirmed against the table.
+ * The filter is rebuilt from the table every {@code app.auth.revocation.refresh-interval-ms},
+ * which is how other instances learn about revocations and how expired entries age out.
+ */
+@Component
+@Slf4j
+public class RevokedSessionRegistry {
+
+    private static final double FALSE_POSITIVE_RATE = 0.001;
+
+    private final RevokedSessionRepository revokedSessionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long expectedEntries;
+    private final Duration refreshInterval;
+
+    // revoked here since the last rebuild began (re-added to the next filter before it goes live)
+    private final Map<String, Instant> recent = new ConcurrentHashMap<>();
+
+    private volatile BloomFilter filter;
+
+    public RevokedSessionRegistry(RevokedSessionRepository revokedSessionRepository,
+                                  TransactionTemplate transactionTemplate,
+                                  @Value("${app.auth.revocation.expected-entries:100000}") long expectedEntries,
+                                  @Value("${app.auth.revocation.refresh-interval-ms:30000}") long refreshIntervalMs) {
+        this.revokedSessionRepository = revokedSessionRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.expectedEntries = expectedEntries;
+        this.refreshInterval = Duration.ofMillis(refreshIntervalMs);
+        this.filter = new BloomFilter(expectedEntries, FALSE_POSITIVE_RATE);
+    }
+
+    /**
+     * Access tokens of this session must be rejected
+     */
+    public boolean isRevoked(String sessionId) {
+
+        // 1) never revoked (the common case): no I/O
+        if (!filter.mightContain(sessionId)) {
+            return false;
+        }
+
+        // 2) revoked or a false positive: ask the table
+        return revokedSessionRepository.existsBySessionIdAndExpiresAtAfter(sessionId, Instant.now());
+    }
+
+    /**
+     * Reject the session's access tokens until {@code until} (their latest possible expiry)
+     */
+    public void revoke(String sessionId, Instant until) {
+
+        RevokedSession session = revokedSessionRepository.findById(sessionId)
+                .orElseGet(() -> RevokedSession.builder().sessionId(sessionId).expiresAt(until).build());
+        if (session.getExpiresAt().isBefore(until)) {
+            session.setExpiresAt(until);
+        }
+        revokedSessionRepository.save(session);
+
+        // visible here right away; a false positive until commit only costs a lookup
+        synchronized (this) {
+            filter.put(sessionId);
+            recent.put(sessionId, Instant.now());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.auth.revocation.refresh-interval-ms:30000}",
+            initialDelayString = "${app.auth.revocation.refresh-interval-ms:30000}")
+    public void rebuild() {
+
+        try {
+            // 1) purge what has expired, load what is still revoked
+            Instant now = Instant.now();
+            List<String> active = transactionTemplate.execute(status -> {
+                revokedSessionRepository.deleteExpired(now);
+                return revokedSessionRepository.findActiveSessionIds(now);
+            });
+
+            // 2) size for the current load, keep the false-positive rate
+            BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, 2L * active.size()), FALSE_POSITIVE_RATE);
+            active.forEach(rebuilt::put);
+
+            // 3) swap, keeping local revocations that may not have been committed at load time
+            synchronized (this) {
+                recent.keySet().forEach(rebuilt::put);
+                filter = rebuilt;
+                Instant cutoff = now.minus(refreshInterval.multipliedBy(2));
+                recent.values().removeIf(at -> at.isBefore(cutoff));
+            }
+
+            log.debug("Revoked session filter rebuilt with {} session(s)", active.size());
+        } catch (RuntimeException e) {
+            log.warn("Revoked session filter rebuild failed: {}", e.getMessage());
+        }
+    }
+}
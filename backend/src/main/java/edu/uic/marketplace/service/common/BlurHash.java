@@ -0,0 +1,117 @@
+package edu.uic.marketplace.service.common;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * BlurHash encoder (https://blurha.sh) - a short base83 string clients decode into a
+ * blurred placeholder while the real image loads.
+ * <p>
+ * Cost is O(width * height * components), so callers pass an already downscaled image.
+ */
+public final class BlurHash {
+
+    private static final String BASE83 =
+            "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz#$%*+,-.:;=?@[]^_{|}~";
+
+    private BlurHash() {
+    }
+
+    public static String encode(BufferedImage image, int xComponents, int yComponents) {
+
+        if (xComponents < 1 || xComponents > 9 || yComponents < 1 || yComponents > 9) {
+            throw new IllegalArgumentException("BlurHash components must be between 1 and 9");
+        }
+
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int[] pixels = image.getRGB(0, 0, width, height, null, 0, width);
+
+        // 1) linear RGB once per pixel
+        float[] r = new float[pixels.length];
+        float[] g = new float[pixels.length];
+        float[] b = new float[pixels.length];
+        for (int p = 0; p < pixels.length; p++) {
+            r[p] = srgbToLinear(pixels[p] >> 16 & 0xFF);
+            g[p] = srgbToLinear(pixels[p] >> 8 & 0xFF);
+            b[p] = srgbToLinear(pixels[p] & 0xFF);
+        }
+
+        // 2) cosine transform factors
+        double[][] factors = new double[xComponents * yComponents][];
+        for (int j = 0; j < yComponents; j++) {
+            for (int i = 0; i < xComponents; i++) {
+                double normalisation = i == 0 && j == 0 ? 1 : 2;
+                double sr = 0, sg = 0, sb = 0;
+                for (int y = 0; y < height; y++) {
+                    double cy = Math.cos(Math.PI * j * y / height);
+                    for (int x = 0; x < width; x++) {
+                        double basis = Math.cos(Math.PI * i * x / width) * cy;
+                        int p = y * width + x;
+                        sr += basis * r[p];
+                        sg += basis * g[p];
+                        sb += basis * b[p];
+                    }
+                }
+                double scale = normalisation / (width * height);
+                factors[j * xComponents + i] = new double[]{sr * scale, sg * scale, sb * scale};
+            }
+        }
+
+        // 3) encode: size flag, max AC, DC, ACs
+        StringBuilder hash = new StringBuilder(4 + 2 * factors.length);
+        encode83(hash, (xComponents - 1) + (yComponents - 1) * 9, 1);
+
+        double maximumValue;
+        if (factors.length > 1) {
+            double actualMax = 0;
+            for (int k = 1; k < factors.length; k++) {
+                for (double v : factors[k]) actualMax = Math.max(actualMax, Math.abs(v));
+            }
+            int quantisedMax = (int) Math.max(0, Math.min(82, Math.floor(actualMax * 166 - 0.5)));
+            maximumValue = (quantisedMax + 1) / 166.0;
+            encode83(hash, quantisedMax, 1);
+        } else {
+            maximumValue = 1;
+            encode83(hash, 0, 1);
+        }
+
+        double[] dc = factors[0];
+        encode83(hash, (linearToSrgb(dc[0]) << 16) + (linearToSrgb(dc[1]) << 8) + linearToSrgb(dc[2]), 4);
+
+        for (int k = 1; k < factors.length; k++) {
+            double[] ac = factors[k];
+            int value = quantiseAc(ac[0], maximumValue) * 19 * 19
+                    + quantiseAc(ac[1], maximumValue) * 19
+                    + quantiseAc(ac[2], maximumValue);
+            encode83(hash, value, 2);
+        }
+        return hash.toString();
+    }
+
+    // ------------------------------------------------------------------
+
+    private static int quantiseAc(double value, double maximumValue) {
+        double v = value / maximumValue;
+        double signPow = Math.copySign(Math.sqrt(Math.abs(v)), v);
+        return (int) Math.max(0, Math.min(18, Math.floor(signPow * 9 + 9.5)));
+    }
+
+    private static float srgbToLinear(int value) {
+        float v = value / 255f;
+        return v <= 0.04045f ? v / 12.92f : (float) Math.pow((v + 0.055f) / 1.055f, 2.4f);
+    }
+
+    private static int linearToSrgb(double value) {
+        double v = Math.max(0, Math.min(1, value));
+        return v <= 0.0031308
+                ? (int) (v * 12.92 * 255 + 0.5)
+                : (int) ((1.055 * Math.pow(v, 1 / 2.4) - 0.055) * 255 + 0.5);
+    }
+
+    private static void encode83(StringBuilder out, int value, int length) {
+        for (int i = 1; i <= length; i++) {
+            int digit = (int) (value / Math.pow(83, length - i)) % 83;
+            out.append(BASE83.charAt(digit));
+        }
+    }
+}
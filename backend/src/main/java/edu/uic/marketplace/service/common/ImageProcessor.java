@@ -0,0 +1,249 @@
+package edu.uic.marketplace.service.common;
+
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+
+/**
+ * Decode / orient / resize / re-encode helpers for uploaded images (JDK ImageIO only).
+ * <p>
+ * Decoding applies the EXIF orientation and yields an opaque RGB image; encoding writes
+ * a baseline JPEG without any metadata, so EXIF (GPS, device, ...) is stripped.
+ */
+@Component
+public class ImageProcessor {
+
+    private static final int ORIENTATION_TAG = 0x0112;
+
+    // decode limits: at most ~160 MB as RGB (before the oriented copy); phone photos are ~12 MP
+    static final int MAX_DIMENSION = 12_000;
+    static final long MAX_PIXELS = 40_000_000L;
+
+    // BlurHash input: 4x3 components over at most 32px wide is plenty for a placeholder
+    private static final int BLUR_HASH_WIDTH = 32;
+    private static final int BLUR_HASH_X_COMPONENTS = 4;
+    private static final int BLUR_HASH_Y_COMPONENTS = 3;
+
+    /**
+     * Decode once, upright and in RGB
+     */
+    public BufferedImage decode(byte[] bytes) {
+        return orient(read(bytes, 0), readJpegOrientation(bytes));
+    }
+
+    /**
+     * Decode at roughly the given width using source subsampling, so only a fraction
+     * of the pixels are materialized (placeholders for images we don't resize).
+     */
+    public BufferedImage decodeDownscaled(byte[] bytes, int width) {
+        return orient(read(bytes, width), readJpegOrientation(bytes));
+    }
+
+    /**
+     * Scale down to the given width keeping the aspect ratio (never upscales).
+     * Halves repeatedly first so bilinear filtering stays sharp on large photos.
+     */
+    public BufferedImage resizeToWidth(BufferedImage source, int width) {
+
+        if (source.getWidth() <= width) return source;
+
+        BufferedImage current = source;
+        while (current.getWidth() / 2 >= width) {
+            current = scale(current, current.getWidth() / 2, Math.max(1, current.getHeight() / 2));
+        }
+
+        int height = Math.max(1, Math.round((float) current.getHeight() * width / current.getWidth()));
+        return current.getWidth() == width ? current : scale(current, width, height);
+    }
+
+    /**
+     * BlurHash placeholder; pass an already downscaled image (e.g. the thumbnail)
+     */
+    public String blurHash(BufferedImage image) {
+        return BlurHash.encode(resizeToWidth(image, BLUR_HASH_WIDTH), BLUR_HASH_X_COMPONENTS, BLUR_HASH_Y_COMPONENTS);
+    }
+
+    public byte[] encodeJpeg(BufferedImage image, float quality) {
+
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(out)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+
+            writer.setOutput(ios);
+            writer.write(null, new IIOImage(image, null, null), param); // no metadata
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    // ------------------------------------------------------------------
+
+    /**
+     * Read the dimensions from the header first and refuse oversize images before any pixel
+     * buffer is allocated: a few KB of compressed data can declare gigabytes of pixels.
+     * @param targetWidth Subsample to roughly this width, 0 for full resolution
+     */
+    private static BufferedImage read(byte[] bytes, int targetWidth) {
+
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(bytes))) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                throw new IllegalArgumentException("Unsupported image format");
+            }
+
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if (width > MAX_DIMENSION || height > MAX_DIMENSION || (long) width * height > MAX_PIXELS) {
+                    throw new IllegalArgumentException("Image too large: " + width + "x" + height);
+                }
+
+                ImageReadParam param = reader.getDefaultReadParam();
+                if (targetWidth > 0) {
+                    int step = Math.max(1, width / targetWidth);
+                    param.setSourceSubsampling(step, step, 0, 0);
+                }
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Unreadable image", e);
+        }
+    }
+
+    private static BufferedImage scale(BufferedImage source, int width, int height) {
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = scaled.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return scaled;
+    }
+
+    /**
+     * Redraw into an RGB image with the EXIF orientation (1-8) applied.
+     * Transparent pixels become white since the output is JPEG.
+     */
+    static BufferedImage orient(BufferedImage source, int orientation) {
+
+        int w = source.getWidth();
+        int h = source.getHeight();
+        boolean swap = orientation >= 5 && orientation <= 8;
+
+        AffineTransform t = new AffineTransform();
+        switch (orientation) {
+            case 2 -> { t.translate(w, 0); t.scale(-1, 1); }                                // mirror
+            case 3 -> { t.translate(w, h); t.rotate(Math.PI); }                            // 180
+            case 4 -> { t.translate(0, h); t.scale(1, -1); }                               // flip
+            case 5 -> { t.rotate(-Math.PI / 2); t.scale(-1, 1); }                          // transpose
+            case 6 -> { t.translate(h, 0); t.rotate(Math.PI / 2); }                        // 90 CW
+            case 7 -> { t.translate(h, w); t.scale(-1, -1); t.rotate(-Math.PI / 2); t.scale(-1, 1); } // transverse
+            case 8 -> { t.translate(0, w); t.rotate(3 * Math.PI / 2); }                    // 90 CCW
+            default -> { }
+        }
+
+        if (t.isIdentity() && source.getType() == BufferedImage.TYPE_INT_RGB) return source;
+
+        BufferedImage target = new BufferedImage(swap ? h : w, swap ? w : h, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, target.getWidth(), target.getHeight());
+            g.drawImage(source, t, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    /**
+     * EXIF orientation from a JPEG's APP1 segment; 1 (upright) when absent or not a JPEG.
+     */
+    static int readJpegOrientation(byte[] b) {
+
+        if (b.length < 4 || (b[0] & 0xFF) != 0xFF || (b[1] & 0xFF) != 0xD8) return 1;
+
+        int pos = 2;
+        while (pos + 4 <= b.length) {
+            if ((b[pos] & 0xFF) != 0xFF) return 1;
+
+            int marker = b[pos + 1] & 0xFF;
+            if (marker == 0xD9 || marker == 0xDA) return 1; // end of image / start of scan
+
+            int length = readShort(b, pos + 2, false);
+            int end = pos + 2 + length;
+            if (length < 2 || end > b.length) return 1;
+
+            if (marker == 0xE1 && length >= 16
+                    && b[pos + 4] == 'E' && b[pos + 5] == 'x' && b[pos + 6] == 'i' && b[pos + 7] == 'f'
+                    && b[pos + 8] == 0 && b[pos + 9] == 0) {
+                return readTiffOrientation(b, pos + 10, end);
+            }
+            pos = end;
+        }
+        return 1;
+    }
+
+    private static int readTiffOrientation(byte[] b, int tiff, int end) {
+
+        boolean littleEndian;
+        if (b[tiff] == 'I' && b[tiff + 1] == 'I') littleEndian = true;
+        else if (b[tiff] == 'M' && b[tiff + 1] == 'M') littleEndian = false;
+        else return 1;
+
+        long ifdOffset = readInt(b, tiff + 4, littleEndian) & 0xFFFFFFFFL;
+        if (ifdOffset < 8 || tiff + ifdOffset + 2 > end) return 1;
+
+        int ifd = (int) (tiff + ifdOffset);
+        int entries = readShort(b, ifd, littleEndian);
+        for (int i = 0; i < entries; i++) {
+            int entry = ifd + 2 + i * 12;
+            if (entry + 12 > end) return 1;
+
+            if (readShort(b, entry, littleEndian) == ORIENTATION_TAG) {
+                int value = readShort(b, entry + 8, littleEndian);
+                return value >= 1 && value <= 8 ? value : 1;
+            }
+        }
+        return 1;
+    }
+
+    private static int readShort(byte[] b, int pos, boolean littleEndian) {
+        return littleEndian
+                ? (b[pos] & 0xFF) | (b[pos + 1] & 0xFF) << 8
+                : (b[pos] & 0xFF) << 8 | (b[pos + 1] & 0xFF);
+    }
+
+    private static int readInt(byte[] b, int pos, boolean littleEndian) {
+        return littleEndian
+                ? readShort(b, pos, true) | readShort(b, pos + 2, true) << 16
+                : readShort(b, pos, false) << 16 | readShort(b, pos + 2, false);
+    }
+}
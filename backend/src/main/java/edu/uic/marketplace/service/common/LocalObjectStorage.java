@@ -0,0 +1,217 @@
+package edu.uic.marketplace.service.common;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Objects as files under {@code app.storage.local.root}, served by LocalUploadController.
+ * For development, tests and offline benchmarks; small deployments can run without a bucket.
+ * <p>
+ * Writes go through a temp file and an atomic move, so readers never see a partial object.
+ * The content type is kept in a {@code <file>.content-type} sidecar.
+ */
+@Component
+@ConditionalOnProperty(name = "app.storage.type", havingValue = "local")
+public class LocalObjectStorage implements ObjectStorage {
+
+    public static final String PATH = "/api/uploads/local/";
+
+    private static final String CONTENT_TYPE_SUFFIX = ".content-type";
+    private static final String TEMP_PREFIX = ".upload-";
+
+    private final Path root;
+    private final String baseUrl;
+
+    public LocalObjectStorage(@Value("${app.storage.local.root:${java.io.tmpdir}/uic-marketplace-uploads}") Path root,
+                              @Value("${app.storage.local.base-url:http://localhost:8080}") String baseUrl) throws IOException {
+        this.root = Files.createDirectories(root).toAbsolutePath().normalize();
+        this.baseUrl = baseUrl;
+    }
+
+    /**
+     * The stream must hold exactly {@code size} bytes; anything else is rejected
+     * without keeping more than {@code size + 1} bytes.
+     */
+    @Override
+    public void put(String key, InputStream content, long size, String contentType, String cacheControl) throws IOException {
+
+        write(key, contentType, tmp -> {
+            try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.WRITE);
+                 ReadableByteChannel in = Channels.newChannel(content)) {
+
+                long position = 0;
+                while (position < size) {
+                    long n = out.transferFrom(in, position, size - position);
+                    if (n == 0) break; // end of stream
+                    position += n;
+                }
+                if (position != size || in.read(ByteBuffer.allocate(1)) != -1) {
+                    throw new IllegalArgumentException("Uploaded size does not match the declared size");
+                }
+            }
+        });
+    }
+
+    /**
+     * Store a file the app already has on disk (channel to channel, no user-space copy).
+     */
+    public void put(String key, Path file, String contentType) {
+        try {
+            write(key, contentType, tmp -> {
+                try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ);
+                     FileChannel out = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                    long size = in.size();
+                    long position = 0;
+                    while (position < size) {
+                        position += in.transferTo(position, size - position, out);
+                    }
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return Files.isRegularFile(resolve(key));
+    }
+
+    @Override
+    public InputStream open(String key) throws IOException {
+        return Files.newInputStream(resolve(key));
+    }
+
+    @Override
+    public void delete(List<String> keys) {
+        try {
+            for (String key : keys) {
+                Path file = resolve(key);
+                Files.deleteIfExists(file);
+                Files.deleteIfExists(contentTypeFile(file));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Walks the directory and sorts the keys in memory (keys are ASCII, so String order
+     * is binary order) - fine for the volumes this backend is meant for.
+     */
+    @Override
+    public Iterator<ListedObject> list(String prefix) {
+
+        int slash = prefix.lastIndexOf('/');
+        Path dir = slash < 0 ? root : resolve(prefix.substring(0, slash));
+        if (!Files.isDirectory(dir)) return List.<ListedObject>of().iterator();
+
+        try (Stream<Path> files = Files.walk(dir)) {
+            return files
+                    .filter(Files::isRegularFile)
+                    .filter(file -> !isInternal(file))
+                    .map(file -> new ListedObject(keyFor(file), lastModified(file)))
+                    .filter(object -> object.key().startsWith(prefix))
+                    .sorted(Comparator.comparing(ListedObject::key))
+                    .toList()
+                    .iterator();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public String publicUrl(String key) {
+        return baseUrl + PATH + key;
+    }
+
+    @Override
+    public String keyMarker() {
+        return PATH;
+    }
+
+    /**
+     * File backing a key (for serving)
+     */
+    public Path path(String key) {
+        return resolve(key);
+    }
+
+    /**
+     * Content type recorded at upload, else a guess from the file name
+     */
+    public String contentType(String key) throws IOException {
+        Path file = resolve(key);
+        Path typeFile = contentTypeFile(file);
+        return Files.exists(typeFile) ? Files.readString(typeFile) : Files.probeContentType(file);
+    }
+
+    // ------------------------------------------------------------------
+
+    private void write(String key, String contentType, TempFileWriter writer) throws IOException {
+
+        Path target = resolve(key);
+        Files.createDirectories(target.getParent());
+
+        Path tmp = Files.createTempFile(target.getParent(), TEMP_PREFIX, ".tmp");
+        try {
+            writer.write(tmp);
+            Files.writeString(contentTypeFile(target), contentType);
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private Path resolve(String key) {
+        Path file = root.resolve(key).normalize();
+        if (!file.startsWith(root)) {
+            throw new IllegalArgumentException("Invalid object key");
+        }
+        return file;
+    }
+
+    private String keyFor(Path file) {
+        return root.relativize(file).toString().replace(file.getFileSystem().getSeparator(), "/");
+    }
+
+    private static boolean isInternal(Path file) {
+        String name = file.getFileName().toString();
+        return name.endsWith(CONTENT_TYPE_SUFFIX) || name.startsWith(TEMP_PREFIX);
+    }
+
+    private static Instant lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toInstant();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Path contentTypeFile(Path target) {
+        return target.resolveSibling(target.getFileName() + CONTENT_TYPE_SUFFIX);
+    }
+
+    @FunctionalInterface
+    private interface TempFileWriter {
+        void write(Path tmp) throws IOException;
+    }
+}
@@ -0,0 +1,60 @@
+package edu.uic.marketplace.service.common;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Raw object store behind S3Service: bytes under keys, no reference counting.
+ * Selected with {@code app.storage.type} (s3 | local), like DirectUploadStorage.
+ */
+public interface ObjectStorage {
+
+    /**
+     * Store the content under the key, replacing any existing object.
+     */
+    void put(String key, InputStream content, long size, String contentType, String cacheControl) throws IOException;
+
+    boolean exists(String key);
+
+    /**
+     * Read an object; the caller closes the stream.
+     */
+    InputStream open(String key) throws IOException;
+
+    /**
+     * Delete the objects; keys that don't exist are ignored.
+     */
+    void delete(List<String> keys);
+
+    /**
+     * Objects under the prefix in binary key order.
+     */
+    Iterator<ListedObject> list(String prefix);
+
+    /**
+     * URL stored on listings/profiles for the object.
+     */
+    String publicUrl(String key);
+
+    /**
+     * The part of every public URL that comes right before the key
+     * (".amazonaws.com/", "/api/uploads/local/").
+     */
+    String keyMarker();
+
+    /**
+     * Key of a URL produced by {@link #publicUrl}, null for URLs of other stores.
+     */
+    default String keyOf(String url) {
+        int index = url.indexOf(keyMarker());
+        if (index == -1) return null;
+
+        return url.substring(index + keyMarker().length());
+    }
+
+    record ListedObject(String key, Instant lastModified) {
+    }
+}
@@ -0,0 +1,63 @@
+package edu.uic.marketplace.service.common;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fixed set of equally sized byte buffers shared by all multipart uploads.
+ * <p>
+ * Buffers are allocated lazily up to {@code maxBuffers} and then only reused, so the memory
+ * spent on part data never exceeds {@code maxBuffers * bufferSize} no matter how many or how
+ * large the uploads are; callers block in {@link #acquire()} until a buffer comes back.
+ */
+class PartBufferPool {
+
+    private final int bufferSize;
+    private final int maxBuffers;
+    private final BlockingQueue<byte[]> free;
+    private final AtomicInteger allocated = new AtomicInteger();
+    private final AtomicInteger leased = new AtomicInteger();
+    private final AtomicInteger peakLeased = new AtomicInteger();
+
+    PartBufferPool(int bufferSize, int maxBuffers) {
+        if (bufferSize <= 0 || maxBuffers <= 0) {
+            throw new IllegalArgumentException("Buffer size and count must be positive");
+        }
+        this.bufferSize = bufferSize;
+        this.maxBuffers = maxBuffers;
+        this.free = new ArrayBlockingQueue<>(maxBuffers);
+    }
+
+    byte[] acquire() throws InterruptedException {
+
+        byte[] buffer = free.poll();
+        if (buffer == null) {
+            buffer = allocated.getAndUpdate(n -> n < maxBuffers ? n + 1 : n) < maxBuffers
+                    ? new byte[bufferSize]
+                    : free.take();
+        }
+
+        peakLeased.accumulateAndGet(leased.incrementAndGet(), Math::max);
+        return buffer;
+    }
+
+    void release(byte[] buffer) {
+        leased.decrementAndGet();
+        free.offer(buffer);
+    }
+
+    int bufferSize() {
+        return bufferSize;
+    }
+
+    /** Buffers ever created (never more than maxBuffers) */
+    int allocatedBuffers() {
+        return allocated.get();
+    }
+
+    /** Most buffers in use at the same time */
+    int peakLeasedBuffers() {
+        return peakLeased.get();
+    }
+}
@@ -0,0 +1,85 @@
+package edu.uic.marketplace.service.common;
+
+import edu.uic.marketplace.exception.common.DependencyUnavailableException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded concurrency plus a circuit breaker for one remote dependency (see ResilienceConfig).
+ * <p>
+ * A full bulkhead or an open circuit fails fast with DependencyUnavailableException (503)
+ * instead of parking another request thread on a degraded service. Once the circuit has been
+ * open for a while, a few probe calls are let through (half-open) and decide whether it closes.
+ */
+public class RemoteCallGuard {
+
+    private final Bulkhead bulkhead;
+    private final CircuitBreaker circuitBreaker;
+
+    public RemoteCallGuard(Bulkhead bulkhead, CircuitBreaker circuitBreaker) {
+        this.bulkhead = bulkhead;
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    /**
+     * Run the call under the bulkhead and circuit breaker. Exceptions from the call are
+     * rethrown as they are, after being recorded.
+     */
+    public <T, E extends Exception> T call(RemoteCall<T, E> call) throws E {
+
+        // 1) bounded concurrency; waits at most the bulkhead's max-wait
+        if (!bulkhead.tryAcquirePermission()) {
+            throw new DependencyUnavailableException(name(), "too many concurrent calls");
+        }
+
+        try {
+            // 2) open circuit (or half-open with all probes taken): don't call at all
+            if (!circuitBreaker.tryAcquirePermission()) {
+                throw new DependencyUnavailableException(name(), "circuit open");
+            }
+
+            // 3) call and record the outcome
+            long start = System.nanoTime();
+            try {
+                T result = call.call();
+                circuitBreaker.onSuccess(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                return result;
+            } catch (Exception | Error e) {
+                circuitBreaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, e);
+                throw e;
+            }
+        } finally {
+            bulkhead.onComplete();
+        }
+    }
+
+    public void run(Runnable action) {
+        call(() -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Calls are currently rejected without being attempted
+     */
+    public boolean isOpen() {
+        CircuitBreaker.State state = circuitBreaker.getState();
+        return state == CircuitBreaker.State.OPEN || state == CircuitBreaker.State.FORCED_OPEN;
+    }
+
+    public String name() {
+        return circuitBreaker.getName();
+    }
+
+    public CircuitBreaker circuitBreaker() {
+        return circuitBreaker;
+    }
+
+    @FunctionalInterface
+    public interface RemoteCall<T, E extends Exception> {
+        T call() throws E;
+    }
+}
@@ -0,0 +1,132 @@
+package edu.uic.marketplace.service.common;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Entities already resolved during the current HTTP request, by lookup key (username, publicId, ...),
+ * so one request hits the DB at most once per key however many services resolve it.
+ * <p>
+ * Inside a transaction a remembered entity is only reused while the current persistence context
+ * still manages it; otherwise it is loaded again. Outside a web request (workers, schedulers)
+ * nothing is remembered. DB lookups and hits per request are published as
+ * {@code request.identity-map.lookups} / {@code request.identity-map.hits}.
+ */
+@Component
+@Slf4j
+public class RequestIdentityMap {
+
+    private static final String ATTRIBUTE = RequestIdentityMap.class.getName();
+
+    private final EntityManager entityManager;
+    private final DistributionSummary lookupsPerRequest;
+    private final DistributionSummary hitsPerRequest;
+
+    public RequestIdentityMap(EntityManager entityManager, MeterRegistry meterRegistry) {
+        this.entityManager = entityManager;
+        this.lookupsPerRequest = DistributionSummary.builder("request.identity-map.lookups")
+                .description("DB lookups by username / publicId per request")
+                .register(meterRegistry);
+        this.hitsPerRequest = DistributionSummary.builder("request.identity-map.hits")
+                .description("Lookups answered from the request's identity map")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The entity remembered under the key, or the loader's result (remembered when present)
+     */
+    public <T> Optional<T> find(String key, Class<T> type, Supplier<Optional<T>> loader) {
+
+        Entries entries = entries();
+        if (entries == null) {
+            return loader.get();
+        }
+
+        // 1) resolved earlier in this request and still usable here
+        Object remembered = entries.byKey.get(key);
+        if (type.isInstance(remembered) && usable(remembered)) {
+            entries.hits++;
+            return Optional.of(type.cast(remembered));
+        }
+
+        // 2) load once and remember
+        entries.lookups++;
+        Optional<T> loaded = loader.get();
+        loaded.ifPresent(entity -> entries.byKey.put(key, entity));
+        return loaded;
+    }
+
+    /**
+     * Remember an entity under another key it is known by (e.g. a user's publicId after a username lookup)
+     */
+    public void put(String key, Object entity) {
+
+        Entries entries = entries();
+        if (entries != null && entity != null) {
+            entries.byKey.put(key, entity);
+        }
+    }
+
+    /**
+     * DB lookups made through the map so far in the current request (0 outside a request)
+     */
+    public int lookups() {
+        Entries entries = entries();
+        return entries == null ? 0 : entries.lookups;
+    }
+
+    /**
+     * Lookups answered from the map so far in the current request (0 outside a request)
+     */
+    public int hits() {
+        Entries entries = entries();
+        return entries == null ? 0 : entries.hits;
+    }
+
+    // Helper methods
+
+    /**
+     * Managed by the current persistence context, or no transaction (callers get a detached entity either way)
+     */
+    private boolean usable(Object entity) {
+        return !TransactionSynchronizationManager.isActualTransactionActive() || entityManager.contains(entity);
+    }
+
+    private Entries entries() {
+
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request == null) return null;
+
+        Entries entries = (Entries) request.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (entries == null) {
+            Entries created = new Entries();
+            request.setAttribute(ATTRIBUTE, created, RequestAttributes.SCOPE_REQUEST);
+            request.registerDestructionCallback(ATTRIBUTE, () -> record(created), RequestAttributes.SCOPE_REQUEST);
+            entries = created;
+        }
+        return entries;
+    }
+
+    private void record(Entries entries) {
+        lookupsPerRequest.record(entries.lookups);
+        hitsPerRequest.record(entries.hits);
+        log.debug("Identity map: {} DB lookup(s), {} hit(s)", entries.lookups, entries.hits);
+    }
+
+    private static final class Entries {
+        private final Map<String, Object> byKey = new HashMap<>();
+        private int lookups;
+        private int hits;
+    }
+}
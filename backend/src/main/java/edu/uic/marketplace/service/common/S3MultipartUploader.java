@@ -0,0 +1,172 @@
+package edu.uic.marketplace.service.common;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.*;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Multipart upload for large objects with bounded memory.
+ * <p>
+ * The source is read sequentially into buffers from a shared {@link PartBufferPool}; each filled
+ * buffer is uploaded as one part on a virtual thread and returned to the pool when the part is done.
+ * At most {@code part-concurrency} parts of one upload are in flight, and all uploads together never
+ * hold more than {@code max-part-buffers} buffers. Any failure aborts the multipart upload so no
+ * parts are left behind (and billed) in the bucket.
+ */
+@Component
+@Slf4j
+public class S3MultipartUploader {
+
+    /** S3 rejects parts (other than the last) smaller than 5 MiB */
+    static final long MIN_PART_SIZE = 5L * 1024 * 1024;
+
+    private final AmazonS3 amazonS3;
+    private final long threshold;
+    private final int partConcurrency;
+    private final PartBufferPool buffers;
+
+    public S3MultipartUploader(AmazonS3 amazonS3,
+                               @Value("${app.storage.s3.multipart-threshold:8MB}") DataSize threshold,
+                               @Value("${app.storage.s3.part-size:5MB}") DataSize partSize,
+                               @Value("${app.storage.s3.part-concurrency:4}") int partConcurrency,
+                               @Value("${app.storage.s3.max-part-buffers:16}") int maxPartBuffers) {
+        if (partSize.toBytes() < MIN_PART_SIZE) {
+            throw new IllegalArgumentException("app.storage.s3.part-size must be at least 5MB");
+        }
+        this.amazonS3 = amazonS3;
+        this.threshold = threshold.toBytes();
+        this.partConcurrency = partConcurrency;
+        this.buffers = new PartBufferPool(Math.toIntExact(partSize.toBytes()), maxPartBuffers);
+    }
+
+    /**
+     * Whether an object of this size should go through {@link #upload}
+     */
+    public boolean shouldUse(long size) {
+        return size >= threshold;
+    }
+
+    /**
+     * Upload the stream as a multipart object (the stream is read to the end, not closed)
+     */
+    public void upload(String bucket, String key, ObjectMetadata metadata, InputStream in) throws IOException {
+
+        String uploadId = amazonS3.initiateMultipartUpload(new InitiateMultipartUploadRequest(bucket, key, metadata))
+                .getUploadId();
+
+        try {
+            List<PartETag> etags = uploadParts(bucket, key, uploadId, in);
+            amazonS3.completeMultipartUpload(new CompleteMultipartUploadRequest(bucket, key, uploadId, etags));
+
+        } catch (IOException | RuntimeException e) {
+            abort(bucket, key, uploadId);
+            throw e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abort(bucket, key, uploadId);
+            throw new IllegalStateException("Multipart upload interrupted", e);
+        }
+    }
+
+    PartBufferPool buffers() {
+        return buffers;
+    }
+
+    // ------------------------------------------------------------------
+
+    private List<PartETag> uploadParts(String bucket, String key, String uploadId, InputStream in)
+            throws IOException, InterruptedException {
+
+        Semaphore inFlight = new Semaphore(partConcurrency);
+        List<Future<PartETag>> parts = new ArrayList<>();
+
+        // close() waits for in-flight parts, so every buffer is back in the pool once the block exits
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+
+            for (int partNumber = 1; ; partNumber++) {
+                inFlight.acquire();
+                byte[] buffer;
+                try {
+                    buffer = buffers.acquire();
+                } catch (InterruptedException e) {
+                    inFlight.release();
+                    throw e;
+                }
+
+                int length;
+                try {
+                    length = in.readNBytes(buffer, 0, buffer.length);
+                } catch (IOException e) {
+                    buffers.release(buffer);
+                    inFlight.release();
+                    cancel(parts);
+                    throw e;
+                }
+
+                // empty tail (size was an exact multiple of the part size)
+                if (length == 0 && partNumber > 1) {
+                    buffers.release(buffer);
+                    inFlight.release();
+                    break;
+                }
+
+                int number = partNumber;
+                boolean last = length < buffer.length;
+                parts.add(executor.submit(() -> {
+                    try {
+                        return amazonS3.uploadPart(new UploadPartRequest()
+                                .withBucketName(bucket)
+                                .withKey(key)
+                                .withUploadId(uploadId)
+                                .withPartNumber(number)
+                                .withPartSize(length)
+                                .withLastPart(last)
+                                .withInputStream(new ByteArrayInputStream(buffer, 0, length)))
+                                .getPartETag();
+                    } finally {
+                        buffers.release(buffer);
+                        inFlight.release();
+                    }
+                }));
+
+                // stop reading as soon as a part has failed
+                if (last || parts.stream().anyMatch(f -> f.state() == Future.State.FAILED)) break;
+            }
+
+            List<PartETag> etags = new ArrayList<>(parts.size());
+            for (Future<PartETag> part : parts) {
+                try {
+                    etags.add(part.get());
+                } catch (ExecutionException e) {
+                    cancel(parts);
+                    throw e.getCause() instanceof RuntimeException re
+                            ? re
+                            : new IllegalStateException("Part upload failed", e.getCause());
+                }
+            }
+            return etags;
+        }
+    }
+
+    private static void cancel(List<Future<PartETag>> parts) {
+        parts.forEach(f -> f.cancel(true));
+    }
+
+    private void abort(String bucket, String key, String uploadId) {
+        try {
+            amazonS3.abortMultipartUpload(new AbortMultipartUploadRequest(bucket, key, uploadId));
+        } catch (Exception e) {
+            log.warn("Failed to abort multipart upload {} for {}: {}", uploadId, key, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package edu.uic.marketplace.service.common;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest;
+import com.amazonaws.services.s3.model.ListObjectsV2Request;
+import com.amazonaws.services.s3.model.ListObjectsV2Result;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.amazonaws.services.s3.model.S3Object;
+import com.amazonaws.services.s3.model.S3ObjectSummary;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Objects in an S3 bucket. Large PUTs go through the pooled multipart uploader.
+ * Every request runs under the S3 bulkhead and circuit breaker (s3CallGuard).
+ */
+@Component
+@ConditionalOnProperty(name = "app.storage.type", havingValue = "s3", matchIfMissing = true)
+public class S3ObjectStorage implements ObjectStorage {
+
+    private static final int MAX_KEYS_PER_DELETE = 1000;
+    private static final int LIST_PAGE_SIZE = 1000;
+
+    private final AmazonS3 amazonS3;
+    private final S3MultipartUploader multipartUploader;
+    private final RemoteCallGuard guard;
+    private final String bucket;
+
+    public S3ObjectStorage(AmazonS3 amazonS3,
+                           S3MultipartUploader multipartUploader,
+                           @Qualifier("s3CallGuard") RemoteCallGuard guard,
+                           @Value("${cloud.aws.s3.bucket}") String bucket) {
+        this.amazonS3 = amazonS3;
+        this.multipartUploader = multipartUploader;
+        this.guard = guard;
+        this.bucket = bucket;
+    }
+
+    @Override
+    public void put(String key, InputStream content, long size, String contentType, String cacheControl) throws IOException {
+
+        ObjectMetadata metadata = new ObjectMetadata();
+        metadata.setContentType(contentType);
+        if (cacheControl != null) {
+            metadata.setCacheControl(cacheControl);
+        }
+
+        guard.call(() -> {
+            if (multipartUploader.shouldUse(size)) {
+                multipartUploader.upload(bucket, key, metadata, content);
+            } else {
+                metadata.setContentLength(size);
+                amazonS3.putObject(new PutObjectRequest(bucket, key, content, metadata));
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return guard.call(() -> amazonS3.doesObjectExist(bucket, key));
+    }
+
+    @Override
+    public InputStream open(String key) {
+        S3Object object = guard.call(() -> amazonS3.getObject(bucket, key));
+        return object.getObjectContent(); // closing the content closes the object
+    }
+
+    @Override
+    public void delete(List<String> keys) {
+
+        // a DeleteObjectsRequest takes at most 1000 keys
+        for (int from = 0; from < keys.size(); from += MAX_KEYS_PER_DELETE) {
+            List<String> chunk = keys.subList(from, Math.min(from + MAX_KEYS_PER_DELETE, keys.size()));
+
+            DeleteObjectsRequest req = new DeleteObjectsRequest(bucket)
+                    .withKeys(chunk.toArray(new String[0]))
+                    .withQuiet(true);
+
+            guard.run(() -> amazonS3.deleteObjects(req));
+        }
+    }
+
+    /**
+     * Fetched lazily one listing page at a time
+     */
+    @Override
+    public Iterator<ListedObject> list(String prefix) {
+
+        return new Iterator<>() {
+            private Iterator<S3ObjectSummary> page = Collections.emptyIterator();
+            private String continuationToken;
+            private boolean more = true;
+
+            @Override
+            public boolean hasNext() {
+                while (!page.hasNext() && more) {
+                    ListObjectsV2Request request = new ListObjectsV2Request()
+                            .withBucketName(bucket)
+                            .withPrefix(prefix)
+                            .withMaxKeys(LIST_PAGE_SIZE)
+                            .withContinuationToken(continuationToken);
+                    ListObjectsV2Result result = guard.call(() -> amazonS3.listObjectsV2(request));
+                    page = result.getObjectSummaries().iterator();
+                    continuationToken = result.getNextContinuationToken();
+                    more = result.isTruncated();
+                }
+                return page.hasNext();
+            }
+
+            @Override
+            public ListedObject next() {
+                if (!hasNext()) throw new NoSuchElementException();
+                S3ObjectSummary summary = page.next();
+                return new ListedObject(summary.getKey(), summary.getLastModified().toInstant());
+            }
+        };
+    }
+
+    @Override
+    public String publicUrl(String key) {
+        return amazonS3.getUrl(bucket, key).toString();
+    }
+
+    @Override
+    public String keyMarker() {
+        return ".amazonaws.com/";
+    }
+}
@@ -1,30 +1,51 @@
 package edu.uic.marketplace.service.common;
 
-import com.amazonaws.services.s3.AmazonS3;
-import com.amazonaws.services.s3.model.DeleteObjectsRequest;
-import com.amazonaws.services.s3.model.ObjectMetadata;
-import com.amazonaws.services.s3.model.PutObjectRequest;
-import org.springframework.beans.factory.annotation.Value;
+import edu.uic.marketplace.service.upload.StorageDeletionService;
+import edu.uic.marketplace.service.upload.StoredObjectService;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Component;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
 import java.util.List;
 import java.util.Objects;
-import java.util.UUID;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
+/**
+ * Image storage on top of {@link ObjectStorage} (S3, or local disk with app.storage.type=local).
+ * <p>
+ * Uploads are content-addressed ({@code <prefix><sha256>.<ext>}): identical bytes map to one
+ * object whose references are counted in {@code stored_objects}. A duplicate upload only adds
+ * a reference, and deletes only remove an object once nothing references it any more.
+ * Keys from before this scheme (random names, direct uploads) are deleted immediately as before.
+ */
 @Component
 public class S3Service {
 
-    private final AmazonS3 amazonS3;
-
-    @Value("${cloud.aws.s3.bucket}")
-    private String bucket;
-
-    public S3Service(AmazonS3 amazonS3) {
-        this.amazonS3 = amazonS3;
+    private static final Pattern CONTENT_ADDRESSED_KEY = Pattern.compile("(^|.*/)[0-9a-f]{64}\\.[a-z0-9]+$");
+    private static final String IMMUTABLE_CACHE_CONTROL = "public, max-age=31536000, immutable";
+    private static final int MAX_DOWNLOAD_BYTES = 32 * 1024 * 1024;
+
+    private final ObjectStorage objectStorage;
+    private final StoredObjectService storedObjectService;
+    // the deletion worker calls back into this class, so resolved on use
+    private final ObjectProvider<StorageDeletionService> storageDeletionService;
+
+    public S3Service(ObjectStorage objectStorage,
+                     StoredObjectService storedObjectService,
+                     ObjectProvider<StorageDeletionService> storageDeletionService) {
+        this.objectStorage = objectStorage;
+        this.storedObjectService = storedObjectService;
+        this.storageDeletionService = storageDeletionService;
     }
 
     public String upload(MultipartFile file) {
@@ -37,29 +58,61 @@ public class S3Service {
             throw new RuntimeException("Only image/* allowed");
         }
 
-        String safeName = sanitize(file.getOriginalFilename());
-        String key = "listings/" + UUID.randomUUID() + "-" + safeName;
+        try {
+            // hash while streaming the (already buffered) multipart once; the PUT re-reads it only if needed
+            String key = "listings/" + sha256(file.getInputStream()) + "." + extensionOf(file.getContentType());
+            return putIfAbsent(key, file.getSize(), file.getContentType(), file::getInputStream);
+        } catch (IOException e) {
+            throw new RuntimeException("S3 upload failed", e);
+        }
+    }
 
-        try (InputStream inputStream = file.getInputStream()) {
-            ObjectMetadata metadata = new ObjectMetadata();
-            metadata.setContentLength(file.getSize());
-            metadata.setContentType(file.getContentType());
+    /**
+     * Upload generated bytes (e.g. resized variants) under the given key prefix
+     */
+    public String uploadBytes(byte[] bytes, String contentType, String keyPrefix, String extension) {
 
-            amazonS3.putObject(new PutObjectRequest(bucket, key, inputStream, metadata));
+        String key = keyPrefix + sha256(bytes) + "." + extension;
 
-            return amazonS3.getUrl(bucket, key).toString(); // return S3 public URL
+        try {
+            return putIfAbsent(key, bytes.length, contentType, () -> new ByteArrayInputStream(bytes));
         } catch (IOException e) {
             throw new RuntimeException("S3 upload failed", e);
         }
     }
 
-    public void deleteByUrl(String url) {
+    /**
+     * Read an uploaded object fully (images are capped at a few MB; anything over
+     * MAX_DOWNLOAD_BYTES is refused rather than buffered)
+     */
+    public byte[] download(String url) {
+
         String key = extractKey(url);
-        if (key != null) {
-            amazonS3.deleteObject(bucket, key);
+        if (key == null) {
+            throw new IllegalArgumentException("Not a storage URL: " + url);
+        }
+
+        try (InputStream in = objectStorage.open(key)) {
+            byte[] bytes = in.readNBytes(MAX_DOWNLOAD_BYTES + 1);
+            if (bytes.length > MAX_DOWNLOAD_BYTES) {
+                throw new IllegalArgumentException("Object too large: " + url);
+            }
+            return bytes;
+        } catch (IOException e) {
+            throw new RuntimeException("S3 download failed", e);
         }
     }
 
+    /**
+     * Drop one reference; the object itself is deleted once unreferenced
+     */
+    public void deleteByUrl(String url) {
+        deleteFiles(url == null ? List.of() : List.of(url));
+    }
+
+    /**
+     * Drop one reference per URL (a URL listed twice releases two references)
+     */
     public void deleteFiles(List<String> urls) {
 
         if (urls == null || urls.isEmpty()) return;
@@ -72,29 +125,127 @@ public class S3Service {
 
         if (keys.isEmpty()) return;
 
-        DeleteObjectsRequest req = new DeleteObjectsRequest(bucket)
-                .withKeys(keys.toArray(new String[0]));
+        List<String> counted = new ArrayList<>();
+        List<String> untracked = new ArrayList<>();
+        for (String key : keys) {
+            (isContentAddressed(key) ? counted : untracked).add(key);
+        }
+
+        deleteKeys(untracked.stream().distinct().toList());
+        if (!counted.isEmpty()) {
+            storedObjectService.release(counted, this::deleteKeys);
+        }
+    }
+
+    /**
+     * Delete objects that hold no reference (found by reconciliation). Content-addressed ones
+     * are kept if they have been uploaded again since.
+     */
+    public void deleteOrphans(List<String> urls) {
+
+        if (urls == null || urls.isEmpty()) return;
+
+        List<String> keys = urls.stream()
+                .filter(Objects::nonNull)
+                .map(this::extractKey)
+                .filter(k -> k != null && !k.isBlank())
+                .distinct()
+                .toList();
+
+        if (keys.isEmpty()) return;
+
+        List<String> counted = new ArrayList<>();
+        List<String> untracked = new ArrayList<>();
+        for (String key : keys) {
+            (isContentAddressed(key) ? counted : untracked).add(key);
+        }
 
-        amazonS3.deleteObjects(req);
+        deleteKeys(untracked);
+        if (!counted.isEmpty()) {
+            storedObjectService.deleteIfUnreferenced(counted, this::deleteKeys);
+        }
     }
 
-    private String sanitize(String originalName) {
+    static boolean isContentAddressed(String key) {
+        return CONTENT_ADDRESSED_KEY.matcher(key).matches();
+    }
 
-        String name = (originalName == null ? "file" : originalName);
-        name = name.replaceAll("[\\p{Cntrl}\\\\/:*?\"<>|]+", "_");
-        if (name.length() > 80) {
-            name = name.substring(name.length() - 80);
+    // ------------------------------------------------------------------
+
+    /**
+     * Take a reference on the key; only the reference that created the count PUTs. Duplicates
+     * trust the count and skip storage entirely (a duplicate racing the first PUT may return
+     * its URL before the object is readable; a first PUT that fails releases its reference).
+     */
+    private String putIfAbsent(String key, long size, String contentType, ContentSource content) throws IOException {
+
+        int refCount = storedObjectService.acquire(key);
+
+        try {
+            if (refCount == 1) {
+                try (InputStream inputStream = content.open()) {
+                    objectStorage.put(key, inputStream, size, contentType, IMMUTABLE_CACHE_CONTROL);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // give the reference back through the deletion queue: a synchronous release would
+            // have to delete from the storage that just failed (or whose circuit is open), and
+            // its rollback would leak the reference
+            storageDeletionService.getObject().enqueueCommitted(List.of(objectStorage.publicUrl(key)));
+            throw e;
         }
 
-        return name;
+        return objectStorage.publicUrl(key);
     }
 
-    private String extractKey(String url) {
+    private void deleteKeys(List<String> keys) {
+        if (!keys.isEmpty()) objectStorage.delete(keys);
+    }
+
+    private static String sha256(InputStream in) throws IOException {
+        MessageDigest digest = sha256Digest();
+        try (DigestInputStream digestIn = new DigestInputStream(in, digest)) {
+            digestIn.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static String sha256(byte[] bytes) {
+        return HexFormat.of().formatHex(sha256Digest().digest(bytes));
+    }
+
+    private static MessageDigest sha256Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
 
-        int index = url.indexOf(".amazonaws.com/");
-        if (index == -1)
-            return null;
+    /**
+     * "image/jpeg" -> "jpg", "image/svg+xml" -> "svg"; part of the key so the stored
+     * Content-Type always matches the bytes
+     */
+    private static String extensionOf(String contentType) {
+
+        String subtype = contentType.substring(contentType.indexOf('/') + 1).toLowerCase();
+        int end = subtype.length();
+        for (char stop : new char[]{';', '+'}) {
+            int i = subtype.indexOf(stop);
+            if (i >= 0) end = Math.min(end, i);
+        }
+        subtype = subtype.substring(0, end).replaceAll("[^a-z0-9]", "");
+
+        if (subtype.equals("jpeg")) return "jpg";
+        return subtype.isEmpty() ? "bin" : subtype;
+    }
+
+    private String extractKey(String url) {
+        return objectStorage.keyOf(url);
+    }
 
-        return url.substring(index + ".amazonaws.com/".length());
+    @FunctionalInterface
+    private interface ContentSource {
+        InputStream open() throws IOException;
     }
 }
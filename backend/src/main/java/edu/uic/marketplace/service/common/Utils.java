@@ -3,6 +3,8 @@ package edu.uic.marketplace.service.common;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
 
@@ -13,7 +15,48 @@ public class Utils {
         List<String> allowed = List.of("createdAt", "price", "viewCount", "favoriteCount");
         String field = allowed.contains(sortBy) ? sortBy : "createdAt";
 
+        // counters are stored in listing_stats
+        if (field.equals("viewCount") || field.equals("favoriteCount")) {
+            field = "stats." + field;
+        }
+
         Sort.Direction dir = "ASC".equalsIgnoreCase(sortDirection) ? Sort.Direction.ASC : Sort.Direction.DESC;
         return PageRequest.of(page, size, Sort.by(dir, field));
     }
+
+    /**
+     * Run the action once the current transaction commits,
+     * or immediately when no transaction is active.
+     */
+    public static void runAfterCommit(Runnable action) {
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Run the action if the current transaction rolls back (no-op without a transaction)
+     */
+    public static void runAfterRollback(Runnable action) {
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return;
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    action.run();
+                }
+            }
+        });
+    }
 }
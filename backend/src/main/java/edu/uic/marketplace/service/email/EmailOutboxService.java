@@ -0,0 +1,37 @@
+package edu.uic.marketplace.service.email;
+
+import edu.uic.marketplace.model.notification.EmailTemplate;
+
+/**
+ * Emails the mail provider could not take synchronously.
+ * <p>
+ * EmailServiceImpl {@link #enqueue enqueues} a message instead of failing the request when the
+ * provider errors, times out or its circuit is open; the worker resends with retry and backoff.
+ */
+public interface EmailOutboxService {
+
+    /**
+     * Queue a free-form email for a later send, in the caller's transaction (a new one without).
+     * The body is stored as is, so it must not carry secrets - use the template variant for those.
+     */
+    void enqueue(String to, String subject, String htmlBody, String error);
+
+    /**
+     * Queue a templated email; only the template and its parameter are stored and the body is
+     * rendered at send time. The entry is deleted once sent or given up on.
+     */
+    void enqueue(String to, EmailTemplate template, String param, String error);
+
+    /**
+     * Send one batch of due emails, rescheduling failures with backoff.
+     * Stops early, without counting an attempt, while the mail circuit is open.
+     *
+     * @return number of emails sent
+     */
+    int processDue();
+
+    /**
+     * Emails processed per {@link #processDue()} call
+     */
+    int batchSize();
+}
@@ -0,0 +1,188 @@
+package edu.uic.marketplace.service.email;
+
+import edu.uic.marketplace.exception.common.DependencyUnavailableException;
+import edu.uic.marketplace.model.notification.EmailOutbox;
+import edu.uic.marketplace.model.notification.EmailTemplate;
+import edu.uic.marketplace.repository.notification.EmailOutboxRepository;
+import edu.uic.marketplace.service.common.RemoteCallGuard;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@Slf4j
+public class EmailOutboxServiceImpl implements EmailOutboxService {
+
+    // verification links expire after 24h; past ~10 attempts the email is pointless
+    static final int MAX_ATTEMPTS = 10;
+
+    private static final Duration CLAIM_LEASE = Duration.ofMinutes(5);
+    private static final Duration CIRCUIT_OPEN_RETRY = Duration.ofMinutes(1);
+    private static final Duration MAX_BACKOFF = Duration.ofHours(1);
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final MailTransport mailTransport;
+    private final RemoteCallGuard mailCallGuard;
+    private final EmailRenderer emailRenderer;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    private final Counter queued;
+    private final Counter sent;
+    private final Counter failed;
+    private final Counter dropped;
+
+    public EmailOutboxServiceImpl(EmailOutboxRepository emailOutboxRepository,
+                                  MailTransport mailTransport,
+                                  @Qualifier("mailCallGuard") RemoteCallGuard mailCallGuard,
+                                  EmailRenderer emailRenderer,
+                                  TransactionTemplate transactionTemplate,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.mail.outbox.batch-size:50}") int batchSize) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.mailTransport = mailTransport;
+        this.mailCallGuard = mailCallGuard;
+        this.emailRenderer = emailRenderer;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = Math.max(1, batchSize);
+
+        this.queued = meterRegistry.counter("mail.outbox.emails", "outcome", "queued");
+        this.sent = meterRegistry.counter("mail.outbox.emails", "outcome", "sent");
+        this.failed = meterRegistry.counter("mail.outbox.emails", "outcome", "failed");
+        this.dropped = meterRegistry.counter("mail.outbox.emails", "outcome", "dropped");
+    }
+
+    @Override
+    @Transactional
+    public void enqueue(String to, String subject, String htmlBody, String error) {
+        emailOutboxRepository.save(EmailOutbox.builder()
+                .recipient(to)
+                .subject(subject)
+                .body(htmlBody)
+                .nextAttemptAt(Instant.now())
+                .lastError(truncate(error))
+                .build());
+        queued.increment();
+    }
+
+    @Override
+    @Transactional
+    public void enqueue(String to, EmailTemplate template, String param, String error) {
+        emailOutboxRepository.save(EmailOutbox.builder()
+                .recipient(to)
+                .subject(emailRenderer.subject(template))
+                .template(template)
+                .templateParam(param)
+                .nextAttemptAt(Instant.now())
+                .lastError(truncate(error))
+                .build());
+        queued.increment();
+    }
+
+    /**
+     * Not @Transactional: the batch is claimed in a short transaction, then sent without
+     * holding one open.
+     */
+    @Override
+    public int processDue() {
+
+        // 1) nothing would get through while the circuit is open
+        if (mailCallGuard.isOpen()) return 0;
+
+        // 2) claim: push the next attempt out so other instances skip these rows meanwhile
+        List<EmailOutbox> batch = transactionTemplate.execute(status -> {
+            Instant now = Instant.now();
+            List<EmailOutbox> due = emailOutboxRepository.findDueForUpdate(now, PageRequest.of(0, batchSize));
+            due.forEach(entry -> entry.setNextAttemptAt(now.plus(CLAIM_LEASE)));
+            return due;
+        });
+
+        return batch == null || batch.isEmpty() ? 0 : process(batch);
+    }
+
+    @Override
+    public int batchSize() {
+        return batchSize;
+    }
+
+    // ------------------------------------------------------------------
+
+    private int process(List<EmailOutbox> batch) {
+
+        List<Long> done = new ArrayList<>();
+        List<EmailOutbox> retry = new ArrayList<>();
+        int sentCount = 0;
+
+        for (int i = 0; i < batch.size(); i++) {
+            EmailOutbox entry = batch.get(i);
+            try {
+                String body = bodyOf(entry);
+                mailCallGuard.run(() -> mailTransport.send(entry.getRecipient(), entry.getSubject(), body));
+                done.add(entry.getEmailId());
+                sentCount++;
+
+            } catch (DependencyUnavailableException e) {
+                // 3) circuit opened (or bulkhead full) mid-batch: hand the rest back, no attempt counted
+                Instant next = Instant.now().plus(CIRCUIT_OPEN_RETRY);
+                for (EmailOutbox rest : batch.subList(i, batch.size())) {
+                    rest.setNextAttemptAt(next);
+                    retry.add(rest);
+                }
+                log.info("Mail unavailable, {} queued email(s) postponed: {}", batch.size() - i, e.getMessage());
+                break;
+
+            } catch (Exception e) {
+                int attempts = entry.getAttempts() + 1;
+                if (attempts >= MAX_ATTEMPTS) {
+                    done.add(entry.getEmailId());
+                    dropped.increment();
+                    log.error("Giving up on email to {} after {} attempts: {}", entry.getRecipient(), attempts, e.getMessage());
+                    continue;
+                }
+
+                entry.setAttempts(attempts);
+                entry.setNextAttemptAt(Instant.now().plus(backoff(attempts)));
+                entry.setLastError(truncate(e.getMessage()));
+                retry.add(entry);
+                failed.increment();
+
+                log.warn("Email resend failed (attempt {}): {} - {}", attempts, entry.getRecipient(), e.getMessage());
+            }
+        }
+
+        if (!done.isEmpty()) emailOutboxRepository.deleteAllByIdInBatch(done);
+        if (!retry.isEmpty()) emailOutboxRepository.saveAll(retry);
+
+        sent.increment(sentCount);
+        return sentCount;
+    }
+
+    /** Templated emails are rendered now; their rendered body is never stored */
+    private String bodyOf(EmailOutbox entry) {
+        return entry.getTemplate() == null
+                ? entry.getBody()
+                : emailRenderer.body(entry.getTemplate(), entry.getTemplateParam());
+    }
+
+    /** 1m, 2m, 4m, ... capped at MAX_BACKOFF */
+    private static Duration backoff(int attempts) {
+        Duration delay = Duration.ofMinutes(1L << Math.min(attempts - 1, 10));
+        return delay.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : delay;
+    }
+
+    private static String truncate(String message) {
+        if (message == null) return null;
+        return message.length() > 500 ? message.substring(0, 500) : message;
+    }
+}
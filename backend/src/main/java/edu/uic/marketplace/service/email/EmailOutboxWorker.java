@@ -0,0 +1,32 @@
+package edu.uic.marketplace.service.email;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically resends queued emails.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EmailOutboxWorker {
+
+    private static final int MAX_BATCHES_PER_RUN = 20;
+
+    private final EmailOutboxService emailOutboxService;
+
+    @Scheduled(fixedDelayString = "${app.mail.outbox.poll-interval-ms:30000}",
+            initialDelayString = "${app.mail.outbox.poll-interval-ms:30000}")
+    public void run() {
+        try {
+            // keep going while batches come back full, bounded so one run can't starve the scheduler
+            for (int i = 0; i < MAX_BATCHES_PER_RUN; i++) {
+                if (emailOutboxService.processDue() < emailOutboxService.batchSize()) break;
+            }
+        } catch (Exception e) {
+            log.warn("Email outbox run failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package edu.uic.marketplace.service.email;
+
+import edu.uic.marketplace.model.notification.EmailTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Subject and HTML body of templated emails. Used on the first send and again by the outbox
+ * at resend time, so queued emails never hold the rendered body (or the link in it).
+ */
+@Component
+public class EmailRenderer {
+
+    private final String frontendUrl;
+
+    public EmailRenderer(@Value("${app.mail.frontend-url}") String frontendUrl) {
+        this.frontendUrl = frontendUrl;
+    }
+
+    public String subject(EmailTemplate template) {
+        return switch (template) {
+            case VERIFICATION -> "UICircle - Verify Your Email";
+            case PASSWORD_RESET -> "UIC Marketplace - Reset Your Password";
+        };
+    }
+
+    public String body(EmailTemplate template, String param) {
+        return switch (template) {
+            case VERIFICATION -> buildVerificationEmailBody(frontendUrl + "/verify-email?token=" + param);
+            case PASSWORD_RESET -> buildPasswordResetEmailBody(frontendUrl + "/reset-password?token=" + param);
+        };
+    }
+
+    private String buildVerificationEmailBody(String verifyLink) {
+        return """
+                <!DOCTYPE html>
+                <html>
+                <head>
+                    <style>
+                        body { font-family: Arial, sans-serif; line-height: 1.6; color: #333; }
+                        .container { max-width: 600px; margin: 0 auto; padding: 20px; }
+                        .header { background-color: #cc0000; color: white; padding: 20px; text-align: center; }
+                        .content { background-color: #f9f9f9; padding: 30px; }
+                        .button { display: inline-block; padding: 12px 30px; background-color: #cc0000; color: white; text-decoration: none; border-radius: 5px; margin: 20px 0; }
+                        .footer { text-align: center; padding: 20px; color: #666; font-size: 12px; }
+                    </style>
+                </head>
+                <body>
+                    <div class="container">
+                        <div class="header">
+                            <h1>UIC Marketplace</h1>
+                        </div>
+                        <div class="content">
+                            <h2>Welcome to UIC Marketplace!</h2>
+                            <p>Thank you for signing up. Please verify your email address by clicking the button below:</p>
+                            <a href="%s" class="button">Verify Email</a>
+                            <p>Or copy and paste this link into your browser:</p>
+                            <p style="word-break: break-all; color: #666;">%s</p>
+                            <p>This link will expire in 24 hours.</p>
+                            <p>If you didn't create an account, you can safely ignore this email.</p>
+                        </div>
+                        <div class="footer">
+                            <p>© 2025 UIC Marketplace. All rights reserved.</p>
+                        </div>
+                    </div>
+                </body>
+                </html>
+                """.formatted(verifyLink, verifyLink);
+    }
+
+    private String buildPasswordResetEmailBody(String resetLink) {
+        return """
+                <!DOCTYPE html>
+                <html>
+                <head>
+                    <style>
+                        body { font-family: Arial, sans-serif; line-height: 1.6; color: #333; }
+                        .container { max-width: 600px; margin: 0 auto; padding: 20px; }
+                        .header { background-color: #cc0000; color: white; padding: 20px; text-align: center; }
+                        .content { background-color: #f9f9f9; padding: 30px; }
+                        .button { display: inline-block; padding: 12px 30px; background-color: #cc0000; color: white; text-decoration: none; border-radius: 5px; margin: 20px 0; }
+                        .footer { text-align: center; padding: 20px; color: #666; font-size: 12px; }
+                    </style>
+                </head>
+                <body>
+                    <div class="container">
+                        <div class="header">
+                            <h1>UIC Marketplace</h1>
+                        </div>
+                        <div class="content">
+                            <h2>Password Reset Request</h2>
+                            <p>We received a request to reset your password. Click the button below to create a new password:</p>
+                            <a href="%s" class="button">Reset Password</a>
+                            <p>Or copy and paste this link into your browser:</p>
+                            <p style="word-break: break-all; color: #666;">%s</p>
+                            <p>This link will expire in 1 hour.</p>
+                            <p>If you didn't request a password reset, you can safely ignore this email.</p>
+                        </div>
+                        <div class="footer">
+                            <p>© 2025 UIC Marketplace. All rights reserved.</p>
+                        </div>
+                    </div>
+                </body>
+                </html>
+                """.formatted(resetLink, resetLink);
+    }
+}
@@ -1,152 +1,73 @@
 package edu.uic.marketplace.service.email;
 
-import com.sendgrid.Method;
-import com.sendgrid.Request;
-import com.sendgrid.Response;
-import com.sendgrid.SendGrid;
-import com.sendgrid.helpers.mail.Mail;
-import com.sendgrid.helpers.mail.objects.Content;
-import com.sendgrid.helpers.mail.objects.Email;
-import lombok.RequiredArgsConstructor;
+import edu.uic.marketplace.model.notification.EmailTemplate;
+import edu.uic.marketplace.service.common.RemoteCallGuard;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
+/**
+ * Sends through the configured MailTransport under the mail bulkhead and circuit breaker.
+ * <p>
+ * Degraded mode: when the provider fails, times out or the circuit is open, the email is
+ * queued in the outbox and the call still returns normally, so signup and password reset
+ * succeed and the user gets the email once the provider recovers.
+ */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class EmailServiceImpl implements EmailService {
 
-    private final SendGrid sendGrid;
-
-    @Value("${app.mail.from-email}")
-    private String fromEmail;
-
-    @Value("${app.mail.frontend-url}")
-    private String frontendUrl;
+    private final MailTransport mailTransport;
+    private final RemoteCallGuard mailCallGuard;
+    private final EmailOutboxService emailOutboxService;
+    private final EmailRenderer emailRenderer;
+
+    public EmailServiceImpl(MailTransport mailTransport,
+                            @Qualifier("mailCallGuard") RemoteCallGuard mailCallGuard,
+                            EmailOutboxService emailOutboxService,
+                            EmailRenderer emailRenderer) {
+        this.mailTransport = mailTransport;
+        this.mailCallGuard = mailCallGuard;
+        this.emailOutboxService = emailOutboxService;
+        this.emailRenderer = emailRenderer;
+    }
 
     @Override
     public void sendVerificationEmail(String toEmail, String verificationToken) {
-        String verifyLink = frontendUrl + "/verify-email?token=" + verificationToken;
-
-        String subject = "UICircle - Verify Your Email";
-        String body = buildVerificationEmailBody(verifyLink);
-
-        sendEmail(toEmail, subject, body);
+        sendTemplate(toEmail, EmailTemplate.VERIFICATION, verificationToken);
     }
 
     @Override
     public void sendPasswordResetEmail(String toEmail, String resetToken) {
-        String resetLink = frontendUrl + "/reset-password?token=" + resetToken;
-
-        String subject = "UIC Marketplace - Reset Your Password";
-        String body = buildPasswordResetEmailBody(resetLink);
-
-        sendEmail(toEmail, subject, body);
+        sendTemplate(toEmail, EmailTemplate.PASSWORD_RESET, resetToken);
     }
 
     @Override
     public void sendEmail(String to, String subject, String body) {
 
+        log.info("Sending email to {}, subject={}", to, subject);
         try {
-            log.info("Sending email to {}, subject={}", to, subject);
-            Email from = new Email(fromEmail, "UICircle");
-            Email toEmail = new Email(to);
-            Content content = new Content("text/html", body);
-
-            Mail mail = new Mail(from, subject, toEmail, content);
-
-            Request request = new Request();
-            request.setMethod(Method.POST);
-            request.setEndpoint("mail/send");
-            request.setBody(mail.build());
-
-            Response response = sendGrid.api(request);
-
-            log.info("SendGrid response: status={}, body={}, headers={}",
-                    response.getStatusCode(), response.getBody(), response.getHeaders());
-
-            if (response.getStatusCode() >= 400) {
-                throw new RuntimeException("Failed to send email via SendGrid, status=" + response.getStatusCode());
-            }
+            mailCallGuard.run(() -> mailTransport.send(to, subject, body));
 
         } catch (Exception e) {
-            log.error("Failed to send email to: {}", to, e);
-            throw new RuntimeException("Failed to send email", e);
+            log.warn("Email to {} not sent, queued for retry: {}", to, e.getMessage());
+            emailOutboxService.enqueue(to, subject, body, e.getMessage());
         }
     }
 
-    private String buildVerificationEmailBody(String verifyLink) {
-        return """
-                <!DOCTYPE html>
-                <html>
-                <head>
-                    <style>
-                        body { font-family: Arial, sans-serif; line-height: 1.6; color: #333; }
-                        .container { max-width: 600px; margin: 0 auto; padding: 20px; }
-                        .header { background-color: #cc0000; color: white; padding: 20px; text-align: center; }
-                        .content { background-color: #f9f9f9; padding: 30px; }
-                        .button { display: inline-block; padding: 12px 30px; background-color: #cc0000; color: white; text-decoration: none; border-radius: 5px; margin: 20px 0; }
-                        .footer { text-align: center; padding: 20px; color: #666; font-size: 12px; }
-                    </style>
-                </head>
-                <body>
-                    <div class="container">
-                        <div class="header">
-                            <h1>UIC Marketplace</h1>
-                        </div>
-                        <div class="content">
-                            <h2>Welcome to UIC Marketplace!</h2>
-                            <p>Thank you for signing up. Please verify your email address by clicking the button below:</p>
-                            <a href="%s" class="button">Verify Email</a>
-                            <p>Or copy and paste this link into your browser:</p>
-                            <p style="word-break: break-all; color: #666;">%s</p>
-                            <p>This link will expire in 24 hours.</p>
-                            <p>If you didn't create an account, you can safely ignore this email.</p>
-                        </div>
-                        <div class="footer">
-                            <p>© 2025 UIC Marketplace. All rights reserved.</p>
-                        </div>
-                    </div>
-                </body>
-                </html>
-                """.formatted(verifyLink, verifyLink);
-    }
+    /**
+     * Queued by template and parameter: the rendered body (with its link) is not persisted
+     */
+    private void sendTemplate(String to, EmailTemplate template, String param) {
 
-    private String buildPasswordResetEmailBody(String resetLink) {
-        return """
-                <!DOCTYPE html>
-                <html>
-                <head>
-                    <style>
-                        body { font-family: Arial, sans-serif; line-height: 1.6; color: #333; }
-                        .container { max-width: 600px; margin: 0 auto; padding: 20px; }
-                        .header { background-color: #cc0000; color: white; padding: 20px; text-align: center; }
-                        .content { background-color: #f9f9f9; padding: 30px; }
-                        .button { display: inline-block; padding: 12px 30px; background-color: #cc0000; color: white; text-decoration: none; border-radius: 5px; margin: 20px 0; }
-                        .footer { text-align: center; padding: 20px; color: #666; font-size: 12px; }
-                    </style>
-                </head>
-                <body>
-                    <div class="container">
-                        <div class="header">
-                            <h1>UIC Marketplace</h1>
-                        </div>
-                        <div class="content">
-                            <h2>Password Reset Request</h2>
-                            <p>We received a request to reset your password. Click the button below to create a new password:</p>
-                            <a href="%s" class="button">Reset Password</a>
-                            <p>Or copy and paste this link into your browser:</p>
-                            <p style="word-break: break-all; color: #666;">%s</p>
-                            <p>This link will expire in 1 hour.</p>
-                            <p>If you didn't request a password reset, you can safely ignore this email.</p>
-                        </div>
-                        <div class="footer">
-                            <p>© 2025 UIC Marketplace. All rights reserved.</p>
-                        </div>
-                    </div>
-                </body>
-                </html>
-                """.formatted(resetLink, resetLink);
+        String subject = emailRenderer.subject(template);
+        log.info("Sending email to {}, subject={}", to, subject);
+        try {
+            mailCallGuard.run(() -> mailTransport.send(to, subject, emailRenderer.body(template, param)));
+
+        } catch (Exception e) {
+            log.warn("Email to {} not sent, queued for retry: {}", to, e.getMessage());
+            emailOutboxService.enqueue(to, template, param, e.getMessage());
+        }
     }
 }
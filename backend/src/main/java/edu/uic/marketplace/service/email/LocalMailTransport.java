@@ -0,0 +1,48 @@
+package edu.uic.marketplace.service.email;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Logs emails instead of sending them (dev and tests), with optional fault injection:
+ * {@code app.mail.local.latency} delays every send and {@code app.mail.local.failure-rate}
+ * (0..1) makes that share of sends fail, to exercise the circuit breaker and outbox offline.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.mail.transport", havingValue = "local")
+public class LocalMailTransport implements MailTransport {
+
+    private final Duration latency;
+    private final double failureRate;
+
+    public LocalMailTransport(@Value("${app.mail.local.latency:0ms}") Duration latency,
+                              @Value("${app.mail.local.failure-rate:0}") double failureRate) {
+        this.latency = latency;
+        this.failureRate = failureRate;
+    }
+
+    @Override
+    public void send(String to, String subject, String htmlBody) {
+
+        if (!latency.isZero()) {
+            try {
+                Thread.sleep(latency.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while sending email", e);
+            }
+        }
+
+        if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+            throw new IllegalStateException("Injected mail failure");
+        }
+
+        log.info("[local mail] to={}, subject={}", to, subject);
+    }
+}
@@ -0,0 +1,13 @@
+package edu.uic.marketplace.service.email;
+
+/**
+ * Hands one email to the mail provider. Selected with {@code app.mail.transport}
+ * (sendgrid | local); EmailServiceImpl adds the bulkhead, circuit breaker and outbox.
+ */
+public interface MailTransport {
+
+    /**
+     * @throws RuntimeException when the provider did not accept the message
+     */
+    void send(String to, String subject, String htmlBody);
+}
@@ -0,0 +1,54 @@
+package edu.uic.marketplace.service.email;
+
+import com.sendgrid.Method;
+import com.sendgrid.Request;
+import com.sendgrid.Response;
+import com.sendgrid.SendGrid;
+import com.sendgrid.helpers.mail.Mail;
+import com.sendgrid.helpers.mail.objects.Content;
+import com.sendgrid.helpers.mail.objects.Email;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.mail.transport", havingValue = "sendgrid", matchIfMissing = true)
+public class SendGridMailTransport implements MailTransport {
+
+    private final SendGrid sendGrid;
+    private final String fromEmail;
+
+    public SendGridMailTransport(SendGrid sendGrid, @Value("${app.mail.from-email}") String fromEmail) {
+        this.sendGrid = sendGrid;
+        this.fromEmail = fromEmail;
+    }
+
+    @Override
+    public void send(String to, String subject, String htmlBody) {
+
+        Mail mail = new Mail(new Email(fromEmail, "UICircle"), subject, new Email(to), new Content("text/html", htmlBody));
+
+        try {
+            Request request = new Request();
+            request.setMethod(Method.POST);
+            request.setEndpoint("mail/send");
+            request.setBody(mail.build());
+
+            Response response = sendGrid.api(request);
+
+            log.info("SendGrid response: status={}, body={}, headers={}",
+                    response.getStatusCode(), response.getBody(), response.getHeaders());
+
+            if (response.getStatusCode() >= 400) {
+                throw new IllegalStateException("Failed to send email via SendGrid, status=" + response.getStatusCode());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to send email via SendGrid", e);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package edu.uic.marketplace.service.listing;
+
+import java.util.Map;
+
+/**
+ * ACTIVE listing counts per category, kept in memory so category responses can show them
+ * without a GROUP BY. Maintained incrementally on status transitions and periodically
+ * reconciled against the DB to correct any drift.
+ * <p>
+ * Counts are per instance: an instance applies the changes committed through it right away
+ * and learns about changes made on other instances only at its next reconcile
+ * ({@code app.categories.counts.reconcile-interval-ms}, 10 min). Until then instances can
+ * show different counts, and so serve different category tree ETags.
+ */
+public interface CategoryListingCountService extends ListingStatusListener {
+
+    /**
+     * Counts per slug for every node of the tree, each including all of its descendants
+     */
+    Map<String, Long> rolledUpCounts(CategoryTree tree);
+
+    /**
+     * Bumped on every change, so callers can tell whether rendered counts are stale
+     */
+    long version();
+
+    /**
+     * Recount from the DB and replace the in-memory counts
+     */
+    void reconcile();
+}
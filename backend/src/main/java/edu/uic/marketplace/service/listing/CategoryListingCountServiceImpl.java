@@ -0,0 +1,122 @@
+package edu.uic.marketplace.service.listing;
+
+import edu.uic.marketplace.model.listing.Listing;
+import edu.uic.marketplace.model.listing.ListingStatus;
+import edu.uic.marketplace.repository.listing.ListingRepository;
+import edu.uic.marketplace.service.common.Utils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Direct counts are kept per (leaf) category slug; ancestors are summed on read from the
+ * category tree, which is a handful of nodes. A delta applied while a reconcile is running can
+ * be lost or counted twice - the next reconcile corrects it.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CategoryListingCountServiceImpl implements CategoryListingCountService {
+
+    private static final ListingStatus COUNTED_STATUS = ListingStatus.ACTIVE;
+
+    private final ListingRepository listingRepository;
+
+    private volatile ConcurrentHashMap<String, AtomicLong> counts = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+
+    @Override
+    public void syncStatus(Listing listing, ListingStatus previousStatus) {
+
+        boolean wasCounted = previousStatus == COUNTED_STATUS;
+        boolean isCounted = listing.getStatus() == COUNTED_STATUS && listing.getDeletedAt() == null;
+        if (wasCounted == isCounted || listing.getCategory() == null) return;
+
+        // capture inside the transaction
+        String categorySlug = listing.getCategory().getSlug();
+        int delta = isCounted ? 1 : -1;
+
+        Utils.runAfterCommit(() -> {
+            counts.computeIfAbsent(categorySlug, slug -> new AtomicLong()).addAndGet(delta);
+            version.incrementAndGet();
+        });
+    }
+
+    @Override
+    public Map<String, Long> rolledUpCounts(CategoryTree tree) {
+
+        Map<String, AtomicLong> direct = counts;
+        Map<String, Long> rolledUp = new HashMap<>();
+        for (CategoryTree.Node root : tree.roots()) {
+            rollUp(root, direct, rolledUp);
+        }
+        return rolledUp;
+    }
+
+    @Override
+    public long version() {
+        return version.get();
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.categories.counts.reconcile-interval-ms:600000}",
+            initialDelayString = "${app.categories.counts.reconcile-interval-ms:600000}")
+    public void reconcile() {
+
+        try {
+            List<Object[]> rows = listingRepository.countByCategorySlug(COUNTED_STATUS);
+
+            ConcurrentHashMap<String, AtomicLong> fresh = new ConcurrentHashMap<>();
+            for (Object[] row : rows) {
+                fresh.put((String) row[0], new AtomicLong(((Number) row[1]).longValue()));
+            }
+
+            long drift = drift(counts, fresh);
+            counts = fresh;
+            version.incrementAndGet();
+
+            if (drift != 0) {
+                log.info("Category listing counts reconciled: {} categories, drift {}", fresh.size(), drift);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Category listing count reconcile failed, keeping incremental counts: {}", e.getMessage());
+        }
+    }
+
+    // ------------------------------------------------------------------
+
+    private static long rollUp(CategoryTree.Node node, Map<String, AtomicLong> direct, Map<String, Long> out) {
+
+        AtomicLong own = direct.get(node.slug());
+        long total = own != null ? Math.max(0, own.get()) : 0;
+        for (CategoryTree.Node child : node.children()) {
+            total += rollUp(child, direct, out);
+        }
+        out.put(node.slug(), total);
+        return total;
+    }
+
+    /** Sum of absolute per-category differences */
+    private static long drift(Map<String, AtomicLong> before, Map<String, AtomicLong> after) {
+
+        long drift = 0;
+        for (Map.Entry<String, AtomicLong> entry : after.entrySet()) {
+            AtomicLong old = before.get(entry.getKey());
+            drift += Math.abs(entry.getValue().get() - (old != null ? old.get() : 0));
+        }
+        for (Map.Entry<String, AtomicLong> entry : before.entrySet()) {
+            if (!after.containsKey(entry.getKey())) drift += Math.abs(entry.getValue().get());
+        }
+        return drift;
+    }
+}
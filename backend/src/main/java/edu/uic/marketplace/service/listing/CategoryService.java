@@ -15,6 +15,12 @@ public interface CategoryService {
      * @return List of all categories
      */
     List<CategoryResponse> getAllCategories();
+
+    /**
+     * All categories pre-rendered as a {@code CommonResponse<List<CategoryResponse>>}, with an ETag
+     * @return Rendered category tree (shared, do not modify)
+     */
+    RenderedTree getRenderedTree();
     
     /**
      * Get category by Slug
@@ -66,4 +72,10 @@ public interface CategoryService {
      * @return true if exists, false otherwise
      */
     boolean existsById(String publicCategoryId);
+
+    /**
+     * Response body bytes and the weak ETag of their content
+     */
+    record RenderedTree(String etag, byte[] json) {
+    }
 }
@@ -1,64 +1,108 @@
 package edu.uic.marketplace.service.listing;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.uic.marketplace.dto.response.common.CommonResponse;
 import edu.uic.marketplace.dto.response.listing.CategoryResponse;
 import edu.uic.marketplace.model.listing.Category;
-import edu.uic.marketplace.repository.listing.CategoryRepository;
 import edu.uic.marketplace.validator.listing.CategoryValidator;
-import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Comparator;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
 
+/**
+ * Read paths are served from the in-memory CategoryTree and listing counts; none of them touch the DB.
+ */
 @Service
-@RequiredArgsConstructor
 public class CategoryServiceImpl implements CategoryService {
 
+    // counts change with every listing; re-render the full tree at most this often for count-only changes
+    private static final long RENDER_INTERVAL_NANOS = 1_000_000_000L;
+
     private final CategoryValidator categoryValidator;
-    private final CategoryRepository categoryRepository;
+    private final CategoryTreeCache categoryTreeCache;
+    private final CategoryListingCountService categoryListingCountService;
+    private final ObjectMapper objectMapper;
+
+    private volatile Rendered rendered;
+
+    private record Rendered(long treeVersion, long countsVersion, long renderedAt, RenderedTree tree) {
+    }
+
+    public CategoryServiceImpl(CategoryValidator categoryValidator,
+                               CategoryTreeCache categoryTreeCache,
+                               CategoryListingCountService categoryListingCountService,
+                               ObjectMapper objectMapper) {
+        this.categoryValidator = categoryValidator;
+        this.categoryTreeCache = categoryTreeCache;
+        this.categoryListingCountService = categoryListingCountService;
+        this.objectMapper = objectMapper;
+    }
 
     @Override
-    @Transactional(readOnly = true)
     public List<CategoryResponse> getAllCategories() {
 
-        // Load root categories
-        List<Category> roots = categoryRepository.findRootCategories();
-
-        // Automatically load children with batch
-        return roots.stream()
-                .map(CategoryResponse::from)
+        // roots with their children, sorted by name
+        CategoryTree tree = categoryTreeCache.get();
+        Map<String, Long> counts = categoryListingCountService.rolledUpCounts(tree);
+        return tree.roots().stream()
+                .map(root -> CategoryResponse.from(root, counts))
                 .toList();
     }
 
     @Override
-    @Transactional(readOnly = true)
+    public RenderedTree getRenderedTree() {
+
+        CategoryTree tree = categoryTreeCache.get();
+        long countsVersion = categoryListingCountService.version();
+
+        // 1) reuse while the tree is the same and counts are unchanged (or were rendered just now)
+        Rendered current = rendered;
+        if (current != null && current.treeVersion() == tree.version()
+                && (current.countsVersion() == countsVersion || System.nanoTime() - current.renderedAt() < RENDER_INTERVAL_NANOS)) {
+            return current.tree();
+        }
+
+        // 2) render; the ETag is a hash of the data, so instances showing the same counts agree on it.
+        //    Counts are per instance and can differ until the next reconcile (see
+        //    CategoryListingCountService), so a client moving between instances may get a 200 instead of a 304
+        List<CategoryResponse> data = getAllCategories();
+        try {
+            String etag = "W/\"" + sha256Hex(objectMapper.writeValueAsBytes(data)).substring(0, 32) + "\"";
+            byte[] json = objectMapper.writeValueAsBytes(CommonResponse.success(data));
+
+            RenderedTree renderedTree = new RenderedTree(etag, json);
+            rendered = new Rendered(tree.version(), countsVersion, System.nanoTime(), renderedTree);
+            return renderedTree;
+
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to render category tree", e);
+        }
+    }
+
+    @Override
     public Category findBySlug(String categorySlug) {
         return categoryValidator.validateCategoryBySlug(categorySlug);
     }
 
     @Override
-    @Transactional(readOnly = true)
     public List<CategoryResponse> getTopLevelCategories() {
-
-        List<Category> roots = categoryRepository.findRootCategories();
-
-        return roots.stream()
-                .map(CategoryResponse::from)
-                .toList();
+        return getAllCategories();
     }
 
     @Override
-    @Transactional(readOnly = true)
     public List<CategoryResponse> getSubcategories(String parentSlug) {
 
-        categoryValidator.validateCategoryBySlug(parentSlug);
+        CategoryTree.Node parent = categoryValidator.validateNodeBySlug(parentSlug);
+        Map<String, Long> counts = categoryListingCountService.rolledUpCounts(categoryTreeCache.get());
 
-        List<Category> subcategories = categoryRepository.findByParent_Slug(parentSlug);
-
-        return subcategories.stream()
-                .sorted(Comparator.comparing(Category::getName, String.CASE_INSENSITIVE_ORDER))
-                .map(CategoryResponse::from)
+        // children are kept sorted by name (case-insensitive)
+        return parent.children().stream()
+                .map(child -> CategoryResponse.from(child, counts))
                 .toList();
 
     }
@@ -88,4 +132,14 @@ public class CategoryServiceImpl implements CategoryService {
         // TODO: future feature
         return false;
     }
-}
\ No newline at end of file
+
+    // ------------------------------------------------------------------
+
+    private static String sha256Hex(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
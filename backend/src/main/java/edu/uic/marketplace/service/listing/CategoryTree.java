@@ -0,0 +1,159 @@
+package edu.uic.marketplace.service.listing;
+
+import edu.uic.marketplace.model.listing.Category;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Immutable snapshot of the category hierarchy, built by CategoryTreeCache.
+ * <p>
+ * Nodes carry precomputed leaf flags, depth and name-sorted children. A new snapshot is
+ * swapped in as a whole when categories change, so readers never see a half-updated tree.
+ */
+public final class CategoryTree {
+
+    static final Comparator<Node> BY_NAME = Comparator.comparing(Node::name, String.CASE_INSENSITIVE_ORDER);
+
+    public record Node(Long categoryId,
+                       String slug,
+                       String name,
+                       String parentSlug,
+                       int depth,
+                       boolean leaf,
+                       List<Node> children) {
+
+        public boolean isRoot() {
+            return parentSlug == null;
+        }
+    }
+
+    /** One categories row: id, slug, name, parent id (null for roots) */
+    record Row(Long categoryId, String slug, String name, Long parentId) {
+    }
+
+    private final long version;
+    private final Map<String, Node> bySlug;
+    private final List<Node> roots;
+
+    private CategoryTree(long version, Map<String, Node> bySlug, List<Node> roots) {
+        this.version = version;
+        this.bySlug = bySlug;
+        this.roots = roots;
+    }
+
+    /**
+     * Link rows into nodes. Rows not reachable from a root (dangling parent, cycle) are left out.
+     */
+    static List<Node> link(Collection<Row> rows) {
+
+        Map<Long, List<Row>> childrenOf = new HashMap<>();
+        Map<Long, Row> byId = new HashMap<>();
+        for (Row row : rows) {
+            byId.put(row.categoryId(), row);
+        }
+        List<Row> rootRows = new ArrayList<>();
+        for (Row row : rows) {
+            if (row.parentId() == null) {
+                rootRows.add(row);
+            } else if (byId.containsKey(row.parentId())) {
+                childrenOf.computeIfAbsent(row.parentId(), id -> new ArrayList<>()).add(row);
+            }
+        }
+
+        return rootRows.stream()
+                .map(row -> node(row, null, 0, childrenOf))
+                .sorted(BY_NAME)
+                .toList();
+    }
+
+    static CategoryTree of(long version, List<Node> roots) {
+
+        Map<String, Node> bySlug = new HashMap<>();
+        collect(roots, bySlug);
+        return new CategoryTree(version, Map.copyOf(bySlug), roots);
+    }
+
+    public Optional<Node> find(String slug) {
+        return slug == null ? Optional.empty() : Optional.ofNullable(bySlug.get(slug));
+    }
+
+    /** Root categories, sorted by name */
+    public List<Node> roots() {
+        return roots;
+    }
+
+    public int size() {
+        return bySlug.size();
+    }
+
+    /** Bumped every time a snapshot with different content is swapped in */
+    public long version() {
+        return version;
+    }
+
+    /**
+     * Detached entity for the node, e.g. to set as a listing's category (only the id is written).
+     * Children are filled in from the snapshot; the parent chain is shallow (no siblings).
+     */
+    public Category toEntity(Node node) {
+
+        Category parent = null;
+        if (node.parentSlug() != null) {
+            parent = find(node.parentSlug()).map(this::toShallowEntity).orElse(null);
+        }
+        return toEntity(node, parent);
+    }
+
+    // ------------------------------------------------------------------
+
+    private static Node node(Row row, String parentSlug, int depth, Map<Long, List<Row>> childrenOf) {
+
+        List<Node> children = childrenOf.getOrDefault(row.categoryId(), List.of()).stream()
+                .map(child -> node(child, row.slug(), depth + 1, childrenOf))
+                .sorted(BY_NAME)
+                .toList();
+
+        return new Node(row.categoryId(), row.slug(), row.name(), parentSlug, depth, children.isEmpty(), children);
+    }
+
+    private static void collect(List<Node> nodes, Map<String, Node> bySlug) {
+        for (Node node : nodes) {
+            bySlug.put(node.slug(), node);
+            collect(node.children(), bySlug);
+        }
+    }
+
+    private Category toEntity(Node node, Category parent) {
+
+        Category category = Category.builder()
+                .categoryId(node.categoryId())
+                .slug(node.slug())
+                .name(node.name())
+                .parent(parent)
+                .build();
+
+        for (Node child : node.children()) {
+            category.getChildren().add(toEntity(child, category));
+        }
+        return category;
+    }
+
+    private Category toShallowEntity(Node node) {
+
+        Category parent = node.parentSlug() == null ? null
+                : find(node.parentSlug()).map(this::toShallowEntity).orElse(null);
+
+        return Category.builder()
+                .categoryId(node.categoryId())
+                .slug(node.slug())
+                .name(node.name())
+                .parent(parent)
+                .build();
+    }
+}
@@ -0,0 +1,86 @@
+package edu.uic.marketplace.service.listing;
+
+import edu.uic.marketplace.repository.listing.CategoryRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Holds the current CategoryTree. Categories are seeded by migration and almost never change,
+ * so lookups (listing create, category browse, search) are served from memory instead of the DB.
+ * <p>
+ * The snapshot is loaded at startup and rebuilt by {@link #refresh()} - after admin changes and
+ * periodically, to pick up changes made on other instances. A slug missing from the snapshot
+ * but present in the DB also triggers a refresh.
+ */
+@Component
+@Slf4j
+public class CategoryTreeCache {
+
+    private final CategoryRepository categoryRepository;
+
+    private volatile CategoryTree current;
+
+    public CategoryTreeCache(CategoryRepository categoryRepository) {
+        this.categoryRepository = categoryRepository;
+    }
+
+    /**
+     * Current snapshot (loaded on first use if startup loading hasn't run)
+     */
+    public CategoryTree get() {
+        CategoryTree tree = current;
+        return tree != null ? tree : refresh();
+    }
+
+    public Optional<CategoryTree.Node> find(String slug) {
+
+        Optional<CategoryTree.Node> node = get().find(slug);
+        if (node.isPresent() || slug == null || !categoryRepository.existsBySlug(slug)) {
+            return node;
+        }
+
+        // created since the snapshot was built (e.g. on another instance)
+        return refresh().find(slug);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.categories.refresh-interval-ms:300000}",
+            initialDelayString = "${app.categories.refresh-interval-ms:300000}")
+    public void reload() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            log.warn("Category tree reload failed, keeping the current snapshot: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reload from the DB and swap the snapshot in if its content changed
+     */
+    public synchronized CategoryTree refresh() {
+
+        // 1) load and link
+        List<CategoryTree.Node> roots = CategoryTree.link(categoryRepository.findTreeRows().stream()
+                .map(row -> new CategoryTree.Row((Long) row[0], (String) row[1], (String) row[2], (Long) row[3]))
+                .toList());
+
+        // 2) unchanged content keeps the current snapshot (and version)
+        CategoryTree previous = current;
+        if (previous != null && previous.roots().equals(roots)) {
+            return previous;
+        }
+
+        long version = previous == null ? 1 : previous.version() + 1;
+        CategoryTree tree = CategoryTree.of(version, roots);
+        current = tree;
+
+        log.info("Category tree v{} loaded: {} categories", version, tree.size());
+        return tree;
+    }
+}
@@ -0,0 +1,175 @@
+package edu.uic.marketplace.service.listing;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import edu.uic.marketplace.repository.listing.FavoriteRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Per-user bitmap of favorited listing ids (internal ids), bounded by user count.
+ * Loaded lazily on first probe, kept in sync by FavoriteServiceImpl after commit.
+ * <p>
+ * Each instance holds its own bitmaps. With {@code app.favorites.cache.invalidation=redis}
+ * a change is published to the other instances, which drop that user's bitmap
+ * (see FavoriteCacheInvalidationConfig). Without pub/sub, bitmaps expire
+ * {@code app.favorites.cache.local-ttl} (30s) after loading, which bounds how long another
+ * instance can show a stale favorite state.
+ */
+@Component
+@Slf4j
+public class FavoriteBitmapCache {
+
+    public static final String INVALIDATION_CHANNEL = "favorites:invalidate";
+
+    private final FavoriteRepository favoriteRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final Cache<String, Favorites> cache;
+
+    // tags published invalidations so an instance does not drop the bitmap it just updated
+    private final String instanceId = UUID.randomUUID().toString();
+
+    public FavoriteBitmapCache(FavoriteRepository favoriteRepository,
+                               ObjectProvider<StringRedisTemplate> redisTemplate,
+                               @Value("${app.favorites.cache.max-users:10000}") long maxUsers,
+                               @Value("${app.favorites.cache.expire-after-access:30m}") Duration expireAfterAccess,
+                               @Value("${app.favorites.cache.local-ttl:30s}") Duration localTtl,
+                               @Value("${app.favorites.cache.invalidation:local}") String invalidation) {
+        this.favoriteRepository = favoriteRepository;
+        this.redisTemplate = "redis".equals(invalidation) ? redisTemplate.getIfAvailable() : null;
+
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterAccess(expireAfterAccess);
+        if (this.redisTemplate == null) {
+            builder.expireAfterWrite(localTtl);
+        }
+        this.cache = builder.build();
+    }
+
+    /**
+     * Single probe (loads the user's bitmap on miss)
+     */
+    public boolean contains(String username, Long listingId) {
+        return listingId != null && favorites(username).contains(listingId);
+    }
+
+    /**
+     * Subset of listingIds the user has favorited (loads the user's bitmap on miss)
+     */
+    public Set<Long> filter(String username, Collection<Long> listingIds) {
+        return favorites(username).filter(listingIds);
+    }
+
+    /**
+     * Record a new favorite - only touches users already cached
+     * (computeIfPresent waits for an in-flight load of the same user, so the update is not lost)
+     */
+    public void add(String username, Long listingId) {
+        cache.asMap().computeIfPresent(username, (k, favorites) -> {
+            favorites.add(listingId);
+            return favorites;
+        });
+        publish(username);
+    }
+
+    /**
+     * Record a removed favorite - only touches users already cached
+     */
+    public void remove(String username, Long listingId) {
+        cache.asMap().computeIfPresent(username, (k, favorites) -> {
+            favorites.remove(listingId);
+            return favorites;
+        });
+        publish(username);
+    }
+
+    /**
+     * Handler for invalidations published by any instance (payload: "instanceId:username");
+     * this instance's own changes are already applied in place
+     */
+    public void onInvalidation(String payload) {
+        int sep = payload.indexOf(':');
+        if (sep < 0) {
+            log.warn("Ignoring malformed favorites cache invalidation: {}", payload);
+            return;
+        }
+        if (!payload.substring(0, sep).equals(instanceId)) {
+            evict(payload.substring(sep + 1));
+        }
+    }
+
+    /**
+     * Local eviction only
+     */
+    public void evict(String username) {
+        cache.invalidate(username);
+    }
+
+    // Helper methods
+
+    private void publish(String username) {
+        if (redisTemplate == null) return;
+        try {
+            redisTemplate.convertAndSend(INVALIDATION_CHANNEL, instanceId + ":" + username);
+        } catch (RuntimeException e) {
+            // other instances catch up when the bitmap expires
+            log.warn("Favorites cache invalidation for {} not published: {}", username, e.getMessage());
+        }
+    }
+
+    private Favorites favorites(String username) {
+        return cache.get(username, this::load);
+    }
+
+    private Favorites load(String username) {
+        Roaring64Bitmap bitmap = new Roaring64Bitmap();
+        for (Long listingId : favoriteRepository.findListingInternalIdsByUsername(username)) {
+            bitmap.addLong(listingId);
+        }
+        bitmap.runOptimize();
+        return new Favorites(bitmap);
+    }
+
+    /**
+     * Roaring64Bitmap is not thread-safe; all access goes through this holder
+     */
+    private static final class Favorites {
+
+        private final Roaring64Bitmap bitmap;
+
+        Favorites(Roaring64Bitmap bitmap) {
+            this.bitmap = bitmap;
+        }
+
+        synchronized boolean contains(long listingId) {
+            return bitmap.contains(listingId);
+        }
+
+        synchronized Set<Long> filter(Collection<Long> listingIds) {
+            Set<Long> result = new HashSet<>();
+            for (Long listingId : listingIds) {
+                if (listingId != null && bitmap.contains(listingId)) result.add(listingId);
+            }
+            return result;
+        }
+
+        synchronized void add(long listingId) {
+            bitmap.addLong(listingId);
+        }
+
+        synchronized void remove(long listingId) {
+            bitmap.removeLong(listingId);
+        }
+    }
+}
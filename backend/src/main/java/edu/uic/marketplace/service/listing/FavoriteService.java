@@ -1,7 +1,9 @@
 package edu.uic.marketplace.service.listing;
 
+import edu.uic.marketplace.dto.request.listing.SyncFavoritesRequest;
 import edu.uic.marketplace.dto.response.common.PageResponse;
 import edu.uic.marketplace.dto.response.listing.ListingSummaryResponse;
+import edu.uic.marketplace.dto.response.listing.SyncFavoritesResponse;
 
 import java.util.List;
 
@@ -16,6 +18,14 @@ public interface FavoriteService {
      * @param listingPublicId Listing ID
      */
     void toggleFavorite(String username, String listingPublicId);
+
+    /**
+     * Idempotently set/unset favorites for a batch of listings in one transaction
+     * @param username User ID
+     * @param request Items of (listingPublicId, favorited); the last item wins per listing
+     * @return Counts of rows actually added/removed and the final state per listing
+     */
+    SyncFavoritesResponse syncFavorites(String username, SyncFavoritesRequest request);
     
     /**
      * Check if user has favorited listing
@@ -63,4 +73,20 @@ public interface FavoriteService {
      * @return Set of favorited listing IDs
      */
     java.util.Set<String> getFavoritedListingIds(String username, List<String> listingPublicIds);
+
+    /**
+     * Check if user has favorited listing (in-memory bitmap probe)
+     * @param username Username
+     * @param listingId Internal listing ID
+     * @return true if favorited, false otherwise
+     */
+    boolean isFavoritedWithListingId(String username, Long listingId);
+
+    /**
+     * Check multiple listings at once by internal ID (in-memory bitmap probe)
+     * @param username Username
+     * @param listingIds Internal listing IDs to check
+     * @return Set of favorited internal listing IDs
+     */
+    java.util.Set<Long> getFavoritedListingIdsWithIds(String username, java.util.Collection<Long> listingIds);
 }
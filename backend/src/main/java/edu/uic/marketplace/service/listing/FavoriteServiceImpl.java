@@ -1,13 +1,18 @@
 package edu.uic.marketplace.service.listing;
 
 import edu.uic.marketplace.common.util.PageMapper;
+import edu.uic.marketplace.dto.request.listing.SyncFavoritesRequest;
 import edu.uic.marketplace.dto.response.common.PageResponse;
 import edu.uic.marketplace.dto.response.listing.ListingSummaryResponse;
+import edu.uic.marketplace.dto.response.listing.SyncFavoritesResponse;
 import edu.uic.marketplace.model.listing.Favorite;
 import edu.uic.marketplace.model.listing.Listing;
 import edu.uic.marketplace.model.listing.ListingStatus;
 import edu.uic.marketplace.model.user.User;
 import edu.uic.marketplace.repository.listing.FavoriteRepository;
+import edu.uic.marketplace.repository.listing.ListingRepository;
+import edu.uic.marketplace.repository.listing.ListingStatsRepository;
+import edu.uic.marketplace.service.common.Utils;
 import edu.uic.marketplace.service.notification.NotificationService;
 import edu.uic.marketplace.validator.auth.AuthValidator;
 import edu.uic.marketplace.validator.listing.ListingValidator;
@@ -19,9 +24,8 @@ import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Collections;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,8 +33,12 @@ import java.util.stream.Collectors;
 public class FavoriteServiceImpl implements FavoriteService {
 
     private final FavoriteRepository favoriteRepository;
+    private final ListingRepository listingRepository;
+    private final ListingStatsRepository listingStatsRepository;
     private final AuthValidator authValidator;
     private final ListingValidator listingValidator;
+    private final ListingLeaderboardService listingLeaderboardService;
+    private final FavoriteBitmapCache favoriteBitmapCache;
 
     private final NotificationService notificationService;
 
@@ -42,31 +50,16 @@ public class FavoriteServiceImpl implements FavoriteService {
         User user = authValidator.validateUserByUsername(username);
         Listing listing = listingValidator.validateListingByPublicId(listingPublicId);
 
-        // 2) already favorite -> remove
-        boolean exists = favoriteRepository.existsByUserAndListing(user, listing);
-        if (exists) {
-            favoriteRepository.deleteByUserAndListing(user, listing);
-            listing.decrementFavoriteCount();
+        // 2) already favorite -> remove (each statement is idempotent, so double-taps cannot drift the counter)
+        if (removeFavorite(user, listing)) {
             return;
         }
 
         // 3) add
-        Favorite.FavoriteId id = new Favorite.FavoriteId(
-                user.getUserId(),
-                listing.getListingId()
-        );
-
-        Favorite fav = Favorite.builder()
-                .id(id)
-                .user(user)
-                .listing(listing)
-                .build();
-
-        favoriteRepository.save(fav);
-        listing.incrementFavoriteCount();
+        boolean added = addFavorite(user, listing);
 
         // 4) Send notification to seller
-        if (user != listing.getSeller()) {
+        if (added && !isSeller(user, listing)) {
             notificationService.notifyListingFavorited(
                     listing.getSeller().getUsername(),
                     username,
@@ -75,6 +68,63 @@ public class FavoriteServiceImpl implements FavoriteService {
         }
     }
 
+    @Override
+    @Transactional
+    public SyncFavoritesResponse syncFavorites(String username, SyncFavoritesRequest request) {
+
+        // 1) validate
+        User user = authValidator.validateUserByUsername(username);
+
+        // 2) last item wins per listing
+        Map<String, Boolean> desired = new LinkedHashMap<>();
+        for (SyncFavoritesRequest.Item item : request.getItems()) {
+            desired.put(item.getListingPublicId(), Boolean.TRUE.equals(item.getFavorited()));
+        }
+
+        // 3) load all listings in one query (unknown / deleted listings are skipped)
+        Map<String, Listing> listings = listingRepository.findByPublicIdInAndDeletedAtIsNull(desired.keySet()).stream()
+                .collect(Collectors.toMap(Listing::getPublicId, Function.identity()));
+
+        // 4) apply
+        int added = 0;
+        int removed = 0;
+        Map<String, List<String>> favoritedBySeller = new LinkedHashMap<>();
+        List<SyncFavoritesResponse.Item> items = new ArrayList<>();
+
+        for (Map.Entry<String, Boolean> entry : desired.entrySet()) {
+            Listing listing = listings.get(entry.getKey());
+            if (listing == null) continue;
+
+            boolean favorited = entry.getValue();
+            if (favorited) {
+                if (addFavorite(user, listing)) {
+                    added++;
+                    if (!isSeller(user, listing)) {
+                        favoritedBySeller.computeIfAbsent(listing.getSeller().getUsername(), k -> new ArrayList<>())
+                                .add(listing.getPublicId());
+                    }
+                }
+            } else if (removeFavorite(user, listing)) {
+                removed++;
+            }
+
+            items.add(SyncFavoritesResponse.Item.builder()
+                    .listingPublicId(listing.getPublicId())
+                    .favorited(favorited)
+                    .build());
+        }
+
+        // 5) one notification per seller for the whole batch
+        favoritedBySeller.forEach((sellerUsername, listingPublicIds) ->
+                notificationService.notifyListingsFavorited(sellerUsername, username, listingPublicIds));
+
+        return SyncFavoritesResponse.builder()
+                .added(added)
+                .removed(removed)
+                .items(items)
+                .build();
+    }
+
     @Override
     @Transactional(readOnly = true)
     public boolean isFavorited(String username, String listingPublicId) {
@@ -145,4 +195,61 @@ public class FavoriteServiceImpl implements FavoriteService {
     public boolean isFavoritedWithIds(Long userId, Long listingId) {
         return favoriteRepository.existsById_UserIdAndId_ListingId(userId, listingId);
     }
+
+    @Override
+    public boolean isFavoritedWithListingId(String username, Long listingId) {
+        if (username == null) return false;
+        return favoriteBitmapCache.contains(username, listingId);
+    }
+
+    @Override
+    public Set<Long> getFavoritedListingIdsWithIds(String username, Collection<Long> listingIds) {
+        if (username == null || listingIds == null || listingIds.isEmpty()) {
+            return Collections.emptySet();
+        }
+        return favoriteBitmapCache.filter(username, listingIds);
+    }
+
+    // Helper methods
+
+    /**
+     * INSERT IGNORE + SQL-side increment; returns false when the favorite already existed
+     */
+    private boolean addFavorite(User user, Listing listing) {
+
+        if (favoriteRepository.insertIgnore(user.getUserId(), listing.getListingId()) == 0) {
+            return false;
+        }
+
+        listingStatsRepository.incrementFavoriteCount(listing.getListingId());
+        listingLeaderboardService.recordFavorite(listing, 1);
+
+        String username = user.getUsername();
+        Long listingId = listing.getListingId();
+        Utils.runAfterCommit(() -> favoriteBitmapCache.add(username, listingId));
+        return true;
+    }
+
+    /**
+     * DELETE + SQL-side decrement; returns false when there was no favorite
+     */
+    private boolean removeFavorite(User user, Listing listing) {
+
+        if (favoriteRepository.deleteByIds(user.getUserId(), listing.getListingId()) == 0) {
+            return false;
+        }
+
+        if (listingStatsRepository.decrementFavoriteCount(listing.getListingId()) > 0) {
+            listingLeaderboardService.recordFavorite(listing, -1);
+        }
+
+        String username = user.getUsername();
+        Long listingId = listing.getListingId();
+        Utils.runAfterCommit(() -> favoriteBitmapCache.remove(username, listingId));
+        return true;
+    }
+
+    private boolean isSeller(User user, Listing listing) {
+        return listing.getSeller() == null || listing.getSeller().getUserId().equals(user.getUserId());
+    }
 }
@@ -0,0 +1,27 @@
+package edu.uic.marketplace.service.listing;
+
+import edu.uic.marketplace.model.listing.ListingImage;
+
+import java.util.Collection;
+
+/**
+ * Asynchronous generation of resized listing image variants and BlurHash placeholders
+ */
+public interface ImageVariantService {
+
+    /**
+     * Queue variant generation once the current transaction commits
+     * (image IDs are read at that point, so newly added images can be passed)
+     */
+    void generateAfterCommit(Collection<ListingImage> images);
+
+    /**
+     * Decode, orient, resize and store variants for one image (runs on the worker pool)
+     */
+    void generate(Long imageId);
+
+    /**
+     * Queue BlurHash computation for a new avatar once the current transaction commits
+     */
+    void generateAvatarPlaceholderAfterCommit(Long userId, String avatarUrl);
+}
@@ -0,0 +1,228 @@
+package edu.uic.marketplace.service.listing;
+
+import edu.uic.marketplace.model.listing.ImageVariantStatus;
+import edu.uic.marketplace.model.listing.ListingImage;
+import edu.uic.marketplace.repository.listing.ListingImageRepository;
+import edu.uic.marketplace.repository.user.ProfileRepository;
+import edu.uic.marketplace.service.common.ImageProcessor;
+import edu.uic.marketplace.service.common.S3Service;
+import edu.uic.marketplace.service.common.Utils;
+import edu.uic.marketplace.service.upload.StorageDeletionService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.awt.image.BufferedImage;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Generates 1200 / 600 / 200 px JPEG variants off the request path, plus BlurHash
+ * placeholders for listing images (from the thumbnail) and avatars (from a subsampled decode).
+ * <p>
+ * The uploaded original is replaced by a full-size re-encode at the same time, so no stored
+ * rendition of a listing image keeps the uploader's EXIF (GPS, device, ...).
+ * <p>
+ * Work runs on a bounded pool; when the queue is full the image simply stays PENDING
+ * and the periodic sweep picks it up later, so nothing is lost and callers never block.
+ * Failed attempts are retried by the sweep with backoff, up to MAX_ATTEMPTS.
+ */
+@Service
+@Slf4j
+public class ImageVariantServiceImpl implements ImageVariantService {
+
+    static final int LARGE_WIDTH = 1200;
+    static final int MEDIUM_WIDTH = 600;
+    static final int THUMBNAIL_WIDTH = 200;
+
+    private static final float JPEG_QUALITY = 0.82f;
+    private static final float ORIGINAL_JPEG_QUALITY = 0.9f;
+    private static final String KEY_PREFIX = "listings/variants/";
+    private static final String ORIGINAL_KEY_PREFIX = "listings/";
+    private static final int SWEEP_BATCH = 50;
+    private static final Duration SWEEP_MIN_AGE = Duration.ofMinutes(2);
+    private static final int AVATAR_DECODE_WIDTH = 64;
+    static final int MAX_ATTEMPTS = 5;
+    private static final Duration MAX_BACKOFF = Duration.ofHours(6);
+
+    private final ListingImageRepository listingImageRepository;
+    private final ProfileRepository profileRepository;
+    private final S3Service s3Service;
+    private final ImageProcessor imageProcessor;
+    private final StorageDeletionService storageDeletionService;
+
+    private final ThreadPoolExecutor executor;
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    public ImageVariantServiceImpl(ListingImageRepository listingImageRepository,
+                                   ProfileRepository profileRepository,
+                                   S3Service s3Service,
+                                   ImageProcessor imageProcessor,
+                                   StorageDeletionService storageDeletionService,
+                                   @Value("${app.images.variants.pool-size:2}") int poolSize,
+                                   @Value("${app.images.variants.queue-capacity:200}") int queueCapacity) {
+        this.listingImageRepository = listingImageRepository;
+        this.profileRepository = profileRepository;
+        this.s3Service = s3Service;
+        this.imageProcessor = imageProcessor;
+        this.storageDeletionService = storageDeletionService;
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("image-variants-", 0).daemon(true).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public void generateAfterCommit(Collection<ListingImage> images) {
+
+        if (images.isEmpty()) return;
+
+        List<ListingImage> pending = List.copyOf(images);
+        Utils.runAfterCommit(() -> pending.forEach(image -> submit(image.getImageId())));
+    }
+
+    @Override
+    public void generate(Long imageId) {
+
+        ListingImage image = listingImageRepository.findById(imageId).orElse(null);
+        if (image == null || image.getVariantStatus() != ImageVariantStatus.PENDING) return;
+
+        String originalUrl = image.getImageUrl();
+        List<String> uploaded = new ArrayList<>(4);
+        try {
+            // 1) decode once (EXIF orientation applied)
+            BufferedImage current = imageProcessor.decode(s3Service.download(originalUrl));
+
+            // 2) full-size copy without metadata to stand in for the original
+            String strippedUrl = s3Service.uploadBytes(imageProcessor.encodeJpeg(current, ORIGINAL_JPEG_QUALITY),
+                    "image/jpeg", ORIGINAL_KEY_PREFIX, "jpg");
+            uploaded.add(strippedUrl);
+
+            // 3) each variant is resized from the previous, larger one
+            Map<Integer, String> urls = new HashMap<>();
+            for (int width : new int[]{LARGE_WIDTH, MEDIUM_WIDTH, THUMBNAIL_WIDTH}) {
+                current = imageProcessor.resizeToWidth(current, width);
+                String url = s3Service.uploadBytes(imageProcessor.encodeJpeg(current, JPEG_QUALITY),
+                        "image/jpeg", KEY_PREFIX, "jpg");
+                uploaded.add(url);
+                urls.put(width, url);
+            }
+
+            // 4) placeholder from the thumbnail, never the original
+            String blurHash = imageProcessor.blurHash(current);
+
+            // 5) store (no-op if the image was removed meanwhile -> drop our uploads)
+            int updated = listingImageRepository.completeVariants(imageId, originalUrl, strippedUrl,
+                    urls.get(THUMBNAIL_WIDTH), urls.get(MEDIUM_WIDTH), urls.get(LARGE_WIDTH), blurHash);
+            if (updated == 0) {
+                s3Service.deleteFiles(uploaded);
+                return;
+            }
+
+        } catch (Exception e) {
+            log.warn("Variant generation failed for image {}: {}", imageId, e.getMessage());
+            if (!uploaded.isEmpty()) {
+                try { s3Service.deleteFiles(uploaded); } catch (Exception ignore) {}
+            }
+            recordFailure(image, e);
+            return;
+        }
+
+        // 6) the row no longer references the uploaded bytes; the worker releases them
+        try {
+            storageDeletionService.enqueue(List.of(originalUrl));
+        } catch (Exception e) {
+            log.warn("Failed to queue original of image {} for deletion: {}", imageId, e.getMessage());
+        }
+    }
+
+    /**
+     * Not decodable / too large: FAILED right away. Anything else is retried by the sweep
+     * with backoff, and FAILED once MAX_ATTEMPTS is reached.
+     */
+    private void recordFailure(ListingImage image, Exception failure) {
+        try {
+            int attempts = image.getVariantAttempts() + 1;
+            if (failure instanceof IllegalArgumentException || attempts >= MAX_ATTEMPTS) {
+                listingImageRepository.failVariants(image.getImageId());
+                return;
+            }
+            listingImageRepository.retryVariantsLater(image.getImageId(), Instant.now().plus(backoff(attempts)));
+        } catch (Exception e) {
+            // stays PENDING without backoff; the next sweep tries again
+            log.warn("Failed to record variant failure for image {}: {}", image.getImageId(), e.getMessage());
+        }
+    }
+
+    @Override
+    public void generateAvatarPlaceholderAfterCommit(Long userId, String avatarUrl) {
+
+        if (userId == null || avatarUrl == null) return;
+
+        Utils.runAfterCommit(() -> {
+            try {
+                executor.execute(() -> generateAvatarPlaceholder(userId, avatarUrl));
+            } catch (RejectedExecutionException e) {
+                log.debug("Variant queue full, no placeholder for avatar of user {}", userId);
+            }
+        });
+    }
+
+    void generateAvatarPlaceholder(Long userId, String avatarUrl) {
+        try {
+            BufferedImage small = imageProcessor.decodeDownscaled(s3Service.download(avatarUrl), AVATAR_DECODE_WIDTH);
+            profileRepository.updateAvatarBlurHash(userId, avatarUrl, imageProcessor.blurHash(small));
+        } catch (Exception e) {
+            log.warn("Avatar placeholder failed for user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    /**
+     * Backfill: images whose job was dropped (full queue, restart) or that predate variants
+     */
+    @Scheduled(fixedDelayString = "${app.images.variants.sweep-interval-ms:300000}",
+            initialDelayString = "${app.images.variants.sweep-interval-ms:300000}")
+    public void sweep() {
+        try {
+            Instant now = Instant.now();
+            listingImageRepository.findPendingVariantImageIds(now.minus(SWEEP_MIN_AGE), now, PageRequest.of(0, SWEEP_BATCH))
+                    .forEach(this::submit);
+        } catch (Exception e) {
+            log.warn("Variant sweep failed: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /** 5m, 10m, 20m, ... capped at MAX_BACKOFF */
+    private static Duration backoff(int attempts) {
+        Duration delay = Duration.ofMinutes(5L << Math.min(attempts - 1, 10));
+        return delay.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : delay;
+    }
+
+    private void submit(Long imageId) {
+
+        if (imageId == null || !inFlight.add(imageId)) return;
+
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(imageId);
+                } finally {
+                    inFlight.remove(imageId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(imageId);
+            log.debug("Variant queue full, image {} left for the sweep", imageId);
+        }
+    }
+}
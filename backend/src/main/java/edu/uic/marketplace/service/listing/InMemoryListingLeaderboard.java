@@ -0,0 +1,120 @@
+package edu.uic.marketplace.service.listing;
+
+import edu.uic.marketplace.model.listing.ListingStatus;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Single-node stand-in for RedisListingLeaderboard (default, and used by tests)
+ */
+@Component
+@ConditionalOnProperty(name = "app.leaderboard.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryListingLeaderboard implements ListingLeaderboard {
+
+    private final Map<String, Board> boards = new ConcurrentHashMap<>();
+
+    @Override
+    public void put(Entry entry) {
+        for (LeaderboardMetric metric : LeaderboardMetric.values()) {
+            for (String key : keys(metric, entry.status(), entry.categorySlug())) {
+                board(key).set(entry.listingId(), entry.score(metric));
+            }
+        }
+    }
+
+    @Override
+    public void remove(Long listingId, ListingStatus status, String categorySlug) {
+        for (LeaderboardMetric metric : LeaderboardMetric.values()) {
+            for (String key : keys(metric, status, categorySlug)) {
+                Board board = boards.get(key);
+                if (board != null) board.remove(listingId);
+            }
+        }
+    }
+
+    @Override
+    public void increment(LeaderboardMetric metric, ListingStatus status, String categorySlug, Long listingId, long delta) {
+        for (String key : keys(metric, status, categorySlug)) {
+            Board board = boards.get(key);
+            if (board != null) board.incrementIfPresent(listingId, delta);
+        }
+    }
+
+    @Override
+    public List<Long> topIds(LeaderboardMetric metric, ListingStatus status, String categorySlug, long offset, int limit) {
+        Board board = boards.get(key(metric, status, categorySlug));
+        return board == null || limit <= 0 ? List.of() : board.range(offset, limit);
+    }
+
+    @Override
+    public long count(LeaderboardMetric metric, ListingStatus status, String categorySlug) {
+        Board board = boards.get(key(metric, status, categorySlug));
+        return board == null ? 0 : board.size();
+    }
+
+    @Override
+    public void rebuild(Collection<Entry> entries) {
+        boards.clear();
+        entries.forEach(this::put);
+    }
+
+    // Helper methods
+
+    private Board board(String key) {
+        return boards.computeIfAbsent(key, k -> new Board());
+    }
+
+    private List<String> keys(LeaderboardMetric metric, ListingStatus status, String categorySlug) {
+        if (categorySlug == null) {
+            return List.of(key(metric, status, null));
+        }
+        return List.of(key(metric, status, categorySlug), key(metric, status, null));
+    }
+
+    private String key(LeaderboardMetric metric, ListingStatus status, String categorySlug) {
+        return metric.name() + ":" + status.name() + ":" + (categorySlug == null ? "all" : categorySlug);
+    }
+
+    /**
+     * Score map plus an index ordered by score desc, then id desc
+     */
+    private static final class Board {
+
+        private final Map<Long, Long> scores = new HashMap<>();
+        private final TreeSet<long[]> ordered = new TreeSet<>((a, b) -> {
+            int c = Long.compare(b[0], a[0]);
+            return c != 0 ? c : Long.compare(b[1], a[1]);
+        });
+
+        synchronized void set(Long id, long score) {
+            Long previous = scores.put(id, score);
+            if (previous != null) ordered.remove(new long[]{previous, id});
+            ordered.add(new long[]{score, id});
+        }
+
+        synchronized void remove(Long id) {
+            Long previous = scores.remove(id);
+            if (previous != null) ordered.remove(new long[]{previous, id});
+        }
+
+        synchronized void incrementIfPresent(Long id, long delta) {
+            Long previous = scores.get(id);
+            if (previous != null) set(id, previous + delta);
+        }
+
+        synchronized List<Long> range(long offset, int limit) {
+            List<Long> ids = new ArrayList<>(limit);
+            Iterator<long[]> it = ordered.iterator();
+            for (long skipped = 0; skipped < offset && it.hasNext(); skipped++) it.next();
+            while (ids.size() < limit && it.hasNext()) ids.add(it.next()[1]);
+            return ids;
+        }
+
+        synchronized int size() {
+            return scores.size();
+        }
+    }
+}
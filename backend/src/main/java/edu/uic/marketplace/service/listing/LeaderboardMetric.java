@@ -0,0 +1,34 @@
+package edu.uic.marketplace.service.listing;
+
+import java.util.Optional;
+
+/**
+ * Counters that can back a popular-sort feed
+ */
+public enum LeaderboardMetric {
+
+    VIEWS("stats.viewCount"),
+    FAVORITES("stats.favoriteCount");
+
+    private final String sortProperty;
+
+    LeaderboardMetric(String sortProperty) {
+        this.sortProperty = sortProperty;
+    }
+
+    public String getSortProperty() {
+        return sortProperty;
+    }
+
+    /**
+     * Resolve the metric for a sort property built by Utils.buildPageable
+     */
+    public static Optional<LeaderboardMetric> fromSortProperty(String property) {
+        for (LeaderboardMetric metric : values()) {
+            if (metric.sortProperty.equals(property)) {
+                return Optional.of(metric);
+            }
+        }
+        return Optional.empty();
+    }
+}
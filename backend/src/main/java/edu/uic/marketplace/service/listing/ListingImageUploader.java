@@ -0,0 +1,163 @@
+package edu.uic.marketplace.service.listing;
+
+import edu.uic.marketplace.service.common.S3Service;
+import edu.uic.marketplace.service.upload.StorageDeletionService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Uploads listing images to S3 concurrently on virtual threads.
+ * <p>
+ * Concurrency is capped per call ({@code app.uploads.per-request-concurrency}) and across
+ * all calls ({@code app.uploads.max-concurrency}) so a burst of listings cannot flood S3.
+ * Returned URLs keep the order of the input files. On the first failure the remaining
+ * uploads are cancelled and every file that did reach S3 is queued for deletion before the error is rethrown.
+ */
+@Component
+@Slf4j
+public class ListingImageUploader {
+
+    private static final String UPLOAD_TIMER = "listing.image.upload";
+    private static final String BATCH_TIMER = "listing.image.upload.batch";
+
+    private final S3Service s3Service;
+    private final StorageDeletionService storageDeletionService;
+    private final MeterRegistry meterRegistry;
+    private final Semaphore globalPermits;
+    private final int perRequestConcurrency;
+
+    public ListingImageUploader(S3Service s3Service,
+                                StorageDeletionService storageDeletionService,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.uploads.max-concurrency:32}") int maxConcurrency,
+                                @Value("${app.uploads.per-request-concurrency:4}") int perRequestConcurrency) {
+        this.s3Service = s3Service;
+        this.storageDeletionService = storageDeletionService;
+        this.meterRegistry = meterRegistry;
+        this.globalPermits = new Semaphore(maxConcurrency);
+        this.perRequestConcurrency = perRequestConcurrency;
+    }
+
+    /**
+     * Upload all files and return their public URLs in the same order.
+     * All-or-nothing: on failure no uploaded object is left behind.
+     */
+    public List<String> uploadAll(List<MultipartFile> files) {
+
+        if (files == null || files.isEmpty()) return List.of();
+
+        String[] urls = new String[files.size()];
+        Queue<String> uploaded = new ConcurrentLinkedQueue<>();
+        AtomicBoolean failed = new AtomicBoolean();
+        Semaphore requestPermits = new Semaphore(perRequestConcurrency);
+        RuntimeException failure = null;
+
+        Timer.Sample batch = Timer.start(meterRegistry);
+
+        // close() waits for in-flight uploads, so `uploaded` is complete once the block exits
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+
+            List<Future<?>> futures = new ArrayList<>(files.size());
+            for (int i = 0; i < files.size(); i++) {
+                int index = i;
+                futures.add(executor.submit(() -> {
+                    uploadOne(files.get(index), index, urls, uploaded, failed, requestPermits);
+                    return null;
+                }));
+            }
+
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    failure = e.getCause() instanceof RuntimeException re
+                            ? re
+                            : new IllegalStateException("Image upload failed", e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    failure = new IllegalStateException("Image upload interrupted", e);
+                }
+
+                if (failure != null) {
+                    failed.set(true);
+                    futures.forEach(f -> f.cancel(true));
+                    break;
+                }
+            }
+        }
+
+        batch.stop(Timer.builder(BATCH_TIMER)
+                .tag("outcome", failure == null ? "success" : "failure")
+                .register(meterRegistry));
+
+        if (failure != null) {
+            discard(List.copyOf(uploaded));
+            throw failure;
+        }
+
+        return Arrays.asList(urls);
+    }
+
+    /**
+     * Compensation: queue already uploaded files for deletion. If the queue itself is
+     * unavailable (database down), fall back to a best-effort delete right away.
+     */
+    public void discard(Collection<String> urls) {
+
+        if (urls.isEmpty()) return;
+
+        try {
+            storageDeletionService.enqueue(List.copyOf(urls));
+            return;
+        } catch (Exception e) {
+            log.warn("Failed to queue {} uploaded image(s) for deletion: {}", urls.size(), e.getMessage());
+        }
+
+        for (String url : urls) {
+            try {
+                s3Service.deleteByUrl(url);
+            } catch (Exception e) {
+                log.warn("Failed to delete uploaded image {}: {}", url, e.getMessage());
+            }
+        }
+    }
+
+    private void uploadOne(MultipartFile file, int index, String[] urls, Queue<String> uploaded,
+                           AtomicBoolean failed, Semaphore requestPermits) throws InterruptedException {
+
+        requestPermits.acquire();
+        try {
+            globalPermits.acquire();
+            try {
+                // another upload already failed - don't start new work
+                if (failed.get()) return;
+
+                long start = System.nanoTime();
+                String outcome = "failure";
+                try {
+                    String url = s3Service.upload(file);
+                    urls[index] = url;
+                    uploaded.add(url);
+                    outcome = "success";
+                } finally {
+                    Timer.builder(UPLOAD_TIMER)
+                            .tag("outcome", outcome)
+                            .register(meterRegistry)
+                            .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            } finally {
+                globalPermits.release();
+            }
+        } finally {
+            requestPermits.release();
+        }
+    }
+}
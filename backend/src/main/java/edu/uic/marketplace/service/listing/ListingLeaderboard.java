@@ -0,0 +1,51 @@
+package edu.uic.marketplace.service.listing;
+
+import edu.uic.marketplace.model.listing.ListingStatus;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Sorted sets of listing ids per (metric, status, category).
+ * Every update is applied to the category board and to the "all" board of the same status.
+ */
+public interface ListingLeaderboard {
+
+    /**
+     * Add (or overwrite) a listing with its current counters
+     */
+    void put(Entry entry);
+
+    /**
+     * Remove a listing from the boards of the given status
+     */
+    void remove(Long listingId, ListingStatus status, String categorySlug);
+
+    /**
+     * Add delta to the score of a listing already on the board
+     */
+    void increment(LeaderboardMetric metric, ListingStatus status, String categorySlug, Long listingId, long delta);
+
+    /**
+     * Listing ids ordered by score desc (categorySlug null = all categories)
+     */
+    List<Long> topIds(LeaderboardMetric metric, ListingStatus status, String categorySlug, long offset, int limit);
+
+    /**
+     * Number of listings on the board (categorySlug null = all categories)
+     */
+    long count(LeaderboardMetric metric, ListingStatus status, String categorySlug);
+
+    /**
+     * Replace every board with the given entries (a shared store may skip this when
+     * another instance is already rebuilding)
+     */
+    void rebuild(Collection<Entry> entries);
+
+    record Entry(Long listingId, ListingStatus status, String categorySlug, long viewCount, long favoriteCount) {
+
+        public long score(LeaderboardMetric metric) {
+            return metric == LeaderboardMetric.VIEWS ? viewCount : favoriteCount;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package edu.uic.marketplace.service.listing;
+
+import edu.uic.marketplace.model.listing.Listing;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Optional;
+
+public interface ListingLeaderboardService extends ListingStatusListener {
+
+    /**
+     * Count one view on the popular boards (applied after commit)
+     */
+    void recordView(Listing listing);
+
+    /**
+     * Apply a favorite delta on the popular boards (applied after commit)
+     */
+    void recordFavorite(Listing listing, int delta);
+
+    /**
+     * Serve an ACTIVE popular-sort page from the boards.
+     * Empty when the pageable is not a popular sort or the boards are not available - callers fall back to the DB.
+     */
+    Optional<Page<Listing>> findActivePage(String categorySlug, Pageable pageable);
+
+    /**
+     * Reload all boards from listing_stats
+     */
+    void rebuild();
+}
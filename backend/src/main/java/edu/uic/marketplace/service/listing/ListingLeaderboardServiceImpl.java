@@ -0,0 +1,165 @@
+package edu.uic.marketplace.service.listing;
+
+import edu.uic.marketplace.model.listing.Listing;
+import edu.uic.marketplace.model.listing.ListingStatus;
+import edu.uic.marketplace.repository.listing.ListingRepository;
+import edu.uic.marketplace.repository.listing.ListingStatsRepository;
+import edu.uic.marketplace.service.common.Utils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps ListingLeaderboard in sync with listing_stats and serves popular-sort feeds from it.
+ * Only ACTIVE boards are maintained since only ACTIVE feeds are served.
+ * Store failures never fail the caller - feeds fall back to the DB query.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ListingLeaderboardServiceImpl implements ListingLeaderboardService {
+
+    private static final ListingStatus TRACKED_STATUS = ListingStatus.ACTIVE;
+
+    private final ListingLeaderboard leaderboard;
+    private final ListingRepository listingRepository;
+    private final ListingStatsRepository listingStatsRepository;
+
+    private volatile boolean ready = false;
+
+    @Override
+    public void recordView(Listing listing) {
+        if (!listing.isActive()) return;
+
+        Long listingId = listing.getListingId();
+        String categorySlug = categorySlug(listing);
+        Utils.runAfterCommit(() -> safely(() ->
+                leaderboard.increment(LeaderboardMetric.VIEWS, TRACKED_STATUS, categorySlug, listingId, 1)));
+    }
+
+    @Override
+    public void recordFavorite(Listing listing, int delta) {
+        if (!listing.isActive() || delta == 0) return;
+
+        Long listingId = listing.getListingId();
+        String categorySlug = categorySlug(listing);
+        Utils.runAfterCommit(() -> safely(() ->
+                leaderboard.increment(LeaderboardMetric.FAVORITES, TRACKED_STATUS, categorySlug, listingId, delta)));
+    }
+
+    @Override
+    public void syncStatus(Listing listing, ListingStatus previousStatus) {
+
+        boolean wasTracked = previousStatus == TRACKED_STATUS;
+        boolean isTracked = listing.isActive();
+        if (!wasTracked && !isTracked) return;
+
+        // capture values inside the transaction
+        Long listingId = listing.getListingId();
+        String categorySlug = categorySlug(listing);
+        ListingLeaderboard.Entry entry = isTracked
+                ? new ListingLeaderboard.Entry(listingId, TRACKED_STATUS, categorySlug,
+                        listing.getViewCount(), listing.getFavoriteCount())
+                : null;
+
+        Utils.runAfterCommit(() -> safely(() -> {
+            if (entry != null) {
+                leaderboard.put(entry);
+            } else {
+                leaderboard.remove(listingId, TRACKED_STATUS, categorySlug);
+            }
+        }));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Page<Listing>> findActivePage(String categorySlug, Pageable pageable) {
+
+        if (!ready) return Optional.empty();
+
+        // 1) only a single DESC order on a counter can be served
+        List<Sort.Order> orders = pageable.getSort().toList();
+        if (orders.size() != 1 || !orders.get(0).isDescending()) return Optional.empty();
+
+        Optional<LeaderboardMetric> metric = LeaderboardMetric.fromSortProperty(orders.get(0).getProperty());
+        if (metric.isEmpty()) return Optional.empty();
+
+        // 2) ids from the board
+        long total;
+        List<Long> ids;
+        try {
+            total = leaderboard.count(metric.get(), TRACKED_STATUS, categorySlug);
+            ids = leaderboard.topIds(metric.get(), TRACKED_STATUS, categorySlug,
+                    pageable.getOffset(), pageable.getPageSize());
+        } catch (RuntimeException e) {
+            log.warn("Leaderboard read failed, falling back to DB: {}", e.getMessage());
+            return Optional.empty();
+        }
+
+        if (ids.isEmpty()) {
+            return Optional.of(new PageImpl<>(List.of(), pageable, total));
+        }
+
+        // 3) batched hydrate, keep board order, drop entries that went stale
+        Map<Long, Listing> byId = listingRepository.findAllWithDetailsByListingIdIn(ids).stream()
+                .collect(Collectors.toMap(Listing::getListingId, Function.identity()));
+
+        List<Listing> content = ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .filter(Listing::isActive)
+                .toList();
+
+        return Optional.of(new PageImpl<>(content, pageable, total));
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+
+        try {
+            List<ListingLeaderboard.Entry> entries = listingStatsRepository.findLeaderboardRows(TRACKED_STATUS).stream()
+                    .map(row -> new ListingLeaderboard.Entry(
+                            (Long) row[0],
+                            TRACKED_STATUS,
+                            (String) row[1],
+                            ((Number) row[2]).longValue(),
+                            ((Number) row[3]).longValue()))
+                    .toList();
+
+            leaderboard.rebuild(entries);
+            ready = true;
+            log.info("Listing leaderboard loaded with {} listings", entries.size());
+
+        } catch (RuntimeException e) {
+            ready = false;
+            log.warn("Listing leaderboard rebuild failed, popular feeds served from DB: {}", e.getMessage());
+        }
+    }
+
+    // Helper methods
+
+    private String categorySlug(Listing listing) {
+        return listing.getCategory() != null ? listing.getCategory().getSlug() : null;
+    }
+
+    private void safely(Runnable action) {
+        try {
+            action.run();
+        } catch (RuntimeException e) {
+            log.warn("Leaderboard update failed: {}", e.getMessage());
+        }
+    }
+}
@@ -7,6 +7,7 @@ import org.springframework.web.multipart.MultipartFile;
 import edu.uic.marketplace.dto.request.listing.CreateListingRequest;
 import edu.uic.marketplace.dto.request.listing.NearbyListingRequest;
 import edu.uic.marketplace.dto.request.listing.SearchListingRequest;
+import edu.uic.marketplace.dto.request.listing.UpdateListingImagesRequest;
 import edu.uic.marketplace.dto.request.listing.UpdateListingRequest;
 import edu.uic.marketplace.dto.response.common.PageResponse;
 import edu.uic.marketplace.dto.response.listing.ListingResponse;
@@ -41,6 +42,17 @@ public interface ListingService {
      */
     ListingResponse updateListing(String publicId, String username, UpdateListingRequest request, List<MultipartFile> images);
 
+    /**
+     * Update listing images from a manifest (keep/reorder existing, add new, remove the rest)
+     * Only new files are uploaded; removed files are deleted from storage after commit.
+     * @param publicId Public ID of the listing
+     * @param username Username of the current user
+     * @param request Image manifest in final display order
+     * @param newImages Newly uploaded files referenced by index from the manifest
+     * @return Updated listing response
+     */
+    ListingResponse updateListingImages(String publicId, String username, UpdateListingImagesRequest request, List<MultipartFile> newImages);
+
     /**
      * Soft delete a listing
      * @param publicId Public ID of the listing
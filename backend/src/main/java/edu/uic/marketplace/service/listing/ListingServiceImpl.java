@@ -4,6 +4,7 @@ import edu.uic.marketplace.common.util.PageMapper;
 import edu.uic.marketplace.dto.request.listing.CreateListingRequest;
 import edu.uic.marketplace.dto.request.listing.NearbyListingRequest;
 import edu.uic.marketplace.dto.request.listing.SearchListingRequest;
+import edu.uic.marketplace.dto.request.listing.UpdateListingImagesRequest;
 import edu.uic.marketplace.dto.request.listing.UpdateListingRequest;
 import edu.uic.marketplace.dto.response.common.PageResponse;
 import edu.uic.marketplace.dto.response.listing.ListingResponse;
@@ -12,12 +13,15 @@ import edu.uic.marketplace.model.listing.Category;
 import edu.uic.marketplace.model.listing.Listing;
 import edu.uic.marketplace.model.listing.ListingImage;
 import edu.uic.marketplace.model.listing.ListingStatus;
+import edu.uic.marketplace.model.upload.UploadPurpose;
 import edu.uic.marketplace.model.user.User;
 import edu.uic.marketplace.repository.listing.ListingRepository;
-import edu.uic.marketplace.service.common.S3Service;
+import edu.uic.marketplace.repository.listing.ListingStatsRepository;
 import edu.uic.marketplace.service.common.Utils;
 import edu.uic.marketplace.service.moderation.BlockService;
 import edu.uic.marketplace.service.search.ViewHistoryService;
+import edu.uic.marketplace.service.upload.StorageDeletionService;
+import edu.uic.marketplace.service.upload.UploadSessionService;
 import edu.uic.marketplace.validator.auth.AuthValidator;
 import edu.uic.marketplace.validator.listing.CategoryValidator;
 import edu.uic.marketplace.validator.listing.ListingValidator;
@@ -29,23 +33,24 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.time.Instant;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ListingServiceImpl implements ListingService {
 
+    private static final int MAX_IMAGES = 10;
+
     // repositories
     private final ListingRepository listingRepository;
+    private final ListingStatsRepository listingStatsRepository;
 
     // validators
     private final ListingValidator listingValidator;
@@ -53,13 +58,27 @@ public class ListingServiceImpl implements ListingService {
     private final CategoryValidator categoryValidator;
 
     // services
-    private final S3Service s3Service;
+    private final StorageDeletionService storageDeletionService;
     private final FavoriteService favoriteService;
     private final ViewHistoryService viewHistoryService;
     private final BlockService blockService;
+    private final ListingLeaderboardService listingLeaderboardService;
+    private final SellerListingCountCache sellerListingCountCache;
+    private final ListingStatusNotifier listingStatusNotifier;
+    private final ListingImageUploader imageUploader;
+    private final UploadOutboxService uploadOutboxService;
+    private final UploadSessionService uploadSessionService;
+    private final ImageVariantService imageVariantService;
+
+    private final TransactionTemplate transactionTemplate;
 
+    /**
+     * Not @Transactional on purpose - two-phase publish:
+     * phase 1 uploads images (in parallel) and stages them in the upload outbox without a
+     * transaction; phase 2 saves the listing and releases the outbox entries in one short
+     * transaction. If phase 2 fails, the outbox worker deletes the orphaned uploads.
+     */
     @Override
-    @Transactional
     public ListingResponse createListing(String username, CreateListingRequest request, List<MultipartFile> images) {
 
         // 1) validate user
@@ -68,103 +87,139 @@ public class ListingServiceImpl implements ListingService {
         // 2) validate category (must be a leaf)
         Category category = categoryValidator.validateLeafCategory(request.getCategorySlug());
 
-        // 3) build entity (publicId handled by @PrePersist)
-        Listing listing = Listing.builder()
-                .seller(seller)
-                .title(request.getTitle())
-                .description(request.getDescription())
-                .price(request.getPrice())
-                .condition(request.getCondition())
-                .category(category)
-                .latitude(request.getLatitude())
-                .longitude(request.getLongitude())
-                .isNegotiable(Boolean.TRUE.equals(request.getIsNegotiable()))
-                .status(ListingStatus.ACTIVE)
-                .viewCount(0)
-                .favoriteCount(0)
-                .build();
-
-        // 4) upload images + attach to listing (best-effort rollback on failure)
-        List<String> uploadedUrls = new ArrayList<>();
+        // 3) phase 1: upload images outside the transaction (all-or-nothing, order preserved)
+        List<String> imageKeys = request.getImageKeys() != null ? request.getImageKeys() : List.of();
+        List<String> uploadIds = request.getUploadIds() != null ? request.getUploadIds() : List.of();
+        List<MultipartFile> files = nonEmptyImages(images);
+        if (imageKeys.size() + uploadIds.size() + files.size() > MAX_IMAGES) {
+            throw new IllegalArgumentException("You can upload up to 10 images.");
+        }
+
+        List<String> imageUrls = imageUploader.uploadAll(files);
+        stageUploads(imageUrls);
+
         try {
-            attachImages(listing, images, uploadedUrls);
+            return transactionTemplate.execute(status -> {
+
+                // 4) build entity (publicId and stats row handled by @PrePersist)
+                Listing listing = Listing.builder()
+                        .seller(seller)
+                        .title(request.getTitle())
+                        .description(request.getDescription())
+                        .price(request.getPrice())
+                        .condition(request.getCondition())
+                        .category(category)
+                        .latitude(request.getLatitude())
+                        .longitude(request.getLongitude())
+                        .isNegotiable(Boolean.TRUE.equals(request.getIsNegotiable()))
+                        .status(ListingStatus.ACTIVE)
+                        .build();
+
+                // images uploaded directly to storage come first, then resumable uploads, then multipart files
+                List<String> allUrls = new ArrayList<>(
+                        uploadSessionService.consumeUploads(seller, UploadPurpose.LISTING_IMAGE, imageKeys));
+                allUrls.addAll(uploadSessionService.consumeUploadsById(seller, UploadPurpose.LISTING_IMAGE, uploadIds));
+                allUrls.addAll(imageUrls);
+
+                for (int order = 0; order < allUrls.size(); order++) {
+                    listing.getImages().add(
+                            ListingImage.builder()
+                                    .listing(listing)
+                                    .imageUrl(allUrls.get(order))
+                                    .displayOrder(order)
+                                    .build()
+                    );
+                }
 
-            // 5) save
-            Listing saved = listingRepository.save(listing);
+                // 5) phase 2: save + release the staged uploads atomically
+                Listing saved = listingRepository.save(listing);
+                uploadOutboxService.release(imageUrls);
+                listingStatusNotifier.statusChanged(saved, null);
+                imageVariantService.generateAfterCommit(saved.getImages());
 
-            // 6) map to response (newly created -> not favorited yet)
-            return ListingResponse.from(saved, false);
+                // 6) map to response (newly created -> not favorited yet)
+                return ListingResponse.from(saved, false);
+            });
 
         } catch (RuntimeException e) {
-            cleanupUploaded(uploadedUrls); // compensate S3 uploads
+            scheduleCleanup(imageUrls); // outbox worker compensates the S3 uploads
             throw e;
         }
     }
 
+    /**
+     * Not @Transactional on purpose - same two phases as createListing: new image files are
+     * checked and uploaded first (see uploadManifestFiles), then every change is applied in one
+     * short transaction. If that fails, the outbox worker deletes the uploads.
+     */
     @Override
-    @Transactional
     public ListingResponse updateListing(String publicId, String username, UpdateListingRequest request, List<MultipartFile> images) {
 
-        // 1) validate
-        User user = authValidator.validateUserByUsername(username);
-        Listing listing = listingValidator.validateListingByPublicId(publicId);
+        // 1) images==null : nothing, images==empty: remove all, otherwise: change all
+        //    (a manifest of new files only - old files deleted after commit)
+        List<UpdateListingImagesRequest.ImageSlot> slots = null;
+        if (images != null) {
+            slots = new ArrayList<>();
+            for (int i = 0; i < images.size(); i++) {
+                MultipartFile f = images.get(i);
+                if (f == null || f.isEmpty()) continue;
+                slots.add(UpdateListingImagesRequest.ImageSlot.builder().newFileIndex(i).build());
+            }
+        }
 
-        listingValidator.validateSellerOwnership(user, listing.getSeller());
+        // 2) phase 1: upload new files outside the transaction
+        List<UpdateListingImagesRequest.ImageSlot> manifest = slots;
+        Map<Integer, String> uploaded = uploadManifestFiles(publicId, username, manifest, images);
 
-        // 2) update
-        if (request.getTitle() != null) listing.setTitle(request.getTitle());
-        if (request.getDescription() != null) listing.setDescription(request.getDescription());
-        if (request.getPrice() != null) listing.setPrice(request.getPrice());
-        if (request.getCondition() != null) listing.setCondition(request.getCondition());
-        if (request.getStatus() != null) listing.setStatus(request.getStatus());
-        if (request.getIsNegotiable() != null) listing.setIsNegotiable(request.getIsNegotiable());
+        // 3) phase 2: validate again and apply (dirty checking)
+        return inManifestTransaction(uploaded, () -> {
+            User user = authValidator.validateUserByUsername(username);
+            Listing listing = listingValidator.validateListingByPublicId(publicId);
 
-        // 3) update images: image==null : nothing, images==empty: remove all, otherwise: change all
-        if (images != null) {
+            listingValidator.validateSellerOwnership(user, listing.getSeller());
+            ListingStatus previousStatus = listing.getStatus();
 
-            List<String> oldUrls = listing.getImages().stream()
-                    .map(ListingImage::getImageUrl)
-                    .toList();
+            if (request.getTitle() != null) listing.setTitle(request.getTitle());
+            if (request.getDescription() != null) listing.setDescription(request.getDescription());
+            if (request.getPrice() != null) listing.setPrice(request.getPrice());
+            if (request.getCondition() != null) listing.setCondition(request.getCondition());
+            if (request.getStatus() != null) listing.setStatus(request.getStatus());
+            if (request.getIsNegotiable() != null) listing.setIsNegotiable(request.getIsNegotiable());
 
-            if (!oldUrls.isEmpty()) {
-                try {
-                    s3Service.deleteFiles(oldUrls);
-                } catch (Exception ignore) {
-                }
+            if (listing.getStatus() != previousStatus) {
+                listingStatusNotifier.statusChanged(listing, previousStatus);
             }
 
-            listing.getImages().clear();
-
-            // upload new images & connect
-            List<String> uploaded = new ArrayList<>();
-            try {
-
-                int order = 0;
-                for (MultipartFile f : images) {
-                    if (f == null || f.isEmpty()) continue;
-                    String url = s3Service.upload(f);
-                    uploaded.add(url);
-                    listing.getImages().add(ListingImage.builder()
-                            .listing(listing)
-                            .imageUrl(url)
-                            .displayOrder(order++)
-                            .build());
-                }
-            } catch (RuntimeException e) {
-
-                // fail to upload
-                for (String u : uploaded) {
-                    try {
-                        s3Service.deleteByUrl(u);
-                    } catch (Exception ignore) {
-                    }
-                }
-                throw e;
+            if (manifest != null) {
+                applyImageManifest(listing, manifest, images, uploaded);
             }
-        }
 
-        // 4) dirty checking
-        return ListingResponse.from(listing, false);
+            return ListingResponse.from(listing, false);
+        });
+    }
+
+    /**
+     * Not @Transactional on purpose - see updateListing
+     */
+    @Override
+    public ListingResponse updateListingImages(String publicId, String username,
+                                               UpdateListingImagesRequest request, List<MultipartFile> newImages) {
+
+        List<MultipartFile> files = newImages != null ? newImages : List.of();
+
+        // 1) phase 1: upload new files outside the transaction
+        Map<Integer, String> uploaded = uploadManifestFiles(publicId, username, request.getImages(), files);
+
+        // 2) phase 2: validate again and apply the manifest
+        return inManifestTransaction(uploaded, () -> {
+            User user = authValidator.validateUserByUsername(username);
+            Listing listing = listingValidator.validateListingByPublicId(publicId);
+            listingValidator.validateSellerOwnership(user, listing.getSeller());
+
+            applyImageManifest(listing, request.getImages(), files, uploaded);
+
+            return ListingResponse.from(listing, false);
+        });
     }
 
     @Override
@@ -177,11 +232,13 @@ public class ListingServiceImpl implements ListingService {
         listingValidator.validateSellerOwnership(user, listing.getSeller());
 
         // 2) soft delete
+        ListingStatus previousStatus = listing.getStatus();
         Instant now = Instant.now();
         listing.setStatus(ListingStatus.DELETED);
         listing.setDeletedAt(now);
 
         listingRepository.softDelete(publicId, now);
+        listingStatusNotifier.statusChanged(listing, previousStatus);
     }
 
     @Override
@@ -200,6 +257,7 @@ public class ListingServiceImpl implements ListingService {
 
         // 3) inactivate
         listing.setStatus(ListingStatus.INACTIVE);
+        listingStatusNotifier.statusChanged(listing, ListingStatus.ACTIVE);
     }
 
     @Override
@@ -217,6 +275,7 @@ public class ListingServiceImpl implements ListingService {
 
         // 3) reactivate
         listing.setStatus(ListingStatus.ACTIVE);
+        listingStatusNotifier.statusChanged(listing, ListingStatus.INACTIVE);
     }
 
     @Override
@@ -236,6 +295,7 @@ public class ListingServiceImpl implements ListingService {
 
         // 3) mark as sold
         listing.setStatus(ListingStatus.SOLD);
+        listingStatusNotifier.statusChanged(listing, ListingStatus.ACTIVE);
     }
 
     @Override
@@ -256,10 +316,13 @@ public class ListingServiceImpl implements ListingService {
         }
 
         // 4) favorite check
-        boolean isFavorite = favoriteService.isFavoritedWithIds(viewer.getUserId(), listing.getListingId());
+        boolean isFavorite = favoriteService.isFavoritedWithListingId(viewer.getUsername(), listing.getListingId());
 
-        // 5) view count
-        listingRepository.incrementViewCountIfNotSeller(publicId, viewer.getUserId());
+        // 5) view count (narrow stats row, seller's own views are not counted)
+        if (!seller.getUserId().equals(viewer.getUserId())) {
+            listingStatsRepository.incrementViewCount(listing.getListingId());
+            listingLeaderboardService.recordView(listing);
+        }
 
         // 6) view history
         viewHistoryService.recordViewWithEntities(viewer, listing);
@@ -267,14 +330,6 @@ public class ListingServiceImpl implements ListingService {
         return ListingResponse.from(listing, isFavorite);
     }
 
-    /**
-     * Increment view count asynchronously if viewer is not the seller
-     */
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
-    protected void incrementViewCountIfNotSellerAsync(String publicId, Long userId) {
-        listingRepository.incrementViewCountIfNotSeller(publicId, userId);
-    }
-
     @Override
     public ListingResponse getListingForSeller(String publicId, String sellerPublicId) {
         return null;
@@ -296,9 +351,11 @@ public class ListingServiceImpl implements ListingService {
         List<String> blockedUsernames = blockService.getAllBlockRelatedUsernames(username);
 
         // Choose appropriate method based on blocked users
+        // (popular sorts are served from the leaderboard when nobody has to be excluded)
         Page<Listing> result;
         if (blockedUsernames == null || blockedUsernames.isEmpty()) {
-            result = listingRepository.findByStatus(ListingStatus.ACTIVE, pageable);
+            result = listingLeaderboardService.findActivePage(null, pageable)
+                    .orElseGet(() -> listingRepository.findByStatus(ListingStatus.ACTIVE, pageable));
         } else {
             result = listingRepository.findByStatusExcludingUsers(
                     ListingStatus.ACTIVE,
@@ -307,16 +364,16 @@ public class ListingServiceImpl implements ListingService {
             );
         }
 
-        // Batch favorite check
-        List<String> listingIds = result.getContent().stream()
-                .map(Listing::getPublicId)
+        // Batch favorite check (bitmap probe)
+        List<Long> listingIds = result.getContent().stream()
+                .map(Listing::getListingId)
                 .toList();
 
-        Set<String> favoritedIds = favoriteService.getFavoritedListingIds(username, listingIds);
+        Set<Long> favoritedIds = favoriteService.getFavoritedListingIdsWithIds(username, listingIds);
 
         List<ListingSummaryResponse> content = result.getContent().stream()
                 .map(listing -> {
-                    boolean isFavorite = favoritedIds.contains(listing.getPublicId());
+                    boolean isFavorite = favoritedIds.contains(listing.getListingId());
                     return ListingSummaryResponse.from(listing, isFavorite);
                 })
                 .toList();
@@ -337,25 +394,27 @@ public class ListingServiceImpl implements ListingService {
         List<String> blockedUsernames = blockService.getAllBlockRelatedUsernames(username);
 
         // Choose appropriate method based on blocked users
+        // (popular sorts are served from the leaderboard when nobody has to be excluded)
         Page<Listing> result;
         if (blockedUsernames == null || blockedUsernames.isEmpty()) {
-            result = listingRepository.findByCategoryWithDetails(
-                    categorySlug, ListingStatus.ACTIVE, pageable);
+            result = listingLeaderboardService.findActivePage(categorySlug, pageable)
+                    .orElseGet(() -> listingRepository.findByCategoryWithDetails(
+                            categorySlug, ListingStatus.ACTIVE, pageable));
         } else {
             result = listingRepository.findByCategoryExcludingUsers(
                     categorySlug, ListingStatus.ACTIVE, blockedUsernames, pageable);
         }
 
-        // Batch favorite check
-        List<String> listingIds = result.getContent().stream()
-                .map(Listing::getPublicId)
+        // Batch favorite check (bitmap probe)
+        List<Long> listingIds = result.getContent().stream()
+                .map(Listing::getListingId)
                 .toList();
 
-        Set<String> favoritedIds = favoriteService.getFavoritedListingIds(username, listingIds);
+        Set<Long> favoritedIds = favoriteService.getFavoritedListingIdsWithIds(username, listingIds);
 
         List<ListingSummaryResponse> content = result.getContent().stream()
                 .map(listing -> {
-                    boolean isFavorite = favoritedIds.contains(listing.getPublicId());
+                    boolean isFavorite = favoritedIds.contains(listing.getListingId());
                     return ListingSummaryResponse.from(listing, isFavorite);
                 })
                 .toList();
@@ -473,18 +532,18 @@ public class ListingServiceImpl implements ListingService {
             // Not logged in - skip favorite check
         }
 
-        // Batch favorite check if user is logged in
-        Set<String> favoritedIds = Collections.emptySet();
+        // Batch favorite check if user is logged in (bitmap probe)
+        Set<Long> favoritedIds = Collections.emptySet();
         if (username != null) {
-            List<String> listingIds = pageResult.getContent().stream()
-                    .map(Listing::getPublicId)
+            List<Long> listingIds = pageResult.getContent().stream()
+                    .map(Listing::getListingId)
                     .toList();
-            favoritedIds = favoriteService.getFavoritedListingIds(username, listingIds);
+            favoritedIds = favoriteService.getFavoritedListingIdsWithIds(username, listingIds);
         }
 
-        final Set<String> finalFavoritedIds = favoritedIds;
+        final Set<Long> finalFavoritedIds = favoritedIds;
         List<ListingSummaryResponse> content = pageResult.getContent().stream()
-                .map(l -> ListingSummaryResponse.from(l, finalFavoritedIds.contains(l.getPublicId())))
+                .map(l -> ListingSummaryResponse.from(l, finalFavoritedIds.contains(l.getListingId())))
                 .toList();
 
         return PageMapper.toPageResponse(pageResult, content);
@@ -503,9 +562,18 @@ public class ListingServiceImpl implements ListingService {
             throw new IllegalArgumentException("latitude, longitude, radiusMiles are required");
         }
 
-        // 1) Only ACTIVE within a range
-        List<Listing> nearby = listingRepository.findNearbyWithinRadius(
+        // 1) Only ACTIVE within a range, nearest first
+        List<Long> nearbyIds = listingRepository.findNearbyIdsWithinRadius(
                 latitude, longitude, radiusMiles, ListingStatus.ACTIVE);
+        if (nearbyIds.isEmpty()) return List.of();
+
+        // hydrate seller/category/stats in one query, keep the distance order
+        Map<Long, Listing> byId = new HashMap<>();
+        listingRepository.findAllWithDetailsByListingIdIn(nearbyIds).forEach(l -> byId.put(l.getListingId(), l));
+        List<Listing> nearby = nearbyIds.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
 
         // 2) memory filter when there's category slug
         if (categorySlug != null && !categorySlug.isBlank()) {
@@ -527,64 +595,229 @@ public class ListingServiceImpl implements ListingService {
 
         Listing listing = listingValidator.validateActiveListingByPublicId(publicId);
 
-        Integer current = listing.getViewCount();
-        if (current == null) {
-            current = 0;
-        }
-
-        listing.setViewCount(current + 1);
-        listingRepository.incrementViewCount(publicId);
+        listingStatsRepository.incrementViewCount(listing.getListingId());
+        listingLeaderboardService.recordView(listing);
     }
 
     @Override
-    public Long getListingCountBySeller(String sellerUsername) {
-        authValidator.validateUserByUsername(sellerUsername);
-        return listingRepository.countBySeller_UsernameAndDeletedAtIsNull(sellerUsername);
+    public Long getListingCountBySeller(String sellerPublicId) {
+        return sellerListingCountCache.total(sellerPublicId);
     }
 
     @Override
     public Long getListingCountBySellerAndStatus(String sellerPublicId, ListingStatus status) {
-        return listingRepository.countBySeller_PublicIdAndStatusAndDeletedAtIsNull(sellerPublicId, status);
+        return sellerListingCountCache.count(sellerPublicId, status);
     }
 
     // Helper methods
 
     /**
-     *  Upload images to S3 and attach as ListingImage with display order.
-     *  Skips empty files; applies a simple max-count guard.
+     *  Drop empty parts and apply a simple max-count guard.
      **/
-    private void attachImages(Listing listing,
-                              List<MultipartFile> images,
-                              List<String> uploadedUrls) {
+    private List<MultipartFile> nonEmptyImages(List<MultipartFile> images) {
 
-        if (images == null || images.isEmpty()) return;
+        if (images == null || images.isEmpty()) return List.of();
 
         // simple guardrail for assignments
-        if (images.size() > 10) {
+        if (images.size() > MAX_IMAGES) {
             throw new IllegalArgumentException("You can upload up to 10 images.");
         }
 
-        int order = 0;
-        for (MultipartFile file : images) {
-            if (file == null || file.isEmpty()) continue;
+        return images.stream()
+                .filter(file -> file != null && !file.isEmpty())
+                .toList();
+    }
 
-            String url = s3Service.upload(file);   // returns S3 public URL
-            uploadedUrls.add(url);
+    /**
+     *  Record fresh uploads in the outbox. If even that fails, nothing tracks the
+     *  objects anymore, so delete them right away.
+     **/
+    private void stageUploads(List<String> urls) {
+        try {
+            uploadOutboxService.stage(urls);
+        } catch (RuntimeException e) {
+            imageUploader.discard(urls);
+            throw e;
+        }
+    }
 
-            listing.getImages().add(
-                    ListingImage.builder()
-                            .listing(listing)
-                            .imageUrl(url)
-                            .displayOrder(order++)
-                            .build()
-            );
+    /**
+     *  Make staged uploads due for cleanup now. Best-effort: if this fails the
+     *  entries are still picked up once their grace period ends.
+     **/
+    private void scheduleCleanup(List<String> urls) {
+        try {
+            uploadOutboxService.markDue(urls);
+        } catch (RuntimeException e) {
+            log.warn("Failed to schedule cleanup of {} upload(s): {}", urls.size(), e.getMessage());
         }
     }
 
-    /** Best-effort cleanup for already uploaded files when something fails mid-flow. */
-    private void cleanupUploaded(List<String> urls) {
-        for (String url : urls) {
-            try { s3Service.deleteByUrl(url); } catch (Exception ignore) {}
+    /**
+     *  Phase 1 of an image update: check ownership and the manifest in a short read
+     *  transaction, so nothing is uploaded for a request that cannot succeed, then upload
+     *  the new files (in parallel, no transaction open) and stage them in the upload outbox.
+     *  @return URL per file index, ascending; empty when the manifest has no new files
+     **/
+    private Map<Integer, String> uploadManifestFiles(String publicId, String username,
+                                                     List<UpdateListingImagesRequest.ImageSlot> slots,
+                                                     List<MultipartFile> files) {
+
+        if (slots == null || slots.stream().allMatch(slot -> slot.getNewFileIndex() == null)) return Map.of();
+
+        List<Integer> indexes = transactionTemplate.execute(status -> {
+            User user = authValidator.validateUserByUsername(username);
+            Listing listing = listingValidator.validateListingByPublicId(publicId);
+            listingValidator.validateSellerOwnership(user, listing.getSeller());
+            return checkManifest(listing, slots, files);
+        });
+
+        List<String> urls = imageUploader.uploadAll(indexes.stream().map(files::get).toList());
+        stageUploads(urls);
+
+        Map<Integer, String> uploaded = new TreeMap<>();
+        for (int i = 0; i < indexes.size(); i++) {
+            uploaded.put(indexes.get(i), urls.get(i));
+        }
+        return uploaded;
+    }
+
+    /**
+     *  Phase 2 of an image update. If it fails, the staged uploads are made due for cleanup.
+     **/
+    private ListingResponse inManifestTransaction(Map<Integer, String> uploaded, Supplier<ListingResponse> work) {
+        try {
+            return transactionTemplate.execute(status -> work.get());
+        } catch (RuntimeException e) {
+            if (!uploaded.isEmpty()) {
+                scheduleCleanup(List.copyOf(uploaded.values())); // outbox worker compensates the S3 uploads
+            }
+            throw e;
+        }
+    }
+
+    /**
+     *  Validate a manifest against the listing's current images and the request files.
+     *  @return Indexes of the new files it references, ascending
+     **/
+    private static List<Integer> checkManifest(Listing listing,
+                                               List<UpdateListingImagesRequest.ImageSlot> slots,
+                                               List<MultipartFile> files) {
+
+        if (slots.size() > MAX_IMAGES) {
+            throw new IllegalArgumentException("You can upload up to 10 images.");
+        }
+
+        Set<String> currentIds = new HashSet<>();
+        for (ListingImage image : listing.getImages()) {
+            if (image.getPublicId() != null) currentIds.add(image.getPublicId());
+        }
+
+        Set<String> keptIds = new HashSet<>();
+        Set<Integer> fileIndexes = new TreeSet<>();
+        for (UpdateListingImagesRequest.ImageSlot slot : slots) {
+            boolean existing = slot.getImagePublicId() != null;
+            int references = (existing ? 1 : 0) + (slot.getNewFileIndex() != null ? 1 : 0) + (slot.getUploadKey() != null ? 1 : 0);
+            if (references != 1) {
+                throw new IllegalArgumentException("Each image must reference exactly one of an existing image, a new file or an upload key.");
+            }
+
+            if (slot.getUploadKey() != null) continue;
+
+            if (existing) {
+                if (!currentIds.contains(slot.getImagePublicId())) {
+                    throw new IllegalArgumentException("Image does not belong to this listing: " + slot.getImagePublicId());
+                }
+                if (!keptIds.add(slot.getImagePublicId())) {
+                    throw new IllegalArgumentException("Duplicate image: " + slot.getImagePublicId());
+                }
+            } else {
+                int index = slot.getNewFileIndex();
+                if (index < 0 || index >= files.size() || files.get(index) == null || files.get(index).isEmpty()) {
+                    throw new IllegalArgumentException("No uploaded file at index " + index);
+                }
+                if (!fileIndexes.add(index)) {
+                    throw new IllegalArgumentException("Duplicate file index: " + index);
+                }
+            }
+        }
+        return new ArrayList<>(fileIndexes);
+    }
+
+    /**
+     *  Apply an image manifest (final display order) to the listing, inside the transaction:
+     *  attach the files uploaded in phase 1, remove images that are not listed, reorder kept images
+     *  (changed rows are flushed as one JDBC batch). Removed files are deleted from S3 after commit.
+     *  @param uploaded URL per new file index, from uploadManifestFiles
+     **/
+    private void applyImageManifest(Listing listing,
+                                    List<UpdateListingImagesRequest.ImageSlot> slots,
+                                    List<MultipartFile> files,
+                                    Map<Integer, String> uploaded) {
+
+        // 1) validate again: the listing may have changed while the files were uploading
+        checkManifest(listing, slots, files);
+
+        Map<String, ListingImage> current = new HashMap<>();
+        for (ListingImage image : listing.getImages()) {
+            if (image.getPublicId() != null) current.put(image.getPublicId(), image);
+        }
+
+        Set<String> keptIds = new HashSet<>();
+        List<String> uploadKeys = new ArrayList<>();
+        for (UpdateListingImagesRequest.ImageSlot slot : slots) {
+            if (slot.getImagePublicId() != null) keptIds.add(slot.getImagePublicId());
+            if (slot.getUploadKey() != null) uploadKeys.add(slot.getUploadKey());
+        }
+
+        // 2) attaching the new files releases their outbox entries; direct uploads were staged
+        //    when their session was created, consuming releases them
+        if (!uploaded.isEmpty()) {
+            uploadOutboxService.release(List.copyOf(uploaded.values()));
+        }
+        List<String> keyUrls = uploadSessionService.consumeUploads(listing.getSeller(), UploadPurpose.LISTING_IMAGE, uploadKeys);
+        Map<String, String> urlByKey = new HashMap<>();
+        for (int i = 0; i < uploadKeys.size(); i++) {
+            urlByKey.put(uploadKeys.get(i), keyUrls.get(i));
+        }
+
+        // 3) remove images not in the manifest (rows via orphanRemoval, S3 objects after commit)
+        List<String> removedUrls = listing.getImages().stream()
+                .filter(image -> !keptIds.contains(image.getPublicId()))
+                .flatMap(image -> image.getAllUrls().stream())
+                .toList();
+        listing.getImages().removeIf(image -> !keptIds.contains(image.getPublicId()));
+
+        // 4) final order: new images inserted at their slot; only kept images whose order
+        //    changed become dirty, and their UPDATEs go out batched at flush
+        List<ListingImage> added = new ArrayList<>();
+        for (int order = 0; order < slots.size(); order++) {
+            UpdateListingImagesRequest.ImageSlot slot = slots.get(order);
+            if (slot.getImagePublicId() != null) {
+                ListingImage kept = current.get(slot.getImagePublicId());
+                if (kept.getDisplayOrder() == null || kept.getDisplayOrder() != order) {
+                    kept.setDisplayOrder(order);
+                }
+            } else {
+                String url = slot.getUploadKey() != null
+                        ? urlByKey.get(slot.getUploadKey())
+                        : uploaded.get(slot.getNewFileIndex());
+                ListingImage image = ListingImage.builder()
+                        .listing(listing)
+                        .imageUrl(url)
+                        .displayOrder(order)
+                        .build();
+                listing.getImages().add(image);
+                added.add(image);
+            }
+        }
+
+        listing.getImages().sort(Comparator.comparing(ListingImage::getDisplayOrder));
+        imageVariantService.generateAfterCommit(added);
+
+        // removed objects are deleted by the worker once this transaction commits
+        if (!removedUrls.isEmpty()) {
+            storageDeletionService.enqueue(removedUrls);
         }
     }
 }
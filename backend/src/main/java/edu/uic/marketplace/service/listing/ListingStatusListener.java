@@ -0,0 +1,17 @@
+package edu.uic.marketplace.service.listing;
+
+import edu.uic.marketplace.model.listing.Listing;
+import edu.uic.marketplace.model.listing.ListingStatus;
+
+/**
+ * Derived state kept in step with listing status transitions (boards, counters).
+ * Status changes are reported once through {@link ListingStatusNotifier}, which calls every listener.
+ */
+public interface ListingStatusListener {
+
+    /**
+     * Apply a listing's status change (after commit; previousStatus null = new listing).
+     * A deleted listing counts as having no status.
+     */
+    void syncStatus(Listing listing, ListingStatus previousStatus);
+}
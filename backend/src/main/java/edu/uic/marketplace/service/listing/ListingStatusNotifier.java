@@ -0,0 +1,30 @@
+package edu.uic.marketplace.service.listing;
+
+import edu.uic.marketplace.model.listing.Listing;
+import edu.uic.marketplace.model.listing.ListingStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Single entry point for listing status transitions: every {@link ListingStatusListener} bean
+ * is told, so call sites don't need to know which caches depend on the status.
+ */
+@Component
+@RequiredArgsConstructor
+public class ListingStatusNotifier {
+
+    private final List<ListingStatusListener> listeners;
+
+    /**
+     * Call inside the transaction that changed the status; listeners apply after commit
+     *
+     * @param previousStatus Status before the change, null for a new listing
+     */
+    public void statusChanged(Listing listing, ListingStatus previousStatus) {
+        for (ListingStatusListener listener : listeners) {
+            listener.syncStatus(listing, previousStatus);
+        }
+    }
+}
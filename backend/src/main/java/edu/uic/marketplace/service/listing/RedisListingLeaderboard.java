@@ -0,0 +1,195 @@
+package edu.uic.marketplace.service.listing;
+
+import edu.uic.marketplace.model.listing.ListingStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Redis ZSET leaderboard. Keys: lb:listing:{metric}:{status}:{categorySlug|all}
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "app.leaderboard.store", havingValue = "redis")
+public class RedisListingLeaderboard implements ListingLeaderboard {
+
+    private static final String KEY_PREFIX = "lb:listing:";
+    private static final String KEY_REGISTRY = KEY_PREFIX + "keys";
+    private static final String ALL = "all";
+    private static final String REBUILD_LOCK = KEY_PREFIX + "rebuild-lock";
+    private static final Duration REBUILD_LOCK_TTL = Duration.ofMinutes(5);
+    private static final int REBUILD_BATCH = 1000;
+
+    /**
+     * ZINCRBY only when the member is already present (ZADD XX INCR is not exposed by the template)
+     */
+    private static final RedisScript<Long> INCREMENT_IF_PRESENT = new DefaultRedisScript<>("""
+            local n = 0
+            for i, key in ipairs(KEYS) do
+              if redis.call('ZSCORE', key, ARGV[1]) then
+                redis.call('ZINCRBY', key, ARGV[2], ARGV[1])
+                n = n + 1
+              end
+            end
+            return n
+            """, Long.class);
+
+    /**
+     * KEYS[1] = registry, then n live keys, then their n staging keys; ARGV[1] = n.
+     * Drops boards that are no longer loaded and renames each staging key over its live key.
+     */
+    private static final RedisScript<Long> SWAP_BOARDS = new DefaultRedisScript<>("""
+            local n = tonumber(ARGV[1])
+            local live = {}
+            for i = 2, n + 1 do live[KEYS[i]] = true end
+            for _, key in ipairs(redis.call('SMEMBERS', KEYS[1])) do
+              if not live[key] then redis.call('DEL', key) end
+            end
+            redis.call('DEL', KEYS[1])
+            for i = 2, n + 1 do
+              redis.call('RENAME', KEYS[i + n], KEYS[i])
+              redis.call('PERSIST', KEYS[i])
+              redis.call('SADD', KEYS[1], KEYS[i])
+            end
+            return n
+            """, Long.class);
+
+    private static final RedisScript<Long> RELEASE_LOCK = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) == ARGV[1] then
+              return redis.call('DEL', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    @Override
+    public void put(Entry entry) {
+
+        ZSetOperations<String, String> zset = redisTemplate.opsForZSet();
+        String member = entry.listingId().toString();
+
+        for (LeaderboardMetric metric : LeaderboardMetric.values()) {
+            for (String key : keys(metric, entry.status(), entry.categorySlug())) {
+                zset.add(key, member, entry.score(metric));
+                redisTemplate.opsForSet().add(KEY_REGISTRY, key);
+            }
+        }
+    }
+
+    @Override
+    public void remove(Long listingId, ListingStatus status, String categorySlug) {
+
+        String member = listingId.toString();
+        for (LeaderboardMetric metric : LeaderboardMetric.values()) {
+            for (String key : keys(metric, status, categorySlug)) {
+                redisTemplate.opsForZSet().remove(key, member);
+            }
+        }
+    }
+
+    @Override
+    public void increment(LeaderboardMetric metric, ListingStatus status, String categorySlug, Long listingId, long delta) {
+        redisTemplate.execute(INCREMENT_IF_PRESENT, keys(metric, status, categorySlug),
+                listingId.toString(), Long.toString(delta));
+    }
+
+    @Override
+    public List<Long> topIds(LeaderboardMetric metric, ListingStatus status, String categorySlug, long offset, int limit) {
+
+        if (limit <= 0) return List.of();
+
+        Set<String> members = redisTemplate.opsForZSet()
+                .reverseRange(key(metric, status, categorySlug), offset, offset + limit - 1);
+
+        if (members == null || members.isEmpty()) return List.of();
+
+        return members.stream().map(Long::valueOf).toList();
+    }
+
+    @Override
+    public long count(LeaderboardMetric metric, ListingStatus status, String categorySlug) {
+        Long size = redisTemplate.opsForZSet().zCard(key(metric, status, categorySlug));
+        return size == null ? 0 : size;
+    }
+
+    /**
+     * Only one node rebuilds: the lock is taken with SET NX and left to expire after a
+     * successful rebuild, so nodes starting shortly after (a rolling deploy) keep the boards
+     * just built. Boards are loaded into temporary keys and swapped in with one script, so
+     * readers see either the old boards or the new ones, never a partial load. Increments
+     * that land on the old boards while the new ones load are lost with them.
+     */
+    @Override
+    public void rebuild(Collection<Entry> entries) {
+
+        // 1) another node is rebuilding (or just did)
+        String token = UUID.randomUUID().toString();
+        if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(REBUILD_LOCK, token, REBUILD_LOCK_TTL))) {
+            log.info("Listing leaderboard rebuild skipped, another instance holds the lock");
+            return;
+        }
+
+        try {
+            // 2) group tuples per key
+            Map<String, Set<ZSetOperations.TypedTuple<String>>> byKey = new HashMap<>();
+            for (Entry entry : entries) {
+                String member = entry.listingId().toString();
+                for (LeaderboardMetric metric : LeaderboardMetric.values()) {
+                    double score = entry.score(metric);
+                    for (String key : keys(metric, entry.status(), entry.categorySlug())) {
+                        byKey.computeIfAbsent(key, k -> new HashSet<>())
+                                .add(new DefaultTypedTuple<>(member, score));
+                    }
+                }
+            }
+
+            // 3) load into temporary keys (expiring, in case this node dies before the swap)
+            List<String> live = new ArrayList<>(byKey.keySet());
+            List<String> staging = live.stream().map(key -> key + ":rebuild:" + token).toList();
+            for (int k = 0; k < live.size(); k++) {
+                List<ZSetOperations.TypedTuple<String>> list = new ArrayList<>(byKey.get(live.get(k)));
+                for (int i = 0; i < list.size(); i += REBUILD_BATCH) {
+                    redisTemplate.opsForZSet().add(staging.get(k), new HashSet<>(list.subList(i, Math.min(i + REBUILD_BATCH, list.size()))));
+                }
+                redisTemplate.expire(staging.get(k), REBUILD_LOCK_TTL);
+            }
+
+            // 4) swap atomically
+            List<String> scriptKeys = new ArrayList<>(1 + 2 * live.size());
+            scriptKeys.add(KEY_REGISTRY);
+            scriptKeys.addAll(live);
+            scriptKeys.addAll(staging);
+            redisTemplate.execute(SWAP_BOARDS, scriptKeys, Integer.toString(live.size()));
+
+        } catch (RuntimeException e) {
+            // let another node (or the next start) try again
+            redisTemplate.execute(RELEASE_LOCK, List.of(REBUILD_LOCK), token);
+            throw e;
+        }
+    }
+
+    // Helper methods
+
+    private List<String> keys(LeaderboardMetric metric, ListingStatus status, String categorySlug) {
+        if (categorySlug == null) {
+            return List.of(key(metric, status, null));
+        }
+        return List.of(key(metric, status, categorySlug), key(metric, status, null));
+    }
+
+    private String key(LeaderboardMetric metric, ListingStatus status, String categorySlug) {
+        return KEY_PREFIX + metric.name().toLowerCase() + ":" + status.name() + ":"
+                + (categorySlug == null ? ALL : categorySlug);
+    }
+}
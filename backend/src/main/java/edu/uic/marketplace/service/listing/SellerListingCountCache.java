@@ -0,0 +1,183 @@
+package edu.uic.marketplace.service.listing;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import edu.uic.marketplace.exception.auth.UserNotFoundException;
+import edu.uic.marketplace.model.listing.Listing;
+import edu.uic.marketplace.model.listing.ListingStatus;
+import edu.uic.marketplace.repository.listing.ListingRepository;
+import edu.uic.marketplace.repository.user.UserRepository;
+import edu.uic.marketplace.service.common.Utils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Per-seller listing counts by status (non-deleted listings), keyed by the seller's public id.
+ * Loaded lazily with one GROUP BY per seller, kept in sync on status transitions after commit,
+ * and periodically recounted for the cached sellers to correct drift.
+ * Unknown sellers are rejected with UserNotFoundException and never cached.
+ */
+@Component
+@Slf4j
+public class SellerListingCountCache implements ListingStatusListener {
+
+    // sellers per reconcile query (IN list)
+    private static final int RECONCILE_CHUNK = 500;
+
+    private final ListingRepository listingRepository;
+    private final UserRepository userRepository;
+    private final Cache<String, Counts> cache;
+
+    public SellerListingCountCache(ListingRepository listingRepository,
+                                   UserRepository userRepository,
+                                   @Value("${app.listings.seller-counts.max-sellers:10000}") long maxSellers,
+                                   @Value("${app.listings.seller-counts.expire-after-access:30m}") Duration expireAfterAccess) {
+        this.listingRepository = listingRepository;
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSellers)
+                .expireAfterAccess(expireAfterAccess)
+                .build();
+    }
+
+    /**
+     * Non-deleted listings of the seller, all statuses (loads the seller on miss)
+     * @throws UserNotFoundException No user with this public id
+     */
+    public long total(String sellerPublicId) {
+        return counts(sellerPublicId).total();
+    }
+
+    /**
+     * Non-deleted listings of the seller in the given status (loads the seller on miss)
+     * @throws UserNotFoundException No user with this public id
+     */
+    public long count(String sellerPublicId, ListingStatus status) {
+        return counts(sellerPublicId).get(status);
+    }
+
+    /**
+     * Only touches sellers already cached
+     */
+    @Override
+    public void syncStatus(Listing listing, ListingStatus previousStatus) {
+
+        ListingStatus status = listing.getDeletedAt() == null ? listing.getStatus() : null;
+        if (status == previousStatus || listing.getSeller() == null) return;
+
+        // capture inside the transaction
+        String sellerPublicId = listing.getSeller().getPublicId();
+
+        Utils.runAfterCommit(() -> cache.asMap().computeIfPresent(sellerPublicId, (k, counts) -> {
+            if (previousStatus != null) counts.add(previousStatus, -1);
+            if (status != null) counts.add(status, 1);
+            return counts;
+        }));
+    }
+
+    /**
+     * Recount every cached seller from the DB (a few grouped queries) and replace their counts
+     */
+    @Scheduled(fixedDelayString = "${app.listings.seller-counts.reconcile-interval-ms:600000}",
+            initialDelayString = "${app.listings.seller-counts.reconcile-interval-ms:600000}")
+    public void reconcile() {
+
+        try {
+            List<String> sellers = new ArrayList<>(cache.asMap().keySet());
+            int corrected = 0;
+
+            for (int from = 0; from < sellers.size(); from += RECONCILE_CHUNK) {
+                List<String> chunk = sellers.subList(from, Math.min(from + RECONCILE_CHUNK, sellers.size()));
+                Map<String, Counts> fresh = load(chunk);
+
+                for (String seller : chunk) {
+                    Counts recounted = fresh.getOrDefault(seller, new Counts());
+                    Counts previous = cache.getIfPresent(seller);
+                    if (previous != null && !previous.sameAs(recounted)) {
+                        cache.asMap().replace(seller, previous, recounted);
+                        corrected++;
+                    }
+                }
+            }
+
+            if (corrected > 0) {
+                log.info("Seller listing counts reconciled: {} of {} cached seller(s) corrected", corrected, sellers.size());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Seller listing count reconcile failed: {}", e.getMessage());
+        }
+    }
+
+    public void invalidate(String sellerPublicId) {
+        cache.invalidate(sellerPublicId);
+    }
+
+    // Helper methods
+
+    /**
+     * A seller without listings is checked for existence before being cached as all zeros;
+     * the loader throws for unknown ids, so they are never cached
+     */
+    private Counts counts(String sellerPublicId) {
+        return cache.get(sellerPublicId, seller -> {
+            Counts counts = load(List.of(seller)).get(seller);
+            if (counts != null) return counts;
+
+            if (!userRepository.existsByPublicId(seller)) {
+                throw new UserNotFoundException("User with ID " + seller + " not found");
+            }
+            return new Counts();
+        });
+    }
+
+    private Map<String, Counts> load(Collection<String> sellerPublicIds) {
+
+        Map<String, Counts> result = new HashMap<>();
+        for (Object[] row : listingRepository.countBySellerPublicIdsGroupByStatus(sellerPublicIds)) {
+            result.computeIfAbsent((String) row[0], k -> new Counts())
+                    .add((ListingStatus) row[1], ((Number) row[2]).longValue());
+        }
+        return result;
+    }
+
+    /**
+     * One counter per status, updated without locking
+     */
+    private static final class Counts {
+
+        private final AtomicLongArray byStatus = new AtomicLongArray(ListingStatus.values().length);
+
+        void add(ListingStatus status, long delta) {
+            byStatus.addAndGet(status.ordinal(), delta);
+        }
+
+        long get(ListingStatus status) {
+            return Math.max(0, byStatus.get(status.ordinal()));
+        }
+
+        long total() {
+            long total = 0;
+            for (ListingStatus status : ListingStatus.values()) {
+                total += get(status);
+            }
+            return total;
+        }
+
+        boolean sameAs(Counts other) {
+            for (int i = 0; i < byStatus.length(); i++) {
+                if (byStatus.get(i) != other.byStatus.get(i)) return false;
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package edu.uic.marketplace.service.listing;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Transactional outbox for S3 uploads made outside the listing transaction.
+ * <p>
+ * Phase 1 uploads the bytes and {@link #stage stages} the URLs (own transaction).
+ * Phase 2 saves the listing images and {@link #release releases} the URLs in the same
+ * transaction. Anything still staged after that is an orphan and is deleted by the worker.
+ */
+public interface UploadOutboxService {
+
+    /**
+     * Record uploaded objects in a new transaction, due for cleanup after the grace period.
+     */
+    void stage(List<String> urls);
+
+    /**
+     * Same as {@link #stage(List)} with an explicit delay before cleanup becomes due.
+     */
+    void stage(List<String> urls, Duration dueIn);
+
+    /**
+     * Remove outbox entries in the caller's transaction (objects are now referenced).
+     */
+    void release(List<String> urls);
+
+    /**
+     * Make staged entries due now, in a new transaction (phase 2 failed).
+     */
+    void markDue(List<String> urls);
+
+    /**
+     * Delete due orphaned objects from S3, rescheduling failures with backoff.
+     *
+     * @return number of entries cleaned up
+     */
+    int processDue();
+}
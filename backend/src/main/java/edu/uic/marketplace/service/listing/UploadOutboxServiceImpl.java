@@ -0,0 +1,167 @@
+package edu.uic.marketplace.service.listing;
+
+import edu.uic.marketplace.model.listing.UploadOutbox;
+import edu.uic.marketplace.repository.listing.UploadOutboxRepository;
+import edu.uic.marketplace.service.common.S3Service;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+@Service
+@Slf4j
+public class UploadOutboxServiceImpl implements UploadOutboxService {
+
+    private static final int BATCH_SIZE = 100;
+    private static final Duration MAX_BACKOFF = Duration.ofHours(1);
+
+    private final UploadOutboxRepository uploadOutboxRepository;
+    private final S3Service s3Service;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration gracePeriod;
+
+    public UploadOutboxServiceImpl(UploadOutboxRepository uploadOutboxRepository,
+                                   S3Service s3Service,
+                                   TransactionTemplate transactionTemplate,
+                                   @Value("${app.uploads.outbox.grace-period:15m}") Duration gracePeriod) {
+        this.uploadOutboxRepository = uploadOutboxRepository;
+        this.s3Service = s3Service;
+        this.transactionTemplate = transactionTemplate;
+        this.gracePeriod = gracePeriod;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void stage(List<String> urls) {
+        stage(urls, gracePeriod);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void stage(List<String> urls, Duration dueIn) {
+
+        if (urls.isEmpty()) return;
+
+        Instant dueAt = Instant.now().plus(dueIn);
+        uploadOutboxRepository.saveAll(urls.stream()
+                .map(url -> UploadOutbox.builder().objectUrl(url).nextAttemptAt(dueAt).build())
+                .toList());
+    }
+
+    @Override
+    @Transactional
+    public void release(List<String> urls) {
+
+        if (urls.isEmpty()) return;
+
+        uploadOutboxRepository.deleteAllInBatch(onePerOccurrence(urls));
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void markDue(List<String> urls) {
+
+        if (urls.isEmpty()) return;
+
+        Instant now = Instant.now();
+        onePerOccurrence(urls).forEach(entry -> entry.setNextAttemptAt(now));
+    }
+
+    /**
+     * Not @Transactional: each entry is cleaned up in a transaction of its own, which releases
+     * its reference and removes the entry together - an entry is never released twice, even
+     * when two instances pick it up or the DB fails after the release.
+     */
+    @Override
+    public int processDue() {
+
+        List<UploadOutbox> due = uploadOutboxRepository.findDue(Instant.now(), PageRequest.of(0, BATCH_SIZE));
+
+        int cleaned = 0;
+        for (UploadOutbox entry : due) {
+            try {
+                if (cleanUp(entry.getOutboxId())) cleaned++;
+            } catch (Exception e) {
+                reschedule(entry.getOutboxId(), e);
+            }
+        }
+
+        if (cleaned > 0) {
+            log.info("Cleaned up {} orphaned upload(s)", cleaned);
+        }
+        return cleaned;
+    }
+
+    /**
+     * @return false if the entry was already gone (cleaned up elsewhere or attached meanwhile)
+     */
+    private boolean cleanUp(Long outboxId) {
+
+        Boolean done = transactionTemplate.execute(status -> uploadOutboxRepository.findByIdForUpdate(outboxId)
+                .map(entry -> {
+                    s3Service.deleteByUrl(entry.getObjectUrl());
+                    uploadOutboxRepository.delete(entry);
+                    return true;
+                })
+                .orElse(false));
+        return Boolean.TRUE.equals(done);
+    }
+
+    private void reschedule(Long outboxId, Exception failure) {
+        try {
+            transactionTemplate.execute(status -> {
+                uploadOutboxRepository.findById(outboxId).ifPresent(entry -> {
+                    int attempts = entry.getAttempts() + 1;
+                    entry.setAttempts(attempts);
+                    entry.setNextAttemptAt(Instant.now().plus(backoff(attempts)));
+                    entry.setLastError(truncate(failure.getMessage()));
+                    uploadOutboxRepository.save(entry);
+
+                    log.warn("Orphaned upload cleanup failed (attempt {}): {} - {}", attempts, entry.getObjectUrl(), failure.getMessage());
+                });
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("Failed to reschedule upload cleanup {}: {}", outboxId, e.getMessage());
+        }
+    }
+
+    /**
+     * Each entry stands for one reference to its object, so entries with the same URL are
+     * interchangeable - but only as many as the caller staged may be released or made due.
+     */
+    private List<UploadOutbox> onePerOccurrence(List<String> urls) {
+
+        Map<String, Deque<UploadOutbox>> byUrl = new HashMap<>();
+        for (UploadOutbox entry : uploadOutboxRepository.findByObjectUrlIn(Set.copyOf(urls))) {
+            byUrl.computeIfAbsent(entry.getObjectUrl(), k -> new ArrayDeque<>()).add(entry);
+        }
+
+        List<UploadOutbox> picked = new ArrayList<>(urls.size());
+        for (String url : urls) {
+            Deque<UploadOutbox> entries = byUrl.get(url);
+            if (entries != null && !entries.isEmpty()) {
+                picked.add(entries.poll());
+            }
+        }
+        return picked;
+    }
+
+    /** 1m, 2m, 4m, ... capped at MAX_BACKOFF */
+    private static Duration backoff(int attempts) {
+        Duration delay = Duration.ofMinutes(1L << Math.min(attempts - 1, 10));
+        return delay.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : delay;
+    }
+
+    private static String truncate(String message) {
+        if (message == null) return null;
+        return message.length() > 500 ? message.substring(0, 500) : message;
+    }
+}
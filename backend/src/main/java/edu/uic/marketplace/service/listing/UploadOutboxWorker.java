@@ -0,0 +1,27 @@
+package edu.uic.marketplace.service.listing;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically deletes orphaned uploads left in the upload outbox.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UploadOutboxWorker {
+
+    private final UploadOutboxService uploadOutboxService;
+
+    @Scheduled(fixedDelayString = "${app.uploads.outbox.poll-interval-ms:60000}",
+            initialDelayString = "${app.uploads.outbox.poll-interval-ms:60000}")
+    public void run() {
+        try {
+            uploadOutboxService.processDue();
+        } catch (Exception e) {
+            log.warn("Upload outbox run failed: {}", e.getMessage());
+        }
+    }
+}
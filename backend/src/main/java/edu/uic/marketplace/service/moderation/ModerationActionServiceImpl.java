@@ -3,9 +3,16 @@ package edu.uic.marketplace.service.moderation;
 import edu.uic.marketplace.dto.request.moderation.ModerationActionRequest;
 import edu.uic.marketplace.dto.response.common.PageResponse;
 import edu.uic.marketplace.dto.response.moderation.ModerationActionResponse;
+import edu.uic.marketplace.exception.auth.UserNotFoundException;
 import edu.uic.marketplace.model.moderation.ModerationAction;
+import edu.uic.marketplace.model.user.User;
+import edu.uic.marketplace.repository.moderation.ModerationActionRepository;
+import edu.uic.marketplace.repository.user.UserRepository;
+import edu.uic.marketplace.service.user.UserService;
+import edu.uic.marketplace.validator.auth.AuthValidator;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Map;
@@ -15,6 +22,11 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class ModerationActionServiceImpl implements ModerationActionService {
 
+    private final ModerationActionRepository moderationActionRepository;
+    private final UserRepository userRepository;
+    private final UserService userService;
+    private final AuthValidator authValidator;
+
     @Override
     public ModerationActionResponse createAction(Long adminId, ModerationActionRequest request) {
         return null;
@@ -41,8 +53,27 @@ public class ModerationActionServiceImpl implements ModerationActionService {
     }
 
     @Override
+    @Transactional
     public ModerationActionResponse suspendUser(Long adminId, Long userId, String reason) {
-        return null;
+
+        // 1) Validate admin
+        User admin = userRepository.findById(adminId)
+                .orElseThrow(() -> new UserNotFoundException("User with internal ID " + adminId + " not found"));
+        authValidator.validateAdminRole(admin);
+
+        // 2) Suspend (revokes the user's tokens and drops them from the user cache on every instance)
+        userService.suspendUser(userId, reason);
+
+        // 3) Record the action
+        ModerationAction action = moderationActionRepository.save(ModerationAction.builder()
+                .admin(admin)
+                .actionType("SUSPEND_USER")
+                .targetType("USER")
+                .targetId(userId)
+                .note(reason)
+                .build());
+
+        return ModerationActionResponse.from(action);
     }
 
     @Override
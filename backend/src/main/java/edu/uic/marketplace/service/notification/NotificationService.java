@@ -1,5 +1,6 @@
 package edu.uic.marketplace.service.notification;
 
+import java.util.List;
 import java.util.Optional;
 
 import edu.uic.marketplace.dto.response.common.PageResponse;
@@ -122,6 +123,14 @@ public interface NotificationService {
      */
     void notifyListingFavorited(String sellerUsername, String followerUsername, String listingPublicId);
 
+    /**
+     * Send a single notification for several listings of one seller favorited at once
+     * @param sellerUsername Seller user username
+     * @param followerUsername User who favorited
+     * @param listingPublicIds Favorited listing public IDs (same seller)
+     */
+    void notifyListingsFavorited(String sellerUsername, String followerUsername, List<String> listingPublicIds);
+
     /**
      * Send notification for new follower (for public accounts)
      * @param userUsername User who gained a follower
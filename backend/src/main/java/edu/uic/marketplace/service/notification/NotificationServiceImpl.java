@@ -1,6 +1,7 @@
 package edu.uic.marketplace.service.notification;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
 
@@ -238,6 +239,32 @@ public class NotificationServiceImpl implements NotificationService {
         );
     }
 
+    @Override
+    @Transactional
+    public void notifyListingsFavorited(String sellerUsername, String followerUsername, List<String> listingPublicIds) {
+
+        if (listingPublicIds == null || listingPublicIds.isEmpty()) return;
+
+        if (listingPublicIds.size() == 1) {
+            notifyListingFavorited(sellerUsername, followerUsername, listingPublicIds.get(0));
+            return;
+        }
+
+        User seller = authValidator.validateUserByUsername(sellerUsername);
+        User follower = authValidator.validateUserByUsername(followerUsername);
+
+        String message = follower.getUsername() + " favorited " + listingPublicIds.size() + " of your listings.";
+
+        // link to the first listing of the batch
+        createNotification(
+                seller.getUsername(),
+                NotificationType.LISTING_FAVORITED,
+                "listing",
+                listingPublicIds.get(0),
+                message
+        );
+    }
+
     @Override
     @Transactional
     public void notifyNewFollower(String userUsername, String followerUsername) {
@@ -7,6 +7,7 @@ import edu.uic.marketplace.model.transaction.Transaction;
 import edu.uic.marketplace.model.transaction.TransactionStatus;
 import edu.uic.marketplace.model.user.User;
 import edu.uic.marketplace.repository.transaction.TransactionRepository;
+import edu.uic.marketplace.service.listing.ListingStatusNotifier;
 import edu.uic.marketplace.validator.auth.AuthValidator;
 import edu.uic.marketplace.validator.listing.ListingValidator;
 import lombok.RequiredArgsConstructor;
@@ -27,6 +28,8 @@ public class TransactionServiceImpl implements TransactionService {
 
     private final TransactionRepository transactionRepository;
 
+    private final ListingStatusNotifier listingStatusNotifier;
+
     @Override
     @Transactional
     public TransactionResponse createTransaction(String listingPublicId, String buyerUsername, BigDecimal finalPrice) {
@@ -142,7 +145,9 @@ public class TransactionServiceImpl implements TransactionService {
             tx.complete();  // sets COMPLETED status + timestamp
 
             Listing listing = tx.getListing();
+            ListingStatus previousStatus = listing.getStatus();
             listing.setStatus(ListingStatus.SOLD);
+            listingStatusNotifier.statusChanged(listing, previousStatus);
         }
 
         return TransactionResponse.from(tx);
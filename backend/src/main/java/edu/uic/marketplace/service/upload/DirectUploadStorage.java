@@ -0,0 +1,42 @@
+package edu.uic.marketplace.service.upload;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Storage side of direct uploads: issues presigned PUT URLs and inspects the
+ * objects clients uploaded with them. Selected with {@code app.storage.type} (s3 | local).
+ */
+public interface DirectUploadStorage {
+
+    /**
+     * Presigned PUT for exactly this content type and size.
+     * The client must send the returned headers with the request.
+     */
+    PresignedUpload presignPut(String key, String contentType, long contentLength, Instant expiresAt);
+
+    /**
+     * Metadata of an uploaded object, empty if nothing was uploaded under the key.
+     */
+    Optional<ObjectInfo> stat(String key);
+
+    /**
+     * URL stored on listings/profiles for the object.
+     */
+    String publicUrl(String key);
+
+    void delete(String key);
+
+    /**
+     * Store a file the app received itself (assembled resumable upload) under the key.
+     */
+    void put(String key, Path file, String contentType);
+
+    record PresignedUpload(String url, Map<String, String> headers) {
+    }
+
+    record ObjectInfo(long contentLength, String contentType) {
+    }
+}
@@ -0,0 +1,136 @@
+package edu.uic.marketplace.service.upload;
+
+import edu.uic.marketplace.service.common.LocalObjectStorage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Local stand-in for S3 presigned uploads (dev and tests).
+ * <p>
+ * Objects are kept by LocalObjectStorage, next to server-side uploads. "Presigned" URLs
+ * point at LocalUploadController and carry an HMAC over key, content type, size and expiry,
+ * so the flow (presign - PUT - confirm) is the same as with S3.
+ */
+@Component
+@ConditionalOnProperty(name = "app.storage.type", havingValue = "local")
+@Slf4j
+public class LocalDirectUploadStorage implements DirectUploadStorage {
+
+    private final LocalObjectStorage objects;
+    private final byte[] secret;
+
+    public LocalDirectUploadStorage(LocalObjectStorage objects,
+                                    @Value("${app.storage.local.secret:}") String secret) {
+        this.objects = objects;
+        this.secret = secret.isBlank() ? randomSecret() : secret.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public PresignedUpload presignPut(String key, String contentType, long contentLength, Instant expiresAt) {
+
+        long expires = expiresAt.getEpochSecond();
+        String url = UriComponentsBuilder.fromUriString(publicUrl(key))
+                .queryParam("contentType", contentType)
+                .queryParam("size", contentLength)
+                .queryParam("expires", expires)
+                .queryParam("signature", sign(key, contentType, contentLength, expires))
+                .encode()
+                .toUriString();
+
+        return new PresignedUpload(url, Map.of("Content-Type", contentType));
+    }
+
+    @Override
+    public Optional<ObjectInfo> stat(String key) {
+        if (!objects.exists(key)) return Optional.empty();
+
+        try {
+            return Optional.of(new ObjectInfo(Files.size(objects.path(key)), objects.contentType(key)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public String publicUrl(String key) {
+        return objects.publicUrl(key);
+    }
+
+    @Override
+    public void delete(String key) {
+        objects.delete(List.of(key));
+    }
+
+    @Override
+    public void put(String key, Path file, String contentType) {
+        objects.put(key, file, contentType);
+    }
+
+    /**
+     * Check a presigned PUT and store the body. Called by LocalUploadController.
+     */
+    public void acceptUpload(String key, String contentType, long size, long expires, String signature,
+                             String requestContentType, InputStream body) throws IOException {
+
+        String expected = sign(key, contentType, size, expires);
+        if (!MessageDigest.isEqual(expected.getBytes(StandardCharsets.UTF_8), signature.getBytes(StandardCharsets.UTF_8))) {
+            throw new IllegalArgumentException("Invalid upload signature");
+        }
+        if (Instant.now().getEpochSecond() > expires) {
+            throw new IllegalArgumentException("Upload URL expired");
+        }
+        if (!contentType.equals(requestContentType)) {
+            throw new IllegalArgumentException("Content-Type does not match the upload session");
+        }
+
+        try (body) {
+            objects.put(key, body, size, contentType, null);
+        }
+    }
+
+    /**
+     * File backing a key (for serving)
+     */
+    public Path path(String key) {
+        return objects.path(key);
+    }
+
+    private String sign(String key, String contentType, long size, long expires) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret, "HmacSHA256"));
+            byte[] digest = mac.doFinal((key + "\n" + contentType + "\n" + size + "\n" + expires)
+                    .getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] randomSecret() {
+        byte[] bytes = new byte[32];
+        new SecureRandom().nextBytes(bytes);
+        log.info("No app.storage.local.secret set - presigned local URLs are only valid until restart");
+        return bytes;
+    }
+}
@@ -0,0 +1,202 @@
+package edu.uic.marketplace.service.upload;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.*;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Local disk staging for resumable uploads.
+ * <p>
+ * Each session gets a directory with one file per chunk, named by its zero-padded offset.
+ * A chunk is streamed into a temp file first (no lock held while the client is slow) and
+ * moved into place only once the session accepted its offset. Assembly concatenates the
+ * chunks with {@link FileChannel#transferTo}, so the bytes never pass through the heap.
+ */
+@Component
+public class ResumableChunkStore {
+
+    private static final String PART_SUFFIX = ".part";
+    private static final String ASSEMBLED = "object";
+
+    private final Path root;
+
+    public ResumableChunkStore(@Value("${app.uploads.resumable.dir:${java.io.tmpdir}/uic-marketplace-resumable}") Path root)
+            throws IOException {
+        this.root = Files.createDirectories(root).toAbsolutePath().normalize();
+    }
+
+    /**
+     * Stream exactly {@code length} bytes of the body into a temp file of the session
+     */
+    public Path receive(String sessionId, InputStream body, long length) {
+
+        Path dir = sessionDir(sessionId);
+        Path tmp = null;
+        try {
+            Files.createDirectories(dir);
+            tmp = Files.createTempFile(dir, ".chunk-", ".tmp");
+
+            long written;
+            try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.WRITE);
+                 ReadableByteChannel in = Channels.newChannel(body)) {
+                written = transferFully(in, out, length);
+            }
+            if (written != length || body.read() != -1) {
+                throw new IllegalArgumentException("Chunk size does not match Content-Length");
+            }
+            return tmp;
+
+        } catch (IOException e) {
+            deleteQuietly(tmp);
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            deleteQuietly(tmp);
+            throw e;
+        }
+    }
+
+    /**
+     * Move a received chunk into place as the chunk at {@code offset}
+     */
+    public void commit(String sessionId, Path received, long offset) {
+        try {
+            Files.move(received, sessionDir(sessionId).resolve(partName(offset)),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void discard(Path received) {
+        deleteQuietly(received);
+    }
+
+    /**
+     * Whether this node has anything staged for the session. The store is per node, so on
+     * every other instance a live session simply has nothing here.
+     */
+    public boolean holds(String sessionId) {
+
+        Path dir = sessionDir(sessionId);
+        if (!Files.isDirectory(dir)) return false;
+
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.map(p -> p.getFileName().toString())
+                    .anyMatch(name -> name.endsWith(PART_SUFFIX) || name.equals(ASSEMBLED));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Concatenate all chunks in offset order (zero-copy) and drop them.
+     * Idempotent: an already assembled upload is returned as is.
+     */
+    public Path assemble(String sessionId, long expectedSize) {
+
+        Path dir = sessionDir(sessionId);
+        Path target = dir.resolve(ASSEMBLED);
+        try {
+            if (Files.exists(target) && Files.size(target) == expectedSize) return target;
+
+            List<Path> parts;
+            try (Stream<Path> files = Files.list(dir)) {
+                parts = files.filter(p -> p.getFileName().toString().endsWith(PART_SUFFIX))
+                        .sorted(Comparator.comparing(p -> p.getFileName().toString()))
+                        .toList();
+            }
+
+            Path tmp = Files.createTempFile(dir, ".assemble-", ".tmp");
+            try {
+                try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                    for (Path part : parts) {
+                        // a chunk whose session commit failed may linger at an offset the client later skipped
+                        if (offsetOf(part) != out.size()) continue;
+
+                        try (FileChannel in = FileChannel.open(part, StandardOpenOption.READ)) {
+                            long size = in.size();
+                            for (long pos = 0; pos < size; ) {
+                                pos += in.transferTo(pos, size - pos, out);
+                            }
+                        }
+                    }
+                    if (out.size() != expectedSize) {
+                        throw new IllegalStateException("Assembled upload is " + out.size() + " bytes, expected " + expectedSize);
+                    }
+                }
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tmp);
+            }
+
+            for (Path part : parts) {
+                Files.deleteIfExists(part);
+            }
+            return target;
+
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Remove everything staged for the session
+     */
+    public void delete(String sessionId) {
+        Path dir = sessionDir(sessionId);
+        if (!Files.exists(dir)) return;
+
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(ResumableChunkStore::deleteQuietly);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // ------------------------------------------------------------------
+
+    private Path sessionDir(String sessionId) {
+        Path dir = root.resolve(sessionId).normalize();
+        if (!dir.getParent().equals(root)) {
+            throw new IllegalArgumentException("Invalid upload session");
+        }
+        return dir;
+    }
+
+    private static String partName(long offset) {
+        return String.format("%019d", offset) + PART_SUFFIX;
+    }
+
+    private static long offsetOf(Path part) {
+        String name = part.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - PART_SUFFIX.length()));
+    }
+
+    private static long transferFully(ReadableByteChannel in, FileChannel out, long length) throws IOException {
+        long total = 0;
+        while (total < length) {
+            long n = out.transferFrom(in, total, length - total);
+            if (n <= 0) break; // end of stream
+            total += n;
+        }
+        return total;
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) return;
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignore) {
+        }
+    }
+}
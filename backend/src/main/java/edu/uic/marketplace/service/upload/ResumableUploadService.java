@@ -0,0 +1,48 @@
+package edu.uic.marketplace.service.upload;
+
+import edu.uic.marketplace.dto.request.upload.CreateUploadSessionRequest;
+import edu.uic.marketplace.dto.response.upload.UploadSessionResponse;
+
+import java.io.InputStream;
+
+/**
+ * Resumable uploads through the app: create -> PUT chunks at increasing offsets -> finalize.
+ * An interrupted client asks for the session and continues at its receivedBytes.
+ * Finalized uploads are pushed to storage in the background and then attached by session ID.
+ */
+public interface ResumableUploadService {
+
+    /**
+     * Start a resumable upload of one image
+     * @param username Uploader
+     * @param request Purpose, content type and exact size
+     * @return Session with the chunk size to use
+     */
+    UploadSessionResponse create(String username, CreateUploadSessionRequest request);
+
+    /**
+     * Current state, including the offset to resume from
+     * @param username Uploader
+     * @param sessionId Session public ID
+     */
+    UploadSessionResponse getStatus(String username, String sessionId);
+
+    /**
+     * Append one chunk; it must start exactly at the bytes received so far
+     * @param username Uploader
+     * @param sessionId Session public ID
+     * @param offset Position of the chunk in the file
+     * @param length Chunk size (Content-Length)
+     * @param body Chunk bytes
+     * @return Session with the new receivedBytes
+     */
+    UploadSessionResponse appendChunk(String username, String sessionId, long offset, long length, InputStream body);
+
+    /**
+     * Mark a fully received upload for storing (idempotent)
+     * @param username Uploader
+     * @param sessionId Session public ID
+     * @return Session in STORING (or CONFIRMED once stored)
+     */
+    UploadSessionResponse finalizeUpload(String username, String sessionId);
+}
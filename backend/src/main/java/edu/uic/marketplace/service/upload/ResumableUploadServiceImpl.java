@@ -0,0 +1,352 @@
+package edu.uic.marketplace.service.upload;
+
+import edu.uic.marketplace.dto.request.upload.CreateUploadSessionRequest;
+import edu.uic.marketplace.dto.response.upload.UploadSessionResponse;
+import edu.uic.marketplace.exception.auth.UserNotAuthorizedException;
+import edu.uic.marketplace.exception.upload.UploadOffsetMismatchException;
+import edu.uic.marketplace.exception.upload.UploadSessionNotFoundException;
+import edu.uic.marketplace.model.upload.UploadSession;
+import edu.uic.marketplace.model.upload.UploadSessionStatus;
+import edu.uic.marketplace.model.user.User;
+import edu.uic.marketplace.repository.upload.UploadSessionRepository;
+import edu.uic.marketplace.service.common.Utils;
+import edu.uic.marketplace.service.listing.UploadOutboxService;
+import edu.uic.marketplace.validator.auth.AuthValidator;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+/**
+ * Resumable uploads staged on local disk ({@link ResumableChunkStore}).
+ * <p>
+ * A chunk is streamed to a temp file without holding any lock; only the offset check and the
+ * move into place run under the session row lock, so a slow client never blocks a transaction.
+ * Finalized uploads are assembled and pushed to storage on a bounded pool; a dropped or failed
+ * push stays STORING and is retried by the sweep, which also expires abandoned sessions.
+ * <p>
+ * Chunks live on the disk of the instance that received them. Every instance sweeps, but only
+ * the one holding a session's chunks stores it; the others skip it, and treat nothing missing
+ * as corrupt. A session whose instance is gone stays STORING until it expires.
+ */
+@Service
+@Slf4j
+public class ResumableUploadServiceImpl implements ResumableUploadService {
+
+    private static final int SWEEP_BATCH = 50;
+
+    private final UploadSessionRepository uploadSessionRepository;
+    private final ResumableChunkStore chunkStore;
+    private final DirectUploadStorage storage;
+    private final UploadOutboxService uploadOutboxService;
+    private final AuthValidator authValidator;
+    private final TransactionTemplate transactionTemplate;
+
+    private final long maxBytes;
+    private final long chunkSize;
+    private final Duration ttl;
+    private final Duration consumeWithin;
+
+    private final ThreadPoolExecutor executor;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    public ResumableUploadServiceImpl(UploadSessionRepository uploadSessionRepository,
+                                      ResumableChunkStore chunkStore,
+                                      DirectUploadStorage storage,
+                                      UploadOutboxService uploadOutboxService,
+                                      AuthValidator authValidator,
+                                      TransactionTemplate transactionTemplate,
+                                      @Value("${app.uploads.sessions.max-bytes:5242880}") long maxBytes,
+                                      @Value("${app.uploads.resumable.chunk-size:1MB}") DataSize chunkSize,
+                                      @Value("${app.uploads.resumable.ttl:24h}") Duration ttl,
+                                      @Value("${app.uploads.sessions.consume-within:24h}") Duration consumeWithin,
+                                      @Value("${app.uploads.resumable.pool-size:2}") int poolSize,
+                                      @Value("${app.uploads.resumable.queue-capacity:100}") int queueCapacity) {
+        this.uploadSessionRepository = uploadSessionRepository;
+        this.chunkStore = chunkStore;
+        this.storage = storage;
+        this.uploadOutboxService = uploadOutboxService;
+        this.authValidator = authValidator;
+        this.transactionTemplate = transactionTemplate;
+        this.maxBytes = maxBytes;
+        this.chunkSize = chunkSize.toBytes();
+        this.ttl = ttl;
+        this.consumeWithin = consumeWithin;
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("resumable-uploads-", 0).daemon(true).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    @Transactional
+    public UploadSessionResponse create(String username, CreateUploadSessionRequest request) {
+
+        // 1) validate
+        User user = authValidator.validateUserByUsername(username);
+
+        String extension = UploadSessionServiceImpl.validateImage(request, maxBytes);
+
+        // 2) create session
+        UploadSession session = uploadSessionRepository.save(UploadSession.builder()
+                .user(user)
+                .purpose(request.getPurpose())
+                .objectKey(request.getPurpose().getKeyPrefix() + "/" + UUID.randomUUID() + "." + extension)
+                .contentType(request.getContentType())
+                .contentLength(request.getContentLength())
+                .status(UploadSessionStatus.PENDING)
+                .resumable(true)
+                .expiresAt(Instant.now().plus(ttl))
+                .build());
+
+        // 3) the stored object is deleted by the outbox worker unless it gets attached in time
+        uploadOutboxService.stage(List.of(storage.publicUrl(session.getObjectKey())), consumeWithin.plus(ttl));
+
+        return toResponse(session);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public UploadSessionResponse getStatus(String username, String sessionId) {
+
+        User user = authValidator.validateUserByUsername(username);
+
+        return toResponse(findOwned(user, sessionId));
+    }
+
+    @Override
+    public UploadSessionResponse appendChunk(String username, String sessionId, long offset, long length, InputStream body) {
+
+        // 1) validate without locking (fail before reading the body)
+        User user = authValidator.validateUserByUsername(username);
+        UploadSession session = findOwned(user, sessionId);
+
+        checkAcceptsChunks(session);
+        if (length <= 0 || length > chunkSize) {
+            throw new IllegalArgumentException("Chunk must be between 1 and " + chunkSize + " bytes.");
+        }
+        if (offset < 0 || offset + length > session.getContentLength()) {
+            throw new IllegalArgumentException("Chunk exceeds the declared file size.");
+        }
+        checkOffset(session, offset);
+
+        // 2) stream the chunk to disk (no transaction open)
+        Path received = chunkStore.receive(sessionId, body, length);
+
+        // 3) accept it under the session lock - a concurrent duplicate loses the offset check
+        try {
+            return transactionTemplate.execute(status -> {
+                UploadSession locked = uploadSessionRepository.findForUpdateByPublicId(sessionId)
+                        .orElseThrow(() -> new UploadSessionNotFoundException("Upload session not found"));
+
+                checkAcceptsChunks(locked);
+                checkOffset(locked, offset);
+
+                chunkStore.commit(sessionId, received, offset);
+                locked.setReceivedBytes(offset + length);
+                return toResponse(locked);
+            });
+        } finally {
+            chunkStore.discard(received); // no-op once committed
+        }
+    }
+
+    @Override
+    @Transactional
+    public UploadSessionResponse finalizeUpload(String username, String sessionId) {
+
+        // 1) validate
+        User user = authValidator.validateUserByUsername(username);
+        UploadSession session = uploadSessionRepository.findForUpdateByPublicId(sessionId)
+                .filter(UploadSession::getResumable)
+                .orElseThrow(() -> new UploadSessionNotFoundException("Upload session not found"));
+
+        if (!session.getUser().getUserId().equals(user.getUserId())) {
+            throw new UserNotAuthorizedException("Not your upload session");
+        }
+
+        // 2) hand over to the background store (already finalized -> idempotent)
+        switch (session.getStatus()) {
+            case PENDING -> {
+                checkAcceptsChunks(session);
+                if (!session.isComplete()) {
+                    throw new IllegalStateException("Upload is incomplete: " + session.getReceivedBytes()
+                            + " of " + session.getContentLength() + " bytes received");
+                }
+                session.setStatus(UploadSessionStatus.STORING);
+                session.setExpiresAt(Instant.now().plus(ttl)); // retry window for the store
+                Utils.runAfterCommit(() -> submit(sessionId));
+            }
+            case STORING -> Utils.runAfterCommit(() -> submit(sessionId));
+            case FAILED -> throw new IllegalStateException("Upload failed, please start a new one");
+            default -> { }
+        }
+
+        return toResponse(session);
+    }
+
+    /**
+     * Assemble the chunks, push the file to storage and mark the session CONFIRMED.
+     * Transient failures leave it STORING for the sweep.
+     */
+    void store(String sessionId) {
+
+        UploadSession session = uploadSessionRepository.findByPublicId(sessionId).orElse(null);
+        if (session == null || session.getStatus() != UploadSessionStatus.STORING) return;
+
+        // chunks staged on another instance: its own sweep stores the upload
+        if (!chunkStore.holds(sessionId)) {
+            log.debug("Resumable upload {} is not staged on this instance, skipped", sessionId);
+            return;
+        }
+
+        Path file;
+        try {
+            // 1) zero-copy concatenation of the chunks
+            file = chunkStore.assemble(sessionId, session.getContentLength());
+        } catch (IllegalStateException e) {
+            log.warn("Resumable upload {} is corrupt: {}", sessionId, e.getMessage());
+            expire(sessionId, UploadSessionStatus.STORING);
+            return;
+        } catch (Exception e) {
+            log.warn("Assembling resumable upload {} failed: {}", sessionId, e.getMessage());
+            return;
+        }
+
+        try {
+            // 2) push to storage
+            storage.put(session.getObjectKey(), file, session.getContentType());
+
+            // 3) ready to be attached
+            transactionTemplate.execute(status -> {
+                uploadSessionRepository.findForUpdateByPublicId(sessionId)
+                        .filter(s -> s.getStatus() == UploadSessionStatus.STORING)
+                        .ifPresent(s -> {
+                            s.setStatus(UploadSessionStatus.CONFIRMED);
+                            s.setConfirmedAt(Instant.now());
+                        });
+                return null;
+            });
+            chunkStore.delete(sessionId);
+
+        } catch (Exception e) {
+            log.warn("Storing resumable upload {} failed: {}", sessionId, e.getMessage());
+        }
+    }
+
+    /**
+     * Retries stores that were dropped (full queue, restart) and expires abandoned sessions
+     */
+    @Scheduled(fixedDelayString = "${app.uploads.resumable.sweep-interval-ms:300000}",
+            initialDelayString = "${app.uploads.resumable.sweep-interval-ms:300000}")
+    public void sweep() {
+
+        Instant now = Instant.now();
+        PageRequest batch = PageRequest.of(0, SWEEP_BATCH);
+        try {
+            // 1) gave up storing / never finished uploading -> drop local chunks
+            uploadSessionRepository.findResumableIds(UploadSessionStatus.STORING, now, batch)
+                    .forEach(id -> expire(id, UploadSessionStatus.STORING));
+            uploadSessionRepository.findResumableIds(UploadSessionStatus.PENDING, now, batch)
+                    .forEach(id -> expire(id, UploadSessionStatus.PENDING));
+
+            // 2) retry the rest
+            uploadSessionRepository.findResumableIds(UploadSessionStatus.STORING, now.plus(ttl), batch)
+                    .forEach(this::submit);
+        } catch (Exception e) {
+            log.warn("Resumable upload sweep failed: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // ------------------------------------------------------------------
+
+    private UploadSession findOwned(User user, String sessionId) {
+
+        UploadSession session = uploadSessionRepository.findByPublicId(sessionId)
+                .filter(UploadSession::getResumable)
+                .orElseThrow(() -> new UploadSessionNotFoundException("Upload session not found"));
+
+        if (!session.getUser().getUserId().equals(user.getUserId())) {
+            throw new UserNotAuthorizedException("Not your upload session");
+        }
+        return session;
+    }
+
+    private static void checkAcceptsChunks(UploadSession session) {
+        if (session.getStatus() != UploadSessionStatus.PENDING) {
+            throw new IllegalStateException("Upload session is already " + session.getStatus());
+        }
+        if (session.isExpired(Instant.now())) {
+            throw new IllegalStateException("Upload session has expired");
+        }
+    }
+
+    private static void checkOffset(UploadSession session, long offset) {
+        if (offset != session.getReceivedBytes()) {
+            throw new UploadOffsetMismatchException(
+                    "Expected a chunk at offset " + session.getReceivedBytes() + ", got " + offset);
+        }
+    }
+
+    private void expire(String sessionId, UploadSessionStatus from) {
+        try {
+            transactionTemplate.execute(status -> {
+                uploadSessionRepository.findForUpdateByPublicId(sessionId)
+                        .filter(s -> s.getStatus() == from)
+                        .ifPresent(s -> s.setStatus(UploadSessionStatus.FAILED));
+                return null;
+            });
+            chunkStore.delete(sessionId);
+        } catch (Exception e) {
+            log.warn("Expiring resumable upload {} failed: {}", sessionId, e.getMessage());
+        }
+    }
+
+    private void submit(String sessionId) {
+
+        if (!inFlight.add(sessionId)) return;
+
+        try {
+            executor.execute(() -> {
+                try {
+                    store(sessionId);
+                } finally {
+                    inFlight.remove(sessionId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(sessionId);
+            log.debug("Resumable upload queue full, session {} left for the sweep", sessionId);
+        }
+    }
+
+    private UploadSessionResponse toResponse(UploadSession session) {
+
+        UploadSessionResponse res = UploadSessionResponse.from(session);
+        res.setReceivedBytes(session.getReceivedBytes());
+        res.setChunkSize(chunkSize);
+        if (session.getStatus() == UploadSessionStatus.CONFIRMED || session.getStatus() == UploadSessionStatus.CONSUMED) {
+            res.setFileUrl(storage.publicUrl(session.getObjectKey()));
+        }
+        return res;
+    }
+}
@@ -0,0 +1,84 @@
+package edu.uic.marketplace.service.upload;
+
+import com.amazonaws.HttpMethod;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AmazonS3Exception;
+import com.amazonaws.services.s3.model.GeneratePresignedUrlRequest;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PutObjectRequest;
+import edu.uic.marketplace.service.common.RemoteCallGuard;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Presigned S3 PUTs. Content-Type and Content-Length are part of the signature,
+ * so S3 rejects uploads that don't match what the session declared.
+ */
+@Component
+@ConditionalOnProperty(name = "app.storage.type", havingValue = "s3", matchIfMissing = true)
+public class S3DirectUploadStorage implements DirectUploadStorage {
+
+    private final AmazonS3 amazonS3;
+    private final RemoteCallGuard guard;
+
+    @Value("${cloud.aws.s3.bucket}")
+    private String bucket;
+
+    public S3DirectUploadStorage(AmazonS3 amazonS3, @Qualifier("s3CallGuard") RemoteCallGuard guard) {
+        this.amazonS3 = amazonS3;
+        this.guard = guard;
+    }
+
+    @Override
+    public PresignedUpload presignPut(String key, String contentType, long contentLength, Instant expiresAt) {
+
+        GeneratePresignedUrlRequest request = new GeneratePresignedUrlRequest(bucket, key, HttpMethod.PUT)
+                .withExpiration(Date.from(expiresAt))
+                .withContentType(contentType);
+        request.putCustomRequestHeader("Content-Length", String.valueOf(contentLength));
+
+        String url = amazonS3.generatePresignedUrl(request).toString();
+        return new PresignedUpload(url, Map.of(
+                "Content-Type", contentType,
+                "Content-Length", String.valueOf(contentLength)
+        ));
+    }
+
+    @Override
+    public Optional<ObjectInfo> stat(String key) {
+        return guard.call(() -> {
+            try {
+                ObjectMetadata metadata = amazonS3.getObjectMetadata(bucket, key);
+                return Optional.of(new ObjectInfo(metadata.getContentLength(), metadata.getContentType()));
+            } catch (AmazonS3Exception e) {
+                if (e.getStatusCode() == 404) return Optional.<ObjectInfo>empty();
+                throw e;
+            }
+        });
+    }
+
+    @Override
+    public String publicUrl(String key) {
+        return amazonS3.getUrl(bucket, key).toString();
+    }
+
+    @Override
+    public void delete(String key) {
+        guard.run(() -> amazonS3.deleteObject(bucket, key));
+    }
+
+    @Override
+    public void put(String key, Path file, String contentType) {
+        ObjectMetadata metadata = new ObjectMetadata();
+        metadata.setContentType(contentType);
+        guard.run(() -> amazonS3.putObject(new PutObjectRequest(bucket, key, file.toFile()).withMetadata(metadata)));
+    }
+}
@@ -0,0 +1,45 @@
+package edu.uic.marketplace.service.upload;
+
+import java.util.List;
+
+/**
+ * Durable, batched deletion of stored objects.
+ * <p>
+ * Request paths {@link #enqueue enqueue} URLs in their own transaction, so the delete only
+ * happens if the change that dropped the reference commits, and S3 latency or failures never
+ * reach the request. The worker drains the queue in batches with retry and backoff.
+ */
+public interface StorageDeletionService {
+
+    /**
+     * Queue objects for deletion in the caller's transaction (a new one without).
+     * A URL listed twice stands for two references.
+     */
+    void enqueue(List<String> urls);
+
+    /**
+     * Queue objects for deletion in a transaction of their own, committed on return.
+     * For references that must be given back even if the caller's transaction rolls back.
+     */
+    void enqueueCommitted(List<String> urls);
+
+    /**
+     * Queue objects that hold no reference (found by reconciliation) in the caller's transaction.
+     * They are deleted only if still unreferenced when processed, and release nothing.
+     */
+    void enqueueOrphans(List<String> urls);
+
+    /**
+     * Delete one batch of due objects, rescheduling failures with backoff.
+     * An entry's reference is released and the entry removed in one transaction, so each
+     * entry is applied at most once.
+     *
+     * @return number of entries processed successfully
+     */
+    int processDue();
+
+    /**
+     * Entries processed per {@link #processDue()} call
+     */
+    int batchSize();
+}
@@ -0,0 +1,215 @@
+package edu.uic.marketplace.service.upload;
+
+import edu.uic.marketplace.model.upload.StorageDeletion;
+import edu.uic.marketplace.model.upload.StorageDeletionKind;
+import edu.uic.marketplace.repository.upload.StorageDeletionRepository;
+import edu.uic.marketplace.service.common.S3Service;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+public class StorageDeletionServiceImpl implements StorageDeletionService {
+
+    // DeleteObjectsRequest takes at most 1000 keys
+    static final int MAX_BATCH_SIZE = 1000;
+
+    private static final Duration CLAIM_LEASE = Duration.ofMinutes(5);
+    private static final Duration MAX_BACKOFF = Duration.ofHours(1);
+
+    private final StorageDeletionRepository storageDeletionRepository;
+    private final S3Service s3Service;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    private final AtomicLong backlog = new AtomicLong();
+    private final AtomicLong oldestAgeSeconds = new AtomicLong();
+    private final Counter deleted;
+    private final Counter failed;
+
+    public StorageDeletionServiceImpl(StorageDeletionRepository storageDeletionRepository,
+                                      S3Service s3Service,
+                                      TransactionTemplate transactionTemplate,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${app.storage.deletion.batch-size:1000}") int batchSize) {
+        this.storageDeletionRepository = storageDeletionRepository;
+        this.s3Service = s3Service;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = Math.max(1, Math.min(batchSize, MAX_BATCH_SIZE));
+
+        Gauge.builder("storage.deletion.backlog", backlog, AtomicLong::get)
+                .description("Objects waiting in the deletion queue")
+                .register(meterRegistry);
+        Gauge.builder("storage.deletion.oldest.age", oldestAgeSeconds, AtomicLong::get)
+                .description("Age of the oldest queued deletion")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        this.deleted = meterRegistry.counter("storage.deletion.objects", "outcome", "deleted");
+        this.failed = meterRegistry.counter("storage.deletion.objects", "outcome", "failed");
+    }
+
+    @Override
+    @Transactional
+    public void enqueue(List<String> urls) {
+        save(urls, StorageDeletionKind.RELEASE);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void enqueueCommitted(List<String> urls) {
+        save(urls, StorageDeletionKind.RELEASE);
+    }
+
+    @Override
+    @Transactional
+    public void enqueueOrphans(List<String> urls) {
+        save(urls, StorageDeletionKind.ORPHAN);
+    }
+
+    /**
+     * Not @Transactional: the batch is claimed in a short transaction (so other instances skip
+     * it), then each release runs in a transaction that also removes its queue entries.
+     */
+    @Override
+    public int processDue() {
+
+        // 1) claim: push the next attempt out so other instances skip these rows meanwhile
+        List<StorageDeletion> batch = transactionTemplate.execute(status -> {
+            Instant now = Instant.now();
+            List<StorageDeletion> due = storageDeletionRepository.findDueForUpdate(now, PageRequest.of(0, batchSize));
+            due.forEach(entry -> entry.setNextAttemptAt(now.plus(CLAIM_LEASE)));
+            return due;
+        });
+
+        int done = batch == null || batch.isEmpty() ? 0 : process(batch);
+        refreshBacklog();
+        return done;
+    }
+
+    @Override
+    public int batchSize() {
+        return batchSize;
+    }
+
+    // ------------------------------------------------------------------
+
+    private int process(List<StorageDeletion> batch) {
+
+        // 2) whole batch in as few storage calls as possible
+        try {
+            int done = apply(batch.stream().map(StorageDeletion::getDeletionId).toList());
+            deleted.increment(done);
+            return done;
+        } catch (Exception e) {
+            log.warn("Batch deletion of {} object(s) failed, retrying one by one: {}", batch.size(), e.getMessage());
+        }
+
+        // 3) isolate the failing entries (the failed batch rolled back, nothing was released)
+        int succeeded = 0;
+        int retried = 0;
+        for (StorageDeletion entry : batch) {
+            try {
+                succeeded += apply(List.of(entry.getDeletionId()));
+            } catch (Exception e) {
+                reschedule(entry.getDeletionId(), e);
+                retried++;
+            }
+        }
+
+        deleted.increment(succeeded);
+        failed.increment(retried);
+        return succeeded;
+    }
+
+    /**
+     * Release the entries' references and remove the entries in one transaction, so a crash,
+     * a DB error or a second worker (after the claim lease ran out) can't release them twice.
+     * Objects left unreferenced (and orphans still unreferenced) are deleted from storage before the commit.
+     *
+     * @return entries processed (entries already processed elsewhere are skipped)
+     */
+    private int apply(List<Long> deletionIds) {
+
+        Integer done = transactionTemplate.execute(status -> {
+            List<StorageDeletion> entries = storageDeletionRepository.findAllForUpdateByDeletionIdIn(deletionIds);
+            if (entries.isEmpty()) return 0;
+
+            Map<StorageDeletionKind, List<String>> urls = entries.stream().collect(Collectors.groupingBy(
+                    StorageDeletion::getKind, Collectors.mapping(StorageDeletion::getObjectUrl, Collectors.toList())));
+            s3Service.deleteFiles(urls.getOrDefault(StorageDeletionKind.RELEASE, List.of()));
+            s3Service.deleteOrphans(urls.getOrDefault(StorageDeletionKind.ORPHAN, List.of()));
+            storageDeletionRepository.deleteAllInBatch(entries);
+            return entries.size();
+        });
+        return done == null ? 0 : done;
+    }
+
+    private void save(List<String> urls, StorageDeletionKind kind) {
+
+        List<String> queued = urls.stream().filter(url -> url != null && !url.isBlank()).toList();
+        if (queued.isEmpty()) return;
+
+        Instant now = Instant.now();
+        storageDeletionRepository.saveAll(queued.stream()
+                .map(url -> StorageDeletion.builder().objectUrl(url).kind(kind).nextAttemptAt(now).build())
+                .toList());
+    }
+
+    private void reschedule(Long deletionId, Exception failure) {
+        try {
+            transactionTemplate.execute(status -> {
+                // re-read: an entry processed by another worker meanwhile must not be re-inserted
+                storageDeletionRepository.findById(deletionId).ifPresent(entry -> {
+                    int attempts = entry.getAttempts() + 1;
+                    entry.setAttempts(attempts);
+                    entry.setNextAttemptAt(Instant.now().plus(backoff(attempts)));
+                    entry.setLastError(truncate(failure.getMessage()));
+                    storageDeletionRepository.save(entry);
+
+                    log.warn("Storage deletion failed (attempt {}): {} - {}", attempts, entry.getObjectUrl(), failure.getMessage());
+                });
+                return null;
+            });
+        } catch (Exception e) {
+            // the claim lease expires and the entry is picked up again
+            log.warn("Failed to reschedule storage deletion {}: {}", deletionId, e.getMessage());
+        }
+    }
+
+    private void refreshBacklog() {
+        try {
+            backlog.set(storageDeletionRepository.count());
+            oldestAgeSeconds.set(storageDeletionRepository.findOldestCreatedAt()
+                    .map(oldest -> Math.max(0, Duration.between(oldest, Instant.now()).toSeconds()))
+                    .orElse(0L));
+        } catch (Exception e) {
+            log.debug("Failed to refresh deletion backlog: {}", e.getMessage());
+        }
+    }
+
+    /** 1m, 2m, 4m, ... capped at MAX_BACKOFF */
+    private static Duration backoff(int attempts) {
+        Duration delay = Duration.ofMinutes(1L << Math.min(attempts - 1, 10));
+        return delay.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : delay;
+    }
+
+    private static String truncate(String message) {
+        if (message == null) return null;
+        return message.length() > 500 ? message.substring(0, 500) : message;
+    }
+}
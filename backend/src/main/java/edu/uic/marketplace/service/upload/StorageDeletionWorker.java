@@ -0,0 +1,32 @@
+package edu.uic.marketplace.service.upload;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically drains the storage deletion queue.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StorageDeletionWorker {
+
+    private static final int MAX_BATCHES_PER_RUN = 20;
+
+    private final StorageDeletionService storageDeletionService;
+
+    @Scheduled(fixedDelayString = "${app.storage.deletion.poll-interval-ms:10000}",
+            initialDelayString = "${app.storage.deletion.poll-interval-ms:10000}")
+    public void run() {
+        try {
+            // keep going while batches come back full, bounded so one run can't starve the scheduler
+            for (int i = 0; i < MAX_BATCHES_PER_RUN; i++) {
+                if (storageDeletionService.processDue() < storageDeletionService.batchSize()) break;
+            }
+        } catch (Exception e) {
+            log.warn("Storage deletion run failed: {}", e.getMessage());
+        }
+    }
+}
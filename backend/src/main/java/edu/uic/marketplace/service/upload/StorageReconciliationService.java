@@ -0,0 +1,17 @@
+package edu.uic.marketplace.service.upload;
+
+/**
+ * Finds bucket objects that nothing in the database refers to any more (missed or failed
+ * cleanups) and queues them for deletion via {@link StorageDeletionService}.
+ */
+public interface StorageReconciliationService {
+
+    /**
+     * One full pass over the managed prefixes of the bucket.
+     * Objects younger than the grace period are never touched (uploads not attached yet).
+     */
+    ReconciliationResult reconcile();
+
+    record ReconciliationResult(long scanned, long referenced, long tooRecent, long queued, boolean truncated) {
+    }
+}
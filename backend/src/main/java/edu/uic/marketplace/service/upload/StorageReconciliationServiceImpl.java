@@ -0,0 +1,207 @@
+package edu.uic.marketplace.service.upload;
+
+import edu.uic.marketplace.model.upload.UploadPurpose;
+import edu.uic.marketplace.repository.upload.StoredObjectRepository;
+import edu.uic.marketplace.service.common.ObjectStorage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Merge-join of two sorted streams in constant memory: the bucket listing (page by page,
+ * one managed prefix after the other) and the keys referenced in the database (streamed
+ * in the same binary order). A bucket key the database stream skips past is unreferenced.
+ * <p>
+ * Both sides are checked to really be ascending; if either is not, the run stops, since a
+ * mis-ordered side would make referenced objects look orphaned. Deletions per run are capped.
+ */
+@Service
+@Slf4j
+public class StorageReconciliationServiceImpl implements StorageReconciliationService {
+
+    private static final int ENQUEUE_BATCH = 500;
+
+    private final ObjectStorage objectStorage;
+    private final StoredObjectRepository storedObjectRepository;
+    private final StorageDeletionService storageDeletionService;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate newTransaction;
+
+    private final Duration gracePeriod;
+    private final long maxDeletionsPerRun;
+    private final List<String> prefixes;
+
+    public StorageReconciliationServiceImpl(ObjectStorage objectStorage,
+                                            StoredObjectRepository storedObjectRepository,
+                                            StorageDeletionService storageDeletionService,
+                                            PlatformTransactionManager transactionManager,
+                                            @Value("${app.storage.reconciliation.grace-period:72h}") Duration gracePeriod,
+                                            @Value("${app.storage.reconciliation.max-deletions-per-run:10000}") long maxDeletionsPerRun) {
+        this.objectStorage = objectStorage;
+        this.storedObjectRepository = storedObjectRepository;
+        this.storageDeletionService = storageDeletionService;
+        this.gracePeriod = gracePeriod;
+        this.maxDeletionsPerRun = maxDeletionsPerRun;
+
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // the streaming read owns its connection, so queue writes need their own
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        // listed in ascending order so the concatenated listing stays sorted
+        this.prefixes = Arrays.stream(UploadPurpose.values())
+                .map(purpose -> purpose.getKeyPrefix() + "/")
+                .sorted(StorageReconciliationServiceImpl::compareKeys)
+                .toList();
+    }
+
+    @Scheduled(cron = "${app.storage.reconciliation.cron:-}")
+    public void run() {
+        try {
+            reconcile();
+        } catch (Exception e) {
+            log.warn("Storage reconciliation failed: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public ReconciliationResult reconcile() {
+
+        ReconciliationResult result = readOnlyTransaction.execute(status -> {
+            try (Stream<String> referenced = storedObjectRepository.streamReferencedKeys(objectStorage.keyMarker())) {
+                return mergeJoin(referenced.iterator(), Instant.now().minus(gracePeriod));
+            }
+        });
+
+        log.info("Storage reconciliation: scanned={} referenced={} tooRecent={} queued={}{}",
+                result.scanned(), result.referenced(), result.tooRecent(), result.queued(),
+                result.truncated() ? " (deletion cap reached)" : "");
+        return result;
+    }
+
+    // ------------------------------------------------------------------
+
+    private ReconciliationResult mergeJoin(Iterator<String> referenced, Instant cutoff) {
+
+        Ascending refs = new Ascending(referenced, "database", true);
+        String ref = refs.next();
+
+        long scanned = 0, matched = 0, tooRecent = 0, queued = 0;
+        List<String> orphans = new ArrayList<>(ENQUEUE_BATCH);
+
+        for (String prefix : prefixes) {
+            Iterator<ObjectStorage.ListedObject> listing = objectStorage.list(prefix);
+            String previous = null;
+
+            while (listing.hasNext()) {
+                ObjectStorage.ListedObject object = listing.next();
+                String key = object.key();
+                if (previous != null && compareKeys(previous, key) >= 0) {
+                    throw new IllegalStateException("Bucket listing not in key order at " + key);
+                }
+                previous = key;
+                scanned++;
+
+                // 1) advance the database side up to this key
+                while (ref != null && compareKeys(ref, key) < 0) {
+                    ref = refs.next();
+                }
+
+                // 2) referenced, or too young to judge (upload not attached yet)
+                if (ref != null && ref.equals(key)) {
+                    matched++;
+                    continue;
+                }
+                if (!object.lastModified().isBefore(cutoff)) {
+                    tooRecent++;
+                    continue;
+                }
+
+                // 3) orphan
+                orphans.add(objectStorage.publicUrl(key));
+                queued++;
+                if (orphans.size() == ENQUEUE_BATCH) {
+                    enqueue(orphans);
+                }
+                if (queued >= maxDeletionsPerRun) {
+                    enqueue(orphans);
+                    return new ReconciliationResult(scanned, matched, tooRecent, queued, true);
+                }
+            }
+        }
+
+        enqueue(orphans);
+        return new ReconciliationResult(scanned, matched, tooRecent, queued, false);
+    }
+
+    private void enqueue(List<String> urls) {
+        if (urls.isEmpty()) return;
+
+        List<String> batch = List.copyOf(urls);
+        newTransaction.execute(status -> {
+            storageDeletionService.enqueueOrphans(batch);
+            return null;
+        });
+        urls.clear();
+    }
+
+    /**
+     * Binary (code point) order - the order of an S3 listing and of utf8mb4_bin
+     */
+    static int compareKeys(String a, String b) {
+        int i = 0, j = 0;
+        while (i < a.length() && j < b.length()) {
+            int ca = a.codePointAt(i);
+            int cb = b.codePointAt(j);
+            if (ca != cb) return Integer.compare(ca, cb);
+            i += Character.charCount(ca);
+            j += Character.charCount(cb);
+        }
+        return Integer.compare(a.length() - i, b.length() - j);
+    }
+
+    /**
+     * Iterator wrapper that fails fast when its source is not sorted
+     */
+    private static final class Ascending {
+
+        private final Iterator<String> source;
+        private final String name;
+        private final boolean allowDuplicates;
+        private String last;
+
+        Ascending(Iterator<String> source, String name, boolean allowDuplicates) {
+            this.source = source;
+            this.name = name;
+            this.allowDuplicates = allowDuplicates;
+        }
+
+        /** Next element, or null at the end */
+        String next() {
+            if (!source.hasNext()) return null;
+
+            String value = source.next();
+            if (last != null) {
+                int cmp = compareKeys(last, value);
+                if (cmp > 0 || (cmp == 0 && !allowDuplicates)) {
+                    throw new IllegalStateException("Keys from the " + name + " are not in key order at " + value);
+                }
+            }
+            last = value;
+            return value;
+        }
+    }
+}
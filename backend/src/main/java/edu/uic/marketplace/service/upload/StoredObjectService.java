@@ -0,0 +1,37 @@
+package edu.uic.marketplace.service.upload;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Reference counting for content-addressed storage objects
+ */
+public interface StoredObjectService {
+
+    /**
+     * Add one reference to the object (own transaction, committed on return)
+     * @param key Content-addressed object key
+     * @return Reference count after this call; 1 means nobody else holds the object
+     */
+    int acquire(String key);
+
+    /**
+     * Drop one reference per occurrence of each key, in the caller's transaction (a new one
+     * without), so callers can commit their own bookkeeping atomically with the decrement.
+     * Objects left without references are handed to {@code deleteObjects} while their rows
+     * are still locked, so a concurrent upload of the same content re-creates them afterwards.
+     * Keys without a row hold no reference and are left alone.
+     * @param keys Content-addressed keys, duplicates release several references
+     * @param deleteObjects Removes the given keys from storage
+     */
+    void release(List<String> keys, Consumer<List<String>> deleteObjects);
+
+    /**
+     * Delete objects found unreferenced by reconciliation, but only those that still have no
+     * row, decided under lock (caller's transaction, a new one without): a key uploaded again
+     * since it was found keeps its object.
+     * @param keys Content-addressed keys
+     * @param deleteObjects Removes the given keys from storage
+     */
+    void deleteIfUnreferenced(List<String> keys, Consumer<List<String>> deleteObjects);
+}
@@ -0,0 +1,90 @@
+package edu.uic.marketplace.service.upload;
+
+import edu.uic.marketplace.model.upload.StoredObject;
+import edu.uic.marketplace.repository.upload.StoredObjectRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StoredObjectServiceImpl implements StoredObjectService {
+
+    private final StoredObjectRepository storedObjectRepository;
+
+    @Override
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public int acquire(String key) {
+        storedObjectRepository.acquire(key);
+        return storedObjectRepository.findRefCount(key).orElseThrow();
+    }
+
+    @Override
+    @Transactional
+    public void release(List<String> keys, Consumer<List<String>> deleteObjects) {
+
+        if (keys.isEmpty()) return;
+
+        // 1) how many references each key gives up
+        Map<String, Long> releases = keys.stream()
+                .collect(Collectors.groupingBy(Function.identity(), LinkedHashMap::new, Collectors.counting()));
+
+        // 2) lock and decrement; the locking read also blocks a concurrent first acquire until we're done
+        List<StoredObject> unreferenced = new ArrayList<>();
+        Set<String> untracked = new LinkedHashSet<>(releases.keySet());
+        for (StoredObject object : storedObjectRepository.findAllForUpdateByObjectKeyIn(releases.keySet())) {
+            untracked.remove(object.getObjectKey());
+            int remaining = (int) Math.max(0, object.getRefCount() - releases.get(object.getObjectKey()));
+            object.setRefCount(remaining);
+            if (remaining == 0) {
+                unreferenced.add(object);
+            }
+        }
+
+        // no row = no reference to give up (released before, or an orphan - those go through
+        // deleteIfUnreferenced); deleting here could remove an object someone re-uploads
+        if (!untracked.isEmpty()) {
+            log.debug("Ignoring release of {} untracked object(s)", untracked.size());
+        }
+
+        if (unreferenced.isEmpty()) return;
+
+        // 3) delete from storage while the rows are locked; a failure rolls the counts back
+        List<String> keys = unreferenced.stream().map(StoredObject::getObjectKey).toList();
+        deleteObjects.accept(keys);
+        storedObjectRepository.deleteAll(unreferenced);
+
+        log.debug("Deleted {} unreferenced object(s)", keys.size());
+    }
+
+    @Override
+    @Transactional
+    public void deleteIfUnreferenced(List<String> keys, Consumer<List<String>> deleteObjects) {
+
+        if (keys.isEmpty()) return;
+
+        // 1) lock: existing rows, and (InnoDB next-key locks) the gaps of missing ones, so a
+        //    concurrent first acquire of the same key waits until we're done
+        Set<String> candidates = new LinkedHashSet<>(keys);
+        for (StoredObject object : storedObjectRepository.findAllForUpdateByObjectKeyIn(candidates)) {
+            if (object.getRefCount() > 0) {
+                candidates.remove(object.getObjectKey()); // uploaded again since it was found
+            }
+        }
+
+        if (candidates.isEmpty()) return;
+
+        // 2) still unreferenced: delete while locked
+        deleteObjects.accept(List.copyOf(candidates));
+
+        log.debug("Deleted {} orphaned object(s)", candidates.size());
+    }
+}
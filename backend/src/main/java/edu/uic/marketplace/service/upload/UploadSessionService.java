@@ -0,0 +1,57 @@
+package edu.uic.marketplace.service.upload;
+
+import edu.uic.marketplace.dto.request.upload.CreateUploadSessionRequest;
+import edu.uic.marketplace.dto.response.upload.UploadSessionResponse;
+import edu.uic.marketplace.model.upload.UploadPurpose;
+import edu.uic.marketplace.model.user.User;
+
+import java.util.List;
+
+/**
+ * Direct-to-storage uploads: create session (presigned PUT) -> client uploads -> confirm -> attach by key
+ */
+public interface UploadSessionService {
+
+    /**
+     * Issue a presigned PUT URL for one image
+     * @param username Uploader
+     * @param request Purpose, content type and exact size
+     * @return Session with upload URL and headers
+     */
+    UploadSessionResponse createSession(String username, CreateUploadSessionRequest request);
+
+    /**
+     * Verify the object was uploaded as declared (idempotent)
+     * @param username Uploader
+     * @param sessionId Session public ID
+     * @return Confirmed session with its public file URL
+     */
+    UploadSessionResponse confirmSession(String username, String sessionId);
+
+    /**
+     * Attach confirmed uploads in the caller's transaction (each key can be used once)
+     * @param owner User the uploads must belong to
+     * @param purpose Expected purpose
+     * @param objectKeys Confirmed object keys
+     * @return Public URLs in the same order as the keys
+     */
+    List<String> consumeUploads(User owner, UploadPurpose purpose, List<String> objectKeys);
+
+    /**
+     * Same as {@link #consumeUploads} but by upload session ID (finalized resumable uploads)
+     * @param owner User the uploads must belong to
+     * @param purpose Expected purpose
+     * @param sessionIds Upload session public IDs
+     * @return Public URLs in the same order as the IDs
+     */
+    List<String> consumeUploadsById(User owner, UploadPurpose purpose, List<String> sessionIds);
+
+    /**
+     * Same as {@link #consumeUploads} but by the public URL a confirmed session returned
+     * @param owner User the uploads must belong to
+     * @param purpose Expected purpose
+     * @param urls Public URLs of confirmed uploads
+     * @return Public URLs in the same order
+     */
+    List<String> consumeUploadsByUrl(User owner, UploadPurpose purpose, List<String> urls);
+}
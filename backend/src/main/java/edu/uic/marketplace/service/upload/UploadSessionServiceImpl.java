@@ -0,0 +1,246 @@
+package edu.uic.marketplace.service.upload;
+
+import edu.uic.marketplace.dto.request.upload.CreateUploadSessionRequest;
+import edu.uic.marketplace.dto.response.upload.UploadSessionResponse;
+import edu.uic.marketplace.exception.auth.UserNotAuthorizedException;
+import edu.uic.marketplace.exception.upload.UploadSessionNotFoundException;
+import edu.uic.marketplace.model.upload.UploadPurpose;
+import edu.uic.marketplace.model.upload.UploadSession;
+import edu.uic.marketplace.model.upload.UploadSessionStatus;
+import edu.uic.marketplace.model.user.User;
+import edu.uic.marketplace.repository.upload.UploadSessionRepository;
+import edu.uic.marketplace.service.listing.UploadOutboxService;
+import edu.uic.marketplace.validator.auth.AuthValidator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+public class UploadSessionServiceImpl implements UploadSessionService {
+
+    private static final Map<String, String> ALLOWED_TYPES = Map.of(
+            "image/jpeg", "jpg",
+            "image/png", "png",
+            "image/webp", "webp",
+            "image/gif", "gif"
+    );
+
+    private final UploadSessionRepository uploadSessionRepository;
+    private final DirectUploadStorage storage;
+    private final UploadOutboxService uploadOutboxService;
+    private final AuthValidator authValidator;
+
+    private final long maxBytes;
+    private final Duration uploadUrlTtl;
+    private final Duration consumeWithin;
+
+    public UploadSessionServiceImpl(UploadSessionRepository uploadSessionRepository,
+                                    DirectUploadStorage storage,
+                                    UploadOutboxService uploadOutboxService,
+                                    AuthValidator authValidator,
+                                    @Value("${app.uploads.sessions.max-bytes:5242880}") long maxBytes,
+                                    @Value("${app.uploads.sessions.url-ttl:15m}") Duration uploadUrlTtl,
+                                    @Value("${app.uploads.sessions.consume-within:24h}") Duration consumeWithin) {
+        this.uploadSessionRepository = uploadSessionRepository;
+        this.storage = storage;
+        this.uploadOutboxService = uploadOutboxService;
+        this.authValidator = authValidator;
+        this.maxBytes = maxBytes;
+        this.uploadUrlTtl = uploadUrlTtl;
+        this.consumeWithin = consumeWithin;
+    }
+
+    @Override
+    @Transactional
+    public UploadSessionResponse createSession(String username, CreateUploadSessionRequest request) {
+
+        // 1) validate
+        User user = authValidator.validateUserByUsername(username);
+
+        String extension = validateImage(request, maxBytes);
+
+        // 2) create session
+        Instant expiresAt = Instant.now().plus(uploadUrlTtl);
+        UploadSession session = uploadSessionRepository.save(UploadSession.builder()
+                .user(user)
+                .purpose(request.getPurpose())
+                .objectKey(request.getPurpose().getKeyPrefix() + "/" + UUID.randomUUID() + "." + extension)
+                .contentType(request.getContentType())
+                .contentLength(request.getContentLength())
+                .status(UploadSessionStatus.PENDING)
+                .expiresAt(expiresAt)
+                .build());
+
+        // 3) whatever lands under the key is deleted by the outbox worker unless it gets attached in time
+        uploadOutboxService.stage(List.of(storage.publicUrl(session.getObjectKey())),
+                consumeWithin.plus(uploadUrlTtl));
+
+        // 4) presign
+        DirectUploadStorage.PresignedUpload presigned = storage.presignPut(
+                session.getObjectKey(), session.getContentType(), session.getContentLength(), expiresAt);
+
+        UploadSessionResponse res = UploadSessionResponse.from(session);
+        res.setUploadUrl(presigned.url());
+        res.setUploadMethod("PUT");
+        res.setUploadHeaders(presigned.headers());
+        return res;
+    }
+
+    @Override
+    @Transactional
+    public UploadSessionResponse confirmSession(String username, String sessionId) {
+
+        // 1) validate
+        User user = authValidator.validateUserByUsername(username);
+        UploadSession session = uploadSessionRepository.findByPublicId(sessionId)
+                .orElseThrow(() -> new UploadSessionNotFoundException("Upload session not found"));
+
+        if (!session.getUser().getUserId().equals(user.getUserId())) {
+            throw new UserNotAuthorizedException("Not your upload session");
+        }
+
+        // 2) verify the object (already confirmed -> idempotent)
+        if (session.getStatus() == UploadSessionStatus.PENDING) {
+
+            DirectUploadStorage.ObjectInfo info = storage.stat(session.getObjectKey())
+                    .orElseThrow(() -> new IllegalStateException("File has not been uploaded yet"));
+
+            if (info.contentLength() != session.getContentLength()
+                    || !session.getContentType().equals(info.contentType())) {
+                deleteQuietly(session.getObjectKey());
+                throw new IllegalArgumentException("Uploaded file does not match the upload session");
+            }
+
+            session.setStatus(UploadSessionStatus.CONFIRMED);
+            session.setConfirmedAt(Instant.now());
+        }
+
+        UploadSessionResponse res = UploadSessionResponse.from(session);
+        res.setFileUrl(storage.publicUrl(session.getObjectKey()));
+        return res;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<String> consumeUploads(User owner, UploadPurpose purpose, List<String> objectKeys) {
+
+        if (objectKeys == null || objectKeys.isEmpty()) return List.of();
+
+        if (new HashSet<>(objectKeys).size() != objectKeys.size()) {
+            throw new IllegalArgumentException("Duplicate upload key");
+        }
+
+        // 1) lock + validate every key
+        Map<String, UploadSession> byKey = uploadSessionRepository.findAllForUpdateByObjectKeyIn(objectKeys).stream()
+                .collect(Collectors.toMap(UploadSession::getObjectKey, Function.identity()));
+
+        Instant deadline = Instant.now().minus(consumeWithin);
+        List<String> urls = new ArrayList<>(objectKeys.size());
+        for (String key : objectKeys) {
+            UploadSession session = byKey.get(key);
+
+            if (session == null || !session.getUser().getUserId().equals(owner.getUserId())) {
+                throw new UploadSessionNotFoundException("Upload not found: " + key);
+            }
+            if (session.getPurpose() != purpose) {
+                throw new IllegalArgumentException("Upload " + key + " is not a " + purpose + " upload");
+            }
+            if (session.getStatus() != UploadSessionStatus.CONFIRMED) {
+                throw new IllegalStateException("Upload " + key + " is not confirmed or already used");
+            }
+            if (session.getCreatedAt() != null && session.getCreatedAt().isBefore(deadline)) {
+                throw new IllegalStateException("Upload " + key + " has expired");
+            }
+
+            // 2) attach
+            session.setStatus(UploadSessionStatus.CONSUMED);
+            urls.add(storage.publicUrl(key));
+        }
+
+        // 3) referenced now - no longer an orphan candidate (same transaction)
+        uploadOutboxService.release(urls);
+        return urls;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<String> consumeUploadsById(User owner, UploadPurpose purpose, List<String> sessionIds) {
+
+        if (sessionIds == null || sessionIds.isEmpty()) return List.of();
+
+        Map<String, UploadSession> byId = uploadSessionRepository.findAllByPublicIdIn(sessionIds).stream()
+                .collect(Collectors.toMap(UploadSession::getPublicId, Function.identity()));
+
+        List<String> keys = new ArrayList<>(sessionIds.size());
+        for (String id : sessionIds) {
+            UploadSession session = byId.get(id);
+
+            if (session == null || !session.getUser().getUserId().equals(owner.getUserId())) {
+                throw new UploadSessionNotFoundException("Upload not found: " + id);
+            }
+            if (session.getStatus() == UploadSessionStatus.PENDING || session.getStatus() == UploadSessionStatus.STORING) {
+                throw new IllegalStateException("Upload " + id + " is still being processed");
+            }
+            keys.add(session.getObjectKey());
+        }
+
+        // ownership, purpose and status are re-checked under lock
+        return consumeUploads(owner, purpose, keys);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<String> consumeUploadsByUrl(User owner, UploadPurpose purpose, List<String> urls) {
+
+        if (urls == null || urls.isEmpty()) return List.of();
+
+        String marker = purpose.getKeyPrefix() + "/";
+        List<String> keys = new ArrayList<>(urls.size());
+        for (String url : urls) {
+            int index = url == null ? -1 : url.lastIndexOf(marker);
+            String key = index == -1 ? null : url.substring(index);
+
+            // only URLs this store hands out for session keys
+            if (key == null || !storage.publicUrl(key).equals(url)) {
+                throw new UploadSessionNotFoundException("Upload not found: " + url);
+            }
+            keys.add(key);
+        }
+
+        // ownership, purpose and status are checked under lock
+        return consumeUploads(owner, purpose, keys);
+    }
+
+    /**
+     * Check type and size of a new upload (shared with resumable sessions)
+     * @return File extension for the object key
+     */
+    static String validateImage(CreateUploadSessionRequest request, long maxBytes) {
+
+        String extension = ALLOWED_TYPES.get(request.getContentType());
+        if (extension == null) {
+            throw new IllegalArgumentException("Only JPEG, PNG, WebP and GIF images are allowed.");
+        }
+        if (request.getContentLength() > maxBytes) {
+            throw new IllegalArgumentException("Image must be at most " + maxBytes + " bytes.");
+        }
+        return extension;
+    }
+
+    private void deleteQuietly(String key) {
+        try {
+            storage.delete(key);
+        } catch (Exception e) {
+            log.warn("Failed to delete mismatched upload {}: {}", key, e.getMessage());
+        }
+    }
+}
@@ -56,9 +56,9 @@ public interface ProfileService {
     ProfileResponse updateProfile(String username, UpdateProfileRequest request);
     
     /**
-     * Upload avatar image
+     * Set the avatar to a confirmed avatar upload of this user
      * @param username Username
-     * @param imageUrl Image URL
+     * @param imageUrl Public URL of the confirmed upload
      * @return Updated ProfileResponse
      */
     ProfileResponse uploadAvatar(String username, String imageUrl);
@@ -78,6 +78,22 @@ public interface ProfileService {
      * @return Updated ProfileResponse
      */
     ProfileResponse uploadBannerFile(String username, MultipartFile file);
+
+    /**
+     * Set avatar from a confirmed direct upload
+     * @param username Username
+     * @param uploadKey Object key of a confirmed AVATAR upload session
+     * @return Updated ProfileResponse
+     */
+    ProfileResponse setAvatarFromUpload(String username, String uploadKey);
+
+    /**
+     * Set banner from a confirmed direct upload
+     * @param username Username
+     * @param uploadKey Object key of a confirmed BANNER upload session
+     * @return Updated ProfileResponse
+     */
+    ProfileResponse setBannerFromUpload(String username, String uploadKey);
     
     /**
      * Increment sold count
@@ -3,10 +3,14 @@ package edu.uic.marketplace.service.user;
 import edu.uic.marketplace.dto.request.user.UpdateProfileRequest;
 import edu.uic.marketplace.dto.response.user.ProfileResponse;
 import edu.uic.marketplace.exception.auth.UserNotAuthorizedException;
+import edu.uic.marketplace.model.upload.UploadPurpose;
 import edu.uic.marketplace.model.user.Profile;
 import edu.uic.marketplace.model.user.User;
 import edu.uic.marketplace.repository.user.ProfileRepository;
 import edu.uic.marketplace.service.common.S3Service;
+import edu.uic.marketplace.service.listing.ImageVariantService;
+import edu.uic.marketplace.service.upload.StorageDeletionService;
+import edu.uic.marketplace.service.upload.UploadSessionService;
 import edu.uic.marketplace.validator.auth.AuthValidator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -14,6 +18,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.List;
 import java.util.Optional;
 
 @Service
@@ -24,6 +29,9 @@ public class ProfileServiceImpl implements ProfileService {
     private final ProfileRepository profileRepository;
     private final AuthValidator authValidator;
     private final S3Service s3Service;
+    private final UploadSessionService uploadSessionService;
+    private final ImageVariantService imageVariantService;
+    private final StorageDeletionService storageDeletionService;
 
     @Override
     @Transactional
@@ -94,7 +102,16 @@ public class ProfileServiceImpl implements ProfileService {
     @Transactional
     public ProfileResponse uploadAvatar(String username, String imageUrl) {
         Profile profile = __getProfileByUsername(username);
-        profile.setAvatarUrl(imageUrl);
+
+        // Only a confirmed upload of this user: the avatar's old object is deleted on the next
+        // change, so an arbitrary URL could delete someone else's file
+        String previousUrl = profile.getAvatarUrl();
+        String url = uploadSessionService.consumeUploadsByUrl(profile.getUser(), UploadPurpose.AVATAR, List.of(imageUrl)).get(0);
+        __changeAvatar(profile, url);
+
+        // Delete old avatar once the new one is saved
+        __deleteAfterCommit(previousUrl);
+
         return ProfileResponse.from(profile);
     }
 
@@ -103,18 +120,13 @@ public class ProfileServiceImpl implements ProfileService {
     public ProfileResponse uploadAvatarFile(String username, MultipartFile file) {
         Profile profile = __getProfileByUsername(username);
 
-        // Delete old avatar if exists
-        if (profile.getAvatarUrl() != null && !profile.getAvatarUrl().isEmpty()) {
-            try {
-                s3Service.deleteByUrl(profile.getAvatarUrl());
-            } catch (Exception e) {
-                log.warn("Failed to delete old avatar: {}", e.getMessage());
-            }
-        }
-
         // Upload new avatar
+        String previousUrl = profile.getAvatarUrl();
         String imageUrl = s3Service.upload(file);
-        profile.setAvatarUrl(imageUrl);
+        __changeAvatar(profile, imageUrl);
+
+        // Delete old avatar once the new one is saved
+        __deleteAfterCommit(previousUrl);
 
         return ProfileResponse.from(profile);
     }
@@ -124,19 +136,46 @@ public class ProfileServiceImpl implements ProfileService {
     public ProfileResponse uploadBannerFile(String username, MultipartFile file) {
         Profile profile = __getProfileByUsername(username);
 
-        // Delete old banner if exists
-        if (profile.getBannerUrl() != null && !profile.getBannerUrl().isEmpty()) {
-            try {
-                s3Service.deleteByUrl(profile.getBannerUrl());
-            } catch (Exception e) {
-                log.warn("Failed to delete old banner: {}", e.getMessage());
-            }
-        }
-
         // Upload new banner
+        String previousUrl = profile.getBannerUrl();
         String imageUrl = s3Service.upload(file);
         profile.setBannerUrl(imageUrl);
 
+        // Delete old banner once the new one is saved
+        __deleteAfterCommit(previousUrl);
+
+        return ProfileResponse.from(profile);
+    }
+
+    @Override
+    @Transactional
+    public ProfileResponse setAvatarFromUpload(String username, String uploadKey) {
+        Profile profile = __getProfileByUsername(username);
+
+        // Attach the confirmed upload
+        String previousUrl = profile.getAvatarUrl();
+        String imageUrl = uploadSessionService.consumeUploads(profile.getUser(), UploadPurpose.AVATAR, List.of(uploadKey)).get(0);
+        __changeAvatar(profile, imageUrl);
+
+        // Delete old avatar once the new one is saved
+        __deleteAfterCommit(previousUrl);
+
+        return ProfileResponse.from(profile);
+    }
+
+    @Override
+    @Transactional
+    public ProfileResponse setBannerFromUpload(String username, String uploadKey) {
+        Profile profile = __getProfileByUsername(username);
+
+        // Attach the confirmed upload
+        String previousUrl = profile.getBannerUrl();
+        String imageUrl = uploadSessionService.consumeUploads(profile.getUser(), UploadPurpose.BANNER, List.of(uploadKey)).get(0);
+        profile.setBannerUrl(imageUrl);
+
+        // Delete old banner once the new one is saved
+        __deleteAfterCommit(previousUrl);
+
         return ProfileResponse.from(profile);
     }
 
@@ -158,6 +197,25 @@ public class ProfileServiceImpl implements ProfileService {
     }
 
     // Helper methods
+
+    /**
+     * Swap the avatar; its placeholder is recomputed in the background
+     */
+    private void __changeAvatar(Profile profile, String imageUrl) {
+        profile.setAvatarUrl(imageUrl);
+        profile.setAvatarBlurHash(null);
+        imageVariantService.generateAvatarPlaceholderAfterCommit(profile.getUserId(), imageUrl);
+    }
+
+    /**
+     * Queued in this transaction, so the old image is only deleted if the change commits
+     */
+    private void __deleteAfterCommit(String url) {
+        if (url == null || url.isEmpty()) return;
+
+        storageDeletionService.enqueue(List.of(url));
+    }
+
     private Profile __getProfileByUsername(String username) {
         User user = authValidator.validateUserByUsername(username);
         return profileRepository.findByUser_UserId(user.getUserId())
@@ -1,16 +1,25 @@
 package edu.uic.marketplace.service.user;
 
 import edu.uic.marketplace.dto.response.user.UserResponse;
+import edu.uic.marketplace.exception.auth.UserNotFoundException;
 import edu.uic.marketplace.model.user.User;
+import edu.uic.marketplace.model.user.UserStatus;
+import edu.uic.marketplace.repository.user.UserRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
 
+    private final UserRepository userRepository;
+    private final UserSnapshotCache userSnapshotCache;
+
     @Override
     public Optional<User> findById(Long userId) {
         return Optional.empty();
@@ -37,17 +46,41 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional
     public void deleteUser(Long userId) {
 
+        // 1) soft delete (bumps the token version)
+        User user = getUser(userId);
+        user.softDelete();
+
+        // 2) outstanding access tokens stop working
+        userSnapshotCache.invalidate(userId);
     }
 
     @Override
+    @Transactional
     public void suspendUser(Long userId, String reason) {
 
+        User user = getUser(userId);
+        user.changeStatus(UserStatus.SUSPENDED);
+        userSnapshotCache.invalidate(userId);
+
+        log.info("User {} suspended: {}", userId, reason);
     }
 
     @Override
+    @Transactional
     public void activateUser(Long userId) {
 
+        User user = getUser(userId);
+        user.changeStatus(UserStatus.ACTIVE);
+        userSnapshotCache.invalidate(userId);
+    }
+
+    // Helper methods
+
+    private User getUser(Long userId) {
+        return userRepository.findById(userId)
+                .orElseThrow(() -> new UserNotFoundException("User with internal ID " + userId + " not found"));
     }
 }
@@ -0,0 +1,42 @@
+package edu.uic.marketplace.service.user;
+
+import edu.uic.marketplace.model.user.User;
+import edu.uic.marketplace.model.user.UserRole;
+import edu.uic.marketplace.model.user.UserStatus;
+
+import java.time.Instant;
+
+/**
+ * Immutable copy of the user fields authentication and authorization checks need
+ */
+public record UserSnapshot(Long userId,
+                           String publicId,
+                           String username,
+                           UserRole role,
+                           UserStatus status,
+                           int tokenVersion,
+                           boolean deleted) {
+
+    /**
+     * Row form, for the projection queries in UserRepository
+     */
+    public UserSnapshot(Long userId, String publicId, String username, UserRole role, UserStatus status,
+                        Integer tokenVersion, Instant deletedAt) {
+        this(userId, publicId, username, role, status, tokenVersion == null ? 0 : tokenVersion, deletedAt != null);
+    }
+
+    public static UserSnapshot of(User user) {
+        return new UserSnapshot(
+                user.getUserId(),
+                user.getPublicId(),
+                user.getUsername(),
+                user.getRole(),
+                user.getStatus(),
+                user.getTokenVersion() == null ? 0 : user.getTokenVersion(),
+                user.getDeletedAt() != null);
+    }
+
+    public boolean isActive() {
+        return status == UserStatus.ACTIVE && !deleted;
+    }
+}
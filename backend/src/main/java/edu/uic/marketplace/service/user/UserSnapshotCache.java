@@ -0,0 +1,153 @@
+package edu.uic.marketplace.service.user;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import edu.uic.marketplace.model.user.User;
+import edu.uic.marketplace.repository.user.UserRepository;
+import edu.uic.marketplace.service.common.Utils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Shared (process-wide) cache of UserSnapshots by user id, with a username -> id index.
+ * <p>
+ * Anything that changes a user's status, role, credentials or token version calls
+ * {@link #invalidate(Long)}: the entry is dropped after commit here and, with
+ * {@code app.users.cache.invalidation=redis}, on every other instance through Redis pub/sub
+ * (see UserCacheInvalidationConfig). Entries also expire after {@code app.users.cache.ttl};
+ * without pub/sub that is capped at {@code app.users.cache.local-ttl} (30s), since expiry is
+ * then the only way other instances learn that a user was suspended or deleted.
+ * <p>
+ * Misses are read on the caller's connection (no second pooled connection on the auth path)
+ * and outside the cache's per-entry lock. Inside a transaction the snapshot is only cached once
+ * that transaction commits, so state that is rolled back never reaches the cache; a load that
+ * raced an eviction is returned but not cached.
+ */
+@Component
+@Slf4j
+public class UserSnapshotCache {
+
+    public static final String INVALIDATION_CHANNEL = "users:invalidate";
+
+    private final UserRepository userRepository;
+    private final StringRedisTemplate redisTemplate;
+    private final Cache<Long, UserSnapshot> byId;
+    private final Cache<String, Long> idByUsername;
+
+    // bumped on every eviction; a load that raced one is returned but not cached
+    private final AtomicLong evictions = new AtomicLong();
+
+    public UserSnapshotCache(UserRepository userRepository,
+                             ObjectProvider<StringRedisTemplate> redisTemplate,
+                             @Value("${app.users.cache.max-size:10000}") long maxSize,
+                             @Value("${app.users.cache.ttl:10m}") Duration ttl,
+                             @Value("${app.users.cache.local-ttl:30s}") Duration localTtl,
+                             @Value("${app.users.cache.invalidation:local}") String invalidation) {
+        this.userRepository = userRepository;
+        this.redisTemplate = "redis".equals(invalidation) ? redisTemplate.getIfAvailable() : null;
+
+        Duration expiry = this.redisTemplate != null || ttl.compareTo(localTtl) < 0 ? ttl : localTtl;
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expiry)
+                .build();
+        this.idByUsername = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expiry)
+                .build();
+    }
+
+    /**
+     * Cached snapshot, or a projection read (no managed entity) on a miss
+     */
+    public Optional<UserSnapshot> findById(Long userId) {
+
+        UserSnapshot cached = byId.getIfPresent(userId);
+        if (cached != null) return Optional.of(cached);
+
+        long generation = evictions.get();
+        Optional<UserSnapshot> loaded = userRepository.findSnapshotById(userId);
+        loaded.ifPresent(snapshot -> remember(snapshot, generation));
+        return loaded;
+    }
+
+    /**
+     * Cached snapshot, without loading anything
+     */
+    public Optional<UserSnapshot> getIfPresent(Long userId) {
+        return Optional.ofNullable(byId.getIfPresent(userId));
+    }
+
+    /**
+     * Cached snapshot for the username, without loading anything
+     */
+    public Optional<UserSnapshot> getIfPresent(String username) {
+
+        Long userId = idByUsername.getIfPresent(username);
+        if (userId == null) return Optional.empty();
+
+        // still the same user under that name
+        UserSnapshot cached = byId.getIfPresent(userId);
+        return cached != null && cached.username().equalsIgnoreCase(username) ? Optional.of(cached) : Optional.empty();
+    }
+
+    /**
+     * For callers that need the user entity anyway: run their query and cache its snapshot,
+     * so a miss costs one query rather than a projection plus loading the entity
+     */
+    public Optional<User> loadEntity(Supplier<Optional<User>> query) {
+
+        long generation = evictions.get();
+        Optional<User> user = query.get();
+        user.ifPresent(u -> remember(UserSnapshot.of(u), generation));
+        return user;
+    }
+
+    /**
+     * Drop the user everywhere once the current transaction commits
+     */
+    public void invalidate(Long userId) {
+
+        Utils.runAfterCommit(() -> {
+            evict(userId);
+
+            if (redisTemplate != null) {
+                try {
+                    redisTemplate.convertAndSend(INVALIDATION_CHANNEL, userId.toString());
+                } catch (RuntimeException e) {
+                    // other instances catch up within the TTL
+                    log.warn("User cache invalidation for {} not published: {}", userId, e.getMessage());
+                }
+            }
+        });
+    }
+
+    /**
+     * Local eviction only (also the handler for invalidations published by other instances)
+     */
+    public void evict(Long userId) {
+        evictions.incrementAndGet();
+        byId.invalidate(userId);
+    }
+
+    // ------------------------------------------------------------------
+
+    /**
+     * Cache a snapshot read at {@code generation} once the reading transaction (if any) commits,
+     * unless an eviction happened in between (the read may predate the change it invalidated)
+     */
+    private void remember(UserSnapshot snapshot, long generation) {
+        Utils.runAfterCommit(() -> {
+            byId.asMap().compute(snapshot.userId(), (id, current) -> evictions.get() == generation ? snapshot : current);
+            idByUsername.put(snapshot.username(), snapshot.userId());
+        });
+    }
+}
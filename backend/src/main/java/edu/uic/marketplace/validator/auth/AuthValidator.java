@@ -7,19 +7,33 @@ import edu.uic.marketplace.model.user.User;
 import edu.uic.marketplace.model.user.UserRole;
 import edu.uic.marketplace.model.user.UserStatus;
 import edu.uic.marketplace.repository.user.UserRepository;
+import edu.uic.marketplace.security.AuthenticatedUser;
+import edu.uic.marketplace.service.common.RequestIdentityMap;
+import edu.uic.marketplace.service.user.UserSnapshot;
+import edu.uic.marketplace.service.user.UserSnapshotCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Optional;
+import java.util.function.Supplier;
 
 @Component
 @RequiredArgsConstructor
 public class AuthValidator {
 
+    private static final String BY_ID = "User#id:";
+    private static final String BY_PUBLIC_ID = "User#publicId:";
+    private static final String BY_USERNAME = "User#username:";
+
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final RequestIdentityMap identityMap;
+    private final UserSnapshotCache userSnapshotCache;
 
 
     // =================================================================
@@ -54,7 +68,7 @@ public class AuthValidator {
      */
     public User validateUserByPublicId(String publicId) {
 
-        User user = userRepository.findByPublicId(publicId)
+        User user = findUser(BY_PUBLIC_ID + publicId, () -> userRepository.findByPublicId(publicId))
                 .orElseThrow(() -> new UserNotFoundException("User with ID " + publicId + " not found"));
 
         if (!user.isActive())
@@ -110,7 +124,17 @@ public class AuthValidator {
      */
     public User validateUserByUsername(String username) {
 
-        User user = userRepository.findByUsername(username)
+        // 1) cached: checked without a query
+        Optional<UserSnapshot> cached = userSnapshotCache.getIfPresent(username);
+        if (cached.isPresent()) {
+            if (!cached.get().isActive())
+                throw new UserNotAuthorizedException("User account is not active");
+            return userEntity(cached.get());
+        }
+
+        // 2) miss: the entity is needed anyway, so it is loaded once (on the caller's connection) and snapshotted
+        User user = userSnapshotCache.loadEntity(
+                        () -> findUser(BY_USERNAME + username, () -> userRepository.findByUsername(username)))
                 .orElseThrow(() -> new UserNotFoundException("User with username " + username + " not found"));
 
         if (!user.isActive())
@@ -154,11 +178,35 @@ public class AuthValidator {
         throw new UserNotLoggedInException("User is not logged in");
     }
 
+    /**
+     * User id carried by the access token (null for principals without one)
+     */
+    public Long extractUserId() {
+
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+
+        if (auth != null && auth.isAuthenticated() && auth.getPrincipal() instanceof AuthenticatedUser au) {
+            return au.userId();
+        }
+        return null;
+    }
+
     /**
      * Get logged-in user from user details
+     * By primary key when the token carries the user id, by username/email otherwise
      */
     public User getLoggedInUser() {
 
+        Long userId = extractUserId();
+        if (userId != null) {
+            Optional<UserSnapshot> cached = userSnapshotCache.getIfPresent(userId);
+            Optional<User> user = cached.isPresent()
+                    ? cached.filter(UserSnapshot::isActive).map(this::userEntity)
+                    : userSnapshotCache.loadEntity(() -> findUser(BY_ID + userId, () -> userRepository.findById(userId)))
+                            .filter(User::isActive);
+            return user.orElseThrow(() -> new UserNotAuthorizedException("User account is not active"));
+        }
+
         String username = extractUsername();
         return userRepository.findByUsernameIgnoreCase(username)
                 .or(() -> userRepository.findByEmailIgnoreCase(username))
@@ -207,6 +255,39 @@ public class AuthValidator {
             throw new UserNotAuthorizedException("User does not have sufficient privileges");
     }
 
+    // =================================================================
+    // Request identity map
+    // =================================================================
+
+    /**
+     * Entity for a user whose snapshot passed the checks. Inside a transaction this is a reference
+     * from the persistence context (no query unless a non-id field is read); outside, the loaded user.
+     */
+    private User userEntity(UserSnapshot snapshot) {
+
+        Long userId = snapshot.userId();
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return userRepository.getReferenceById(userId);
+        }
+        return findUser(BY_ID + userId, () -> userRepository.findById(userId))
+                .orElseThrow(() -> new UserNotFoundException("User with internal ID " + userId + " not found"));
+    }
+
+    /**
+     * Resolve a user at most once per request; a loaded user is also remembered
+     * under its id, publicId and username
+     */
+    private Optional<User> findUser(String key, Supplier<Optional<User>> loader) {
+
+        Optional<User> user = identityMap.find(key, User.class, loader);
+        user.ifPresent(u -> {
+            identityMap.put(BY_ID + u.getUserId(), u);
+            identityMap.put(BY_PUBLIC_ID + u.getPublicId(), u);
+            identityMap.put(BY_USERNAME + u.getUsername(), u);
+        });
+        return user;
+    }
+
     // =================================================================
     // Internal Methods - Use Long ID only for FK relationships
     // =================================================================
@@ -4,6 +4,8 @@ import edu.uic.marketplace.exception.listing.CategoryNotFoundException;
 import edu.uic.marketplace.exception.listing.CategoryNotSubCategoryException;
 import edu.uic.marketplace.model.listing.Category;
 import edu.uic.marketplace.repository.listing.CategoryRepository;
+import edu.uic.marketplace.service.listing.CategoryTree;
+import edu.uic.marketplace.service.listing.CategoryTreeCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
@@ -12,17 +14,27 @@ import org.springframework.stereotype.Component;
 public class CategoryValidator {
 
     private final CategoryRepository categoryRepository;
+    private final CategoryTreeCache categoryTreeCache;
 
     // =================================================================
     // External API Validation - Use slug
     // =================================================================
 
     /**
-     * Validate that category exists by slug
+     * Validate that category exists by slug (served from the in-memory category tree)
+     * Returns a detached entity built from the snapshot
      */
     public Category validateCategoryBySlug(String slug) {
 
-        return categoryRepository.findBySlug(slug)
+        return toEntity(validateNodeBySlug(slug));
+    }
+
+    /**
+     * Validate that category exists by slug, without building an entity
+     */
+    public CategoryTree.Node validateNodeBySlug(String slug) {
+
+        return categoryTreeCache.find(slug)
                 .orElseThrow(() -> new CategoryNotFoundException("Category with slug '" + slug + "' not found"));
     }
 
@@ -32,28 +44,28 @@ public class CategoryValidator {
      */
     public Category validateLeafCategory(String slug) {
 
-        Category category = validateCategoryBySlug(slug);
+        CategoryTree.Node node = validateNodeBySlug(slug);
 
-        if (category.hasChildren()) {
+        if (!node.leaf()) {
             throw new CategoryNotSubCategoryException(
                     "Category '" + slug + "' has subcategories. Listings must be assigned to leaf categories only.");
         }
 
-        return category;
+        return toEntity(node);
     }
 
     /**
      * Validate that category is a root category (no parent)
      */
     public Category validateRootCategory(String slug) {
-        Category category = validateCategoryBySlug(slug);
+        CategoryTree.Node node = validateNodeBySlug(slug);
 
-        if (!category.isRootCategory()) {
+        if (!node.isRoot()) {
             throw new IllegalArgumentException(
                     "Category '" + slug + "' is not a root category");
         }
 
-        return category;
+        return toEntity(node);
     }
 
     /**
@@ -61,14 +73,14 @@ public class CategoryValidator {
      */
     public Category validateSubCategory(String slug) {
 
-        Category category = validateCategoryBySlug(slug);
+        CategoryTree.Node node = validateNodeBySlug(slug);
 
-        if (category.isRootCategory()) {
+        if (node.isRoot()) {
             throw new IllegalArgumentException(
                     "Category '" + slug + "' is a root category, not a subcategory");
         }
 
-        return category;
+        return toEntity(node);
     }
 
     /**
@@ -76,15 +88,15 @@ public class CategoryValidator {
      */
     public Category validateSubCategoryOfParent(String parentSlug, String childSlug) {
 
-        Category parent = validateCategoryBySlug(parentSlug);
-        Category child = validateCategoryBySlug(childSlug);
+        CategoryTree.Node parent = validateNodeBySlug(parentSlug);
+        CategoryTree.Node child = validateNodeBySlug(childSlug);
 
-        if (child.getParent() == null || !child.getParent().getCategoryId().equals(parent.getCategoryId())) {
+        if (!parent.slug().equals(child.parentSlug())) {
             throw new IllegalArgumentException(
                     "Category '" + childSlug + "' is not a subcategory of '" + parentSlug + "'");
         }
 
-        return child;
+        return toEntity(child);
     }
 
     /**
@@ -147,6 +159,10 @@ public class CategoryValidator {
         return depth;
     }
 
+    private Category toEntity(CategoryTree.Node node) {
+        return categoryTreeCache.get().toEntity(node);
+    }
+
     /**
      * Get the root category of a given category
      */
@@ -6,16 +6,18 @@ import edu.uic.marketplace.model.listing.Listing;
 import edu.uic.marketplace.model.listing.ListingStatus;
 import edu.uic.marketplace.model.user.User;
 import edu.uic.marketplace.repository.listing.ListingRepository;
+import edu.uic.marketplace.service.common.RequestIdentityMap;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
+import java.util.Optional;
 
 @Component
 @RequiredArgsConstructor
 public class ListingValidator {
 
     private final ListingRepository listingRepository;
+    private final RequestIdentityMap identityMap;
 
     // =================================================================
     // External API Validation - Use publicId
@@ -26,8 +28,7 @@ public class ListingValidator {
      * Returns listing if it exists and is not soft-deleted
      */
     public Listing validateListingByPublicId(String publicId) {
-        return listingRepository
-                .findByPublicIdAndDeletedAtIsNull(publicId)
+        return findListing(publicId)
                 .orElseThrow(() -> new ListingNotFoundException("Listing with ID " + publicId + " not found"));
     }
 
@@ -36,11 +37,8 @@ public class ListingValidator {
      * Used for public listing pages and search results
      */
     public Listing getListingForPublicView(String publicId) {
-        return listingRepository
-                .findByPublicIdAndStatusInAndDeletedAtIsNull(
-                        publicId,
-                        List.of(ListingStatus.ACTIVE, ListingStatus.SOLD)
-                )
+        return findListing(publicId)
+                .filter(l -> l.getStatus() == ListingStatus.ACTIVE || l.getStatus() == ListingStatus.SOLD)
                 .orElseThrow(() -> new ListingNotFoundException(
                         "Active or sold listing with ID " + publicId + " not found"));
     }
@@ -50,11 +48,8 @@ public class ListingValidator {
      * Validates that the requester is the seller
      */
     public Listing getListingForSellerView(String publicId, String sellerPublicId) {
-        Listing listing = listingRepository
-                .findByPublicIdAndStatusInAndDeletedAtIsNull(
-                        publicId,
-                        List.of(ListingStatus.ACTIVE, ListingStatus.SOLD, ListingStatus.INACTIVE)
-                )
+        Listing listing = findListing(publicId)
+                .filter(l -> l.getStatus() != ListingStatus.DELETED)
                 .orElseThrow(() -> new ListingNotFoundException("Listing with ID " + publicId + " not found"));
 
         if (!listing.getSeller().getPublicId().equals(sellerPublicId)) {
@@ -69,8 +64,7 @@ public class ListingValidator {
      * Used for moderation and admin panels
      */
     public Listing getListingForAdminView(String publicId) {
-        return listingRepository
-                .findByPublicIdAndDeletedAtIsNull(publicId)
+        return findListing(publicId)
                 .orElseThrow(() -> new ListingNotFoundException("Listing with ID " + publicId + " not found"));
     }
 
@@ -78,8 +72,8 @@ public class ListingValidator {
      * Validate listing by public ID with specific status
      */
     public Listing validateListingByPublicIdAndStatus(String publicId, ListingStatus status) {
-        return listingRepository
-                .findByPublicIdAndStatusAndDeletedAtIsNull(publicId, status)
+        return findListing(publicId)
+                .filter(l -> l.getStatus() == status)
                 .orElseThrow(() -> new ListingNotFoundException(
                         "Listing not found"));
     }
@@ -218,4 +212,18 @@ public class ListingValidator {
                 .findByListingIdAndDeletedAtIsNull(listingId)
                 .orElseThrow(() -> new ListingNotFoundException("Listing with internal ID " + listingId + " not found"));
     }
+
+    // =================================================================
+    // Request identity map
+    // =================================================================
+
+    /**
+     * Non-deleted listing by public ID, loaded at most once per request;
+     * the status checks above run on it in memory
+     */
+    private Optional<Listing> findListing(String publicId) {
+        return identityMap.find("Listing#publicId:" + publicId, Listing.class,
+                () -> listingRepository.findByPublicIdAndDeletedAtIsNull(publicId))
+                .filter(l -> l.getDeletedAt() == null);
+    }
 }
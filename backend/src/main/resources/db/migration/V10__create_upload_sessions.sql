@@ -0,0 +1,24 @@
+-- ============================================================================
+-- V10__create_upload_sessions.sql
+-- Direct-to-storage uploads: the client PUTs bytes to a presigned URL and the
+-- app only confirms the object by key. Listings and profiles reference
+-- confirmed keys instead of streaming multipart files through the app.
+-- ============================================================================
+
+CREATE TABLE upload_sessions (
+    session_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    public_id VARCHAR(36) NOT NULL UNIQUE,
+    user_id BIGINT NOT NULL,
+    purpose VARCHAR(20) NOT NULL,
+    object_key VARCHAR(255) NOT NULL UNIQUE,
+    content_type VARCHAR(100) NOT NULL,
+    content_length BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    expires_at TIMESTAMP(6) NOT NULL,
+    confirmed_at TIMESTAMP(6),
+    created_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+
+    INDEX idx_upload_sessions_user_status (user_id, status),
+
+    CONSTRAINT fk_upload_sessions_user FOREIGN KEY (user_id) REFERENCES users(user_id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -0,0 +1,17 @@
+-- ============================================================================
+-- V11__add_listing_image_variants.sql
+-- Resized JPEG variants (200/600/1200px) generated asynchronously after upload.
+-- Existing images start as PENDING and are backfilled by the variant sweeper.
+-- Failed generation is retried by the sweep with backoff; after the last
+-- attempt the image is marked FAILED (clients keep using the original).
+-- ============================================================================
+
+ALTER TABLE listing_images
+    ADD COLUMN thumbnail_url VARCHAR(500),
+    ADD COLUMN medium_url VARCHAR(500),
+    ADD COLUMN large_url VARCHAR(500),
+    ADD COLUMN variant_status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    ADD COLUMN variant_attempts INT NOT NULL DEFAULT 0,
+    ADD COLUMN variant_next_attempt_at TIMESTAMP(6) NULL;
+
+CREATE INDEX idx_listing_images_variant_status ON listing_images (variant_status, created_at);
@@ -0,0 +1,11 @@
+-- ============================================================================
+-- V12__add_image_blur_hashes.sql
+-- BlurHash placeholders shown by clients while listing images / avatars load.
+-- Computed from the downscaled decode; NULL until processed.
+-- ============================================================================
+
+ALTER TABLE listing_images
+    ADD COLUMN blur_hash VARCHAR(64);
+
+ALTER TABLE profiles
+    ADD COLUMN avatar_blur_hash VARCHAR(64);
@@ -0,0 +1,13 @@
+-- ============================================================================
+-- V13__create_stored_objects.sql
+-- Reference counts for content-addressed objects (key = <prefix><sha256>.<ext>).
+-- Identical uploads share one object; it is deleted from storage only when the
+-- last listing image / profile referencing it lets go.
+-- ============================================================================
+
+CREATE TABLE stored_objects (
+    object_key VARCHAR(255) PRIMARY KEY,
+    ref_count INT NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+    updated_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
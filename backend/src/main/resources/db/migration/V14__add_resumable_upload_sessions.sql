@@ -0,0 +1,12 @@
+-- ============================================================================
+-- V14__add_resumable_upload_sessions.sql
+-- Resumable uploads: the client sends chunks at increasing offsets to the app,
+-- which keeps them on local disk, assembles them on finalize and pushes the
+-- object to storage in the background. received_bytes is the resume offset.
+-- ============================================================================
+
+ALTER TABLE upload_sessions
+    ADD COLUMN resumable BOOLEAN NOT NULL DEFAULT FALSE,
+    ADD COLUMN received_bytes BIGINT NOT NULL DEFAULT 0;
+
+CREATE INDEX idx_upload_sessions_resumable_status ON upload_sessions (resumable, status, expires_at);
@@ -0,0 +1,23 @@
+-- ============================================================================
+-- V15__create_storage_deletion_queue.sql
+-- Durable queue of storage objects to delete. Request paths insert rows in
+-- their own transaction (so a rollback also drops the delete) and a background
+-- worker removes the objects in batches of up to 1000 keys, with retry/backoff.
+-- kind says what an entry means:
+--   RELEASE - drop one reference (content-addressed keys), delete once unreferenced
+--   ORPHAN  - found unreferenced by reconciliation: delete only if no
+--             stored_objects row exists when the worker gets to it (the same
+--             content may have been uploaded again meanwhile)
+-- ============================================================================
+
+CREATE TABLE storage_deletion_queue (
+    deletion_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    object_url VARCHAR(500) NOT NULL,
+    kind VARCHAR(16) NOT NULL DEFAULT 'RELEASE',
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP(6) NOT NULL,
+    last_error VARCHAR(500),
+    created_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+
+    INDEX idx_storage_deletion_queue_next_attempt_at (next_attempt_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -0,0 +1,24 @@
+-- ============================================================================
+-- V16__create_email_outbox.sql
+-- Emails that could not be handed to the mail provider right away (provider
+-- down, circuit open, bulkhead full). The request that produced them still
+-- succeeds; a background worker resends them with retry/backoff.
+-- Verification and password reset emails store a template and its parameter
+-- instead of the rendered HTML; the body is rendered when the email is
+-- actually sent. body is set for free-form emails only.
+-- ============================================================================
+
+CREATE TABLE email_outbox (
+    email_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    recipient VARCHAR(255) NOT NULL,
+    subject VARCHAR(255) NOT NULL,
+    template VARCHAR(32) NULL,
+    template_param VARCHAR(255) NULL,
+    body TEXT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP(6) NOT NULL,
+    last_error VARCHAR(500),
+    created_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+
+    INDEX idx_email_outbox_next_attempt_at (next_attempt_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -0,0 +1,4 @@
+-- Bumped whenever a user's status or role changes; access tokens carry it (claim "sv")
+-- and stop being accepted once it no longer matches.
+ALTER TABLE users
+    ADD COLUMN token_version INT NOT NULL DEFAULT 0;
@@ -0,0 +1,35 @@
+-- ============================================================================
+-- V18__create_refresh_tokens.sql
+-- Rotating refresh tokens. Only the SHA-256 of a token is stored. Every login
+-- starts a family (= session id, "sid" claim of its access tokens); each refresh
+-- rotates to a new token in the same family. Presenting a rotated token again
+-- is treated as theft and revokes the whole family.
+--
+-- revoked_sessions lists sessions whose access tokens must be rejected before
+-- they expire (logout, reuse detection); rows are purged once expires_at passes.
+-- ============================================================================
+
+CREATE TABLE refresh_tokens (
+    token_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    token_hash CHAR(64) NOT NULL UNIQUE,
+    user_id BIGINT NOT NULL,
+    family_id VARCHAR(36) NOT NULL,
+    expires_at TIMESTAMP(6) NOT NULL,
+    rotated_at TIMESTAMP(6),
+    revoked_at TIMESTAMP(6),
+    created_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+
+    INDEX idx_refresh_tokens_user_id (user_id),
+    INDEX idx_refresh_tokens_family_id (family_id),
+    INDEX idx_refresh_tokens_expires_at (expires_at),
+
+    CONSTRAINT fk_refresh_tokens_user FOREIGN KEY (user_id) REFERENCES users(user_id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE revoked_sessions (
+    session_id VARCHAR(36) PRIMARY KEY,
+    expires_at TIMESTAMP(6) NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+
+    INDEX idx_revoked_sessions_expires_at (expires_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -0,0 +1,22 @@
+-- ============================================================================
+-- V8__create_listing_stats.sql
+-- Move hot counters (view_count, favorite_count) off the wide listings row
+-- into a narrow listing_stats table updated with atomic increments.
+-- ============================================================================
+
+CREATE TABLE listing_stats (
+    listing_id BIGINT PRIMARY KEY,
+    view_count INT NOT NULL DEFAULT 0,
+    favorite_count INT NOT NULL DEFAULT 0,
+
+    CONSTRAINT fk_listing_stats_listing FOREIGN KEY (listing_id) REFERENCES listings(listing_id) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Backfill from the existing columns
+INSERT INTO listing_stats (listing_id, view_count, favorite_count)
+SELECT listing_id, view_count, favorite_count
+FROM listings;
+
+ALTER TABLE listings
+    DROP COLUMN view_count,
+    DROP COLUMN favorite_count;
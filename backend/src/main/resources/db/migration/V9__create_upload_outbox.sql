@@ -0,0 +1,19 @@
+-- ============================================================================
+-- V9__create_upload_outbox.sql
+-- Outbox of objects uploaded to S3 ahead of the listing transaction.
+-- A row is written right after the upload and deleted in the same transaction
+-- that saves the listing images; rows that survive are orphaned uploads and
+-- are deleted from S3 by a background worker (with retry/backoff).
+-- ============================================================================
+
+CREATE TABLE upload_outbox (
+    outbox_id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    object_url VARCHAR(500) NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP(6) NOT NULL,
+    last_error VARCHAR(500),
+    created_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+
+    INDEX idx_upload_outbox_next_attempt_at (next_attempt_at),
+    INDEX idx_upload_outbox_object_url (object_url)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -0,0 +1,117 @@
+package edu.uic.marketplace.security;
+
+import edu.uic.marketplace.model.user.User;
+import edu.uic.marketplace.model.user.UserStatus;
+import edu.uic.marketplace.repository.auth.RevokedSessionRepository;
+import edu.uic.marketplace.repository.user.UserRepository;
+import edu.uic.marketplace.service.auth.RevokedSessionRegistry;
+import edu.uic.marketplace.service.user.UserSnapshot;
+import edu.uic.marketplace.service.user.UserSnapshotCache;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Per-request cost of JwtAuthenticationFilter with and without the verified-claims cache.
+ * <p>
+ * Not part of {@code test}; run with {@code ./gradlew benchmark}. Tokens are self-contained and
+ * token versions come from a warm cache and no session is revoked, so the numbers are token
+ * handling only (no DB).
+ */
+@Tag("benchmark")
+class JwtAuthenticationFilterBenchmark {
+
+    private static final int USERS = 1_000;
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int ROUNDS = 50;
+
+    // only reached by tokens without uid/role/sv claims
+    private static final UserDetailsService USERS_BY_NAME = username -> {
+        throw new AssertionError("self-contained tokens must not load the user");
+    };
+
+    @Test
+    void filterThroughput() throws Exception {
+
+        System.out.printf("%-12s %14s %12s%n", "claims cache", "requests/s", "ns/request");
+
+        for (long cacheSize : new long[]{0, 10_000}) {
+            JwtTokenProvider provider = JwtTokenProviderTest.provider(JwtTokenProviderTest.SECRET, cacheSize);
+            JwtAuthenticationFilter filter = new JwtAuthenticationFilter(provider, USERS_BY_NAME, tokenVersions(), revokedSessions());
+
+            List<String> headers = new ArrayList<>(USERS);
+            for (int i = 0; i < USERS; i++) {
+                User user = JwtTokenProviderTest.user("user" + i);
+                user.setUserId((long) i);
+                headers.add("Bearer " + provider.generateToken(user, "session-" + i));
+            }
+
+            for (int i = 0; i < WARMUP_ROUNDS; i++) {
+                run(filter, headers);
+            }
+
+            long start = System.nanoTime();
+            for (int i = 0; i < ROUNDS; i++) {
+                run(filter, headers);
+            }
+            long nanos = System.nanoTime() - start;
+            long requests = (long) ROUNDS * USERS;
+
+            System.out.printf("%-12s %14.0f %12d%n", cacheSize == 0 ? "off" : "on",
+                    requests / (nanos / 1e9), nanos / requests);
+        }
+    }
+
+    // ------------------------------------------------------------------
+
+    /** Every user is active at the token version JwtTokenProviderTest.user() issues */
+    private static TokenVersionCache tokenVersions() {
+        UserRepository userRepository = mock(UserRepository.class);
+        given(userRepository.findSnapshotById(anyLong())).willAnswer(invocation -> {
+            User user = JwtTokenProviderTest.user("user");
+            user.setUserId(invocation.getArgument(0));
+            user.setStatus(UserStatus.ACTIVE);
+            return Optional.of(UserSnapshot.of(user));
+        });
+        return new TokenVersionCache(
+                new UserSnapshotCache(userRepository, mock(ObjectProvider.class),
+                        10_000, Duration.ofMinutes(5), Duration.ofMinutes(5), "local"));
+    }
+
+    /** No session is revoked: the Bloom filter answers every check, the table is never read */
+    private static RevokedSessionRegistry revokedSessions() {
+        RevokedSessionRepository repository = mock(RevokedSessionRepository.class);
+        given(repository.existsBySessionIdAndExpiresAtAfter(anyString(), any())).willReturn(false);
+        return new RevokedSessionRegistry(repository, mock(TransactionTemplate.class), 100_000, 30_000);
+    }
+
+    private static void run(JwtAuthenticationFilter filter, List<String> headers) throws Exception {
+        for (String header : headers) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/listings");
+            request.addHeader("Authorization", header);
+
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+            assertThat(SecurityContextHolder.getContext().getAuthentication()).isNotNull();
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package edu.uic.marketplace.security;
+
+import edu.uic.marketplace.model.user.UserRole;
+import edu.uic.marketplace.service.auth.RevokedSessionRegistry;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+
+import java.util.Base64;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+
+@ExtendWith(MockitoExtension.class)
+class JwtAuthenticationFilterTest {
+
+    @Mock private UserDetailsService userDetailsService;
+    @Mock private TokenVersionCache tokenVersionCache;
+    @Mock private RevokedSessionRegistry revokedSessionRegistry;
+
+    private JwtTokenProvider provider;
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        provider = JwtTokenProviderTest.provider(JwtTokenProviderTest.SECRET, 100);
+        filter = new JwtAuthenticationFilter(provider, userDetailsService, tokenVersionCache, revokedSessionRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    // --------- helpers ---------
+    private Authentication authenticate(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/listings");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    @Test
+    @DisplayName("self-contained token: principal comes from the claims, no user lookup")
+    void selfContainedToken_noLookup() throws Exception {
+        // given
+        given(tokenVersionCache.isCurrent(7L, 3)).willReturn(true);
+
+        // when
+        Authentication auth = authenticate(provider.generateToken(JwtTokenProviderTest.user("lee")));
+
+        // then
+        assertThat(auth.getPrincipal()).isEqualTo(new AuthenticatedUser(7L, "lee", UserRole.USER));
+        assertThat(auth.getAuthorities()).extracting("authority").containsExactly("ROLE_USER");
+        then(userDetailsService).should(never()).loadUserByUsername(anyString());
+    }
+
+    @Test
+    @DisplayName("revoked token version (suspended / re-roled user): request stays anonymous")
+    void staleTokenVersion_rejected() throws Exception {
+        // given
+        given(tokenVersionCache.isCurrent(7L, 3)).willReturn(false);
+
+        // when
+        Authentication auth = authenticate(provider.generateToken(JwtTokenProviderTest.user("lee")));
+
+        // then
+        assertThat(auth).isNull();
+    }
+
+    @Test
+    @DisplayName("token of a revoked session (logout / refresh token reuse): request stays anonymous")
+    void revokedSession_rejected() throws Exception {
+        // given
+        given(tokenVersionCache.isCurrent(7L, 3)).willReturn(true);
+        given(revokedSessionRegistry.isRevoked("sid-1")).willReturn(true);
+
+        // when
+        Authentication auth = authenticate(provider.generateToken(JwtTokenProviderTest.user("lee"), "sid-1"));
+
+        // then
+        assertThat(auth).isNull();
+    }
+
+    @Test
+    @DisplayName("token without uid/role/sv (issued before): falls back to loading the user")
+    void legacyToken_loadsUser() throws Exception {
+        // given
+        String legacy = Jwts.builder()
+                .setSubject("lee")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(Base64.getDecoder().decode(JwtTokenProviderTest.SECRET)), SignatureAlgorithm.HS512)
+                .compact();
+        given(userDetailsService.loadUserByUsername("lee"))
+                .willReturn(User.withUsername("lee").password("x").roles("USER").build());
+
+        // when
+        Authentication auth = authenticate(legacy);
+
+        // then
+        assertThat(auth.getName()).isEqualTo("lee");
+        then(tokenVersionCache).shouldHaveNoInteractions();
+    }
+}
@@ -0,0 +1,98 @@
+package edu.uic.marketplace.security;
+
+import edu.uic.marketplace.model.user.User;
+import edu.uic.marketplace.model.user.UserRole;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtTokenProviderTest {
+
+    static final String SECRET = Base64.getEncoder().encodeToString(new byte[64]);
+
+    private JwtTokenProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        provider = provider(SECRET, 10_000);
+    }
+
+    // --------- helpers ---------
+    static JwtTokenProvider provider(String secret, long claimsCacheMaxSize) {
+        JwtTokenProvider provider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(provider, "secretKeyBase64", secret);
+        ReflectionTestUtils.setField(provider, "jwtExpirationInMs", 900_000L);
+        ReflectionTestUtils.setField(provider, "issuer", "uic-marketplace");
+        ReflectionTestUtils.setField(provider, "audience", "frontend");
+        ReflectionTestUtils.setField(provider, "claimsCacheMaxSize", claimsCacheMaxSize);
+        provider.init();
+        return provider;
+    }
+
+    static User user(String username) {
+        return User.builder().userId(7L).username(username).role(UserRole.USER).tokenVersion(3).build();
+    }
+
+    @Test
+    @DisplayName("parseClaims: verified once, then answered from the cache with the same claims")
+    void parseClaims_cachesVerifiedToken() {
+        // given
+        String token = provider.generateToken(user("lee"));
+
+        // when
+        Claims first = provider.parseClaims(token);
+        Claims second = provider.parseClaims(token);
+
+        // then
+        assertThat(first.getSubject()).isEqualTo("lee");
+        assertThat(second).isSameAs(first);
+        assertThat(provider.getUsernameFromJWT(token)).isEqualTo("lee");
+    }
+
+    @Test
+    @DisplayName("generateToken: carries user id, role and token version")
+    void generateToken_selfContainedClaims() {
+        // when
+        Claims claims = provider.parseClaims(provider.generateToken(user("lee")));
+
+        // then
+        assertThat(((Number) claims.get(JwtTokenProvider.CLAIM_USER_ID)).longValue()).isEqualTo(7L);
+        assertThat(claims.get(JwtTokenProvider.CLAIM_ROLE)).isEqualTo("USER");
+        assertThat(((Number) claims.get(JwtTokenProvider.CLAIM_TOKEN_VERSION)).intValue()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("verify: tampered, foreign-key or empty tokens are rejected and never cached")
+    void verify_rejectsInvalidTokens() {
+        // given
+        String token = provider.generateToken(user("lee"));
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+        byte[] otherKey = new byte[64];
+        otherKey[0] = 1;
+        String foreign = provider(Base64.getEncoder().encodeToString(otherKey), 10).generateToken(user("lee"));
+
+        // when / then
+        assertThat(provider.verify(token)).isPresent();
+        assertThat(provider.verify(tampered)).isEmpty();
+        assertThat(provider.verify(foreign)).isEmpty();
+        assertThat(provider.verify("")).isEmpty();
+        assertThat(provider.validateToken(tampered)).isFalse();
+        assertThatThrownBy(() -> provider.parseClaims(foreign)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    @DisplayName("init: a secret shorter than 64 bytes is refused")
+    void init_shortSecret() {
+        String shortSecret = Base64.getEncoder().encodeToString(new byte[32]);
+
+        assertThatThrownBy(() -> provider(shortSecret, 10)).isInstanceOf(IllegalStateException.class);
+    }
+}
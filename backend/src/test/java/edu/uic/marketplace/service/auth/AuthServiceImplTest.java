@@ -3,7 +3,9 @@ package edu.uic.marketplace.service.auth;
 import edu.uic.marketplace.dto.request.auth.LoginRequest;
 import edu.uic.marketplace.dto.request.auth.SignupRequest;
 import edu.uic.marketplace.dto.response.auth.LoginResponse;
+import edu.uic.marketplace.dto.response.auth.TokenResponse;
 import edu.uic.marketplace.dto.response.user.UserResponse;
+import edu.uic.marketplace.exception.auth.InvalidRefreshTokenException;
 import edu.uic.marketplace.exception.auth.UserNotFoundException;
 import edu.uic.marketplace.model.user.User;
 import edu.uic.marketplace.model.user.UserRole;
@@ -14,6 +16,7 @@ import edu.uic.marketplace.repository.verification.PasswordResetRepository;
 import edu.uic.marketplace.security.JwtTokenProvider;
 import edu.uic.marketplace.service.email.EmailService;
 import edu.uic.marketplace.service.user.ProfileService;
+import edu.uic.marketplace.service.user.UserSnapshotCache;
 import edu.uic.marketplace.validator.auth.AuthValidator;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -39,6 +42,8 @@ class AuthServiceImplTest {
     @Mock private EmailService emailService;
     @Mock private AuthValidator authValidator;
     @Mock private ProfileService profileService;
+    @Mock private UserSnapshotCache userSnapshotCache;
+    @Mock private RefreshTokenService refreshTokenService;
 
     @InjectMocks
     private AuthServiceImpl authService;
@@ -166,9 +171,9 @@ class AuthServiceImplTest {
             User user = userEntity("lee", "lee@example.com", "ENC", UserStatus.ACTIVE);
 
             when(authValidator.validateLogin("lee", "pw1234")).thenReturn(user);
-            when(jwtTokenProvider.generateToken("lee"))
-                    .thenReturn("ATOKEN")
-                    .thenReturn("RTOKEN");
+            when(jwtTokenProvider.generateToken(eq(user), anyString())).thenReturn("ATOKEN");
+            when(refreshTokenService.issue(eq(user), anyString()))
+                    .thenAnswer(inv -> new IssuedRefreshToken("RTOKEN", inv.getArgument(1), user));
             when(jwtTokenProvider.getJwtExpirationInMs()).thenReturn(900_000L); // 15 minutes
 
             // when
@@ -182,7 +187,10 @@ class AuthServiceImplTest {
             assertThat(res.getUser()).extracting(UserResponse::getUsername).isEqualTo("lee");
 
             verify(authValidator).validateLogin("lee", "pw1234");
-            verify(jwtTokenProvider, times(2)).generateToken("lee");
+            // access and refresh token belong to the same new session
+            ArgumentCaptor<String> sessionId = ArgumentCaptor.forClass(String.class);
+            verify(jwtTokenProvider).generateToken(eq(user), sessionId.capture());
+            verify(refreshTokenService).issue(user, sessionId.getValue());
             verify(jwtTokenProvider).getJwtExpirationInMs();
 
             // 🔥 check repository update instead of entity field
@@ -206,7 +214,7 @@ class AuthServiceImplTest {
                     .isInstanceOf(UserNotFoundException.class)
                     .hasMessageContaining("Invalid email/username or password");
 
-            verify(jwtTokenProvider, never()).generateToken(anyString());
+            verify(jwtTokenProvider, never()).generateToken(any(User.class), anyString());
             verify(userRepository, never()).updateLastLoginAt(anyLong(), any());
         }
 
@@ -228,8 +236,61 @@ class AuthServiceImplTest {
                     .isInstanceOf(IllegalStateException.class)
                     .hasMessageContaining("Email verification required");
 
-            verify(jwtTokenProvider, never()).generateToken(anyString());
+            verify(jwtTokenProvider, never()).generateToken(any(User.class), anyString());
             verify(userRepository, never()).updateLastLoginAt(anyLong(), any());
         }
     }
+
+    /* ===================== Refresh / Logout Tests ===================== */
+
+    @Nested
+    @DisplayName("refreshToken() / logout()")
+    class RefreshTests {
+
+        @Test
+        @DisplayName("Success: rotates the refresh token and issues an access token for the same session")
+        void refresh_success() {
+
+            // given
+            User user = userEntity("lee", "lee@example.com", "ENC", UserStatus.ACTIVE);
+            when(refreshTokenService.rotate("RTOKEN")).thenReturn(new IssuedRefreshToken("RTOKEN2", "sid-1", user));
+            when(jwtTokenProvider.generateToken(user, "sid-1")).thenReturn("ATOKEN2");
+            when(jwtTokenProvider.getJwtExpirationInMs()).thenReturn(900_000L);
+
+            // when
+            TokenResponse res = authService.refreshToken("RTOKEN");
+
+            // then
+            assertThat(res.getAccessToken()).isEqualTo("ATOKEN2");
+            assertThat(res.getRefreshToken()).isEqualTo("RTOKEN2");
+            assertThat(res.getTokenType()).isEqualTo("Bearer");
+            assertThat(res.getExpiresIn()).isEqualTo(900);
+        }
+
+        @Test
+        @DisplayName("Fail: rejected refresh token → no access token issued")
+        void refresh_rejected() {
+
+            // given
+            when(refreshTokenService.rotate("SPENT"))
+                    .thenThrow(new InvalidRefreshTokenException("Refresh token has been revoked"));
+
+            // when / then
+            assertThatThrownBy(() -> authService.refreshToken("SPENT"))
+                    .isInstanceOf(InvalidRefreshTokenException.class);
+
+            verify(jwtTokenProvider, never()).generateToken(any(User.class), anyString());
+        }
+
+        @Test
+        @DisplayName("Logout: revokes the session of the refresh token")
+        void logout_revokes() {
+
+            // when
+            authService.logout("RTOKEN");
+
+            // then
+            verify(refreshTokenService).revoke("RTOKEN");
+        }
+    }
 }
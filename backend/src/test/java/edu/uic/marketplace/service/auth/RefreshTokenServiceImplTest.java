@@ -0,0 +1,172 @@
+package edu.uic.marketplace.service.auth;
+
+import edu.uic.marketplace.exception.auth.InvalidRefreshTokenException;
+import edu.uic.marketplace.model.auth.RefreshToken;
+import edu.uic.marketplace.model.user.User;
+import edu.uic.marketplace.model.user.UserRole;
+import edu.uic.marketplace.model.user.UserStatus;
+import edu.uic.marketplace.repository.auth.RefreshTokenRepository;
+import edu.uic.marketplace.security.JwtTokenProvider;
+import edu.uic.marketplace.service.user.UserSnapshot;
+import edu.uic.marketplace.service.user.UserSnapshotCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+
+@ExtendWith(MockitoExtension.class)
+class RefreshTokenServiceImplTest {
+
+    @Mock private RefreshTokenRepository refreshTokenRepository;
+    @Mock private RevokedSessionRegistry revokedSessionRegistry;
+    @Mock private UserSnapshotCache userSnapshotCache;
+    @Mock private JwtTokenProvider jwtTokenProvider;
+
+    private RefreshTokenServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        service = new RefreshTokenServiceImpl(
+                refreshTokenRepository, revokedSessionRegistry, userSnapshotCache, jwtTokenProvider, 604800);
+    }
+
+    // --------- helpers ---------
+    private static User user(UserStatus status) {
+        return User.builder().userId(1L).publicId("pub-1").username("lee")
+                .role(UserRole.USER).status(status).tokenVersion(0).build();
+    }
+
+    private static RefreshToken token(String raw, User user, Instant expiresAt) {
+        return RefreshToken.builder()
+                .tokenHash(RefreshTokenServiceImpl.hash(raw))
+                .user(user)
+                .familyId("fam-1")
+                .expiresAt(expiresAt)
+                .build();
+    }
+
+    private void givenStored(RefreshToken token) {
+        given(refreshTokenRepository.findByTokenHashForUpdate(token.getTokenHash())).willReturn(Optional.of(token));
+    }
+
+    @Test
+    @DisplayName("issue: the client gets a random token, only its SHA-256 is stored")
+    void issue_storesHashOnly() {
+        // when
+        IssuedRefreshToken issued = service.issue(user(UserStatus.ACTIVE), "fam-1");
+
+        // then
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        then(refreshTokenRepository).should().save(saved.capture());
+        assertThat(saved.getValue().getTokenHash())
+                .isEqualTo(RefreshTokenServiceImpl.hash(issued.token()))
+                .isNotEqualTo(issued.token())
+                .hasSize(64);
+        assertThat(saved.getValue().getFamilyId()).isEqualTo("fam-1");
+        assertThat(saved.getValue().getExpiresAt()).isAfter(Instant.now().plusSeconds(604000));
+        assertThat(service.issue(user(UserStatus.ACTIVE), "fam-1").token()).isNotEqualTo(issued.token());
+    }
+
+    @Test
+    @DisplayName("rotate: the token is spent and a successor is issued in the same family")
+    void rotate_issuesSuccessor() {
+        // given
+        User lee = user(UserStatus.ACTIVE);
+        RefreshToken current = token("raw-1", lee, Instant.now().plusSeconds(3600));
+        givenStored(current);
+        given(userSnapshotCache.findById(1L)).willReturn(Optional.of(UserSnapshot.of(lee)));
+
+        // when
+        IssuedRefreshToken next = service.rotate("raw-1");
+
+        // then
+        assertThat(current.getRotatedAt()).isNotNull();
+        assertThat(next.familyId()).isEqualTo("fam-1");
+        assertThat(next.user()).isSameAs(lee);
+        assertThat(next.token()).isNotEqualTo("raw-1");
+        then(refreshTokenRepository).should(never()).revokeFamily(anyString(), any());
+    }
+
+    @Test
+    @DisplayName("rotate: a spent token presented again revokes the whole family and its access tokens")
+    void rotate_reuseRevokesFamily() {
+        // given
+        RefreshToken spent = token("raw-1", user(UserStatus.ACTIVE), Instant.now().plusSeconds(3600));
+        spent.rotate();
+        givenStored(spent);
+        Instant deadline = Instant.now().plusSeconds(960);
+        given(jwtTokenProvider.accessTokenDeadline()).willReturn(deadline);
+
+        // when / then
+        assertThatThrownBy(() -> service.rotate("raw-1"))
+                .isInstanceOf(InvalidRefreshTokenException.class);
+        then(refreshTokenRepository).should().revokeFamily(eq("fam-1"), any(Instant.class));
+        then(revokedSessionRegistry).should().revoke("fam-1", deadline);
+        then(refreshTokenRepository).should(never()).save(any());
+    }
+
+    @Test
+    @DisplayName("rotate: expired or unknown tokens are rejected without issuing anything")
+    void rotate_expiredOrUnknown() {
+        // given
+        givenStored(token("raw-1", user(UserStatus.ACTIVE), Instant.now().minusSeconds(1)));
+        given(refreshTokenRepository.findByTokenHashForUpdate(RefreshTokenServiceImpl.hash("nope")))
+                .willReturn(Optional.empty());
+
+        // when / then
+        assertThatThrownBy(() -> service.rotate("raw-1"))
+                .isInstanceOf(InvalidRefreshTokenException.class)
+                .hasMessageContaining("expired");
+        assertThatThrownBy(() -> service.rotate("nope"))
+                .isInstanceOf(InvalidRefreshTokenException.class);
+        then(refreshTokenRepository).should(never()).save(any());
+    }
+
+    @Test
+    @DisplayName("rotate: a suspended user's session ends")
+    void rotate_inactiveUser() {
+        // given
+        User suspended = user(UserStatus.SUSPENDED);
+        givenStored(token("raw-1", suspended, Instant.now().plusSeconds(3600)));
+        given(userSnapshotCache.findById(1L)).willReturn(Optional.of(UserSnapshot.of(suspended)));
+
+        // when / then
+        assertThatThrownBy(() -> service.rotate("raw-1"))
+                .isInstanceOf(InvalidRefreshTokenException.class);
+        then(refreshTokenRepository).should().revokeFamily(eq("fam-1"), any(Instant.class));
+        then(refreshTokenRepository).should(never()).save(any());
+    }
+
+    @Test
+    @DisplayName("revokeAllForUser: every live family is revoked as a session")
+    void revokeAllForUser_revokesSessions() {
+        // given
+        Instant deadline = Instant.now().plusSeconds(960);
+        given(refreshTokenRepository.findLiveFamilyIds(eq(1L), any())).willReturn(List.of("fam-1", "fam-2"));
+        given(jwtTokenProvider.accessTokenDeadline()).willReturn(deadline);
+
+        // when
+        service.revokeAllForUser(1L);
+
+        // then
+        then(refreshTokenRepository).should().revokeAllForUser(eq(1L), any(Instant.class));
+        then(revokedSessionRegistry).should().revoke("fam-1", deadline);
+        then(revokedSessionRegistry).should().revoke("fam-2", deadline);
+    }
+}
@@ -0,0 +1,106 @@
+package edu.uic.marketplace.service.auth;
+
+import edu.uic.marketplace.model.auth.RevokedSession;
+import edu.uic.marketplace.repository.auth.RevokedSessionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
+
+@ExtendWith(MockitoExtension.class)
+class RevokedSessionRegistryTest {
+
+    @Mock private RevokedSessionRepository revokedSessionRepository;
+    @Mock private TransactionTemplate transactionTemplate;
+
+    private RevokedSessionRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new RevokedSessionRegistry(revokedSessionRepository, transactionTemplate, 1_000, 30_000);
+    }
+
+    // --------- helpers ---------
+    @SuppressWarnings("unchecked")
+    private void givenTransactionsRun() {
+        given(transactionTemplate.execute(any())).willAnswer(inv -> ((TransactionCallback<Object>) inv.getArgument(0)).doInTransaction(null));
+    }
+
+    @Test
+    @DisplayName("isRevoked: sessions never revoked are answered by the Bloom filter, no query")
+    void isRevoked_notRevoked_noQuery() {
+        // when
+        boolean revoked = registry.isRevoked("sid-1");
+
+        // then
+        assertThat(revoked).isFalse();
+        then(revokedSessionRepository).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @DisplayName("revoke: stored and visible on this instance right away")
+    void revoke_visibleImmediately() {
+        // given
+        Instant until = Instant.now().plusSeconds(900);
+        given(revokedSessionRepository.findById("sid-1")).willReturn(Optional.empty());
+        given(revokedSessionRepository.existsBySessionIdAndExpiresAtAfter(eq("sid-1"), any())).willReturn(true);
+
+        // when
+        registry.revoke("sid-1", until);
+
+        // then
+        then(revokedSessionRepository).should().save(any(RevokedSession.class));
+        assertThat(registry.isRevoked("sid-1")).isTrue();
+    }
+
+    @Test
+    @DisplayName("rebuild: sessions revoked elsewhere are picked up from the table")
+    void rebuild_loadsFromStore() {
+        // given
+        givenTransactionsRun();
+        given(revokedSessionRepository.findActiveSessionIds(any())).willReturn(List.of("sid-remote"));
+        given(revokedSessionRepository.existsBySessionIdAndExpiresAtAfter(eq("sid-remote"), any())).willReturn(true);
+
+        // when
+        registry.rebuild();
+
+        // then
+        then(revokedSessionRepository).should().deleteExpired(any(Instant.class));
+        assertThat(registry.isRevoked("sid-remote")).isTrue();
+        assertThat(registry.isRevoked("sid-other")).isFalse();
+        then(revokedSessionRepository).should(never()).existsBySessionIdAndExpiresAtAfter(eq("sid-other"), any());
+    }
+
+    @Test
+    @DisplayName("rebuild: a local revocation the load may have missed survives the swap")
+    void rebuild_keepsRecentLocalRevocations() {
+        // given
+        given(revokedSessionRepository.findById(anyString())).willReturn(Optional.empty());
+        registry.revoke("sid-local", Instant.now().plusSeconds(900));
+        givenTransactionsRun();
+        given(revokedSessionRepository.findActiveSessionIds(any())).willReturn(List.of());
+        given(revokedSessionRepository.existsBySessionIdAndExpiresAtAfter(eq("sid-local"), any())).willReturn(true);
+
+        // when
+        registry.rebuild();
+
+        // then
+        assertThat(registry.isRevoked("sid-local")).isTrue();
+    }
+}
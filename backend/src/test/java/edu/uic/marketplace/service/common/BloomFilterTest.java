@@ -0,0 +1,38 @@
+package edu.uic.marketplace.service.common;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BloomFilterTest {
+
+    @Test
+    @DisplayName("mightContain: every added value is found")
+    void noFalseNegatives() {
+        // given
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.put("session-" + i));
+
+        // when / then
+        assertThat(IntStream.range(0, 10_000).allMatch(i -> filter.mightContain("session-" + i))).isTrue();
+    }
+
+    @Test
+    @DisplayName("mightContain: false positives stay near the configured rate at the expected load")
+    void falsePositiveRate() {
+        // given
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.put("session-" + i));
+
+        // when
+        long falsePositives = IntStream.range(0, 100_000)
+                .filter(i -> filter.mightContain("other-" + i))
+                .count();
+
+        // then
+        assertThat(falsePositives / 100_000.0).isLessThan(0.02);
+    }
+}
@@ -0,0 +1,176 @@
+package edu.uic.marketplace.service.common;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ImageProcessorTest {
+
+    private final ImageProcessor processor = new ImageProcessor();
+
+    // --------- helpers ---------
+
+    /** 40x20 image: left half red, right half blue */
+    private static BufferedImage landscape() {
+        BufferedImage img = new BufferedImage(40, 20, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = img.createGraphics();
+        g.setColor(Color.RED);
+        g.fillRect(0, 0, 20, 20);
+        g.setColor(Color.BLUE);
+        g.fillRect(20, 0, 20, 20);
+        g.dispose();
+        return img;
+    }
+
+    private static byte[] jpeg(BufferedImage img) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(img, "jpeg", out);
+        return out.toByteArray();
+    }
+
+    /** Insert a big-endian EXIF APP1 segment with the given orientation right after SOI */
+    private static byte[] withOrientation(byte[] jpeg, int orientation) {
+        byte[] app1 = {
+                (byte) 0xFF, (byte) 0xE1, 0x00, 0x22,                 // APP1, length 34
+                'E', 'x', 'i', 'f', 0x00, 0x00,
+                'M', 'M', 0x00, 0x2A, 0x00, 0x00, 0x00, 0x08,         // TIFF header, IFD at 8
+                0x00, 0x01,                                           // 1 entry
+                0x01, 0x12, 0x00, 0x03, 0x00, 0x00, 0x00, 0x01,       // orientation, SHORT, count 1
+                0x00, (byte) orientation, 0x00, 0x00,
+                0x00, 0x00, 0x00, 0x00                                // next IFD
+        };
+        byte[] out = new byte[jpeg.length + app1.length];
+        out[0] = jpeg[0];
+        out[1] = jpeg[1];
+        System.arraycopy(app1, 0, out, 2, app1.length);
+        System.arraycopy(jpeg, 2, out, 2 + app1.length, jpeg.length - 2);
+        return out;
+    }
+
+    /** PNG signature + IHDR (8-bit RGB) with a valid CRC, no image data */
+    private static byte[] pngHeader(int width, int height) {
+        ByteBuffer ihdr = ByteBuffer.allocate(17).put("IHDR".getBytes(StandardCharsets.US_ASCII))
+                .putInt(width).putInt(height).put((byte) 8).put((byte) 2).put((byte) 0).put((byte) 0).put((byte) 0);
+        CRC32 crc = new CRC32();
+        crc.update(ihdr.array());
+        return ByteBuffer.allocate(8 + 4 + 17 + 4)
+                .put(new byte[]{(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'})
+                .putInt(13).put(ihdr.array()).putInt((int) crc.getValue())
+                .array();
+    }
+
+    private static boolean isRedish(int rgb) {
+        Color c = new Color(rgb);
+        return c.getRed() > 150 && c.getBlue() < 100;
+    }
+
+    // ====================================================================================
+
+    @Test
+    @DisplayName("readJpegOrientation: reads the EXIF tag, defaults to 1")
+    void readOrientation() throws IOException {
+        byte[] plain = jpeg(landscape());
+
+        assertThat(ImageProcessor.readJpegOrientation(plain)).isEqualTo(1);
+        assertThat(ImageProcessor.readJpegOrientation(withOrientation(plain, 6))).isEqualTo(6);
+        assertThat(ImageProcessor.readJpegOrientation(new byte[]{1, 2, 3})).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("decode: orientation 6 rotates 90 degrees clockwise (left side ends up on top)")
+    void decode_appliesOrientation() throws IOException {
+        BufferedImage decoded = processor.decode(withOrientation(jpeg(landscape()), 6));
+
+        assertThat(decoded.getWidth()).isEqualTo(20);
+        assertThat(decoded.getHeight()).isEqualTo(40);
+        assertThat(isRedish(decoded.getRGB(10, 5))).isTrue();
+        assertThat(isRedish(decoded.getRGB(10, 35))).isFalse();
+    }
+
+    @Test
+    @DisplayName("resizeToWidth: keeps aspect ratio and never upscales")
+    void resize() {
+        BufferedImage big = new BufferedImage(2000, 1000, BufferedImage.TYPE_INT_RGB);
+
+        BufferedImage small = processor.resizeToWidth(big, 200);
+        assertThat(small.getWidth()).isEqualTo(200);
+        assertThat(small.getHeight()).isEqualTo(100);
+
+        assertThat(processor.resizeToWidth(small, 600)).isSameAs(small);
+    }
+
+    @Test
+    @DisplayName("encodeJpeg: output is a JPEG without the EXIF segment")
+    void encode_stripsExif() throws IOException {
+        byte[] encoded = processor.encodeJpeg(processor.decode(withOrientation(jpeg(landscape()), 6)), 0.8f);
+
+        assertThat(ImageIO.read(new ByteArrayInputStream(encoded))).isNotNull();
+        assertThat(ImageProcessor.readJpegOrientation(encoded)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("decode: non-image bytes => IllegalArgumentException")
+    void decode_notAnImage() {
+        assertThatThrownBy(() -> processor.decode("hello".getBytes()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("decode: oversize dimensions are refused from the header, before any pixels are allocated")
+    void decode_tooLarge() {
+        // a few dozen bytes declaring 20000x20000 (1.6 GB as RGB)
+        byte[] bomb = pngHeader(20_000, 20_000);
+
+        assertThatThrownBy(() -> processor.decode(bomb))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("too large");
+        assertThatThrownBy(() -> processor.decodeDownscaled(bomb, 64))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("decodeDownscaled: subsamples large images and applies orientation")
+    void decodeDownscaled() throws IOException {
+        BufferedImage big = new BufferedImage(400, 200, BufferedImage.TYPE_INT_RGB);
+
+        BufferedImage small = processor.decodeDownscaled(withOrientation(jpeg(big), 6), 50);
+
+        assertThat(small.getWidth()).isEqualTo(25);
+        assertThat(small.getHeight()).isEqualTo(50);
+    }
+
+    @Test
+    @DisplayName("blurHash: 4x3 components, average color of a solid image in the DC term")
+    void blurHash_solidColor() {
+        BufferedImage red = new BufferedImage(200, 100, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = red.createGraphics();
+        g.setColor(new Color(255, 0, 0));
+        g.fillRect(0, 0, 200, 100);
+        g.dispose();
+
+        String hash = processor.blurHash(red);
+
+        assertThat(hash).hasSize(28);
+        assertThat(hash.charAt(0)).isEqualTo('L'); // (4-1) + (3-1) * 9 = 21
+        assertThat(decode83(hash.substring(2, 6))).isEqualTo(0xFF0000);
+    }
+
+    private static int decode83(String s) {
+        String chars = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz#$%*+,-.:;=?@[]^_{|}~";
+        int value = 0;
+        for (char c : s.toCharArray()) value = value * 83 + chars.indexOf(c);
+        return value;
+    }
+}
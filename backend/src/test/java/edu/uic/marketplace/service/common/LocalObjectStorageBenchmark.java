@@ -0,0 +1,94 @@
+package edu.uic.marketplace.service.common;
+
+import edu.uic.marketplace.service.upload.StoredObjectService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Upload/delete throughput of S3Service on the local disk backend - no AWS, no Docker.
+ * <p>
+ * Not part of {@code test}; run with {@code ./gradlew benchmark}. Reference counting is an
+ * in-memory stand-in, so the numbers are hashing + file I/O only.
+ */
+@Tag("benchmark")
+class LocalObjectStorageBenchmark {
+
+    private static final int KB = 1024;
+
+    @TempDir Path root;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void uploadDeleteThroughput() throws Exception {
+
+        S3Service s3Service = new S3Service(new LocalObjectStorage(root, "http://localhost:8080"), new InMemoryRefCounts(),
+                mock(ObjectProvider.class));
+
+        System.out.printf("%-8s %8s %14s %14s%n", "size", "objects", "uploads/s", "deletes/s");
+
+        for (int sizeKb : new int[]{64, 512, 4096}) {
+            int count = Math.max(50, 32 * KB / sizeKb);
+            List<String> urls = new ArrayList<>(count);
+
+            long start = System.nanoTime();
+            for (int i = 0; i < count; i++) {
+                urls.add(s3Service.uploadBytes(content(sizeKb * KB, i), "image/jpeg", "listings/", "jpg"));
+            }
+            double uploadSeconds = (System.nanoTime() - start) / 1e9;
+
+            start = System.nanoTime();
+            s3Service.deleteFiles(urls);
+            double deleteSeconds = (System.nanoTime() - start) / 1e9;
+
+            System.out.printf("%-8s %8d %14.0f %14.0f%n", sizeKb + "KB", count, count / uploadSeconds, count / deleteSeconds);
+        }
+
+        assertThat(root.resolve("listings")).isEmptyDirectory();
+    }
+
+    // ------------------------------------------------------------------
+
+    /** Distinct bytes per object, so content addressing doesn't dedupe them */
+    private static byte[] content(int size, int seed) {
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        while (buffer.remaining() >= Integer.BYTES) {
+            buffer.putInt(seed * 31 + buffer.position());
+        }
+        return buffer.array();
+    }
+
+    private static final class InMemoryRefCounts implements StoredObjectService {
+
+        private final Map<String, Integer> counts = new HashMap<>();
+
+        @Override
+        public int acquire(String key) {
+            return counts.merge(key, 1, Integer::sum);
+        }
+
+        @Override
+        public void release(List<String> keys, Consumer<List<String>> deleteObjects) {
+            List<String> unreferenced = new ArrayList<>();
+            for (String key : keys) {
+                if (counts.merge(key, -1, Integer::sum) <= 0) {
+                    counts.remove(key);
+                    unreferenced.add(key);
+                }
+            }
+            if (!unreferenced.isEmpty()) deleteObjects.accept(unreferenced);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package edu.uic.marketplace.service.common;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LocalObjectStorageTest {
+
+    @TempDir Path root;
+
+    private LocalObjectStorage storage;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        storage = new LocalObjectStorage(root, "http://localhost:8080");
+    }
+
+    // --------- helpers ---------
+    private void put(String key, String content) throws Exception {
+        byte[] bytes = content.getBytes();
+        storage.put(key, new ByteArrayInputStream(bytes), bytes.length, "image/jpeg", null);
+    }
+
+    private List<String> keys(String prefix) {
+        List<String> keys = new ArrayList<>();
+        storage.list(prefix).forEachRemaining(object -> keys.add(object.key()));
+        return keys;
+    }
+
+    @Test
+    @DisplayName("put/open: bytes and content type round-trip")
+    void put_open() throws Exception {
+        // when
+        put("listings/variants/a.jpg", "hello");
+
+        // then
+        assertThat(storage.exists("listings/variants/a.jpg")).isTrue();
+        try (InputStream in = storage.open("listings/variants/a.jpg")) {
+            assertThat(in.readAllBytes()).isEqualTo("hello".getBytes());
+        }
+        assertThat(storage.contentType("listings/variants/a.jpg")).isEqualTo("image/jpeg");
+    }
+
+    @Test
+    @DisplayName("put: a body shorter or longer than the declared size is rejected and nothing is stored")
+    void put_sizeMismatch() {
+        assertThatThrownBy(() -> storage.put("a.jpg", new ByteArrayInputStream(new byte[3]), 4, "image/jpeg", null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> storage.put("a.jpg", new ByteArrayInputStream(new byte[5]), 4, "image/jpeg", null))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(storage.exists("a.jpg")).isFalse();
+        assertThat(keys("")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("put(Path): copies a file already on disk")
+    void put_file() throws Exception {
+        Path source = Files.write(root.resolve("source.bin"), new byte[]{1, 2, 3});
+
+        storage.put("banners/b.png", source, "image/png");
+
+        assertThat(Files.readAllBytes(storage.path("banners/b.png"))).containsExactly(1, 2, 3);
+        assertThat(storage.contentType("banners/b.png")).isEqualTo("image/png");
+    }
+
+    @Test
+    @DisplayName("list: keys under the prefix in key order, without sidecar files")
+    void list_sorted() throws Exception {
+        put("listings/b.jpg", "b");
+        put("listings/a.jpg", "a");
+        put("listings/variants/c.jpg", "c");
+        put("avatars/d.jpg", "d");
+
+        assertThat(keys("listings/")).containsExactly("listings/a.jpg", "listings/b.jpg", "listings/variants/c.jpg");
+        assertThat(keys("listings/variants/")).containsExactly("listings/variants/c.jpg");
+        assertThat(keys("banners/")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("delete: removes objects, ignores missing keys")
+    void delete() throws Exception {
+        put("avatars/a.jpg", "a");
+
+        storage.delete(List.of("avatars/a.jpg", "avatars/missing.jpg"));
+
+        assertThat(storage.exists("avatars/a.jpg")).isFalse();
+        assertThat(keys("avatars/")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("publicUrl/keyOf: URLs point at the local controller and map back to keys")
+    void urls() {
+        String url = storage.publicUrl("avatars/a.jpg");
+
+        assertThat(url).isEqualTo("http://localhost:8080/api/uploads/local/avatars/a.jpg");
+        assertThat(storage.keyOf(url)).isEqualTo("avatars/a.jpg");
+        assertThat(storage.keyOf("https://bucket.s3.amazonaws.com/avatars/a.jpg")).isNull();
+    }
+
+    @Test
+    @DisplayName("keys escaping the root are rejected")
+    void pathTraversal() {
+        assertThatThrownBy(() -> storage.open("../secret"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
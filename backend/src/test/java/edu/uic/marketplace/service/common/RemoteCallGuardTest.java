@@ -0,0 +1,146 @@
+package edu.uic.marketplace.service.common;
+
+import edu.uic.marketplace.exception.common.DependencyUnavailableException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RemoteCallGuardTest {
+
+    private CircuitBreaker circuitBreaker;
+    private RemoteCallGuard guard;
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        circuitBreaker = CircuitBreaker.of("test", CircuitBreakerConfig.custom()
+                .slidingWindowSize(4)
+                .minimumNumberOfCalls(4)
+                .failureRateThreshold(50)
+                .waitDurationInOpenState(Duration.ofMillis(50))
+                .permittedNumberOfCallsInHalfOpenState(2)
+                .build());
+        guard = new RemoteCallGuard(Bulkhead.of("test", BulkheadConfig.custom()
+                .maxConcurrentCalls(1)
+                .maxWaitDuration(Duration.ZERO)
+                .build()), circuitBreaker);
+    }
+
+    // --------- helpers ---------
+    private String failing() throws IOException {
+        calls.incrementAndGet();
+        throw new IOException("connection reset");
+    }
+
+    private String ok() {
+        calls.incrementAndGet();
+        return "ok";
+    }
+
+    private void failTimes(int n) {
+        for (int i = 0; i < n; i++) {
+            assertThatThrownBy(() -> guard.call(this::failing)).isInstanceOf(IOException.class);
+        }
+    }
+
+    @Test
+    @DisplayName("call: results and checked exceptions pass through unchanged")
+    void call_passesThrough() throws Exception {
+        assertThat(guard.call(this::ok)).isEqualTo("ok");
+        assertThatThrownBy(() -> guard.call(this::failing))
+                .isInstanceOf(IOException.class)
+                .hasMessage("connection reset");
+    }
+
+    @Test
+    @DisplayName("circuit opens once the failure rate is reached and then rejects without calling")
+    void circuit_opens_rejectsWithoutCalling() {
+        // given
+        failTimes(4);
+        calls.set(0);
+
+        // when / then
+        assertThat(guard.isOpen()).isTrue();
+        assertThatThrownBy(() -> guard.call(this::ok))
+                .isInstanceOf(DependencyUnavailableException.class)
+                .hasMessageContaining("circuit open")
+                .extracting("statusCode").isEqualTo(503);
+        assertThat(calls).hasValue(0);
+    }
+
+    @Test
+    @DisplayName("half-open: successful probes close the circuit again")
+    void circuit_halfOpen_probesClose() throws Exception {
+        // given
+        failTimes(4);
+        Thread.sleep(80);
+
+        // when
+        guard.call(this::ok);
+        guard.call(this::ok);
+
+        // then
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(guard.call(this::ok)).isEqualTo("ok");
+    }
+
+    @Test
+    @DisplayName("half-open: a failing probe reopens the circuit")
+    void circuit_halfOpen_failedProbeReopens() throws Exception {
+        // given
+        failTimes(4);
+        Thread.sleep(80);
+
+        // when
+        guard.call(this::ok);
+        failTimes(1);
+
+        // then
+        assertThat(guard.isOpen()).isTrue();
+    }
+
+    @Test
+    @DisplayName("bulkhead: a call beyond the concurrency limit fails fast")
+    void bulkhead_full_rejects() throws Exception {
+        // given: one call parked inside the guard
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> inFlight = executor.submit(() -> guard.call(() -> {
+                entered.countDown();
+                release.await();
+                return "done";
+            }));
+            assertThat(entered.await(1, TimeUnit.SECONDS)).isTrue();
+
+            // when / then
+            assertThatThrownBy(() -> guard.call(this::ok))
+                    .isInstanceOf(DependencyUnavailableException.class)
+                    .hasMessageContaining("too many concurrent calls");
+            assertThat(calls).hasValue(0);
+
+            release.countDown();
+            assertThat(inFlight.get(1, TimeUnit.SECONDS)).isEqualTo("done");
+            assertThat(guard.call(this::ok)).isEqualTo("ok");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
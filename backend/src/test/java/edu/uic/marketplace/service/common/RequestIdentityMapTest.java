@@ -0,0 +1,142 @@
+package edu.uic.marketplace.service.common;
+
+import edu.uic.marketplace.model.user.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+class RequestIdentityMapTest {
+
+    @Mock private EntityManager entityManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RequestIdentityMap identityMap;
+    private ServletRequestAttributes request;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        identityMap = new RequestIdentityMap(entityManager, meterRegistry);
+        request = new ServletRequestAttributes(new MockHttpServletRequest());
+        RequestContextHolder.setRequestAttributes(request);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    // --------- helpers ---------
+    private static Supplier<Optional<User>> loader(User user, AtomicInteger calls) {
+        return () -> {
+            calls.incrementAndGet();
+            return Optional.ofNullable(user);
+        };
+    }
+
+    @Test
+    @DisplayName("find: one DB lookup per key per request, later resolutions are hits")
+    void find_loadsOncePerRequest() {
+        // given
+        User lee = User.builder().userId(1L).username("lee").build();
+        AtomicInteger calls = new AtomicInteger();
+
+        // when
+        User first = identityMap.find("User#username:lee", User.class, loader(lee, calls)).orElseThrow();
+        User second = identityMap.find("User#username:lee", User.class, loader(lee, calls)).orElseThrow();
+        identityMap.put("User#id:1", first);
+        User byId = identityMap.find("User#id:1", User.class, loader(lee, calls)).orElseThrow();
+
+        // then
+        assertThat(second).isSameAs(first);
+        assertThat(byId).isSameAs(first);
+        assertThat(calls).hasValue(1);
+        assertThat(identityMap.lookups()).isEqualTo(1);
+        assertThat(identityMap.hits()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("find: misses are not remembered (the next resolution queries again)")
+    void find_missNotRemembered() {
+        // given
+        AtomicInteger calls = new AtomicInteger();
+
+        // when
+        identityMap.find("User#username:ghost", User.class, loader(null, calls));
+        identityMap.find("User#username:ghost", User.class, loader(null, calls));
+
+        // then
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("find: inside a transaction an entity the persistence context no longer manages is reloaded")
+    void find_detachedInTransaction_reloads() {
+        // given
+        User lee = User.builder().userId(1L).username("lee").build();
+        AtomicInteger calls = new AtomicInteger();
+        identityMap.find("User#username:lee", User.class, loader(lee, calls));
+
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        given(entityManager.contains(lee)).willReturn(false);
+
+        // when
+        identityMap.find("User#username:lee", User.class, loader(lee, calls));
+
+        // then
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("find: outside a web request nothing is remembered")
+    void find_noRequest() {
+        // given
+        RequestContextHolder.resetRequestAttributes();
+        User lee = User.builder().userId(1L).username("lee").build();
+        AtomicInteger calls = new AtomicInteger();
+
+        // when
+        identityMap.find("User#username:lee", User.class, loader(lee, calls));
+        identityMap.find("User#username:lee", User.class, loader(lee, calls));
+
+        // then
+        assertThat(calls).hasValue(2);
+        assertThat(identityMap.lookups()).isZero();
+    }
+
+    @Test
+    @DisplayName("request end: lookups and hits are recorded per request")
+    void requestCompleted_recordsCounters() {
+        // given
+        User lee = User.builder().userId(1L).username("lee").build();
+        AtomicInteger calls = new AtomicInteger();
+        identityMap.find("User#username:lee", User.class, loader(lee, calls));
+        identityMap.find("User#username:lee", User.class, loader(lee, calls));
+
+        // when
+        request.requestCompleted();
+
+        // then
+        assertThat(meterRegistry.get("request.identity-map.lookups").summary().totalAmount()).isEqualTo(1);
+        assertThat(meterRegistry.get("request.identity-map.hits").summary().totalAmount()).isEqualTo(1);
+    }
+}
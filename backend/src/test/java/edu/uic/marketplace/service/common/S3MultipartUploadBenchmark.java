@@ -0,0 +1,147 @@
+package edu.uic.marketplace.service.common;
+
+import com.amazonaws.auth.AWSStaticCredentialsProvider;
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.amazonaws.client.builder.AwsClientBuilder;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.AmazonS3ClientBuilder;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PutObjectRequest;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Peak heap per upload, single PUT vs. pooled multipart, against MinIO as a local S3 stand-in.
+ * <p>
+ * Not part of {@code test}; run with {@code ./gradlew benchmark} (needs Docker).
+ * Peak heap is the max "used" across heap pools while one upload runs, minus the baseline
+ * right after a GC - coarse, but it shows whether memory grows with the object size.
+ */
+@Tag("benchmark")
+@Testcontainers(disabledWithoutDocker = true)
+class S3MultipartUploadBenchmark {
+
+    private static final int MB = 1024 * 1024;
+    private static final String BUCKET = "benchmark";
+
+    @Container
+    private static final GenericContainer<?> MINIO = new GenericContainer<>("minio/minio:RELEASE.2024-10-13T13-34-11Z")
+            .withCommand("server", "/data")
+            .withEnv("MINIO_ROOT_USER", "minio")
+            .withEnv("MINIO_ROOT_PASSWORD", "minio-secret")
+            .withExposedPorts(9000)
+            .waitingFor(Wait.forHttp("/minio/health/ready").forPort(9000));
+
+    private static AmazonS3 amazonS3;
+
+    @BeforeAll
+    static void setUp() {
+        amazonS3 = AmazonS3ClientBuilder.standard()
+                .withEndpointConfiguration(new AwsClientBuilder.EndpointConfiguration(
+                        "http://" + MINIO.getHost() + ":" + MINIO.getMappedPort(9000), "us-east-1"))
+                .withPathStyleAccessEnabled(true)
+                .withCredentials(new AWSStaticCredentialsProvider(new BasicAWSCredentials("minio", "minio-secret")))
+                .build();
+        amazonS3.createBucket(BUCKET);
+    }
+
+    @Test
+    void peakHeapPerUpload() throws IOException {
+
+        S3MultipartUploader uploader = new S3MultipartUploader(amazonS3,
+                DataSize.ofMegabytes(8), DataSize.ofMegabytes(8), 4, 8);
+
+        System.out.printf("%-10s %-10s %14s %12s%n", "size", "path", "peak heap MB", "time ms");
+
+        for (int sizeMb : new int[]{16, 64, 256}) {
+            long size = (long) sizeMb * MB;
+
+            Result single = measure(() -> {
+                ObjectMetadata metadata = new ObjectMetadata();
+                metadata.setContentLength(size);
+                amazonS3.putObject(new PutObjectRequest(BUCKET, "single-" + sizeMb, new PatternStream(size), metadata));
+            });
+            Result multipart = measure(() ->
+                    uploader.upload(BUCKET, "multipart-" + sizeMb, new ObjectMetadata(), new PatternStream(size)));
+
+            System.out.printf("%-10s %-10s %14.1f %12d%n", sizeMb + "MB", "put", single.peakHeapMb(), single.millis());
+            System.out.printf("%-10s %-10s %14.1f %12d%n", sizeMb + "MB", "multipart", multipart.peakHeapMb(), multipart.millis());
+
+            assertThat(amazonS3.getObjectMetadata(BUCKET, "multipart-" + sizeMb).getContentLength()).isEqualTo(size);
+        }
+
+        // part data is bounded by the pool whatever the object size
+        assertThat(uploader.buffers().allocatedBuffers()).isLessThanOrEqualTo(8);
+        System.out.printf("part buffers allocated: %d x %dMB, peak in use: %d%n",
+                uploader.buffers().allocatedBuffers(), uploader.buffers().bufferSize() / MB,
+                uploader.buffers().peakLeasedBuffers());
+    }
+
+    // ------------------------------------------------------------------
+
+    private interface Upload {
+        void run() throws IOException;
+    }
+
+    private record Result(double peakHeapMb, long millis) {
+    }
+
+    private static Result measure(Upload upload) throws IOException {
+
+        List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(p -> p.getType() == MemoryType.HEAP)
+                .toList();
+
+        System.gc();
+        long baseline = heapPools.stream().mapToLong(p -> p.getUsage().getUsed()).sum();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+
+        long start = System.nanoTime();
+        upload.run();
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        long peak = heapPools.stream().mapToLong(p -> p.getPeakUsage().getUsed()).sum();
+        return new Result(Math.max(0, peak - baseline) / (double) MB, millis);
+    }
+
+    /** Deterministic content without holding the object in memory */
+    private static final class PatternStream extends InputStream {
+
+        private final long size;
+        private long position;
+
+        PatternStream(long size) {
+            this.size = size;
+        }
+
+        @Override
+        public int read() {
+            return position < size ? (int) (position++ * 31 & 0xFF) : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (position >= size) return -1;
+            int n = (int) Math.min(len, size - position);
+            for (int i = 0; i < n; i++) {
+                b[off + i] = (byte) (position++ * 31);
+            }
+            return n;
+        }
+    }
+}
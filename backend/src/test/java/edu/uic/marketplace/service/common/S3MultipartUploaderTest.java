@@ -0,0 +1,161 @@
+package edu.uic.marketplace.service.common;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class S3MultipartUploaderTest {
+
+    private static final int MB = 1024 * 1024;
+
+    @Mock private AmazonS3 amazonS3;
+
+    private S3MultipartUploader uploader;
+
+    @BeforeEach
+    void setUp() {
+        uploader = new S3MultipartUploader(amazonS3, DataSize.ofMegabytes(8), DataSize.ofMegabytes(5), 2, 3);
+
+        InitiateMultipartUploadResult init = new InitiateMultipartUploadResult();
+        init.setUploadId("upload-1");
+        given(amazonS3.initiateMultipartUpload(any())).willReturn(init);
+    }
+
+    // --------- helpers ---------
+    private static InputStream content(int size) {
+        return new ByteArrayInputStream(new byte[size]);
+    }
+
+    /** Answers uploadPart with an ETag derived from the part number, tracking concurrency */
+    private AtomicInteger answerParts(AtomicInteger maxInFlight) {
+        AtomicInteger inFlight = new AtomicInteger();
+        willAnswer(invocation -> {
+            UploadPartRequest request = invocation.getArgument(0);
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            request.getInputStream().readAllBytes();
+            Thread.sleep(10);
+            inFlight.decrementAndGet();
+
+            UploadPartResult result = new UploadPartResult();
+            result.setPartNumber(request.getPartNumber());
+            result.setETag("etag-" + request.getPartNumber());
+            return result;
+        }).given(amazonS3).uploadPart(any());
+        return inFlight;
+    }
+
+    // ====================================================================================
+
+    @Test
+    @DisplayName("shouldUse: only at or above the threshold")
+    void shouldUse() {
+        assertThat(uploader.shouldUse(8L * MB - 1)).isFalse();
+        assertThat(uploader.shouldUse(8L * MB)).isTrue();
+    }
+
+    @Test
+    @DisplayName("upload: splits into part-size chunks and completes with ETags in part order")
+    void upload_completesInOrder() throws IOException {
+        // given
+        answerParts(new AtomicInteger());
+
+        // when
+        uploader.upload("bucket", "big.jpg", new ObjectMetadata(), content(12 * MB));
+
+        // then
+        ArgumentCaptor<UploadPartRequest> parts = ArgumentCaptor.forClass(UploadPartRequest.class);
+        then(amazonS3).should(times(3)).uploadPart(parts.capture());
+        assertThat(parts.getAllValues()).extracting(UploadPartRequest::getPartSize)
+                .containsExactlyInAnyOrder(5L * MB, 5L * MB, 2L * MB);
+
+        ArgumentCaptor<CompleteMultipartUploadRequest> complete = ArgumentCaptor.forClass(CompleteMultipartUploadRequest.class);
+        then(amazonS3).should().completeMultipartUpload(complete.capture());
+        assertThat(complete.getValue().getUploadId()).isEqualTo("upload-1");
+        assertThat(complete.getValue().getPartETags()).extracting(PartETag::getETag)
+                .containsExactly("etag-1", "etag-2", "etag-3");
+        then(amazonS3).should(never()).abortMultipartUpload(any());
+    }
+
+    @Test
+    @DisplayName("upload: exact multiple of the part size does not send an empty part")
+    void upload_exactMultiple() throws IOException {
+        answerParts(new AtomicInteger());
+
+        uploader.upload("bucket", "big.jpg", new ObjectMetadata(), content(10 * MB));
+
+        then(amazonS3).should(times(2)).uploadPart(any());
+    }
+
+    @Test
+    @DisplayName("upload: memory is bounded - parts in flight and buffers never exceed the limits")
+    void upload_boundedBuffers() throws IOException {
+        // given
+        AtomicInteger maxInFlight = new AtomicInteger();
+        answerParts(maxInFlight);
+
+        // when - 50MB through 5MB parts
+        uploader.upload("bucket", "huge.jpg", new ObjectMetadata(), content(50 * MB));
+
+        // then
+        then(amazonS3).should(times(10)).uploadPart(any());
+        assertThat(maxInFlight.get()).isLessThanOrEqualTo(2);
+        assertThat(uploader.buffers().allocatedBuffers()).isLessThanOrEqualTo(3);
+        assertThat(uploader.buffers().peakLeasedBuffers()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("upload: a failed part aborts the multipart upload and rethrows")
+    void upload_partFails_aborts() {
+        // given
+        given(amazonS3.uploadPart(any())).willThrow(new RuntimeException("S3 down"));
+
+        // when / then
+        assertThatThrownBy(() -> uploader.upload("bucket", "big.jpg", new ObjectMetadata(), content(12 * MB)))
+                .hasMessageContaining("S3 down");
+
+        ArgumentCaptor<AbortMultipartUploadRequest> abort = ArgumentCaptor.forClass(AbortMultipartUploadRequest.class);
+        then(amazonS3).should().abortMultipartUpload(abort.capture());
+        assertThat(abort.getValue().getUploadId()).isEqualTo("upload-1");
+        then(amazonS3).should(never()).completeMultipartUpload(any());
+    }
+
+    @Test
+    @DisplayName("upload: a failing source stream aborts the multipart upload")
+    void upload_sourceFails_aborts() {
+        // given
+        lenient().when(amazonS3.uploadPart(any())).thenReturn(new UploadPartResult());
+        InputStream broken = new InputStream() {
+            private int read;
+
+            @Override
+            public int read() throws IOException {
+                if (++read > 6 * MB) throw new IOException("client disconnected");
+                return 0;
+            }
+        };
+
+        // when / then
+        assertThatThrownBy(() -> uploader.upload("bucket", "big.jpg", new ObjectMetadata(), broken))
+                .isInstanceOf(IOException.class);
+        then(amazonS3).should().abortMultipartUpload(any());
+    }
+}
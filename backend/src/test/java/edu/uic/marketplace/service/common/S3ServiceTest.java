@@ -0,0 +1,203 @@
+package edu.uic.marketplace.service.common;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest;
+import com.amazonaws.services.s3.model.PutObjectRequest;
+import edu.uic.marketplace.service.upload.StorageDeletionService;
+import edu.uic.marketplace.service.upload.StoredObjectService;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.net.URL;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class S3ServiceTest {
+
+    @Mock private AmazonS3 amazonS3;
+    @Mock private StoredObjectService storedObjectService;
+    @Mock private S3MultipartUploader multipartUploader;
+    @Mock private ObjectProvider<StorageDeletionService> storageDeletionProvider;
+    @Mock private StorageDeletionService storageDeletionService;
+
+    private S3Service s3Service;
+
+    // sha256("hello")
+    private static final String HELLO_SHA256 = "2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824";
+    private static final String HELLO_KEY = "listings/" + HELLO_SHA256 + ".jpg";
+
+    @BeforeEach
+    void setUp() {
+        s3Service = new S3Service(new S3ObjectStorage(amazonS3, multipartUploader,
+                new RemoteCallGuard(Bulkhead.ofDefaults("s3"), CircuitBreaker.ofDefaults("s3")), "bucket"), storedObjectService, storageDeletionProvider);
+    }
+
+    // --------- helpers ---------
+    private void stubUrls() throws Exception {
+        given(amazonS3.getUrl(eq("bucket"), anyString())).willAnswer(invocation ->
+                new URL("https://bucket.s3.amazonaws.com/" + invocation.getArgument(1)));
+    }
+
+    private static MockMultipartFile hello() {
+        return new MockMultipartFile("images", "photo.jpg", "image/jpeg", "hello".getBytes());
+    }
+
+    private static String url(String key) {
+        return "https://bucket.s3.amazonaws.com/" + key;
+    }
+
+    // ====================================================================================
+    // upload
+    // ====================================================================================
+    @Test
+    @DisplayName("upload: first reference PUTs under the content hash key")
+    void upload_firstReference_puts() throws Exception {
+        // given
+        stubUrls();
+        given(storedObjectService.acquire(HELLO_KEY)).willReturn(1);
+
+        // when
+        String url = s3Service.upload(hello());
+
+        // then
+        assertThat(url).isEqualTo(url(HELLO_KEY));
+        ArgumentCaptor<PutObjectRequest> captor = ArgumentCaptor.forClass(PutObjectRequest.class);
+        then(amazonS3).should().putObject(captor.capture());
+        assertThat(captor.getValue().getKey()).isEqualTo(HELLO_KEY);
+        assertThat(captor.getValue().getMetadata().getContentType()).isEqualTo("image/jpeg");
+        then(amazonS3).should(never()).doesObjectExist(any(), any());
+    }
+
+    @Test
+    @DisplayName("upload: duplicate content trusts the count and skips storage entirely")
+    void upload_duplicate_skipsStorage() throws Exception {
+        // given
+        stubUrls();
+        given(storedObjectService.acquire(HELLO_KEY)).willReturn(2);
+
+        // when
+        String url = s3Service.upload(hello());
+
+        // then
+        assertThat(url).isEqualTo(url(HELLO_KEY));
+        then(amazonS3).should(never()).putObject(any(PutObjectRequest.class));
+        then(amazonS3).should(never()).doesObjectExist(any(), any());
+    }
+
+    @Test
+    @DisplayName("upload: objects above the multipart threshold use the multipart uploader")
+    void upload_large_usesMultipart() throws Exception {
+        // given
+        stubUrls();
+        given(storedObjectService.acquire(HELLO_KEY)).willReturn(1);
+        given(multipartUploader.shouldUse(5L)).willReturn(true);
+
+        // when
+        s3Service.upload(hello());
+
+        // then
+        then(multipartUploader).should().upload(eq("bucket"), eq(HELLO_KEY), any(), any());
+        then(amazonS3).should(never()).putObject(any(PutObjectRequest.class));
+    }
+
+    @Test
+    @DisplayName("upload: failed PUT gives the reference back through the deletion queue, not a storage call")
+    void upload_putFails_queuesRelease() throws Exception {
+        // given
+        stubUrls();
+        given(storedObjectService.acquire(HELLO_KEY)).willReturn(1);
+        given(amazonS3.putObject(any(PutObjectRequest.class))).willThrow(new RuntimeException("S3 down"));
+        given(storageDeletionProvider.getObject()).willReturn(storageDeletionService);
+
+        // when / then
+        assertThatThrownBy(() -> s3Service.upload(hello())).hasMessageContaining("S3 down");
+        then(storageDeletionService).should().enqueueCommitted(List.of(url(HELLO_KEY)));
+        then(storedObjectService).should(never()).release(anyList(), any());
+        then(amazonS3).should(never()).deleteObjects(any(DeleteObjectsRequest.class));
+    }
+
+    // ====================================================================================
+    // delete
+    // ====================================================================================
+    @Test
+    @DisplayName("deleteFiles: content-addressed keys are released, legacy keys deleted directly")
+    @SuppressWarnings("unchecked")
+    void deleteFiles_routesByKeyKind() {
+        // given - the counter reports HELLO_KEY as unreferenced
+        willAnswer(invocation -> {
+            Consumer<List<String>> deleter = invocation.getArgument(1);
+            deleter.accept(List.of(HELLO_KEY));
+            return null;
+        }).given(storedObjectService).release(anyList(), any());
+
+        // when
+        s3Service.deleteFiles(List.of(url(HELLO_KEY), url("listings/1b4e28ba-2fa1-11d2-883f-0016d3cca427-a.jpg"), url(HELLO_KEY)));
+
+        // then
+        then(storedObjectService).should().release(eq(List.of(HELLO_KEY, HELLO_KEY)), any(Consumer.class));
+
+        ArgumentCaptor<DeleteObjectsRequest> captor = ArgumentCaptor.forClass(DeleteObjectsRequest.class);
+        then(amazonS3).should(times(2)).deleteObjects(captor.capture());
+        assertThat(captor.getAllValues()).flatExtracting(DeleteObjectsRequest::getKeys)
+                .extracting(DeleteObjectsRequest.KeyVersion::getKey)
+                .containsExactly("listings/1b4e28ba-2fa1-11d2-883f-0016d3cca427-a.jpg", HELLO_KEY);
+    }
+
+    @Test
+    @DisplayName("deleteOrphans: content-addressed keys are checked for a reference, nothing is released")
+    @SuppressWarnings("unchecked")
+    void deleteOrphans_neverReleases() {
+        // when
+        s3Service.deleteOrphans(List.of(url(HELLO_KEY), url("listings/legacy.jpg"), url(HELLO_KEY)));
+
+        // then
+        then(storedObjectService).should().deleteIfUnreferenced(eq(List.of(HELLO_KEY)), any(Consumer.class));
+        then(storedObjectService).should(never()).release(anyList(), any());
+
+        ArgumentCaptor<DeleteObjectsRequest> captor = ArgumentCaptor.forClass(DeleteObjectsRequest.class);
+        then(amazonS3).should().deleteObjects(captor.capture());
+        assertThat(captor.getValue().getKeys()).extracting(DeleteObjectsRequest.KeyVersion::getKey)
+                .containsExactly("listings/legacy.jpg");
+    }
+
+    @Test
+    @DisplayName("deleteFiles: legacy keys go out in requests of at most 1000 keys")
+    void deleteFiles_chunksDeleteRequests() {
+        // when
+        s3Service.deleteFiles(IntStream.range(0, 2500).mapToObj(i -> url("listings/legacy-" + i + ".jpg")).toList());
+
+        // then
+        ArgumentCaptor<DeleteObjectsRequest> captor = ArgumentCaptor.forClass(DeleteObjectsRequest.class);
+        then(amazonS3).should(times(3)).deleteObjects(captor.capture());
+        assertThat(captor.getAllValues()).extracting(req -> req.getKeys().size()).containsExactly(1000, 1000, 500);
+        then(storedObjectService).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @DisplayName("isContentAddressed: only <prefix><sha256>.<ext> keys are reference counted")
+    void isContentAddressed() {
+        assertThat(S3Service.isContentAddressed(HELLO_KEY)).isTrue();
+        assertThat(S3Service.isContentAddressed("listings/variants/" + HELLO_SHA256 + ".jpg")).isTrue();
+        assertThat(S3Service.isContentAddressed("listings/uuid-" + HELLO_SHA256 + ".jpg")).isFalse();
+        assertThat(S3Service.isContentAddressed("listings/variants/1b4e28ba-2fa1-11d2-883f-0016d3cca427.jpg")).isFalse();
+    }
+}
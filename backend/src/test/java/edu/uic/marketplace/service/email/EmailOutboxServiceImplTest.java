@@ -0,0 +1,200 @@
+package edu.uic.marketplace.service.email;
+
+import edu.uic.marketplace.model.notification.EmailOutbox;
+import edu.uic.marketplace.model.notification.EmailTemplate;
+import edu.uic.marketplace.repository.notification.EmailOutboxRepository;
+import edu.uic.marketplace.service.common.RemoteCallGuard;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmailOutboxServiceImplTest {
+
+    @Mock private EmailOutboxRepository emailOutboxRepository;
+    @Mock private MailTransport mailTransport;
+    @Mock private TransactionTemplate transactionTemplate;
+
+    private CircuitBreaker circuitBreaker;
+    private SimpleMeterRegistry meterRegistry;
+    private EmailOutboxServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        // opens after two failures out of two calls
+        circuitBreaker = CircuitBreaker.of("mail", CircuitBreakerConfig.custom()
+                .slidingWindowSize(2)
+                .minimumNumberOfCalls(2)
+                .failureRateThreshold(100)
+                .build());
+        meterRegistry = new SimpleMeterRegistry();
+        service = new EmailOutboxServiceImpl(emailOutboxRepository, mailTransport,
+                new RemoteCallGuard(Bulkhead.ofDefaults("mail"), circuitBreaker),
+                new EmailRenderer("http://localhost:5173"), transactionTemplate, meterRegistry, 50);
+    }
+
+    // --------- helpers ---------
+    private static EmailOutbox email(long id, String to, int attempts) {
+        return EmailOutbox.builder()
+                .emailId(id)
+                .recipient(to)
+                .subject("Subject")
+                .body("<p>hi</p>")
+                .attempts(attempts)
+                .nextAttemptAt(Instant.now().minusSeconds(1))
+                .build();
+    }
+
+    private void givenDue(EmailOutbox... entries) {
+        given(transactionTemplate.execute(any()))
+                .willAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        given(emailOutboxRepository.findDueForUpdate(any(), any())).willReturn(new ArrayList<>(Arrays.asList(entries)));
+    }
+
+    @Test
+    @DisplayName("enqueue: stores a due entry with the failure reason")
+    void enqueue_storesDueEntry() {
+        // when
+        service.enqueue("user@uic.edu", "Subject", "<p>hi</p>", "circuit open");
+
+        // then
+        ArgumentCaptor<EmailOutbox> captor = ArgumentCaptor.forClass(EmailOutbox.class);
+        then(emailOutboxRepository).should().save(captor.capture());
+        assertThat(captor.getValue().getRecipient()).isEqualTo("user@uic.edu");
+        assertThat(captor.getValue().getLastError()).isEqualTo("circuit open");
+        assertThat(captor.getValue().getNextAttemptAt()).isBeforeOrEqualTo(Instant.now());
+    }
+
+    @Test
+    @DisplayName("enqueue: a templated email stores the template and parameter, not the rendered body")
+    void enqueue_template_storesNoBody() {
+        // when
+        service.enqueue("user@uic.edu", EmailTemplate.PASSWORD_RESET, "reset1", "circuit open");
+
+        // then
+        ArgumentCaptor<EmailOutbox> captor = ArgumentCaptor.forClass(EmailOutbox.class);
+        then(emailOutboxRepository).should().save(captor.capture());
+        assertThat(captor.getValue().getTemplate()).isEqualTo(EmailTemplate.PASSWORD_RESET);
+        assertThat(captor.getValue().getTemplateParam()).isEqualTo("reset1");
+        assertThat(captor.getValue().getBody()).isNull();
+    }
+
+    @Test
+    @DisplayName("processDue: templated emails are rendered at send time")
+    void processDue_template_renderedAtSend() {
+        // given
+        EmailOutbox entry = email(1L, "a@uic.edu", 0);
+        entry.setBody(null);
+        entry.setTemplate(EmailTemplate.VERIFICATION);
+        entry.setTemplateParam("tok123");
+        givenDue(entry);
+
+        // when
+        int sent = service.processDue();
+
+        // then
+        assertThat(sent).isEqualTo(1);
+        then(mailTransport).should().send(eq("a@uic.edu"), eq("Subject"), contains("/verify-email?token=tok123"));
+        then(emailOutboxRepository).should().deleteAllByIdInBatch(List.of(1L));
+    }
+
+    @Test
+    @DisplayName("processDue: sends due emails and drops them from the outbox")
+    void processDue_sends() {
+        // given
+        givenDue(email(1L, "a@uic.edu", 0), email(2L, "b@uic.edu", 1));
+
+        // when
+        int sent = service.processDue();
+
+        // then
+        assertThat(sent).isEqualTo(2);
+        then(mailTransport).should().send("a@uic.edu", "Subject", "<p>hi</p>");
+        then(mailTransport).should().send("b@uic.edu", "Subject", "<p>hi</p>");
+        then(emailOutboxRepository).should().deleteAllByIdInBatch(List.of(1L, 2L));
+        assertThat(meterRegistry.get("mail.outbox.emails").tag("outcome", "sent").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("processDue: a failed send backs off; once the circuit opens the rest is postponed uncounted")
+    @SuppressWarnings("unchecked")
+    void processDue_failure_backsOff_thenCircuitOpens() {
+        // given
+        EmailOutbox a = email(1L, "a@uic.edu", 0);
+        EmailOutbox b = email(2L, "b@uic.edu", 2);
+        EmailOutbox c = email(3L, "c@uic.edu", 0);
+        givenDue(a, b, c);
+        willThrow(new IllegalStateException("status=503")).given(mailTransport).send(any(), any(), any());
+
+        // when
+        int sent = service.processDue();
+
+        // then
+        assertThat(sent).isZero();
+        then(mailTransport).should(times(2)).send(any(), any(), any());
+        assertThat(a.getAttempts()).isEqualTo(1);
+        assertThat(b.getAttempts()).isEqualTo(3);
+        assertThat(b.getLastError()).isEqualTo("status=503");
+        assertThat(b.getNextAttemptAt()).isAfter(Instant.now().plus(Duration.ofMinutes(3))); // 4m backoff
+        assertThat(c.getAttempts()).isZero();
+        assertThat(c.getNextAttemptAt()).isBefore(Instant.now().plus(Duration.ofMinutes(2)));
+
+        ArgumentCaptor<List<EmailOutbox>> captor = ArgumentCaptor.forClass(List.class);
+        then(emailOutboxRepository).should().saveAll(captor.capture());
+        assertThat(captor.getValue()).containsExactly(a, b, c);
+        then(emailOutboxRepository).should(never()).deleteAllByIdInBatch(any());
+    }
+
+    @Test
+    @DisplayName("processDue: skips the batch entirely while the circuit is open")
+    void processDue_circuitOpen_noClaim() {
+        // given
+        circuitBreaker.transitionToOpenState();
+
+        // when
+        int sent = service.processDue();
+
+        // then
+        assertThat(sent).isZero();
+        then(transactionTemplate).shouldHaveNoInteractions();
+        then(mailTransport).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @DisplayName("processDue: gives up on an email after the last attempt")
+    void processDue_lastAttempt_dropped() {
+        // given
+        givenDue(email(1L, "a@uic.edu", EmailOutboxServiceImpl.MAX_ATTEMPTS - 1));
+        willThrow(new IllegalStateException("status=500")).given(mailTransport).send(any(), any(), any());
+
+        // when
+        service.processDue();
+
+        // then
+        then(emailOutboxRepository).should().deleteAllByIdInBatch(List.of(1L));
+        then(emailOutboxRepository).should(never()).saveAll(any());
+        assertThat(meterRegistry.get("mail.outbox.emails").tag("outcome", "dropped").counter().count()).isEqualTo(1);
+    }
+}
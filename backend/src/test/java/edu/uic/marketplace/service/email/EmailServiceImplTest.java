@@ -0,0 +1,77 @@
+package edu.uic.marketplace.service.email;
+
+import edu.uic.marketplace.model.notification.EmailTemplate;
+import edu.uic.marketplace.service.common.RemoteCallGuard;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EmailServiceImplTest {
+
+    @Mock private MailTransport mailTransport;
+    @Mock private EmailOutboxService emailOutboxService;
+
+    private CircuitBreaker circuitBreaker;
+    private EmailServiceImpl emailService;
+
+    @BeforeEach
+    void setUp() {
+        circuitBreaker = CircuitBreaker.ofDefaults("mail");
+        emailService = new EmailServiceImpl(mailTransport,
+                new RemoteCallGuard(Bulkhead.ofDefaults("mail"), circuitBreaker),
+                emailOutboxService,
+                new EmailRenderer("http://localhost:5173"));
+    }
+
+    @Test
+    @DisplayName("sendVerificationEmail: sent through the transport, nothing queued")
+    void sendVerificationEmail_sent() {
+        // when
+        emailService.sendVerificationEmail("user@uic.edu", "tok123");
+
+        // then
+        then(mailTransport).should().send(eq("user@uic.edu"), anyString(), contains("/verify-email?token=tok123"));
+        then(emailOutboxService).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @DisplayName("sendEmail: a provider failure queues the email instead of failing the caller")
+    void sendEmail_providerDown_queued() {
+        // given
+        willThrow(new IllegalStateException("Failed to send email via SendGrid, status=503"))
+                .given(mailTransport).send(any(), any(), any());
+
+        // when / then
+        assertThatCode(() -> emailService.sendEmail("user@uic.edu", "Subject", "<p>hi</p>")).doesNotThrowAnyException();
+        then(emailOutboxService).should().enqueue("user@uic.edu", "Subject", "<p>hi</p>",
+                "Failed to send email via SendGrid, status=503");
+    }
+
+    @Test
+    @DisplayName("sendEmail: open circuit queues the email without calling the provider")
+    void sendEmail_circuitOpen_queuedWithoutCalling() {
+        // given
+        circuitBreaker.transitionToOpenState();
+
+        // when
+        emailService.sendPasswordResetEmail("user@uic.edu", "reset1");
+
+        // then
+        then(mailTransport).shouldHaveNoInteractions();
+        then(emailOutboxService).should().enqueue(eq("user@uic.edu"), eq(EmailTemplate.PASSWORD_RESET),
+                eq("reset1"), contains("circuit open"));
+    }
+}
@@ -0,0 +1,97 @@
+package edu.uic.marketplace.service.listing;
+
+import edu.uic.marketplace.model.listing.Category;
+import edu.uic.marketplace.model.listing.Listing;
+import edu.uic.marketplace.model.listing.ListingStatus;
+import edu.uic.marketplace.repository.listing.CategoryRepository;
+import edu.uic.marketplace.repository.listing.ListingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+class CategoryListingCountServiceImplTest {
+
+    @Mock private ListingRepository listingRepository;
+    @Mock private CategoryRepository categoryRepository;
+
+    private CategoryListingCountServiceImpl service;
+    private CategoryTree tree;
+
+    @BeforeEach
+    void setUp() {
+        service = new CategoryListingCountServiceImpl(listingRepository);
+
+        // books > {textbooks > cs, art}
+        given(categoryRepository.findTreeRows()).willReturn(List.of(
+                new Object[]{1L, "books", "Books", null},
+                new Object[]{2L, "textbooks", "Textbooks", 1L},
+                new Object[]{3L, "cs", "Computer Science", 2L},
+                new Object[]{4L, "art", "Art", 1L}));
+        tree = new CategoryTreeCache(categoryRepository).refresh();
+    }
+
+    // --------- helpers ---------
+    private static Listing listing(String categorySlug, ListingStatus status) {
+        return Listing.builder()
+                .category(Category.builder().slug(categorySlug).build())
+                .status(status)
+                .build();
+    }
+
+    @Test
+    @DisplayName("syncStatus: entering ACTIVE counts up, leaving it counts down, other moves are ignored")
+    void syncStatus_transitions() {
+        // when
+        service.syncStatus(listing("cs", ListingStatus.ACTIVE), null);
+        service.syncStatus(listing("cs", ListingStatus.ACTIVE), null);
+        service.syncStatus(listing("art", ListingStatus.ACTIVE), null);
+        service.syncStatus(listing("cs", ListingStatus.SOLD), ListingStatus.ACTIVE);
+        service.syncStatus(listing("art", ListingStatus.DELETED), ListingStatus.INACTIVE);
+
+        // then
+        assertThat(service.rolledUpCounts(tree))
+                .containsEntry("cs", 1L)
+                .containsEntry("textbooks", 1L)
+                .containsEntry("art", 1L)
+                .containsEntry("books", 2L);
+    }
+
+    @Test
+    @DisplayName("syncStatus: each applied change bumps the version")
+    void syncStatus_bumpsVersion() {
+        long before = service.version();
+
+        service.syncStatus(listing("cs", ListingStatus.ACTIVE), null);
+        service.syncStatus(listing("cs", ListingStatus.INACTIVE), ListingStatus.SOLD); // ignored
+
+        assertThat(service.version()).isEqualTo(before + 1);
+    }
+
+    @Test
+    @DisplayName("reconcile: replaces drifted counts with the DB's")
+    void reconcile_replacesCounts() {
+        // given
+        service.syncStatus(listing("cs", ListingStatus.ACTIVE), null);
+        service.syncStatus(listing("art", ListingStatus.ACTIVE), null);
+        given(listingRepository.countByCategorySlug(ListingStatus.ACTIVE)).willReturn(List.<Object[]>of(
+                new Object[]{"cs", 4L}));
+
+        // when
+        service.reconcile();
+
+        // then
+        assertThat(service.rolledUpCounts(tree))
+                .containsEntry("cs", 4L)
+                .containsEntry("art", 0L)
+                .containsEntry("books", 4L);
+    }
+}
@@ -1,50 +1,56 @@
 package edu.uic.marketplace.service.listing;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import edu.uic.marketplace.dto.response.listing.CategoryResponse;
+import edu.uic.marketplace.exception.listing.CategoryNotFoundException;
 import edu.uic.marketplace.model.listing.Category;
+import edu.uic.marketplace.model.listing.ListingStatus;
 import edu.uic.marketplace.repository.listing.CategoryRepository;
+import edu.uic.marketplace.repository.listing.ListingRepository;
 import edu.uic.marketplace.validator.listing.CategoryValidator;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
-import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.then;
 
 @ExtendWith(MockitoExtension.class)
 class CategoryServiceImplTest {
 
-    @Mock private CategoryValidator categoryValidator;
     @Mock private CategoryRepository categoryRepository;
+    @Mock private ListingRepository listingRepository;
 
-    @InjectMocks
+    private CategoryListingCountServiceImpl counts;
     private CategoryServiceImpl service;
 
-    // ---------- helpers ----------
-    private Category make(String name, String slug) {
-        Category c = Category.builder().name(name).slug(slug).build();
-        if (c.getChildren() == null) c.setChildren(new ArrayList<>());
-        return c;
+    @BeforeEach
+    void setUp() {
+        CategoryTreeCache cache = new CategoryTreeCache(categoryRepository);
+        counts = new CategoryListingCountServiceImpl(listingRepository);
+        service = new CategoryServiceImpl(new CategoryValidator(categoryRepository, cache), cache, counts,
+                new ObjectMapper().findAndRegisterModules());
     }
 
-    private Category makeWithChildren(String name, String slug, Category... children) {
-        Category p = make(name, slug);
-        for (Category ch : children) {
-            if (ch.getChildren() == null) ch.setChildren(new ArrayList<>());
-            ch.setParent(p);
-            p.getChildren().add(ch);
-        }
-        return p;
+    // ---------- helpers ----------
+
+    /** Books > {engineering, Business & Economics}; electronics & tech > Laptops / Tablets; appliances */
+    private void givenTree() {
+        given(categoryRepository.findTreeRows()).willReturn(List.of(
+                new Object[]{1L, "electronics", "electronics & tech", null},
+                new Object[]{2L, "laptops", "Laptops / Tablets", 1L},
+                new Object[]{3L, "books", "Books", null},
+                new Object[]{4L, "engineering", "engineering", 3L},
+                new Object[]{5L, "biz", "Business & Economics", 3L},
+                new Object[]{6L, "appliances", "appliances", null}));
     }
 
     // ---------- tests ----------
@@ -52,53 +58,82 @@ class CategoryServiceImplTest {
     @Test
     @DisplayName("getAllCategories: returns only root categories (with children) sorted case-insensitively")
     void getAllCategories_rootsOnly_sorted_caseInsensitive() {
-        Category eng = make("engineering", "engineering");       // child
-        Category books = makeWithChildren("Books", "books", eng); // root
-        Category laptops = make("Laptops / Tablets", "laptops");  // child
-        Category tech = makeWithChildren("electronics & tech", "electronics", laptops); // root
-
-        given(categoryRepository.findRootCategories())
-                .willReturn(List.of(books, tech));
+        givenTree();
 
         List<CategoryResponse> result = service.getAllCategories();
 
-        assertThat(result).hasSize(2);
         assertThat(result).extracting(CategoryResponse::getName)
-                .containsExactly("Books", "electronics & tech");
+                .containsExactly("appliances", "Books", "electronics & tech");
 
-        assertThat(result.get(0).getChildren())
-                .extracting(CategoryResponse::getName)
-                .containsExactly("engineering");
         assertThat(result.get(1).getChildren())
+                .extracting(CategoryResponse::getName)
+                .containsExactly("Business & Economics", "engineering");
+        assertThat(result.get(1).getChildren().get(0).getParentSlug()).isEqualTo("books");
+        assertThat(result.get(2).getChildren())
                 .extracting(CategoryResponse::getName)
                 .containsExactly("Laptops / Tablets");
     }
 
     @Test
-    @DisplayName("findBySlug: delegates to CategoryValidator and returns entity")
+    @DisplayName("getAllCategories: loaded once and served from memory afterwards")
+    void getAllCategories_loadedOnce() {
+        givenTree();
+
+        service.getAllCategories();
+        service.getTopLevelCategories();
+        service.getSubcategories("books");
+
+        then(categoryRepository).should().findTreeRows();
+    }
+
+    @Test
+    @DisplayName("getAllCategories: listing counts are rolled up from leaves to their ancestors")
+    void getAllCategories_rolledUpCounts() {
+        givenTree();
+        given(listingRepository.countByCategorySlug(ListingStatus.ACTIVE)).willReturn(List.of(
+                new Object[]{"engineering", 3L},
+                new Object[]{"biz", 2L},
+                new Object[]{"laptops", 7L}));
+        counts.reconcile();
+
+        List<CategoryResponse> result = service.getAllCategories();
+
+        assertThat(result).extracting(CategoryResponse::getListingCount).containsExactly(0L, 5L, 7L);
+        assertThat(result.get(1).getChildren()).extracting(CategoryResponse::getListingCount).containsExactly(2L, 3L);
+    }
+
+    @Test
+    @DisplayName("getRenderedTree: pre-rendered JSON with a content ETag, reused until something changes")
+    void getRenderedTree_renderedWithEtag() {
+        givenTree();
+
+        CategoryService.RenderedTree tree = service.getRenderedTree();
+
+        assertThat(new String(tree.json())).contains("\"success\":true", "\"categorySlug\":\"engineering\"");
+        assertThat(tree.etag()).startsWith("W/\"");
+        assertThat(service.getRenderedTree()).isSameAs(tree);
+    }
+
+    @Test
+    @DisplayName("findBySlug: resolves through CategoryValidator and returns entity")
     void findBySlug_ok() {
-        Category cat = make("Books", "books");
-        given(categoryValidator.validateCategoryBySlug("books")).willReturn(cat);
+        givenTree();
 
         Category found = service.findBySlug("books");
 
         assertThat(found.getSlug()).isEqualTo("books");
-        then(categoryValidator).should().validateCategoryBySlug("books");
+        assertThat(found.getChildren()).extracting(Category::getSlug).containsExactly("biz", "engineering");
     }
 
     @Test
     @DisplayName("getTopLevelCategories: returns parent=null categories sorted case-insensitively")
     void getTopLevelCategories_ok_sorted() {
-        Category a = make("appliances", "appliances");
-        Category b = make("Books", "books");
-        Category c = make("clothes", "clothes");
-
-        given(categoryRepository.findByParentIsNull()).willReturn(List.of(c, a, b));
+        givenTree();
 
         List<CategoryResponse> roots = service.getTopLevelCategories();
 
         assertThat(roots).extracting(CategoryResponse::getName)
-                .containsExactly("appliances", "Books", "clothes");
+                .containsExactly("appliances", "Books", "electronics & tech");
     }
 
     @Nested
@@ -108,31 +143,22 @@ class CategoryServiceImplTest {
         @Test
         @DisplayName("returns direct children after parent validation, sorted case-insensitively")
         void subcategories_ok_sorted() {
-            String parentSlug = "books";
-            Category parent = make("Books", parentSlug);
-            Category ch1 = make("engineering", "engineering");
-            Category ch2 = make("Business & Economics", "biz");
-
-            given(categoryValidator.validateCategoryBySlug(parentSlug)).willReturn(parent);
-            given(categoryRepository.findByParent_Slug(parentSlug)).willReturn(List.of(ch1, ch2));
+            givenTree();
 
-            List<CategoryResponse> subs = service.getSubcategories(parentSlug);
+            List<CategoryResponse> subs = service.getSubcategories("books");
 
             assertThat(subs).extracting(CategoryResponse::getName)
                     .containsExactly("Business & Economics", "engineering");
-
-            then(categoryValidator).should().validateCategoryBySlug(parentSlug);
-            then(categoryRepository).should().findByParent_Slug(parentSlug);
         }
 
         @Test
-        @DisplayName("propagates validator exception when parent slug is invalid")
-        void subcategories_parentInvalid_propagates() {
-            given(categoryValidator.validateCategoryBySlug(anyString()))
-                    .willThrow(new IllegalArgumentException("Category with slug 'x' not found"));
+        @DisplayName("throws when parent slug is invalid")
+        void subcategories_parentInvalid_throws() {
+            givenTree();
+            given(categoryRepository.existsBySlug("x")).willReturn(false);
 
             assertThatThrownBy(() -> service.getSubcategories("x"))
-                    .isInstanceOf(IllegalArgumentException.class)
+                    .isInstanceOf(CategoryNotFoundException.class)
                     .hasMessageContaining("not found");
         }
     }
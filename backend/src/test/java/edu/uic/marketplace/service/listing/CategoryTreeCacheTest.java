@@ -0,0 +1,82 @@
+package edu.uic.marketplace.service.listing;
+
+import edu.uic.marketplace.repository.listing.CategoryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+class CategoryTreeCacheTest {
+
+    @Mock private CategoryRepository categoryRepository;
+
+    private CategoryTreeCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new CategoryTreeCache(categoryRepository);
+    }
+
+    @Test
+    @DisplayName("refresh: precomputes depth, leaf flags and sorted children")
+    void refresh_buildsNodes() {
+        given(categoryRepository.findTreeRows()).willReturn(List.of(
+                new Object[]{1L, "books", "Books", null},
+                new Object[]{2L, "textbooks", "textbooks", 1L},
+                new Object[]{3L, "cs", "Computer Science", 2L},
+                new Object[]{4L, "art", "Art", 1L}));
+
+        CategoryTree tree = cache.refresh();
+
+        CategoryTree.Node books = tree.find("books").orElseThrow();
+        assertThat(books.depth()).isZero();
+        assertThat(books.leaf()).isFalse();
+        assertThat(books.children()).extracting(CategoryTree.Node::slug).containsExactly("art", "textbooks");
+
+        CategoryTree.Node cs = tree.find("cs").orElseThrow();
+        assertThat(cs.depth()).isEqualTo(2);
+        assertThat(cs.leaf()).isTrue();
+        assertThat(cs.parentSlug()).isEqualTo("textbooks");
+    }
+
+    @Test
+    @DisplayName("refresh: rows with a dangling parent are left out")
+    void refresh_skipsUnreachable() {
+        given(categoryRepository.findTreeRows()).willReturn(List.of(
+                new Object[]{1L, "books", "Books", null},
+                new Object[]{2L, "orphan", "Orphan", 99L}));
+
+        CategoryTree tree = cache.refresh();
+
+        assertThat(tree.size()).isEqualTo(1);
+        assertThat(tree.find("orphan")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("refresh: same content keeps the snapshot; a change swaps in a new version")
+    void refresh_versioning() {
+        given(categoryRepository.findTreeRows()).willReturn(List.of(
+                new Object[]{1L, "books", "Books", null},
+                new Object[]{2L, "art", "Art", 1L}));
+
+        CategoryTree first = cache.refresh();
+        assertThat(cache.refresh()).isSameAs(first);
+
+        given(categoryRepository.findTreeRows()).willReturn(List.of(
+                new Object[]{1L, "books", "Books & Textbooks", null},
+                new Object[]{2L, "art", "Art", 1L}));
+
+        CategoryTree second = cache.refresh();
+        assertThat(second.version()).isEqualTo(first.version() + 1);
+        assertThat(cache.get()).isSameAs(second);
+        assertThat(first.find("books").orElseThrow().name()).isEqualTo("Books"); // old snapshot untouched
+    }
+}
@@ -0,0 +1,95 @@
+package edu.uic.marketplace.service.listing;
+
+import edu.uic.marketplace.repository.listing.FavoriteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FavoriteBitmapCacheTest {
+
+    @Mock private FavoriteRepository favoriteRepository;
+    @Mock private ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+    @Mock private StringRedisTemplate redisTemplate;
+
+    private FavoriteBitmapCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new FavoriteBitmapCache(favoriteRepository, redisTemplateProvider, 100,
+                Duration.ofMinutes(5), Duration.ofSeconds(30), "local");
+    }
+
+    @Test
+    @DisplayName("loads a user's favorites once, then answers probes from memory")
+    void loadsLazilyOnce() {
+        given(favoriteRepository.findListingInternalIdsByUsername("lee")).willReturn(List.of(1L, 5L, 9L));
+
+        assertThat(cache.contains("lee", 5L)).isTrue();
+        assertThat(cache.contains("lee", 6L)).isFalse();
+        assertThat(cache.filter("lee", List.of(1L, 2L, 9L, 10L))).containsExactlyInAnyOrder(1L, 9L);
+
+        then(favoriteRepository).should(times(1)).findListingInternalIdsByUsername("lee");
+    }
+
+    @Test
+    @DisplayName("add/remove update cached users in place")
+    void addRemove_cachedUser() {
+        given(favoriteRepository.findListingInternalIdsByUsername("lee")).willReturn(List.of(1L));
+        cache.contains("lee", 1L);
+
+        cache.add("lee", 2L);
+        cache.remove("lee", 1L);
+
+        assertThat(cache.filter("lee", List.of(1L, 2L))).containsExactly(2L);
+        then(favoriteRepository).should(times(1)).findListingInternalIdsByUsername("lee");
+    }
+
+    @Test
+    @DisplayName("add/remove for users not cached do not trigger a load")
+    void addRemove_uncachedUser() {
+        cache.add("kim", 3L);
+        cache.remove("kim", 4L);
+
+        then(favoriteRepository).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @DisplayName("with redis invalidation, changes are published and only other instances drop the bitmap")
+    void redisInvalidation() {
+        // given
+        given(redisTemplateProvider.getIfAvailable()).willReturn(redisTemplate);
+        cache = new FavoriteBitmapCache(favoriteRepository, redisTemplateProvider, 100,
+                Duration.ofMinutes(5), Duration.ofSeconds(30), "redis");
+        given(favoriteRepository.findListingInternalIdsByUsername("lee")).willReturn(List.of(1L));
+        cache.contains("lee", 1L);
+
+        // when
+        cache.add("lee", 2L);
+
+        // then - own message is ignored, the bitmap stays loaded
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        then(redisTemplate).should().convertAndSend(eq(FavoriteBitmapCache.INVALIDATION_CHANNEL), payload.capture());
+        cache.onInvalidation(payload.getValue());
+        assertThat(cache.contains("lee", 2L)).isTrue();
+        then(favoriteRepository).should(times(1)).findListingInternalIdsByUsername("lee");
+
+        // a change on another instance drops it, the next probe reloads
+        cache.onInvalidation("other-instance:lee");
+        cache.contains("lee", 2L);
+        then(favoriteRepository).should(times(2)).findListingInternalIdsByUsername("lee");
+    }
+}
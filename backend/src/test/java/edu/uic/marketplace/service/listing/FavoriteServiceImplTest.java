@@ -1,12 +1,17 @@
 package edu.uic.marketplace.service.listing;
 
+import edu.uic.marketplace.dto.request.listing.SyncFavoritesRequest;
 import edu.uic.marketplace.dto.response.common.PageResponse;
 import edu.uic.marketplace.dto.response.listing.ListingSummaryResponse;
+import edu.uic.marketplace.dto.response.listing.SyncFavoritesResponse;
 import edu.uic.marketplace.model.listing.Favorite;
 import edu.uic.marketplace.model.listing.Listing;
 import edu.uic.marketplace.model.listing.ListingStatus;
 import edu.uic.marketplace.model.user.User;
 import edu.uic.marketplace.repository.listing.FavoriteRepository;
+import edu.uic.marketplace.repository.listing.ListingRepository;
+import edu.uic.marketplace.repository.listing.ListingStatsRepository;
+import edu.uic.marketplace.service.notification.NotificationService;
 import edu.uic.marketplace.validator.auth.AuthValidator;
 import edu.uic.marketplace.validator.listing.ListingValidator;
 import org.junit.jupiter.api.BeforeEach;
@@ -28,9 +33,13 @@ import static org.mockito.Mockito.*;
 class FavoriteServiceImplTest {
 
     @Mock FavoriteRepository favoriteRepository;
+    @Mock ListingStatsRepository listingStatsRepository;
     @Mock AuthValidator authValidator;
     @Mock ListingValidator listingValidator;
-    @Mock ListingService listingService; // required for constructor injection
+    @Mock ListingLeaderboardService listingLeaderboardService;
+    @Mock FavoriteBitmapCache favoriteBitmapCache;
+    @Mock ListingRepository listingRepository;
+    @Mock NotificationService notificationService;
 
     @InjectMocks FavoriteServiceImpl sut;
 
@@ -40,15 +49,33 @@ class FavoriteServiceImplTest {
     @BeforeEach
     void setUp() {
         user = new User();
+        user.setUserId(1L);
+        user.setUsername("lee");
         listing = mock(Listing.class);
     }
 
+    private User seller(Long id, String username) {
+        User seller = new User();
+        seller.setUserId(id);
+        seller.setUsername(username);
+        return seller;
+    }
+
+    private Listing listing(Long id, String publicId, User seller) {
+        return Listing.builder()
+                .listingId(id)
+                .publicId(publicId)
+                .seller(seller)
+                .status(ListingStatus.ACTIVE)
+                .build();
+    }
+
     @Nested
     @DisplayName("toggleFavorite()")
     class ToggleFavorite {
 
         @Test
-        @DisplayName("should add favorite and increase count if not exists")
+        @DisplayName("should add favorite, increase count and notify seller if not exists")
         void addsFavoriteWhenNotExists() {
 
             // given
@@ -56,16 +83,20 @@ class FavoriteServiceImplTest {
             String publicId = "pub-1";
             when(authValidator.validateUserByUsername(username)).thenReturn(user);
             when(listingValidator.validateListingByPublicId(publicId)).thenReturn(listing);
-            when(favoriteRepository.existsByUserAndListing(user, listing)).thenReturn(false);
+            when(listing.getListingId()).thenReturn(10L);
+            when(listing.getPublicId()).thenReturn(publicId);
+            when(listing.getSeller()).thenReturn(seller(2L, "seller"));
+            when(favoriteRepository.deleteByIds(1L, 10L)).thenReturn(0);
+            when(favoriteRepository.insertIgnore(1L, 10L)).thenReturn(1);
 
             // when
             sut.toggleFavorite(username, publicId);
 
             // then
-            verify(favoriteRepository).save(any(Favorite.class));
-            verify(listing).incrementFavoriteCount();
-            verify(favoriteRepository, never()).deleteByUserAndListing(any(), any());
-            verify(listing, never()).decrementFavoriteCount();
+            verify(listingStatsRepository).incrementFavoriteCount(10L);
+            verify(favoriteBitmapCache).add(username, 10L);
+            verify(notificationService).notifyListingFavorited("seller", username, publicId);
+            verify(listingStatsRepository, never()).decrementFavoriteCount(any());
         }
 
         @Test
@@ -77,16 +108,119 @@ class FavoriteServiceImplTest {
             String publicId = "pub-1";
             when(authValidator.validateUserByUsername(username)).thenReturn(user);
             when(listingValidator.validateListingByPublicId(publicId)).thenReturn(listing);
-            when(favoriteRepository.existsByUserAndListing(user, listing)).thenReturn(true);
+            when(listing.getListingId()).thenReturn(10L);
+            when(favoriteRepository.deleteByIds(1L, 10L)).thenReturn(1);
+            when(listingStatsRepository.decrementFavoriteCount(10L)).thenReturn(1);
+
+            // when
+            sut.toggleFavorite(username, publicId);
+
+            // then
+            verify(listingLeaderboardService).recordFavorite(listing, -1);
+            verify(favoriteBitmapCache).remove(username, 10L);
+            verify(favoriteRepository, never()).insertIgnore(any(), any());
+            verify(listingStatsRepository, never()).incrementFavoriteCount(any());
+        }
+
+        @Test
+        @DisplayName("should not touch the counter when a concurrent request already inserted the row")
+        void insertIgnoredDoesNotCountTwice() {
+
+            // given
+            String username = "lee";
+            String publicId = "pub-1";
+            when(authValidator.validateUserByUsername(username)).thenReturn(user);
+            when(listingValidator.validateListingByPublicId(publicId)).thenReturn(listing);
+            when(listing.getListingId()).thenReturn(10L);
+            when(favoriteRepository.deleteByIds(1L, 10L)).thenReturn(0);
+            when(favoriteRepository.insertIgnore(1L, 10L)).thenReturn(0);
 
             // when
             sut.toggleFavorite(username, publicId);
 
             // then
-            verify(favoriteRepository).deleteByUserAndListing(user, listing);
-            verify(listing).decrementFavoriteCount();
-            verify(favoriteRepository, never()).save(any());
-            verify(listing, never()).incrementFavoriteCount();
+            verify(listingStatsRepository, never()).incrementFavoriteCount(any());
+            verifyNoInteractions(notificationService, favoriteBitmapCache);
+        }
+    }
+
+    @Nested
+    @DisplayName("syncFavorites()")
+    class SyncFavorites {
+
+        private SyncFavoritesRequest.Item item(String publicId, boolean favorited) {
+            return SyncFavoritesRequest.Item.builder().listingPublicId(publicId).favorited(favorited).build();
+        }
+
+        @Test
+        @DisplayName("should apply only real changes and notify each seller once per batch")
+        void appliesBatch() {
+
+            // given
+            User sellerA = seller(2L, "sellerA");
+            User sellerB = seller(3L, "sellerB");
+            Listing a1 = listing(11L, "a1", sellerA);
+            Listing a2 = listing(12L, "a2", sellerA);
+            Listing b1 = listing(13L, "b1", sellerB);
+            Listing b2 = listing(14L, "b2", sellerB);
+
+            SyncFavoritesRequest request = SyncFavoritesRequest.builder()
+                    .items(List.of(
+                            item("a1", true),
+                            item("a2", true),
+                            item("b1", true),   // already favorited -> no-op
+                            item("b2", false),
+                            item("missing", true),
+                            item("a2", true)    // duplicate -> last wins
+                    ))
+                    .build();
+
+            when(authValidator.validateUserByUsername("lee")).thenReturn(user);
+            when(listingRepository.findByPublicIdInAndDeletedAtIsNull(anyCollection())).thenReturn(List.of(a1, a2, b1, b2));
+            when(favoriteRepository.insertIgnore(1L, 11L)).thenReturn(1);
+            when(favoriteRepository.insertIgnore(1L, 12L)).thenReturn(1);
+            when(favoriteRepository.insertIgnore(1L, 13L)).thenReturn(0);
+            when(favoriteRepository.deleteByIds(1L, 14L)).thenReturn(1);
+            when(listingStatsRepository.decrementFavoriteCount(14L)).thenReturn(1);
+
+            // when
+            SyncFavoritesResponse res = sut.syncFavorites("lee", request);
+
+            // then
+            assertThat(res.getAdded()).isEqualTo(2);
+            assertThat(res.getRemoved()).isEqualTo(1);
+            assertThat(res.getItems()).extracting(SyncFavoritesResponse.Item::getListingPublicId)
+                    .containsExactly("a1", "a2", "b1", "b2");
+
+            verify(listingStatsRepository).incrementFavoriteCount(11L);
+            verify(listingStatsRepository).incrementFavoriteCount(12L);
+            verify(listingStatsRepository, never()).incrementFavoriteCount(13L);
+            verify(listingStatsRepository).decrementFavoriteCount(14L);
+
+            verify(notificationService).notifyListingsFavorited("sellerA", "lee", List.of("a1", "a2"));
+            verifyNoMoreInteractions(notificationService);
+        }
+
+        @Test
+        @DisplayName("should not notify the user about favoriting their own listing")
+        void noSelfNotification() {
+
+            // given
+            Listing own = listing(20L, "own", user);
+            SyncFavoritesRequest request = SyncFavoritesRequest.builder()
+                    .items(List.of(item("own", true)))
+                    .build();
+
+            when(authValidator.validateUserByUsername("lee")).thenReturn(user);
+            when(listingRepository.findByPublicIdInAndDeletedAtIsNull(anyCollection())).thenReturn(List.of(own));
+            when(favoriteRepository.insertIgnore(1L, 20L)).thenReturn(1);
+
+            // when
+            SyncFavoritesResponse res = sut.syncFavorites("lee", request);
+
+            // then
+            assertThat(res.getAdded()).isEqualTo(1);
+            verifyNoInteractions(notificationService);
         }
     }
 
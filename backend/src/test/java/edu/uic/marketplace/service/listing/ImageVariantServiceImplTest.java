@@ -0,0 +1,240 @@
+package edu.uic.marketplace.service.listing;
+
+import edu.uic.marketplace.model.listing.ImageVariantStatus;
+import edu.uic.marketplace.model.listing.ListingImage;
+import edu.uic.marketplace.repository.listing.ListingImageRepository;
+import edu.uic.marketplace.repository.user.ProfileRepository;
+import edu.uic.marketplace.service.common.ImageProcessor;
+import edu.uic.marketplace.service.common.S3Service;
+import edu.uic.marketplace.service.upload.StorageDeletionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ImageVariantServiceImplTest {
+
+    @Mock private ListingImageRepository listingImageRepository;
+    @Mock private ProfileRepository profileRepository;
+    @Mock private S3Service s3Service;
+    @Mock private StorageDeletionService storageDeletionService;
+
+    private ImageVariantServiceImpl service;
+
+    private static final String ORIGINAL = "https://s3/listings/original.jpg";
+    private static final String STRIPPED = "https://s3/listings/stripped.jpg";
+
+    @BeforeEach
+    void setUp() {
+        service = new ImageVariantServiceImpl(listingImageRepository, profileRepository, s3Service, new ImageProcessor(), storageDeletionService, 1, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    // --------- helpers ---------
+    private static ListingImage pendingImage() {
+        return ListingImage.builder()
+                .imageId(7L)
+                .imageUrl(ORIGINAL)
+                .variantStatus(ImageVariantStatus.PENDING)
+                .build();
+    }
+
+    private static byte[] jpeg(int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "jpeg", out);
+        return out.toByteArray();
+    }
+
+    /** A JPEG with an (empty) APP1 Exif segment spliced in after the JFIF header */
+    private static byte[] jpegWithExif(int width, int height) throws IOException {
+        byte[] plain = jpeg(width, height);
+        int split = 4 + ((plain[4] & 0xFF) << 8 | (plain[5] & 0xFF)); // SOI + APP0
+        byte[] app1 = {(byte) 0xFF, (byte) 0xE1, 0, 18, 'E', 'x', 'i', 'f', 0, 0,
+                'M', 'M', 0, 42, 0, 0, 0, 8, 0, 0};
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(plain, 0, split);
+        out.write(app1);
+        out.write(plain, split, plain.length - split);
+        return out.toByteArray();
+    }
+
+    /** Records uploaded variant widths and returns a URL per upload; the full-size copy gets STRIPPED */
+    private List<Integer> captureUploads() {
+        List<Integer> widths = new ArrayList<>();
+        given(s3Service.uploadBytes(any(), eq("image/jpeg"), eq("listings/"), eq("jpg"))).willReturn(STRIPPED);
+        willAnswer(invocation -> {
+            byte[] bytes = invocation.getArgument(0);
+            widths.add(ImageIO.read(new ByteArrayInputStream(bytes)).getWidth());
+            return "https://s3/listings/variants/" + widths.size() + ".jpg";
+        }).given(s3Service).uploadBytes(any(), eq("image/jpeg"), eq("listings/variants/"), eq("jpg"));
+        return widths;
+    }
+
+    // ====================================================================================
+
+    @Test
+    @DisplayName("generate: uploads large/medium/thumbnail variants and stores them with a BlurHash")
+    void generate_success() throws IOException {
+        // given
+        given(listingImageRepository.findById(7L)).willReturn(Optional.of(pendingImage()));
+        given(s3Service.download(ORIGINAL)).willReturn(jpeg(2400, 1200));
+        List<Integer> widths = captureUploads();
+        given(listingImageRepository.completeVariants(anyLong(), any(), any(), any(), any(), any(), any())).willReturn(1);
+
+        // when
+        service.generate(7L);
+
+        // then
+        assertThat(widths).containsExactly(1200, 600, 200);
+        then(listingImageRepository).should().completeVariants(eq(7L), eq(ORIGINAL), eq(STRIPPED),
+                eq("https://s3/listings/variants/3.jpg"),
+                eq("https://s3/listings/variants/2.jpg"),
+                eq("https://s3/listings/variants/1.jpg"),
+                argThat(hash -> hash != null && hash.length() == 28));
+        then(s3Service).should(never()).deleteFiles(any());
+        then(storageDeletionService).should().enqueue(List.of(ORIGINAL));
+    }
+
+    @Test
+    @DisplayName("generate: the original is replaced by a full-size copy without EXIF")
+    void generate_stripsOriginal() throws IOException {
+        // given
+        given(listingImageRepository.findById(7L)).willReturn(Optional.of(pendingImage()));
+        given(s3Service.download(ORIGINAL)).willReturn(jpegWithExif(800, 600));
+        captureUploads();
+        given(listingImageRepository.completeVariants(anyLong(), any(), any(), any(), any(), any(), any())).willReturn(1);
+
+        // when
+        service.generate(7L);
+
+        // then
+        ArgumentCaptor<byte[]> bytes = ArgumentCaptor.forClass(byte[].class);
+        then(s3Service).should().uploadBytes(bytes.capture(), eq("image/jpeg"), eq("listings/"), eq("jpg"));
+        assertThat(ImageIO.read(new ByteArrayInputStream(bytes.getValue())).getWidth()).isEqualTo(800);
+        assertThat(new String(bytes.getValue(), StandardCharsets.ISO_8859_1)).doesNotContain("Exif");
+    }
+
+    @Test
+    @DisplayName("generate: image removed while processing => uploaded variants are deleted")
+    void generate_imageGone() throws IOException {
+        // given
+        given(listingImageRepository.findById(7L)).willReturn(Optional.of(pendingImage()));
+        given(s3Service.download(ORIGINAL)).willReturn(jpeg(800, 600));
+        captureUploads();
+        given(listingImageRepository.completeVariants(anyLong(), any(), any(), any(), any(), any(), any())).willReturn(0);
+
+        // when
+        service.generate(7L);
+
+        // then
+        then(s3Service).should().deleteFiles(List.of(
+                STRIPPED,
+                "https://s3/listings/variants/1.jpg",
+                "https://s3/listings/variants/2.jpg",
+                "https://s3/listings/variants/3.jpg"));
+        then(storageDeletionService).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @DisplayName("generate: undecodable original => marked FAILED, nothing uploaded")
+    void generate_undecodable() {
+        // given
+        given(listingImageRepository.findById(7L)).willReturn(Optional.of(pendingImage()));
+        given(s3Service.download(ORIGINAL)).willReturn("not an image".getBytes());
+
+        // when
+        service.generate(7L);
+
+        // then
+        then(listingImageRepository).should().failVariants(7L);
+        then(s3Service).should(never()).uploadBytes(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("generate: transient storage error => stays PENDING, retried by the sweep after a backoff")
+    void generate_transientFailure() {
+        // given
+        given(listingImageRepository.findById(7L)).willReturn(Optional.of(pendingImage()));
+        given(s3Service.download(ORIGINAL)).willThrow(new RuntimeException("S3 timeout"));
+
+        // when
+        service.generate(7L);
+
+        // then
+        ArgumentCaptor<Instant> next = ArgumentCaptor.forClass(Instant.class);
+        then(listingImageRepository).should().retryVariantsLater(eq(7L), next.capture());
+        assertThat(next.getValue()).isAfter(Instant.now().plus(Duration.ofMinutes(4))); // 5m after the first failure
+        then(listingImageRepository).should(never()).failVariants(anyLong());
+    }
+
+    @Test
+    @DisplayName("generate: transient error on the last attempt => marked FAILED")
+    void generate_outOfAttempts() {
+        // given
+        ListingImage image = pendingImage();
+        image.setVariantAttempts(ImageVariantServiceImpl.MAX_ATTEMPTS - 1);
+        given(listingImageRepository.findById(7L)).willReturn(Optional.of(image));
+        given(s3Service.download(ORIGINAL)).willThrow(new RuntimeException("S3 timeout"));
+
+        // when
+        service.generate(7L);
+
+        // then
+        then(listingImageRepository).should().failVariants(7L);
+        then(listingImageRepository).should(never()).retryVariantsLater(anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("generate: already processed image is skipped")
+    void generate_notPending() {
+        ListingImage ready = pendingImage();
+        ready.setVariantStatus(ImageVariantStatus.READY);
+        given(listingImageRepository.findById(7L)).willReturn(Optional.of(ready));
+
+        service.generate(7L);
+
+        then(s3Service).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @DisplayName("generateAvatarPlaceholder: stores a BlurHash for the avatar it was computed from")
+    void avatarPlaceholder() throws IOException {
+        // given
+        String avatarUrl = "https://s3/avatars/a.jpg";
+        given(s3Service.download(avatarUrl)).willReturn(jpeg(1024, 1024));
+
+        // when
+        service.generateAvatarPlaceholder(3L, avatarUrl);
+
+        // then
+        then(profileRepository).should().updateAvatarBlurHash(eq(3L), eq(avatarUrl),
+                argThat(hash -> hash != null && hash.startsWith("L")));
+    }
+}
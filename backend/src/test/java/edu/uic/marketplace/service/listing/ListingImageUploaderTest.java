@@ -0,0 +1,136 @@
+package edu.uic.marketplace.service.listing;
+
+import edu.uic.marketplace.service.common.S3Service;
+import edu.uic.marketplace.service.upload.StorageDeletionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ListingImageUploaderTest {
+
+    @Mock private S3Service s3Service;
+    @Mock private StorageDeletionService storageDeletionService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ListingImageUploader uploader;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        uploader = new ListingImageUploader(s3Service, storageDeletionService, meterRegistry, 32, 3);
+    }
+
+    // --------- helpers ---------
+    private static MultipartFile file(int i) {
+        return new MockMultipartFile("images", "i" + i + ".jpg", "image/jpeg", new byte[]{(byte) i});
+    }
+
+    private static List<MultipartFile> files(int count) {
+        return IntStream.range(0, count).mapToObj(ListingImageUploaderTest::file).toList();
+    }
+
+    @Test
+    @DisplayName("uploadAll: returns URLs in input order even when uploads finish out of order")
+    void uploadAll_preservesOrder() {
+        // given - earlier files finish later
+        willAnswer(invocation -> {
+            MultipartFile f = invocation.getArgument(0);
+            int i = f.getBytes()[0];
+            Thread.sleep((6 - i) * 5L);
+            return "https://s3/" + i + ".jpg";
+        }).given(s3Service).upload(any());
+
+        // when
+        List<String> urls = uploader.uploadAll(files(6));
+
+        // then
+        assertThat(urls).containsExactly(
+                "https://s3/0.jpg", "https://s3/1.jpg", "https://s3/2.jpg",
+                "https://s3/3.jpg", "https://s3/4.jpg", "https://s3/5.jpg");
+        assertThat(meterRegistry.get("listing.image.upload").tag("outcome", "success").timer().count())
+                .isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("uploadAll: never runs more uploads at once than the per-request cap")
+    void uploadAll_respectsPerRequestCap() {
+        // given
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        willAnswer(invocation -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            inFlight.decrementAndGet();
+            return "https://s3/x.jpg";
+        }).given(s3Service).upload(any());
+
+        // when
+        uploader.uploadAll(files(10));
+
+        // then
+        assertThat(maxInFlight.get()).isBetween(1, 3);
+    }
+
+    @Test
+    @DisplayName("uploadAll: on failure rethrows and queues every file that was uploaded for deletion")
+    void uploadAll_failure_compensates() {
+        // given
+        List<MultipartFile> files = files(4);
+        given(s3Service.upload(files.get(0))).willReturn("https://s3/0.jpg");
+        given(s3Service.upload(files.get(1))).willThrow(new RuntimeException("S3 failed"));
+        lenient().when(s3Service.upload(files.get(2))).thenReturn("https://s3/2.jpg");
+        lenient().when(s3Service.upload(files.get(3))).thenReturn("https://s3/3.jpg");
+
+        // when / then
+        assertThatThrownBy(() -> uploader.uploadAll(files))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("S3 failed");
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<String>> queued = ArgumentCaptor.forClass(List.class);
+        then(storageDeletionService).should().enqueue(queued.capture());
+        assertThat(queued.getValue()).contains("https://s3/0.jpg").doesNotContain("https://s3/1.jpg");
+        then(s3Service).should(never()).deleteByUrl(any());
+        assertThat(meterRegistry.get("listing.image.upload.batch").tag("outcome", "failure").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("uploadAll: empty input does not touch S3")
+    void uploadAll_empty() {
+        assertThat(uploader.uploadAll(List.of())).isEmpty();
+        assertThat(uploader.uploadAll(null)).isEmpty();
+        then(s3Service).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @DisplayName("discard: deletes right away when the deletion queue is unavailable")
+    void discard_queueDown_deletesDirectly() {
+        // given
+        willThrow(new RuntimeException("db down")).given(storageDeletionService).enqueue(any());
+        willThrow(new RuntimeException("S3 failed")).given(s3Service).deleteByUrl("https://s3/0.jpg");
+
+        // when
+        uploader.discard(List.of("https://s3/0.jpg", "https://s3/1.jpg"));
+
+        // then - best effort, one failure doesn't stop the rest
+        then(s3Service).should().deleteByUrl("https://s3/1.jpg");
+    }
+}
@@ -0,0 +1,156 @@
+package edu.uic.marketplace.service.listing;
+
+import edu.uic.marketplace.model.listing.Category;
+import edu.uic.marketplace.model.listing.Listing;
+import edu.uic.marketplace.model.listing.ListingStats;
+import edu.uic.marketplace.model.listing.ListingStatus;
+import edu.uic.marketplace.repository.listing.ListingRepository;
+import edu.uic.marketplace.repository.listing.ListingStatsRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.BDDMockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ListingLeaderboardServiceImplTest {
+
+    @Mock private ListingRepository listingRepository;
+    @Mock private ListingStatsRepository listingStatsRepository;
+
+    private InMemoryListingLeaderboard leaderboard;
+    private ListingLeaderboardServiceImpl service;
+
+    private final Listing a = listing(1L, "books", 5, 1);
+    private final Listing b = listing(2L, "books", 20, 0);
+    private final Listing c = listing(3L, "phones", 10, 3);
+
+    @BeforeEach
+    void setUp() {
+        leaderboard = new InMemoryListingLeaderboard();
+        service = new ListingLeaderboardServiceImpl(leaderboard, listingRepository, listingStatsRepository);
+
+        given(listingStatsRepository.findLeaderboardRows(ListingStatus.ACTIVE)).willReturn(List.of(
+                row(a), row(b), row(c)
+        ));
+        service.rebuild();
+    }
+
+    // --------- helpers ---------
+    private static Listing listing(Long id, String slug, int views, int favorites) {
+        Category category = new Category();
+        category.setSlug(slug);
+
+        Listing l = Listing.builder()
+                .listingId(id)
+                .category(category)
+                .status(ListingStatus.ACTIVE)
+                .build();
+        l.setStats(ListingStats.builder().listingId(id).listing(l).viewCount(views).favoriteCount(favorites).build());
+        return l;
+    }
+
+    private static Object[] row(Listing l) {
+        return new Object[]{l.getListingId(), l.getCategory().getSlug(), l.getViewCount(), l.getFavoriteCount()};
+    }
+
+    private static Pageable byViews(int page, int size) {
+        return PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "stats.viewCount"));
+    }
+
+    private void hydrate(Listing... listings) {
+        given(listingRepository.findAllWithDetailsByListingIdIn(anyCollection())).willReturn(List.of(listings));
+    }
+
+    // ====================================================================================
+    // findActivePage
+    // ====================================================================================
+    @Test
+    @DisplayName("findActivePage: serves all-category page in board order with total from the board")
+    void findActivePage_allCategories() {
+        // hydrate returns rows in arbitrary order
+        hydrate(a, c, b);
+
+        Optional<Page<Listing>> page = service.findActivePage(null, byViews(0, 2));
+
+        assertThat(page).isPresent();
+        assertThat(page.get().getContent()).extracting(Listing::getListingId).containsExactly(2L, 3L);
+        assertThat(page.get().getTotalElements()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("findActivePage: category board only contains listings of that category")
+    void findActivePage_category() {
+        hydrate(a, b);
+
+        Page<Listing> page = service.findActivePage("books", byViews(0, 10)).orElseThrow();
+
+        assertThat(page.getContent()).extracting(Listing::getListingId).containsExactly(2L, 1L);
+        assertThat(page.getTotalElements()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("findActivePage: non-popular or ascending sorts fall back to the DB")
+    void findActivePage_notPopularSort() {
+        assertThat(service.findActivePage(null, PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "createdAt")))).isEmpty();
+        assertThat(service.findActivePage(null, PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "stats.viewCount")))).isEmpty();
+        then(listingRepository).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @DisplayName("findActivePage: falls back to the DB when the board could not be loaded")
+    void findActivePage_notReady() {
+        given(listingStatsRepository.findLeaderboardRows(ListingStatus.ACTIVE)).willThrow(new IllegalStateException("down"));
+        service.rebuild();
+
+        assertThat(service.findActivePage(null, byViews(0, 10))).isEmpty();
+    }
+
+    // ====================================================================================
+    // updates
+    // ====================================================================================
+    @Test
+    @DisplayName("recordView / recordFavorite: move listings up on both category and all boards")
+    void recordEvents_updateScores() {
+        for (int i = 0; i < 16; i++) {
+            service.recordView(a); // 5 -> 21
+        }
+        service.recordFavorite(b, 1);
+        service.recordFavorite(b, 1);
+
+        assertThat(leaderboard.topIds(LeaderboardMetric.VIEWS, ListingStatus.ACTIVE, null, 0, 3)).containsExactly(1L, 2L, 3L);
+        assertThat(leaderboard.topIds(LeaderboardMetric.VIEWS, ListingStatus.ACTIVE, "books", 0, 3)).containsExactly(1L, 2L);
+        assertThat(leaderboard.topIds(LeaderboardMetric.FAVORITES, ListingStatus.ACTIVE, null, 0, 3)).containsExactly(3L, 2L, 1L);
+    }
+
+    @Test
+    @DisplayName("syncStatus: listing leaving ACTIVE is removed, returning listing is re-added with its counters")
+    void syncStatus_movesBetweenBoards() {
+        b.setStatus(ListingStatus.SOLD);
+        service.syncStatus(b, ListingStatus.ACTIVE);
+
+        assertThat(leaderboard.count(LeaderboardMetric.VIEWS, ListingStatus.ACTIVE, null)).isEqualTo(2);
+        assertThat(leaderboard.count(LeaderboardMetric.VIEWS, ListingStatus.ACTIVE, "books")).isEqualTo(1);
+
+        // views on a non-active listing are ignored
+        service.recordView(b);
+        assertThat(leaderboard.count(LeaderboardMetric.VIEWS, ListingStatus.ACTIVE, null)).isEqualTo(2);
+
+        b.setStatus(ListingStatus.ACTIVE);
+        service.syncStatus(b, ListingStatus.INACTIVE);
+
+        assertThat(leaderboard.topIds(LeaderboardMetric.VIEWS, ListingStatus.ACTIVE, null, 0, 1)).containsExactly(2L);
+    }
+}
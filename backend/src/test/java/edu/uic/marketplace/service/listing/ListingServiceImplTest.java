@@ -1,12 +1,16 @@
 package edu.uic.marketplace.service.listing;
 
 import edu.uic.marketplace.dto.request.listing.CreateListingRequest;
+import edu.uic.marketplace.dto.request.listing.UpdateListingImagesRequest;
 import edu.uic.marketplace.dto.request.listing.UpdateListingRequest;
 import edu.uic.marketplace.dto.response.listing.ListingResponse;
 import edu.uic.marketplace.model.listing.*;
+import edu.uic.marketplace.model.upload.UploadPurpose;
 import edu.uic.marketplace.model.user.User;
 import edu.uic.marketplace.repository.listing.ListingRepository;
-import edu.uic.marketplace.service.common.S3Service;
+import edu.uic.marketplace.repository.listing.ListingStatsRepository;
+import edu.uic.marketplace.service.upload.StorageDeletionService;
+import edu.uic.marketplace.service.upload.UploadSessionService;
 import edu.uic.marketplace.validator.auth.AuthValidator;
 import edu.uic.marketplace.validator.listing.CategoryValidator;
 import edu.uic.marketplace.validator.listing.ListingValidator;
@@ -17,6 +21,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.math.BigDecimal;
@@ -33,11 +39,20 @@ import static org.mockito.BDDMockito.*;
 class ListingServiceImplTest {
 
     @Mock private ListingRepository listingRepository;
+    @Mock private ListingStatsRepository listingStatsRepository;
     @Mock private ListingValidator listingValidator;
     @Mock private AuthValidator authValidator;
     @Mock private CategoryValidator categoryValidator;
     @Mock private FavoriteService favoriteService;
-    @Mock private S3Service s3Service;
+    @Mock private StorageDeletionService storageDeletionService;
+    @Mock private ListingLeaderboardService listingLeaderboardService;
+    @Mock private ListingStatusNotifier listingStatusNotifier;
+    @Mock private SellerListingCountCache sellerListingCountCache;
+    @Mock private ListingImageUploader imageUploader;
+    @Mock private UploadOutboxService uploadOutboxService;
+    @Mock private UploadSessionService uploadSessionService;
+    @Mock private ImageVariantService imageVariantService;
+    @Mock private TransactionTemplate transactionTemplate;
 
     @InjectMocks
     private ListingServiceImpl service;
@@ -58,6 +73,11 @@ class ListingServiceImplTest {
         return c;
     }
 
+    private void runTransactionsInline() {
+        given(transactionTemplate.execute(any()))
+                .willAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
     private Listing listing(User seller, Category category) {
         return Listing.builder()
                 .seller(seller)
@@ -97,8 +117,8 @@ class ListingServiceImplTest {
 
         given(authValidator.validateUserByUsername(username)).willReturn(seller);
         given(categoryValidator.validateLeafCategory("books")).willReturn(cat);
-        given(s3Service.upload(img1)).willReturn("https://s3/a.jpg");
-        given(s3Service.upload(img2)).willReturn("https://s3/b.jpg");
+        given(imageUploader.uploadAll(List.of(img1, img2))).willReturn(List.of("https://s3/a.jpg", "https://s3/b.jpg"));
+        runTransactionsInline();
         willAnswer(invocation -> invocation.getArgument(0))
                 .given(listingRepository).save(any(Listing.class));
 
@@ -113,10 +133,56 @@ class ListingServiceImplTest {
 
         then(authValidator).should().validateUserByUsername(username);
         then(categoryValidator).should().validateLeafCategory("books");
-        then(s3Service).should(times(2)).upload(any(MultipartFile.class));
+        assertThat(res.getImages()).extracting(i -> i.getDisplayOrder())
+                .containsExactly(0, 1);
+        then(imageUploader).should().uploadAll(List.of(img1, img2));
+        then(uploadOutboxService).should().stage(List.of("https://s3/a.jpg", "https://s3/b.jpg"));
+        then(uploadOutboxService).should().release(List.of("https://s3/a.jpg", "https://s3/b.jpg"));
         then(listingRepository).should().save(any(Listing.class));
     }
 
+    @Test
+    @DisplayName("createListing: direct uploads, then resumable uploads, then multipart images")
+    void createListing_withImageKeys() {
+        // given
+        String username = "lee";
+        User seller = user(username);
+        Category cat = category("Books", "books");
+
+        CreateListingRequest req = CreateListingRequest.builder()
+                .title("Book")
+                .description("Nice book for sale")
+                .price(new BigDecimal("12.34"))
+                .condition(ItemCondition.GOOD)
+                .categorySlug("books")
+                .imageKeys(List.of("listings/k1.jpg", "listings/k2.jpg"))
+                .uploadIds(List.of("resumable-1"))
+                .build();
+
+        MultipartFile img = new MockMultipartFile("images", "a.jpg", "image/jpeg", new byte[]{1});
+
+        given(authValidator.validateUserByUsername(username)).willReturn(seller);
+        given(categoryValidator.validateLeafCategory("books")).willReturn(cat);
+        given(imageUploader.uploadAll(List.of(img))).willReturn(List.of("https://s3/a.jpg"));
+        runTransactionsInline();
+        given(uploadSessionService.consumeUploads(seller, UploadPurpose.LISTING_IMAGE, List.of("listings/k1.jpg", "listings/k2.jpg")))
+                .willReturn(List.of("https://s3/listings/k1.jpg", "https://s3/listings/k2.jpg"));
+        given(uploadSessionService.consumeUploadsById(seller, UploadPurpose.LISTING_IMAGE, List.of("resumable-1")))
+                .willReturn(List.of("https://s3/listings/r1.jpg"));
+        willAnswer(invocation -> invocation.getArgument(0))
+                .given(listingRepository).save(any(Listing.class));
+
+        // when
+        ListingResponse res = service.createListing(username, req, List.of(img));
+
+        // then
+        assertThat(res.getImages()).extracting(i -> i.getImageUrl())
+                .containsExactly("https://s3/listings/k1.jpg", "https://s3/listings/k2.jpg",
+                        "https://s3/listings/r1.jpg", "https://s3/a.jpg");
+        assertThat(res.getImages()).extracting(i -> i.getDisplayOrder())
+                .containsExactly(0, 1, 2, 3);
+    }
+
     @Test
     @DisplayName("createListing: no images is allowed")
     void createListing_noImages_ok() {
@@ -135,6 +201,7 @@ class ListingServiceImplTest {
 
         given(authValidator.validateUserByUsername(username)).willReturn(seller);
         given(categoryValidator.validateLeafCategory("books")).willReturn(cat);
+        runTransactionsInline();
         willAnswer(invocation -> invocation.getArgument(0))
                 .given(listingRepository).save(any(Listing.class));
 
@@ -144,7 +211,7 @@ class ListingServiceImplTest {
         // then
         assertThat(res.getTitle()).isEqualTo("Book");
         assertThat(res.getImages()).isEmpty();
-        then(s3Service).shouldHaveNoInteractions();
+        then(storageDeletionService).shouldHaveNoInteractions();
     }
 
     @Test
@@ -177,10 +244,11 @@ class ListingServiceImplTest {
                 .hasMessageContaining("up to 10");
 
         then(listingRepository).shouldHaveNoInteractions();
+        then(imageUploader).shouldHaveNoInteractions();
     }
 
     @Test
-    @DisplayName("createListing: if an image upload fails, already-uploaded files are cleaned up")
+    @DisplayName("createListing: if the image upload fails, no transaction is opened and nothing is saved")
     void createListing_uploadFails_rollsBackUploaded() {
         // given
         String username = "lee";
@@ -197,18 +265,75 @@ class ListingServiceImplTest {
 
         given(authValidator.validateUserByUsername(username)).willReturn(seller);
         given(categoryValidator.validateLeafCategory("books")).willReturn(cat);
-        given(s3Service.upload(ok)).willReturn("https://s3/a.jpg");
-        given(s3Service.upload(bad)).willThrow(new RuntimeException("S3 failed"));
+        given(imageUploader.uploadAll(List.of(ok, bad))).willThrow(new RuntimeException("S3 failed"));
 
         // when / then
         assertThatThrownBy(() -> service.createListing(username, req, List.of(ok, bad)))
                 .isInstanceOf(RuntimeException.class)
                 .hasMessageContaining("S3 failed");
 
-        then(s3Service).should().deleteByUrl("https://s3/a.jpg");
+        then(transactionTemplate).shouldHaveNoInteractions();
         then(listingRepository).should(never()).save(any());
     }
 
+    @Test
+    @DisplayName("createListing: if saving fails, staged uploads are handed to the outbox for cleanup")
+    void createListing_saveFails_discardsUploaded() {
+        // given
+        String username = "lee";
+        User seller = user(username);
+        Category cat = category("Books", "books");
+
+        CreateListingRequest req = CreateListingRequest.builder()
+                .title("Book").description("Nice book").price(new BigDecimal("10"))
+                .condition(ItemCondition.GOOD).categorySlug("books")
+                .build();
+
+        MultipartFile img = new MockMultipartFile("images", "a.jpg", "image/jpeg", new byte[]{1});
+
+        given(authValidator.validateUserByUsername(username)).willReturn(seller);
+        given(categoryValidator.validateLeafCategory("books")).willReturn(cat);
+        given(imageUploader.uploadAll(List.of(img))).willReturn(List.of("https://s3/a.jpg"));
+        runTransactionsInline();
+        given(listingRepository.save(any(Listing.class))).willThrow(new IllegalStateException("db down"));
+
+        // when / then
+        assertThatThrownBy(() -> service.createListing(username, req, List.of(img)))
+                .isInstanceOf(IllegalStateException.class);
+
+        then(uploadOutboxService).should().stage(List.of("https://s3/a.jpg"));
+        then(uploadOutboxService).should().markDue(List.of("https://s3/a.jpg"));
+        then(uploadOutboxService).should(never()).release(any());
+    }
+
+    @Test
+    @DisplayName("createListing: if staging in the outbox fails, uploads are deleted right away")
+    void createListing_stageFails_discardsUploaded() {
+        // given
+        String username = "lee";
+        User seller = user(username);
+        Category cat = category("Books", "books");
+
+        CreateListingRequest req = CreateListingRequest.builder()
+                .title("Book").description("Nice book").price(new BigDecimal("10"))
+                .condition(ItemCondition.GOOD).categorySlug("books")
+                .build();
+
+        MultipartFile img = new MockMultipartFile("images", "a.jpg", "image/jpeg", new byte[]{1});
+
+        given(authValidator.validateUserByUsername(username)).willReturn(seller);
+        given(categoryValidator.validateLeafCategory("books")).willReturn(cat);
+        given(imageUploader.uploadAll(List.of(img))).willReturn(List.of("https://s3/a.jpg"));
+        willThrow(new IllegalStateException("db down")).given(uploadOutboxService).stage(List.of("https://s3/a.jpg"));
+
+        // when / then
+        assertThatThrownBy(() -> service.createListing(username, req, List.of(img)))
+                .isInstanceOf(IllegalStateException.class);
+
+        then(imageUploader).should().discard(List.of("https://s3/a.jpg"));
+        then(transactionTemplate).shouldHaveNoInteractions();
+    }
+
     // ====================================================================================
     // updateListing (images == null : keep | empty : clear | replace)
     // ====================================================================================
@@ -231,6 +356,7 @@ class ListingServiceImplTest {
 
         given(authValidator.validateUserByUsername(username)).willReturn(seller);
         given(listingValidator.validateListingByPublicId("pub-1")).willReturn(existing);
+        runTransactionsInline();
 
         // when
         ListingResponse res = service.updateListing("pub-1", username, req, null);
@@ -240,7 +366,7 @@ class ListingServiceImplTest {
         assertThat(res.getPrice()).isEqualByComparingTo("99.99");
         assertThat(res.getImages()).hasSize(1);
         assertThat(res.getImages().get(0).getImageUrl()).isEqualTo("https://s3/old.jpg");
-        then(s3Service).shouldHaveNoInteractions();
+        then(storageDeletionService).shouldHaveNoInteractions();
     }
 
     @Test
@@ -260,12 +386,13 @@ class ListingServiceImplTest {
 
         given(authValidator.validateUserByUsername(username)).willReturn(seller);
         given(listingValidator.validateListingByPublicId("pub-1")).willReturn(existing);
+        runTransactionsInline();
 
         // when
         ListingResponse res = service.updateListing("pub-1", username, req, List.of());
 
         // then
-        then(s3Service).should().deleteFiles(List.of("https://s3/old1.jpg", "https://s3/old2.jpg"));
+        then(storageDeletionService).should().enqueue(List.of("https://s3/old1.jpg", "https://s3/old2.jpg"));
         assertThat(res.getImages()).isEmpty();
     }
 
@@ -287,9 +414,8 @@ class ListingServiceImplTest {
 
         given(authValidator.validateUserByUsername(username)).willReturn(seller);
         given(listingValidator.validateListingByPublicId("pub-1")).willReturn(existing);
-        willDoNothing().given(s3Service).deleteFiles(List.of("https://s3/old1.jpg"));
-        given(s3Service.upload(n1)).willReturn("https://s3/x.jpg");
-        given(s3Service.upload(n2)).willReturn("https://s3/y.jpg");
+        runTransactionsInline();
+        given(imageUploader.uploadAll(List.of(n1, n2))).willReturn(List.of("https://s3/x.jpg", "https://s3/y.jpg"));
 
         // when
         ListingResponse res = service.updateListing("pub-1", username, req, List.of(n1, n2));
@@ -302,7 +428,7 @@ class ListingServiceImplTest {
     }
 
     @Test
-    @DisplayName("updateListing: when upload fails mid-way, newly uploaded are reverted (deleteByUrl)")
+    @DisplayName("updateListing: when the upload fails, old images are left untouched")
     void updateListing_replaceImages_partialFail_rollbackNewOnes() {
         // given
         String username = "lee";
@@ -319,15 +445,132 @@ class ListingServiceImplTest {
 
         given(authValidator.validateUserByUsername(username)).willReturn(seller);
         given(listingValidator.validateListingByPublicId("pub-1")).willReturn(existing);
-        willDoNothing().given(s3Service).deleteFiles(List.of("https://s3/old1.jpg"));
-        given(s3Service.upload(ok)).willReturn("https://s3/ok.jpg");
-        given(s3Service.upload(bad)).willThrow(new RuntimeException("fail"));
+        runTransactionsInline();
+        given(imageUploader.uploadAll(List.of(ok, bad))).willThrow(new RuntimeException("fail"));
 
         // when / then
         assertThatThrownBy(() -> service.updateListing("pub-1", username, req, List.of(ok, bad)))
                 .isInstanceOf(RuntimeException.class);
 
-        then(s3Service).should().deleteByUrl("https://s3/ok.jpg");
+        // old images are untouched when the new set could not be uploaded
+        then(storageDeletionService).should(never()).enqueue(any());
+        assertThat(existing.getImages()).extracting(ListingImage::getImageUrl).containsExactly("https://s3/old1.jpg");
+    }
+
+    // ====================================================================================
+    // updateListingImages (manifest)
+    // ====================================================================================
+    private ListingImage image(Listing listing, String publicId, String url, int order) {
+        return ListingImage.builder()
+                .listing(listing).publicId(publicId).imageUrl(url).displayOrder(order).build();
+    }
+
+    private UpdateListingImagesRequest.ImageSlot keep(String imagePublicId) {
+        return UpdateListingImagesRequest.ImageSlot.builder().imagePublicId(imagePublicId).build();
+    }
+
+    private UpdateListingImagesRequest.ImageSlot file(int index) {
+        return UpdateListingImagesRequest.ImageSlot.builder().newFileIndex(index).build();
+    }
+
+    @Test
+    @DisplayName("updateListingImages: keeps/reorders existing, uploads only new files, deletes removed ones")
+    void updateListingImages_diff_ok() {
+        // given
+        String username = "lee";
+        User seller = user(username);
+        Listing existing = listing(seller, category("Books", "books"));
+        existing.setPublicId("pub-1");
+        ListingImage img1 = image(existing, "img-1", "https://s3/old1.jpg", 0);
+        ListingImage img2 = image(existing, "img-2", "https://s3/old2.jpg", 1);
+        ListingImage img3 = image(existing, "img-3", "https://s3/old3.jpg", 2);
+        existing.getImages().addAll(List.of(img1, img2, img3));
+
+        MultipartFile n1 = new MockMultipartFile("images", "x.jpg", "image/jpeg", new byte[]{1});
+
+        UpdateListingImagesRequest req = UpdateListingImagesRequest.builder()
+                .images(List.of(file(0), keep("img-3"), keep("img-1")))
+                .build();
+
+        given(authValidator.validateUserByUsername(username)).willReturn(seller);
+        given(listingValidator.validateListingByPublicId("pub-1")).willReturn(existing);
+        runTransactionsInline();
+        given(imageUploader.uploadAll(List.of(n1))).willReturn(List.of("https://s3/x.jpg"));
+
+        // when
+        ListingResponse res = service.updateListingImages("pub-1", username, req, List.of(n1));
+
+        // then
+        assertThat(res.getImages()).extracting(i -> i.getImageUrl())
+                .containsExactly("https://s3/x.jpg", "https://s3/old3.jpg", "https://s3/old1.jpg");
+        assertThat(res.getImages()).extracting(i -> i.getDisplayOrder())
+                .containsExactly(0, 1, 2);
+        then(imageUploader).should().uploadAll(List.of(n1));
+        then(storageDeletionService).should().enqueue(List.of("https://s3/old2.jpg"));
+        // managed entities carry the new order; dirty checking writes them at flush
+        assertThat(img3.getDisplayOrder()).isEqualTo(1);
+        assertThat(img1.getDisplayOrder()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("updateListingImages: image of another listing => IllegalArgumentException, nothing uploaded")
+    void updateListingImages_foreignImage() {
+        // given
+        String username = "lee";
+        User seller = user(username);
+        Listing existing = listing(seller, category("Books", "books"));
+        existing.setPublicId("pub-1");
+        existing.getImages().add(image(existing, "img-1", "https://s3/old1.jpg", 0));
+
+        MultipartFile n1 = new MockMultipartFile("images", "x.jpg", "image/jpeg", new byte[]{1});
+
+        UpdateListingImagesRequest req = UpdateListingImagesRequest.builder()
+                .images(List.of(keep("img-other"), file(0)))
+                .build();
+
+        given(authValidator.validateUserByUsername(username)).willReturn(seller);
+        given(listingValidator.validateListingByPublicId("pub-1")).willReturn(existing);
+        runTransactionsInline();
+
+        // when / then
+        assertThatThrownBy(() -> service.updateListingImages("pub-1", username, req, List.of(n1)))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        then(imageUploader).shouldHaveNoInteractions();
+        assertThat(existing.getImages()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("updateListingImages: uploads happen before the transaction; if it fails they are marked for cleanup")
+    void updateListingImages_changedWhileUploading() {
+        // given
+        String username = "lee";
+        User seller = user(username);
+        Listing before = listing(seller, category("Books", "books"));
+        before.setPublicId("pub-1");
+        before.getImages().add(image(before, "img-1", "https://s3/old1.jpg", 0));
+        Listing after = listing(seller, category("Books", "books")); // img-1 removed meanwhile
+        after.setPublicId("pub-1");
+
+        MultipartFile n1 = new MockMultipartFile("images", "x.jpg", "image/jpeg", new byte[]{1});
+
+        UpdateListingImagesRequest req = UpdateListingImagesRequest.builder()
+                .images(List.of(keep("img-1"), file(0)))
+                .build();
+
+        given(authValidator.validateUserByUsername(username)).willReturn(seller);
+        given(listingValidator.validateListingByPublicId("pub-1")).willReturn(before, after);
+        runTransactionsInline();
+        given(imageUploader.uploadAll(List.of(n1))).willReturn(List.of("https://s3/x.jpg"));
+
+        // when / then
+        assertThatThrownBy(() -> service.updateListingImages("pub-1", username, req, List.of(n1)))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        then(uploadOutboxService).should().stage(List.of("https://s3/x.jpg"));
+        then(uploadOutboxService).should().markDue(List.of("https://s3/x.jpg"));
+        then(uploadOutboxService).should(never()).release(any());
+        then(transactionTemplate).should(times(2)).execute(any());
     }
 
     // ====================================================================================
@@ -400,15 +643,16 @@ class ListingServiceImplTest {
     }
 
     @Test
-    @DisplayName("incrementViewCount: increments view counter on active listing")
+    @DisplayName("incrementViewCount: increments view counter in listing_stats for active listing")
     void incrementViewCount_ok() {
         Listing l = listing(user("lee"), category("C","c"));
         l.setPublicId("pub-1");
+        l.setListingId(42L);
 
         given(listingValidator.validateActiveListingByPublicId("pub-1")).willReturn(l);
 
         service.incrementViewCount("pub-1");
 
-        assertThat(l.getViewCount()).isEqualTo(1);
+        then(listingStatsRepository).should().incrementViewCount(42L);
     }
 }
@@ -0,0 +1,138 @@
+package edu.uic.marketplace.service.listing;
+
+import edu.uic.marketplace.exception.auth.UserNotFoundException;
+import edu.uic.marketplace.model.listing.Listing;
+import edu.uic.marketplace.model.listing.ListingStatus;
+import edu.uic.marketplace.model.user.User;
+import edu.uic.marketplace.repository.listing.ListingRepository;
+import edu.uic.marketplace.repository.user.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.times;
+
+@ExtendWith(MockitoExtension.class)
+class SellerListingCountCacheTest {
+
+    @Mock private ListingRepository listingRepository;
+    @Mock private UserRepository userRepository;
+
+    private SellerListingCountCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new SellerListingCountCache(listingRepository, userRepository, 100, Duration.ofMinutes(30));
+    }
+
+    // --------- helpers ---------
+    private static Listing listing(String sellerPublicId, ListingStatus status) {
+        return Listing.builder()
+                .seller(User.builder().publicId(sellerPublicId).build())
+                .status(status)
+                .build();
+    }
+
+    @Test
+    @DisplayName("total/count: loaded once per seller with one grouped query")
+    void load_onMiss() {
+        // given
+        given(listingRepository.countBySellerPublicIdsGroupByStatus(List.of("seller-1"))).willReturn(List.of(
+                new Object[]{"seller-1", ListingStatus.ACTIVE, 3L},
+                new Object[]{"seller-1", ListingStatus.SOLD, 2L}));
+
+        // when / then
+        assertThat(cache.total("seller-1")).isEqualTo(5);
+        assertThat(cache.count("seller-1", ListingStatus.ACTIVE)).isEqualTo(3);
+        assertThat(cache.count("seller-1", ListingStatus.INACTIVE)).isZero();
+        then(listingRepository).should(times(1)).countBySellerPublicIdsGroupByStatus(anyCollection());
+    }
+
+    @Test
+    @DisplayName("total: seller without listings counts as zero, checked once")
+    void total_sellerWithoutListings() {
+        // given
+        given(listingRepository.countBySellerPublicIdsGroupByStatus(List.of("new-seller"))).willReturn(List.of());
+        given(userRepository.existsByPublicId("new-seller")).willReturn(true);
+
+        // when / then
+        assertThat(cache.total("new-seller")).isZero();
+        assertThat(cache.count("new-seller", ListingStatus.ACTIVE)).isZero();
+        then(userRepository).should(times(1)).existsByPublicId("new-seller");
+    }
+
+    @Test
+    @DisplayName("total: unknown seller => UserNotFoundException, not cached")
+    void total_unknownSeller() {
+        // given
+        given(listingRepository.countBySellerPublicIdsGroupByStatus(List.of("nobody"))).willReturn(List.of());
+        given(userRepository.existsByPublicId("nobody")).willReturn(false);
+
+        // when / then
+        assertThatThrownBy(() -> cache.total("nobody")).isInstanceOf(UserNotFoundException.class);
+        assertThatThrownBy(() -> cache.total("nobody")).isInstanceOf(UserNotFoundException.class);
+        then(userRepository).should(times(2)).existsByPublicId("nobody");
+    }
+
+    @Test
+    @DisplayName("syncStatus: moves a cached seller's count between statuses; deletion drops it")
+    void syncStatus_transitions() {
+        // given
+        given(listingRepository.countBySellerPublicIdsGroupByStatus(List.of("seller-1"))).willReturn(List.<Object[]>of(
+                new Object[]{"seller-1", ListingStatus.ACTIVE, 2L}));
+        cache.total("seller-1");
+
+        Listing deleted = listing("seller-1", ListingStatus.ACTIVE);
+        deleted.setDeletedAt(Instant.now());
+
+        // when
+        cache.syncStatus(listing("seller-1", ListingStatus.ACTIVE), null);
+        cache.syncStatus(listing("seller-1", ListingStatus.SOLD), ListingStatus.ACTIVE);
+        cache.syncStatus(deleted, ListingStatus.ACTIVE);
+
+        // then
+        assertThat(cache.count("seller-1", ListingStatus.ACTIVE)).isEqualTo(1);
+        assertThat(cache.count("seller-1", ListingStatus.SOLD)).isEqualTo(1);
+        assertThat(cache.total("seller-1")).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("syncStatus: sellers not cached are left alone and loaded fresh later")
+    void syncStatus_uncachedSeller() {
+        // given
+        cache.syncStatus(listing("seller-2", ListingStatus.ACTIVE), null);
+        given(listingRepository.countBySellerPublicIdsGroupByStatus(List.of("seller-2"))).willReturn(List.<Object[]>of(
+                new Object[]{"seller-2", ListingStatus.ACTIVE, 1L}));
+
+        // when / then
+        assertThat(cache.count("seller-2", ListingStatus.ACTIVE)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("reconcile: recounts cached sellers and replaces drifted counts")
+    void reconcile_correctsDrift() {
+        // given
+        given(listingRepository.countBySellerPublicIdsGroupByStatus(anyCollection()))
+                .willReturn(List.<Object[]>of(new Object[]{"seller-1", ListingStatus.ACTIVE, 4L}))
+                .willReturn(List.<Object[]>of(new Object[]{"seller-1", ListingStatus.ACTIVE, 1L}));
+        assertThat(cache.count("seller-1", ListingStatus.ACTIVE)).isEqualTo(4);
+
+        // when
+        cache.reconcile();
+
+        // then
+        assertThat(cache.count("seller-1", ListingStatus.ACTIVE)).isEqualTo(1);
+    }
+}
@@ -0,0 +1,152 @@
+package edu.uic.marketplace.service.listing;
+
+import edu.uic.marketplace.model.listing.UploadOutbox;
+import edu.uic.marketplace.repository.listing.UploadOutboxRepository;
+import edu.uic.marketplace.service.common.S3Service;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UploadOutboxServiceImplTest {
+
+    @Mock private UploadOutboxRepository uploadOutboxRepository;
+    @Mock private S3Service s3Service;
+    @Mock private TransactionTemplate transactionTemplate;
+
+    private UploadOutboxServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        service = new UploadOutboxServiceImpl(uploadOutboxRepository, s3Service, transactionTemplate, Duration.ofMinutes(15));
+    }
+
+    private static UploadOutbox entry(String url, int attempts) {
+        return entry(null, url, attempts);
+    }
+
+    private static UploadOutbox entry(Long id, String url, int attempts) {
+        return UploadOutbox.builder()
+                .outboxId(id)
+                .objectUrl(url)
+                .attempts(attempts)
+                .nextAttemptAt(Instant.now().minusSeconds(1))
+                .build();
+    }
+
+    @Test
+    @DisplayName("stage: records each URL due after the grace period")
+    @SuppressWarnings("unchecked")
+    void stage_recordsEntries() {
+        // when
+        service.stage(List.of("https://s3/a.jpg", "https://s3/b.jpg"));
+
+        // then
+        ArgumentCaptor<List<UploadOutbox>> captor = ArgumentCaptor.forClass(List.class);
+        then(uploadOutboxRepository).should().saveAll(captor.capture());
+        assertThat(captor.getValue()).extracting(UploadOutbox::getObjectUrl)
+                .containsExactly("https://s3/a.jpg", "https://s3/b.jpg");
+        assertThat(captor.getValue()).allSatisfy(e ->
+                assertThat(e.getNextAttemptAt()).isAfter(Instant.now().plus(Duration.ofMinutes(14))));
+    }
+
+    @Test
+    @DisplayName("stage / release / markDue: empty input does not touch the DB")
+    void emptyInput_noop() {
+        service.stage(List.of());
+        service.release(List.of());
+        service.markDue(List.of());
+
+        then(uploadOutboxRepository).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @DisplayName("release: removes one entry per staged URL, leaving other uploads of the same object staged")
+    void release_onePerOccurrence() {
+        // given - two requests staged the same content-addressed URL
+        UploadOutbox mine = entry("https://s3/same.jpg", 0);
+        UploadOutbox theirs = entry("https://s3/same.jpg", 0);
+        given(uploadOutboxRepository.findByObjectUrlIn(any())).willReturn(List.of(mine, theirs));
+
+        // when
+        service.release(List.of("https://s3/same.jpg"));
+
+        // then
+        then(uploadOutboxRepository).should().deleteAllInBatch(List.of(mine));
+    }
+
+    private void givenTransactions() {
+        given(transactionTemplate.execute(any()))
+                .willAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    @DisplayName("processDue: deletes objects and their entries, reschedules failures with backoff")
+    void processDue_deletesAndRetries() {
+        // given
+        UploadOutbox ok = entry(1L, "https://s3/ok.jpg", 0);
+        UploadOutbox bad = entry(2L, "https://s3/bad.jpg", 2);
+        givenTransactions();
+        given(uploadOutboxRepository.findDue(any(), any())).willReturn(List.of(ok, bad));
+        given(uploadOutboxRepository.findByIdForUpdate(1L)).willReturn(Optional.of(ok));
+        given(uploadOutboxRepository.findByIdForUpdate(2L)).willReturn(Optional.of(bad));
+        given(uploadOutboxRepository.findById(2L)).willReturn(Optional.of(bad));
+        willThrow(new RuntimeException("S3 down")).given(s3Service).deleteByUrl("https://s3/bad.jpg");
+
+        // when
+        int cleaned = service.processDue();
+
+        // then
+        assertThat(cleaned).isEqualTo(1);
+        then(s3Service).should().deleteByUrl("https://s3/ok.jpg");
+        then(uploadOutboxRepository).should().delete(ok);
+
+        then(uploadOutboxRepository).should().save(bad);
+        assertThat(bad.getAttempts()).isEqualTo(3);
+        assertThat(bad.getLastError()).isEqualTo("S3 down");
+        assertThat(bad.getNextAttemptAt()).isAfter(Instant.now().plus(Duration.ofMinutes(3)));
+        then(uploadOutboxRepository).should(never()).delete(bad);
+    }
+
+    @Test
+    @DisplayName("processDue: an entry another instance already cleaned up is not released again")
+    void processDue_alreadyCleaned_skipped() {
+        // given
+        givenTransactions();
+        given(uploadOutboxRepository.findDue(any(), any())).willReturn(List.of(entry(1L, "https://s3/a.jpg", 0)));
+        given(uploadOutboxRepository.findByIdForUpdate(1L)).willReturn(Optional.empty());
+
+        // when
+        int cleaned = service.processDue();
+
+        // then
+        assertThat(cleaned).isZero();
+        then(s3Service).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @DisplayName("processDue: nothing due => no S3 calls")
+    void processDue_nothingDue() {
+        given(uploadOutboxRepository.findDue(any(), any())).willReturn(List.of());
+
+        assertThat(service.processDue()).isZero();
+        then(s3Service).shouldHaveNoInteractions();
+        then(uploadOutboxRepository).should(never()).saveAll(anyList());
+    }
+}
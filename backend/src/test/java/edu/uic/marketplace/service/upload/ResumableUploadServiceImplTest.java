@@ -0,0 +1,291 @@
+package edu.uic.marketplace.service.upload;
+
+import edu.uic.marketplace.dto.request.upload.CreateUploadSessionRequest;
+import edu.uic.marketplace.dto.response.upload.UploadSessionResponse;
+import edu.uic.marketplace.exception.upload.UploadOffsetMismatchException;
+import edu.uic.marketplace.model.upload.UploadPurpose;
+import edu.uic.marketplace.model.upload.UploadSession;
+import edu.uic.marketplace.model.upload.UploadSessionStatus;
+import edu.uic.marketplace.model.user.User;
+import edu.uic.marketplace.repository.upload.UploadSessionRepository;
+import edu.uic.marketplace.service.common.LocalObjectStorage;
+import edu.uic.marketplace.service.listing.UploadOutboxService;
+import edu.uic.marketplace.validator.auth.AuthValidator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.*;
+
+/**
+ * Runs create -> chunks -> finalize -> store against real chunk staging and the local storage stand-in.
+ */
+@ExtendWith(MockitoExtension.class)
+class ResumableUploadServiceImplTest {
+
+    @Mock private UploadSessionRepository uploadSessionRepository;
+    @Mock private UploadOutboxService uploadOutboxService;
+    @Mock private AuthValidator authValidator;
+    @Mock private TransactionTemplate transactionTemplate;
+
+    @TempDir Path root;
+
+    private ResumableChunkStore chunkStore;
+    private LocalDirectUploadStorage storage;
+    private ResumableUploadServiceImpl service;
+
+    private final User user = user(1L, "lee");
+
+    @BeforeEach
+    void setUp() throws Exception {
+        chunkStore = new ResumableChunkStore(root.resolve("chunks"));
+        storage = new LocalDirectUploadStorage(new LocalObjectStorage(root.resolve("objects"), "http://localhost:8080"), "test-secret");
+        service = new ResumableUploadServiceImpl(uploadSessionRepository, chunkStore, storage, uploadOutboxService,
+                authValidator, transactionTemplate, 1024, DataSize.ofBytes(4), Duration.ofHours(24), Duration.ofHours(24),
+                1, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    // --------- helpers ---------
+    private static User user(Long id, String username) {
+        User u = new User();
+        u.setUserId(id);
+        u.setUsername(username);
+        return u;
+    }
+
+    private void runTransactionsInline() {
+        given(transactionTemplate.execute(any()))
+                .willAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    /** Creates a session and makes the repository return it by public ID */
+    private UploadSession createSession(long size) {
+        given(authValidator.validateUserByUsername("lee")).willReturn(user);
+        willAnswer(invocation -> {
+            UploadSession s = invocation.getArgument(0);
+            s.prePersist();
+            s.setCreatedAt(Instant.now());
+            return s;
+        }).given(uploadSessionRepository).save(any(UploadSession.class));
+
+        UploadSessionResponse res = service.create("lee", CreateUploadSessionRequest.builder()
+                .purpose(UploadPurpose.LISTING_IMAGE)
+                .contentType("image/jpeg")
+                .contentLength(size)
+                .build());
+
+        UploadSession session = UploadSession.builder()
+                .publicId(res.getSessionId())
+                .user(user)
+                .purpose(UploadPurpose.LISTING_IMAGE)
+                .objectKey(res.getObjectKey())
+                .contentType("image/jpeg")
+                .contentLength(size)
+                .status(UploadSessionStatus.PENDING)
+                .resumable(true)
+                .expiresAt(res.getExpiresAt())
+                .createdAt(Instant.now())
+                .build();
+        lenient().when(uploadSessionRepository.findByPublicId(session.getPublicId())).thenReturn(Optional.of(session));
+        lenient().when(uploadSessionRepository.findForUpdateByPublicId(session.getPublicId())).thenReturn(Optional.of(session));
+        return session;
+    }
+
+    private UploadSessionResponse chunk(UploadSession session, long offset, byte... bytes) {
+        return service.appendChunk("lee", session.getPublicId(), offset, bytes.length, new ByteArrayInputStream(bytes));
+    }
+
+    private static void awaitStatus(UploadSession session, UploadSessionStatus status) throws InterruptedException {
+        for (int i = 0; i < 200 && session.getStatus() != status; i++) {
+            Thread.sleep(10);
+        }
+        assertThat(session.getStatus()).isEqualTo(status);
+    }
+
+    @Test
+    @DisplayName("create: resumable session with chunk size, staged for cleanup")
+    void create_ok() {
+        UploadSession session = createSession(10);
+
+        UploadSessionResponse res = service.getStatus("lee", session.getPublicId());
+
+        assertThat(res.getReceivedBytes()).isZero();
+        assertThat(res.getChunkSize()).isEqualTo(4);
+        assertThat(res.getUploadUrl()).isNull();
+        then(uploadOutboxService).should().stage(
+                List.of("http://localhost:8080/api/uploads/local/" + session.getObjectKey()), Duration.ofHours(48));
+    }
+
+    @Test
+    @DisplayName("full flow: chunks in order, finalize, stored in the background and CONFIRMED")
+    void chunksFinalizeStore() throws Exception {
+        // given
+        UploadSession session = createSession(10);
+        runTransactionsInline();
+
+        // when
+        chunk(session, 0, (byte) 0, (byte) 1, (byte) 2, (byte) 3);
+        chunk(session, 4, (byte) 4, (byte) 5, (byte) 6, (byte) 7);
+        UploadSessionResponse last = chunk(session, 8, (byte) 8, (byte) 9);
+        UploadSessionResponse finalized = service.finalizeUpload("lee", session.getPublicId());
+
+        // then
+        assertThat(last.getReceivedBytes()).isEqualTo(10);
+        assertThat(finalized.getStatus()).isIn(UploadSessionStatus.STORING, UploadSessionStatus.CONFIRMED);
+
+        awaitStatus(session, UploadSessionStatus.CONFIRMED);
+        assertThat(session.getConfirmedAt()).isNotNull();
+        assertThat(storage.stat(session.getObjectKey())).contains(new DirectUploadStorage.ObjectInfo(10, "image/jpeg"));
+        assertThat(Files.readAllBytes(storage.path(session.getObjectKey())))
+                .containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+        Path chunks = root.resolve("chunks").resolve(session.getPublicId());
+        for (int i = 0; i < 200 && Files.exists(chunks); i++) {
+            Thread.sleep(10); // local chunks are dropped right after the status update
+        }
+        assertThat(chunks).doesNotExist();
+
+        // finalize again is a no-op
+        assertThat(service.finalizeUpload("lee", session.getPublicId()).getFileUrl())
+                .isEqualTo("http://localhost:8080/api/uploads/local/" + session.getObjectKey());
+    }
+
+    @Test
+    @DisplayName("appendChunk: a retried or skipped offset is rejected with the offset to resume from")
+    void appendChunk_offsetMismatch() throws Exception {
+        // given
+        UploadSession session = createSession(6);
+        runTransactionsInline();
+        chunk(session, 0, (byte) 1, (byte) 2, (byte) 3);
+
+        // when / then - duplicate and gap
+        assertThatThrownBy(() -> chunk(session, 0, (byte) 1, (byte) 2, (byte) 3))
+                .isInstanceOf(UploadOffsetMismatchException.class)
+                .hasMessageContaining("offset 3");
+        assertThatThrownBy(() -> chunk(session, 4, (byte) 5, (byte) 6))
+                .isInstanceOf(UploadOffsetMismatchException.class);
+
+        // resume
+        chunk(session, 3, (byte) 4, (byte) 5, (byte) 6);
+        assertThat(session.getReceivedBytes()).isEqualTo(6);
+
+        service.finalizeUpload("lee", session.getPublicId());
+        awaitStatus(session, UploadSessionStatus.CONFIRMED);
+        assertThat(Files.readAllBytes(storage.path(session.getObjectKey()))).containsExactly(1, 2, 3, 4, 5, 6);
+    }
+
+    @Test
+    @DisplayName("appendChunk: chunks over the chunk size, past the declared size or short bodies are rejected")
+    void appendChunk_invalidSize() {
+        UploadSession session = createSession(6);
+
+        assertThatThrownBy(() -> chunk(session, 0, new byte[5]))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.appendChunk("lee", session.getPublicId(), 4, 4, new ByteArrayInputStream(new byte[4])))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.appendChunk("lee", session.getPublicId(), 0, 4, new ByteArrayInputStream(new byte[2])))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(session.getReceivedBytes()).isZero();
+        then(transactionTemplate).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @DisplayName("finalizeUpload: missing bytes => IllegalStateException, session stays PENDING")
+    void finalize_incomplete() {
+        UploadSession session = createSession(6);
+        runTransactionsInline();
+        chunk(session, 0, (byte) 1, (byte) 2);
+
+        assertThatThrownBy(() -> service.finalizeUpload("lee", session.getPublicId()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("2 of 6");
+        assertThat(session.getStatus()).isEqualTo(UploadSessionStatus.PENDING);
+    }
+
+    @Test
+    @DisplayName("sweep: abandoned sessions fail and their chunks are deleted")
+    void sweep_expiresAbandoned() {
+        // given
+        UploadSession session = createSession(6);
+        runTransactionsInline();
+        chunk(session, 0, (byte) 1, (byte) 2);
+        session.setExpiresAt(Instant.now().minusSeconds(1));
+
+        given(uploadSessionRepository.findResumableIds(eq(UploadSessionStatus.PENDING), any(), any()))
+                .willReturn(List.of(session.getPublicId()));
+
+        // when
+        service.sweep();
+
+        // then
+        assertThat(session.getStatus()).isEqualTo(UploadSessionStatus.FAILED);
+        assertThat(root.resolve("chunks").resolve(session.getPublicId())).doesNotExist();
+        assertThatThrownBy(() -> chunk(session, 2, (byte) 3))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("store: a chunk left over at a skipped offset is not assembled")
+    void store_skipsStaleChunk() throws Exception {
+        // given - a chunk at offset 3 was written but its session update never committed
+        UploadSession session = createSession(4);
+        runTransactionsInline();
+        chunk(session, 0, (byte) 1, (byte) 2);
+        chunkStore.commit(session.getPublicId(),
+                chunkStore.receive(session.getPublicId(), new ByteArrayInputStream(new byte[]{9, 9, 9}), 3), 3);
+        chunk(session, 2, (byte) 3, (byte) 4);
+        session.setStatus(UploadSessionStatus.STORING);
+
+        // when
+        service.store(session.getPublicId());
+
+        // then
+        assertThat(session.getStatus()).isEqualTo(UploadSessionStatus.CONFIRMED);
+        assertThat(Arrays.equals(Files.readAllBytes(storage.path(session.getObjectKey())), new byte[]{1, 2, 3, 4})).isTrue();
+    }
+
+    @Test
+    @DisplayName("sweep: a STORING session staged on another instance is skipped, not failed")
+    void sweep_skipsOtherInstance() {
+        // given - finalized elsewhere: nothing of it on this instance's disk
+        UploadSession session = createSession(4);
+        session.setStatus(UploadSessionStatus.STORING);
+
+        given(uploadSessionRepository.findResumableIds(eq(UploadSessionStatus.STORING), any(), any()))
+                .willReturn(List.of())
+                .willReturn(List.of(session.getPublicId()));
+
+        // when
+        service.store(session.getPublicId());
+        service.sweep();
+
+        // then
+        assertThat(session.getStatus()).isEqualTo(UploadSessionStatus.STORING);
+        assertThat(storage.path(session.getObjectKey())).doesNotExist();
+    }
+}
@@ -0,0 +1,213 @@
+package edu.uic.marketplace.service.upload;
+
+import edu.uic.marketplace.model.upload.StorageDeletion;
+import edu.uic.marketplace.model.upload.StorageDeletionKind;
+import edu.uic.marketplace.repository.upload.StorageDeletionRepository;
+import edu.uic.marketplace.service.common.S3Service;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StorageDeletionServiceImplTest {
+
+    @Mock private StorageDeletionRepository storageDeletionRepository;
+    @Mock private S3Service s3Service;
+    @Mock private TransactionTemplate transactionTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private StorageDeletionServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        service = new StorageDeletionServiceImpl(storageDeletionRepository, s3Service, transactionTemplate, meterRegistry, 1000);
+    }
+
+    // --------- helpers ---------
+    private static StorageDeletion entry(long id, String url, int attempts) {
+        return StorageDeletion.builder()
+                .deletionId(id)
+                .objectUrl(url)
+                .attempts(attempts)
+                .nextAttemptAt(Instant.now().minusSeconds(1))
+                .createdAt(Instant.now().minusSeconds(120))
+                .build();
+    }
+
+    private void givenDue(StorageDeletion... entries) {
+        given(transactionTemplate.execute(any()))
+                .willAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        given(storageDeletionRepository.findDueForUpdate(any(), any())).willReturn(new ArrayList<>(Arrays.asList(entries)));
+        // still queued when re-locked for processing
+        lenient().when(storageDeletionRepository.findAllForUpdateByDeletionIdIn(any())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return Arrays.stream(entries).filter(entry -> ids.contains(entry.getDeletionId())).toList();
+        });
+    }
+
+    @Test
+    @DisplayName("enqueue: one due entry per URL occurrence, blanks skipped")
+    @SuppressWarnings("unchecked")
+    void enqueue_recordsEntries() {
+        // when
+        service.enqueue(Arrays.asList("https://s3/a.jpg", null, "https://s3/a.jpg", " "));
+
+        // then
+        ArgumentCaptor<List<StorageDeletion>> captor = ArgumentCaptor.forClass(List.class);
+        then(storageDeletionRepository).should().saveAll(captor.capture());
+        assertThat(captor.getValue()).extracting(StorageDeletion::getObjectUrl)
+                .containsExactly("https://s3/a.jpg", "https://s3/a.jpg");
+        assertThat(captor.getValue()).allSatisfy(e -> assertThat(e.getNextAttemptAt()).isBeforeOrEqualTo(Instant.now()));
+    }
+
+    @Test
+    @DisplayName("enqueueOrphans: entries are marked as orphans")
+    @SuppressWarnings("unchecked")
+    void enqueueOrphans_recordsKind() {
+        // when
+        service.enqueueOrphans(List.of("https://s3/a.jpg"));
+
+        // then
+        ArgumentCaptor<List<StorageDeletion>> captor = ArgumentCaptor.forClass(List.class);
+        then(storageDeletionRepository).should().saveAll(captor.capture());
+        assertThat(captor.getValue()).extracting(StorageDeletion::getKind).containsExactly(StorageDeletionKind.ORPHAN);
+    }
+
+    @Test
+    @DisplayName("enqueue: empty input does not touch the DB")
+    void enqueue_empty_noop() {
+        service.enqueue(List.of());
+
+        then(storageDeletionRepository).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @DisplayName("processDue: claims a batch, deletes it with one call and drops the entries")
+    void processDue_batch_ok() {
+        // given
+        StorageDeletion a = entry(1L, "https://s3/a.jpg", 0);
+        StorageDeletion b = entry(2L, "https://s3/b.jpg", 0);
+        givenDue(a, b);
+        given(storageDeletionRepository.count()).willReturn(0L);
+
+        // when
+        int done = service.processDue();
+
+        // then
+        assertThat(done).isEqualTo(2);
+        then(storageDeletionRepository).should().findDueForUpdate(any(), eq(Pageable.ofSize(1000)));
+        then(s3Service).should().deleteFiles(List.of("https://s3/a.jpg", "https://s3/b.jpg"));
+        then(storageDeletionRepository).should().deleteAllInBatch(List.of(a, b));
+        assertThat(a.getNextAttemptAt()).isAfter(Instant.now().plus(Duration.ofMinutes(4))); // leased while in flight
+        assertThat(meterRegistry.get("storage.deletion.objects").tag("outcome", "deleted").counter().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("processDue: orphans are deleted only if still unreferenced, never released")
+    void processDue_orphans_routedByKind() {
+        // given
+        StorageDeletion released = entry(1L, "https://s3/a.jpg", 0);
+        StorageDeletion orphan = entry(2L, "https://s3/b.jpg", 0);
+        orphan.setKind(StorageDeletionKind.ORPHAN);
+        givenDue(released, orphan);
+
+        // when
+        int done = service.processDue();
+
+        // then
+        assertThat(done).isEqualTo(2);
+        then(s3Service).should().deleteFiles(List.of("https://s3/a.jpg"));
+        then(s3Service).should().deleteOrphans(List.of("https://s3/b.jpg"));
+        then(storageDeletionRepository).should().deleteAllInBatch(List.of(released, orphan));
+    }
+
+    @Test
+    @DisplayName("processDue: a failed batch is retried per entry; only the failing one backs off")
+    void processDue_failure_isolatesEntry() {
+        // given
+        StorageDeletion ok = entry(1L, "https://s3/ok.jpg", 0);
+        StorageDeletion bad = entry(2L, "https://s3/bad.jpg", 2);
+        givenDue(ok, bad);
+        willThrow(new RuntimeException("S3 down")).given(s3Service).deleteFiles(List.of("https://s3/ok.jpg", "https://s3/bad.jpg"));
+        willThrow(new RuntimeException("Access denied")).given(s3Service).deleteFiles(List.of("https://s3/bad.jpg"));
+        given(storageDeletionRepository.findById(2L)).willReturn(Optional.of(bad));
+
+        // when
+        int done = service.processDue();
+
+        // then
+        assertThat(done).isEqualTo(1);
+        then(storageDeletionRepository).should().deleteAllInBatch(List.of(ok));
+        then(storageDeletionRepository).should(never()).deleteAllInBatch(List.of(bad));
+
+        then(storageDeletionRepository).should().save(bad);
+        assertThat(bad.getAttempts()).isEqualTo(3);
+        assertThat(bad.getLastError()).isEqualTo("Access denied");
+        assertThat(bad.getNextAttemptAt()).isAfter(Instant.now().plus(Duration.ofMinutes(3))); // 4m backoff
+        assertThat(meterRegistry.get("storage.deletion.objects").tag("outcome", "failed").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("processDue: entries another worker already applied are skipped, their references are not released again")
+    void processDue_alreadyApplied_skipped() {
+        // given - claimed, but gone by the time it is locked for processing (lease ran out elsewhere)
+        givenDue(entry(1L, "https://s3/a.jpg", 0));
+        given(storageDeletionRepository.findAllForUpdateByDeletionIdIn(List.of(1L))).willReturn(List.of());
+
+        // when
+        int done = service.processDue();
+
+        // then
+        assertThat(done).isZero();
+        then(s3Service).shouldHaveNoInteractions();
+        then(storageDeletionRepository).should(never()).deleteAllInBatch(any());
+    }
+
+    @Test
+    @DisplayName("processDue: backlog gauges reflect the queue after each run")
+    void processDue_updatesBacklogGauges() {
+        // given
+        givenDue();
+        given(storageDeletionRepository.count()).willReturn(42L);
+        given(storageDeletionRepository.findOldestCreatedAt()).willReturn(Optional.of(Instant.now().minusSeconds(600)));
+
+        // when
+        int done = service.processDue();
+
+        // then
+        assertThat(done).isZero();
+        then(s3Service).shouldHaveNoInteractions();
+        assertThat(meterRegistry.get("storage.deletion.backlog").gauge().value()).isEqualTo(42);
+        assertThat(meterRegistry.get("storage.deletion.oldest.age").gauge().value()).isBetween(599.0, 660.0);
+    }
+
+    @Test
+    @DisplayName("batch size is capped at the 1000-key DeleteObjects limit")
+    void batchSize_capped() {
+        assertThat(new StorageDeletionServiceImpl(storageDeletionRepository, s3Service, transactionTemplate,
+                new SimpleMeterRegistry(), 5000).batchSize()).isEqualTo(1000);
+    }
+}
@@ -0,0 +1,156 @@
+package edu.uic.marketplace.service.upload;
+
+import edu.uic.marketplace.repository.upload.StoredObjectRepository;
+import edu.uic.marketplace.service.common.ObjectStorage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StorageReconciliationServiceImplTest {
+
+    @Mock private ObjectStorage objectStorage;
+    @Mock private StoredObjectRepository storedObjectRepository;
+    @Mock private StorageDeletionService storageDeletionService;
+    @Mock private PlatformTransactionManager transactionManager; // TransactionTemplate runs the callbacks inline
+
+    private StorageReconciliationServiceImpl service;
+
+    private static final Instant OLD = Instant.now().minus(Duration.ofDays(10));
+    private static final Instant NEW = Instant.now().minus(Duration.ofHours(1));
+
+    @BeforeEach
+    void setUp() {
+        service = reconciler(10_000);
+    }
+
+    // --------- helpers ---------
+    private StorageReconciliationServiceImpl reconciler(long maxDeletions) {
+        return new StorageReconciliationServiceImpl(objectStorage, storedObjectRepository, storageDeletionService,
+                transactionManager, Duration.ofHours(72), maxDeletions);
+    }
+
+    private static ObjectStorage.ListedObject object(String key, Instant lastModified) {
+        return new ObjectStorage.ListedObject(key, lastModified);
+    }
+
+    private void givenBucket(String prefix, ObjectStorage.ListedObject... objects) {
+        given(objectStorage.list(prefix)).willReturn(List.of(objects).iterator());
+    }
+
+    private void givenReferenced(String... keys) {
+        given(objectStorage.keyMarker()).willReturn(".amazonaws.com/");
+        given(storedObjectRepository.streamReferencedKeys(".amazonaws.com/")).willReturn(Stream.of(keys));
+    }
+
+    private void givenUrls() {
+        given(objectStorage.publicUrl(anyString())).willAnswer(inv -> "https://b.s3.amazonaws.com/" + inv.getArgument(0));
+    }
+
+    @Test
+    @DisplayName("reconcile: old unreferenced keys are queued; referenced and recent ones are kept")
+    @SuppressWarnings("unchecked")
+    void reconcile_mergeJoin() {
+        // given
+        givenBucket("avatars/",
+                object("avatars/a.jpg", OLD),
+                object("avatars/b.jpg", OLD),
+                object("avatars/c.jpg", NEW));
+        givenBucket("banners/");
+        givenBucket("listings/",
+                object("listings/1/x.jpg", OLD),
+                object("listings/2/y.jpg", OLD));
+        givenReferenced("avatars/a.jpg", "avatars/a.jpg", "listings/1/gone.jpg", "listings/2/y.jpg", "zzz/other.jpg");
+        givenUrls();
+
+        // when
+        StorageReconciliationService.ReconciliationResult result = service.reconcile();
+
+        // then
+        assertThat(result).isEqualTo(new StorageReconciliationService.ReconciliationResult(5, 2, 1, 2, false));
+        ArgumentCaptor<List<String>> captor = ArgumentCaptor.forClass(List.class);
+        then(storageDeletionService).should().enqueueOrphans(captor.capture());
+        assertThat(captor.getValue()).containsExactly(
+                "https://b.s3.amazonaws.com/avatars/b.jpg",
+                "https://b.s3.amazonaws.com/listings/1/x.jpg");
+    }
+
+    @Test
+    @DisplayName("reconcile: database keys out of order => aborts before queueing anything")
+    void reconcile_unsortedReferences_aborts() {
+        // given
+        givenBucket("avatars/",
+                object("avatars/a.jpg", OLD),
+                object("avatars/b.jpg", OLD),
+                object("avatars/c.jpg", OLD));
+        givenReferenced("avatars/b.jpg", "avatars/a.jpg");
+
+        // when / then
+        assertThatThrownBy(() -> service.reconcile())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("not in key order");
+        then(storageDeletionService).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @DisplayName("reconcile: stops at the per-run deletion cap")
+    void reconcile_cap() {
+        // given
+        service = reconciler(2);
+        givenBucket("avatars/",
+                object("avatars/a.jpg", OLD),
+                object("avatars/b.jpg", OLD),
+                object("avatars/c.jpg", OLD));
+        givenReferenced();
+        givenUrls();
+
+        // when
+        StorageReconciliationService.ReconciliationResult result = service.reconcile();
+
+        // then
+        assertThat(result.queued()).isEqualTo(2);
+        assertThat(result.truncated()).isTrue();
+        then(storageDeletionService).should().enqueueOrphans(List.of(
+                "https://b.s3.amazonaws.com/avatars/a.jpg",
+                "https://b.s3.amazonaws.com/avatars/b.jpg"));
+        then(objectStorage).should(never()).list("banners/");
+    }
+
+    @Test
+    @DisplayName("reconcile: an empty bucket queues nothing")
+    void reconcile_emptyBucket() {
+        given(objectStorage.list(any())).willReturn(Collections.emptyIterator());
+        givenReferenced("avatars/a.jpg");
+
+        StorageReconciliationService.ReconciliationResult result = service.reconcile();
+
+        assertThat(result.scanned()).isZero();
+        then(storageDeletionService).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @DisplayName("compareKeys: binary order, not locale or case-insensitive order")
+    void compareKeys_binary() {
+        assertThat(StorageReconciliationServiceImpl.compareKeys("B.jpg", "a.jpg")).isNegative();
+        assertThat(StorageReconciliationServiceImpl.compareKeys("a", "ab")).isNegative();
+        assertThat(StorageReconciliationServiceImpl.compareKeys("a/\uD83D\uDE00", "a/\uFFFD")).isPositive(); // supplementary sorts last in UTF-8
+        assertThat(StorageReconciliationServiceImpl.compareKeys("x", "x")).isZero();
+    }
+}
@@ -0,0 +1,122 @@
+package edu.uic.marketplace.service.upload;
+
+import edu.uic.marketplace.model.upload.StoredObject;
+import edu.uic.marketplace.repository.upload.StoredObjectRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StoredObjectServiceImplTest {
+
+    @Mock private StoredObjectRepository storedObjectRepository;
+
+    @InjectMocks private StoredObjectServiceImpl service;
+
+    private static StoredObject object(String key, int refCount) {
+        return StoredObject.builder().objectKey(key).refCount(refCount).build();
+    }
+
+    @Test
+    @DisplayName("acquire: returns the count after the upsert")
+    void acquire() {
+        given(storedObjectRepository.findRefCount("a.jpg")).willReturn(Optional.of(3));
+
+        assertThat(service.acquire("a.jpg")).isEqualTo(3);
+        then(storedObjectRepository).should().acquire("a.jpg");
+    }
+
+    @Test
+    @DisplayName("release: decrements per occurrence, deletes only unreferenced objects")
+    void release_deletesUnreferenced() {
+        // given
+        StoredObject shared = object("shared.jpg", 3);
+        StoredObject last = object("last.jpg", 2);
+        given(storedObjectRepository.findAllForUpdateByObjectKeyIn(Set.of("shared.jpg", "last.jpg")))
+                .willReturn(List.of(shared, last));
+        List<String> deleted = new ArrayList<>();
+
+        // when
+        service.release(List.of("shared.jpg", "last.jpg", "last.jpg"), deleted::addAll);
+
+        // then
+        assertThat(shared.getRefCount()).isEqualTo(2);
+        assertThat(deleted).containsExactly("last.jpg");
+        then(storedObjectRepository).should().deleteAll(List.of(last));
+    }
+
+    @Test
+    @DisplayName("release: storage failure propagates and the rows are kept (transaction rolls back)")
+    void release_storageFailure() {
+        given(storedObjectRepository.findAllForUpdateByObjectKeyIn(any())).willReturn(List.of(object("a.jpg", 1)));
+
+        assertThatThrownBy(() -> service.release(List.of("a.jpg"), keys -> {
+            throw new RuntimeException("S3 down");
+        })).hasMessage("S3 down");
+
+        then(storedObjectRepository).should(never()).deleteAll(any());
+    }
+
+    @Test
+    @DisplayName("release: still-referenced objects are never handed to storage")
+    void release_stillReferenced() {
+        given(storedObjectRepository.findAllForUpdateByObjectKeyIn(any())).willReturn(List.of(object("a.jpg", 2)));
+
+        service.release(List.of("a.jpg"), keys -> {
+            throw new AssertionError("must not delete");
+        });
+
+        then(storedObjectRepository).should(never()).deleteAll(any());
+    }
+
+    @Test
+    @DisplayName("release: keys without a row hold no reference and are left in storage")
+    void release_untracked_ignored() {
+        given(storedObjectRepository.findAllForUpdateByObjectKeyIn(any())).willReturn(List.of(object("a.jpg", 2)));
+
+        service.release(List.of("a.jpg", "orphan.jpg"), keys -> {
+            throw new AssertionError("must not delete");
+        });
+
+        then(storedObjectRepository).should(never()).deleteAll(any());
+    }
+
+    @Test
+    @DisplayName("deleteIfUnreferenced: deletes keys still without a reference, keeps re-uploaded ones")
+    void deleteIfUnreferenced() {
+        // given - b.jpg was uploaded again after reconciliation found it
+        given(storedObjectRepository.findAllForUpdateByObjectKeyIn(Set.of("a.jpg", "b.jpg")))
+                .willReturn(List.of(object("b.jpg", 1)));
+        List<String> deleted = new ArrayList<>();
+
+        // when
+        service.deleteIfUnreferenced(List.of("a.jpg", "b.jpg"), deleted::addAll);
+
+        // then
+        assertThat(deleted).containsExactly("a.jpg");
+        then(storedObjectRepository).should(never()).deleteAll(any());
+    }
+
+    @Test
+    @DisplayName("deleteIfUnreferenced: nothing left to delete does not touch storage")
+    void deleteIfUnreferenced_allReferenced() {
+        given(storedObjectRepository.findAllForUpdateByObjectKeyIn(any())).willReturn(List.of(object("a.jpg", 1)));
+
+        service.deleteIfUnreferenced(List.of("a.jpg"), keys -> {
+            throw new AssertionError("must not delete");
+        });
+    }
+}
@@ -0,0 +1,246 @@
+package edu.uic.marketplace.service.upload;
+
+import edu.uic.marketplace.dto.request.upload.CreateUploadSessionRequest;
+import edu.uic.marketplace.dto.response.upload.UploadSessionResponse;
+import edu.uic.marketplace.exception.upload.UploadSessionNotFoundException;
+import edu.uic.marketplace.model.upload.UploadPurpose;
+import edu.uic.marketplace.model.upload.UploadSession;
+import edu.uic.marketplace.model.upload.UploadSessionStatus;
+import edu.uic.marketplace.model.user.User;
+import edu.uic.marketplace.repository.upload.UploadSessionRepository;
+import edu.uic.marketplace.service.common.LocalObjectStorage;
+import edu.uic.marketplace.service.listing.UploadOutboxService;
+import edu.uic.marketplace.validator.auth.AuthValidator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.*;
+
+/**
+ * Runs the full presign -> PUT -> confirm -> consume flow against the local storage stand-in.
+ */
+@ExtendWith(MockitoExtension.class)
+class UploadSessionServiceImplTest {
+
+    @Mock private UploadSessionRepository uploadSessionRepository;
+    @Mock private UploadOutboxService uploadOutboxService;
+    @Mock private AuthValidator authValidator;
+
+    @TempDir Path root;
+
+    private LocalDirectUploadStorage storage;
+    private UploadSessionServiceImpl service;
+
+    private final User user = user(1L, "lee");
+
+    @BeforeEach
+    void setUp() throws Exception {
+        storage = new LocalDirectUploadStorage(new LocalObjectStorage(root, "http://localhost:8080"), "test-secret");
+        service = new UploadSessionServiceImpl(uploadSessionRepository, storage, uploadOutboxService, authValidator,
+                1024, Duration.ofMinutes(15), Duration.ofHours(24));
+    }
+
+    // --------- helpers ---------
+    private static User user(Long id, String username) {
+        User u = new User();
+        u.setUserId(id);
+        u.setUsername(username);
+        return u;
+    }
+
+    private UploadSessionResponse createSession(long size) {
+        given(authValidator.validateUserByUsername("lee")).willReturn(user);
+        willAnswer(invocation -> {
+            UploadSession s = invocation.getArgument(0);
+            s.prePersist();
+            s.setCreatedAt(Instant.now());
+            return s;
+        }).given(uploadSessionRepository).save(any(UploadSession.class));
+
+        return service.createSession("lee", CreateUploadSessionRequest.builder()
+                .purpose(UploadPurpose.LISTING_IMAGE)
+                .contentType("image/jpeg")
+                .contentLength(size)
+                .build());
+    }
+
+    private UploadSession sessionFor(UploadSessionResponse res, long size) {
+        return UploadSession.builder()
+                .publicId(res.getSessionId())
+                .user(user)
+                .purpose(UploadPurpose.LISTING_IMAGE)
+                .objectKey(res.getObjectKey())
+                .contentType("image/jpeg")
+                .contentLength(size)
+                .status(UploadSessionStatus.PENDING)
+                .expiresAt(res.getExpiresAt())
+                .createdAt(Instant.now())
+                .build();
+    }
+
+    /** What the client does with the presigned URL */
+    private void put(UploadSessionResponse res, byte[] body) throws Exception {
+        MultiValueMap<String, String> params = UriComponentsBuilder.fromUriString(res.getUploadUrl()).build().getQueryParams();
+        storage.acceptUpload(res.getObjectKey(),
+                URLDecoder.decode(params.getFirst("contentType"), StandardCharsets.UTF_8),
+                Long.parseLong(params.getFirst("size")),
+                Long.parseLong(params.getFirst("expires")),
+                params.getFirst("signature"),
+                res.getUploadHeaders().get("Content-Type"),
+                new ByteArrayInputStream(body));
+    }
+
+    @Test
+    @DisplayName("createSession: issues a presigned PUT and stages the object for cleanup")
+    void createSession_ok() {
+        UploadSessionResponse res = createSession(3);
+
+        assertThat(res.getObjectKey()).startsWith("listings/").endsWith(".jpg");
+        assertThat(res.getUploadMethod()).isEqualTo("PUT");
+        assertThat(res.getUploadUrl()).contains("/api/uploads/local/" + res.getObjectKey()).contains("signature=");
+        assertThat(res.getUploadHeaders()).containsEntry("Content-Type", "image/jpeg");
+        then(uploadOutboxService).should().stage(
+                List.of("http://localhost:8080/api/uploads/local/" + res.getObjectKey()), Duration.ofHours(24).plusMinutes(15));
+    }
+
+    @Test
+    @DisplayName("createSession: rejects non-images and files over the limit")
+    void createSession_invalid() {
+        given(authValidator.validateUserByUsername("lee")).willReturn(user);
+
+        assertThatThrownBy(() -> service.createSession("lee", CreateUploadSessionRequest.builder()
+                .purpose(UploadPurpose.AVATAR).contentType("application/pdf").contentLength(10L).build()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> service.createSession("lee", CreateUploadSessionRequest.builder()
+                .purpose(UploadPurpose.AVATAR).contentType("image/png").contentLength(2048L).build()))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        then(uploadSessionRepository).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @DisplayName("full flow: PUT to presigned URL, confirm, then consume by key")
+    void presignPutConfirmConsume() throws Exception {
+        // given
+        UploadSessionResponse created = createSession(3);
+        put(created, new byte[]{1, 2, 3});
+
+        UploadSession session = sessionFor(created, 3);
+        given(uploadSessionRepository.findByPublicId(created.getSessionId())).willReturn(Optional.of(session));
+
+        // when - confirm (twice: idempotent)
+        UploadSessionResponse confirmed = service.confirmSession("lee", created.getSessionId());
+        service.confirmSession("lee", created.getSessionId());
+
+        // then
+        assertThat(confirmed.getStatus()).isEqualTo(UploadSessionStatus.CONFIRMED);
+        assertThat(confirmed.getFileUrl()).isEqualTo("http://localhost:8080/api/uploads/local/" + created.getObjectKey());
+
+        // when - consume
+        given(uploadSessionRepository.findAllForUpdateByObjectKeyIn(List.of(created.getObjectKey())))
+                .willReturn(List.of(session));
+        List<String> urls = service.consumeUploads(user, UploadPurpose.LISTING_IMAGE, List.of(created.getObjectKey()));
+
+        // then
+        assertThat(urls).containsExactly(confirmed.getFileUrl());
+        assertThat(session.getStatus()).isEqualTo(UploadSessionStatus.CONSUMED);
+        then(uploadOutboxService).should().release(urls);
+
+        // a key can only be used once
+        assertThatThrownBy(() -> service.consumeUploads(user, UploadPurpose.LISTING_IMAGE, List.of(created.getObjectKey())))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("presigned PUT: a body larger than declared is rejected by the stand-in")
+    void put_sizeMismatch() {
+        UploadSessionResponse created = createSession(3);
+
+        assertThatThrownBy(() -> put(created, new byte[]{1, 2, 3, 4}))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(storage.stat(created.getObjectKey())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("confirmSession: nothing uploaded yet => IllegalStateException")
+    void confirm_notUploaded() {
+        UploadSessionResponse created = createSession(3);
+        given(uploadSessionRepository.findByPublicId(created.getSessionId()))
+                .willReturn(Optional.of(sessionFor(created, 3)));
+
+        assertThatThrownBy(() -> service.confirmSession("lee", created.getSessionId()))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("consumeUploads: another user's upload is not found")
+    void consume_foreignUpload() {
+        UploadSessionResponse created = createSession(3);
+        UploadSession session = sessionFor(created, 3);
+        session.setStatus(UploadSessionStatus.CONFIRMED);
+        given(uploadSessionRepository.findAllForUpdateByObjectKeyIn(List.of(created.getObjectKey())))
+                .willReturn(List.of(session));
+
+        User other = user(2L, "kim");
+        assertThatThrownBy(() -> service.consumeUploads(other, UploadPurpose.LISTING_IMAGE, List.of(created.getObjectKey())))
+                .isInstanceOf(UploadSessionNotFoundException.class);
+        then(uploadOutboxService).should(never()).release(any());
+    }
+
+    @Test
+    @DisplayName("consumeUploadsById: a resumable upload still being stored can't be attached yet")
+    void consumeById_stillStoring() {
+        UploadSessionResponse created = createSession(3);
+        UploadSession session = sessionFor(created, 3);
+        session.setStatus(UploadSessionStatus.STORING);
+        given(uploadSessionRepository.findAllByPublicIdIn(List.of(created.getSessionId())))
+                .willReturn(List.of(session));
+
+        assertThatThrownBy(() -> service.consumeUploadsById(user, UploadPurpose.LISTING_IMAGE, List.of(created.getSessionId())))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("still being processed");
+        then(uploadSessionRepository).should(never()).findAllForUpdateByObjectKeyIn(any());
+    }
+
+    @Test
+    @DisplayName("consumeUploadsByUrl: resolves the key of a URL this store issued")
+    void consumeByUrl() {
+        UploadSessionResponse created = createSession(3);
+        UploadSession session = sessionFor(created, 3);
+        session.setStatus(UploadSessionStatus.CONFIRMED);
+        String url = storage.publicUrl(created.getObjectKey());
+        given(uploadSessionRepository.findAllForUpdateByObjectKeyIn(List.of(created.getObjectKey())))
+                .willReturn(List.of(session));
+
+        assertThat(service.consumeUploadsByUrl(user, UploadPurpose.LISTING_IMAGE, List.of(url))).containsExactly(url);
+        assertThat(session.getStatus()).isEqualTo(UploadSessionStatus.CONSUMED);
+    }
+
+    @Test
+    @DisplayName("consumeUploadsByUrl: URLs not issued for an upload session are not found")
+    void consumeByUrl_foreignUrl() {
+        assertThatThrownBy(() -> service.consumeUploadsByUrl(user, UploadPurpose.AVATAR,
+                List.of("https://elsewhere.example.com/avatars/a.jpg")))
+                .isInstanceOf(UploadSessionNotFoundException.class);
+        then(uploadSessionRepository).shouldHaveNoInteractions();
+    }
+}
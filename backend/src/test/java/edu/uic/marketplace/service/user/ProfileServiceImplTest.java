@@ -3,9 +3,15 @@ package edu.uic.marketplace.service.user;
 import edu.uic.marketplace.dto.request.user.UpdateProfileRequest;
 import edu.uic.marketplace.dto.response.user.ProfileResponse;
 import edu.uic.marketplace.exception.auth.UserNotAuthorizedException;
+import edu.uic.marketplace.exception.upload.UploadSessionNotFoundException;
+import edu.uic.marketplace.model.upload.UploadPurpose;
 import edu.uic.marketplace.model.user.Profile;
 import edu.uic.marketplace.model.user.User;
 import edu.uic.marketplace.repository.user.ProfileRepository;
+import edu.uic.marketplace.service.common.S3Service;
+import edu.uic.marketplace.service.listing.ImageVariantService;
+import edu.uic.marketplace.service.upload.StorageDeletionService;
+import edu.uic.marketplace.service.upload.UploadSessionService;
 import edu.uic.marketplace.validator.auth.AuthValidator;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -15,7 +21,9 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockMultipartFile;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -31,6 +39,18 @@ class ProfileServiceImplTest {
     @Mock
     private AuthValidator authValidator;
 
+    @Mock
+    private ImageVariantService imageVariantService;
+
+    @Mock
+    private S3Service s3Service;
+
+    @Mock
+    private StorageDeletionService storageDeletionService;
+
+    @Mock
+    private UploadSessionService uploadSessionService;
+
     @InjectMocks
     private ProfileServiceImpl profileService;
 
@@ -170,6 +190,98 @@ class ProfileServiceImplTest {
         }
     }
 
+    @Nested
+    @DisplayName("uploadAvatar")
+    class UploadAvatarTests {
+
+        @Test
+        @DisplayName("Should clear the old placeholder and queue a new one for the new avatar")
+        void uploadAvatar_queuesPlaceholder() {
+            // Given
+            User user = createUser(1L, "testuser");
+            Profile profile = createProfile(user);
+            profile.setUserId(1L);
+            profile.setAvatarBlurHash("LEHV6nWB2yk8pyo0adR*.7kCMdnj");
+
+            given(authValidator.validateUserByUsername("testuser")).willReturn(user);
+            given(profileRepository.findByUser_UserId(user.getUserId()))
+                    .willReturn(Optional.of(profile));
+            given(uploadSessionService.consumeUploadsByUrl(user, UploadPurpose.AVATAR, List.of("https://example.com/new.png")))
+                    .willReturn(List.of("https://example.com/new.png"));
+
+            // When
+            ProfileResponse result = profileService.uploadAvatar("testuser", "https://example.com/new.png");
+
+            // Then
+            assertEquals("https://example.com/new.png", profile.getAvatarUrl());
+            assertNull(profile.getAvatarBlurHash());
+            assertNull(result.getAvatarBlurHash());
+            verify(imageVariantService).generateAvatarPlaceholderAfterCommit(1L, "https://example.com/new.png");
+            verify(storageDeletionService).enqueue(List.of("https://example.com/avatar.png"));
+        }
+
+        @Test
+        @DisplayName("Should reject a URL that is not a confirmed avatar upload of this user")
+        void uploadAvatar_foreignUrl_rejected() {
+            // Given
+            User user = createUser(1L, "testuser");
+            Profile profile = createProfile(user);
+
+            given(authValidator.validateUserByUsername("testuser")).willReturn(user);
+            given(profileRepository.findByUser_UserId(user.getUserId()))
+                    .willReturn(Optional.of(profile));
+            given(uploadSessionService.consumeUploadsByUrl(user, UploadPurpose.AVATAR, List.of("https://example.com/shared.png")))
+                    .willThrow(new UploadSessionNotFoundException("Upload not found: https://example.com/shared.png"));
+
+            // When / Then
+            assertThrows(UploadSessionNotFoundException.class,
+                    () -> profileService.uploadAvatar("testuser", "https://example.com/shared.png"));
+            assertEquals("https://example.com/avatar.png", profile.getAvatarUrl());
+            verifyNoInteractions(storageDeletionService);
+        }
+
+        @Test
+        @DisplayName("Should queue the old avatar for deletion only after uploading the new one")
+        void uploadAvatarFile_queuesOldAvatarDeletion() {
+            // Given
+            User user = createUser(1L, "testuser");
+            Profile profile = createProfile(user);
+            MockMultipartFile file = new MockMultipartFile("file", "a.png", "image/png", new byte[]{1});
+
+            given(authValidator.validateUserByUsername("testuser")).willReturn(user);
+            given(profileRepository.findByUser_UserId(user.getUserId()))
+                    .willReturn(Optional.of(profile));
+            given(s3Service.upload(file)).willReturn("https://example.com/new.png");
+
+            // When
+            profileService.uploadAvatarFile("testuser", file);
+
+            // Then
+            assertEquals("https://example.com/new.png", profile.getAvatarUrl());
+            verify(storageDeletionService).enqueue(List.of("https://example.com/avatar.png"));
+            verify(s3Service, never()).deleteByUrl(any());
+        }
+
+        @Test
+        @DisplayName("Should not queue anything when the upload fails")
+        void uploadAvatarFile_uploadFails_keepsOldAvatar() {
+            // Given
+            User user = createUser(1L, "testuser");
+            Profile profile = createProfile(user);
+            MockMultipartFile file = new MockMultipartFile("file", "a.png", "image/png", new byte[]{1});
+
+            given(authValidator.validateUserByUsername("testuser")).willReturn(user);
+            given(profileRepository.findByUser_UserId(user.getUserId()))
+                    .willReturn(Optional.of(profile));
+            given(s3Service.upload(file)).willThrow(new RuntimeException("S3 failed"));
+
+            // When / Then
+            assertThrows(RuntimeException.class, () -> profileService.uploadAvatarFile("testuser", file));
+            assertEquals("https://example.com/avatar.png", profile.getAvatarUrl());
+            verifyNoInteractions(storageDeletionService);
+        }
+    }
+
     @Nested
     @DisplayName("incrementSoldCount / incrementBuyCount")
     class IncrementCountsTests {
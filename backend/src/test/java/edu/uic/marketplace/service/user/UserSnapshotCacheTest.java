@@ -0,0 +1,167 @@
+package edu.uic.marketplace.service.user;
+
+import edu.uic.marketplace.model.user.User;
+import edu.uic.marketplace.model.user.UserRole;
+import edu.uic.marketplace.model.user.UserStatus;
+import edu.uic.marketplace.repository.user.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.times;
+
+@ExtendWith(MockitoExtension.class)
+class UserSnapshotCacheTest {
+
+    @Mock private UserRepository userRepository;
+    @Mock private ObjectProvider<StringRedisTemplate> redisTemplateProvider;
+    @Mock private StringRedisTemplate redisTemplate;
+
+    private UserSnapshotCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new UserSnapshotCache(userRepository, redisTemplateProvider,
+                100, Duration.ofMinutes(10), Duration.ofSeconds(30), "local");
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    // --------- helpers ---------
+    private static User user(Long id, String username, UserStatus status) {
+        return User.builder()
+                .userId(id)
+                .publicId("pub-" + id)
+                .username(username)
+                .role(UserRole.USER)
+                .status(status)
+                .tokenVersion(2)
+                .build();
+    }
+
+    private static UserSnapshot snapshot(Long id, UserStatus status) {
+        return UserSnapshot.of(user(id, "lee", status));
+    }
+
+    @Test
+    @DisplayName("findById: a projection read once, then served from memory")
+    void findById_cached() {
+        // given
+        given(userRepository.findSnapshotById(1L)).willReturn(Optional.of(snapshot(1L, UserStatus.ACTIVE)));
+
+        // when
+        UserSnapshot first = cache.findById(1L).orElseThrow();
+        UserSnapshot second = cache.findById(1L).orElseThrow();
+
+        // then
+        assertThat(first).isEqualTo(new UserSnapshot(1L, "pub-1", "lee", UserRole.USER, UserStatus.ACTIVE, 2, false));
+        assertThat(second).isSameAs(first);
+        then(userRepository).should(times(1)).findSnapshotById(1L);
+        then(userRepository).shouldHaveNoMoreInteractions();
+    }
+
+    @Test
+    @DisplayName("loadEntity: the caller's entity query fills the cache by username and by id")
+    void loadEntity_cachesSnapshot() {
+        // when
+        Optional<User> loaded = cache.loadEntity(() -> Optional.of(user(1L, "lee", UserStatus.ACTIVE)));
+
+        // then
+        assertThat(loaded).isPresent();
+        assertThat(cache.getIfPresent("lee")).get().extracting(UserSnapshot::userId).isEqualTo(1L);
+        assertThat(cache.findById(1L)).get().extracting(UserSnapshot::isActive).isEqualTo(true);
+        then(userRepository).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @DisplayName("invalidate: the next lookup sees the new status")
+    void invalidate_reloads() {
+        // given
+        given(userRepository.findSnapshotById(1L))
+                .willReturn(Optional.of(snapshot(1L, UserStatus.ACTIVE)))
+                .willReturn(Optional.of(snapshot(1L, UserStatus.SUSPENDED)));
+        assertThat(cache.findById(1L)).get().extracting(UserSnapshot::isActive).isEqualTo(true);
+
+        // when
+        cache.invalidate(1L);
+
+        // then
+        assertThat(cache.findById(1L)).get().extracting(UserSnapshot::isActive).isEqualTo(false);
+    }
+
+    @Test
+    @DisplayName("loadEntity: a load that raced an eviction is returned but not cached")
+    void loadEntity_racingEviction_notCached() {
+        // when - the user is suspended (and evicted after commit) while the load is in flight
+        Optional<User> loaded = cache.loadEntity(() -> {
+            cache.evict(1L);
+            return Optional.of(user(1L, "lee", UserStatus.ACTIVE));
+        });
+
+        // then - the stale ACTIVE snapshot did not make it into the cache
+        assertThat(loaded).isPresent();
+        assertThat(cache.getIfPresent(1L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("inside a transaction a snapshot is cached only once it commits")
+    void load_inTransaction_cachedAfterCommit() {
+        // given
+        TransactionSynchronizationManager.initSynchronization();
+        given(userRepository.findSnapshotById(1L)).willReturn(Optional.of(snapshot(1L, UserStatus.ACTIVE)));
+
+        // when
+        assertThat(cache.findById(1L)).isPresent();
+
+        // then - not visible before commit, visible after
+        assertThat(cache.getIfPresent(1L)).isEmpty();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(cache.getIfPresent(1L)).isPresent();
+    }
+
+    @Test
+    @DisplayName("findById: unknown users are not cached")
+    void findById_unknown() {
+        // given
+        given(userRepository.findSnapshotById(9L)).willReturn(Optional.empty());
+
+        // when / then
+        assertThat(cache.findById(9L)).isEmpty();
+        assertThat(cache.findById(9L)).isEmpty();
+        then(userRepository).should(times(2)).findSnapshotById(9L);
+    }
+
+    @Test
+    @DisplayName("invalidate: with redis invalidation the user id is published to the other instances")
+    void invalidate_publishes() {
+        // given
+        given(redisTemplateProvider.getIfAvailable()).willReturn(redisTemplate);
+        cache = new UserSnapshotCache(userRepository, redisTemplateProvider,
+                100, Duration.ofMinutes(10), Duration.ofSeconds(30), "redis");
+
+        // when
+        cache.invalidate(1L);
+
+        // then
+        then(redisTemplate).should().convertAndSend(UserSnapshotCache.INVALIDATION_CHANNEL, "1");
+    }
+}
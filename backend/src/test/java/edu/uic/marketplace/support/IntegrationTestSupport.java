@@ -36,7 +36,14 @@ public abstract class IntegrationTestSupport {
             stmt.execute("TRUNCATE TABLE profiles");
             stmt.execute("TRUNCATE TABLE email_verifications");
             stmt.execute("TRUNCATE TABLE password_resets");
+            stmt.execute("TRUNCATE TABLE refresh_tokens");
+            stmt.execute("TRUNCATE TABLE revoked_sessions");
             stmt.execute("TRUNCATE TABLE listing_images");
+            stmt.execute("TRUNCATE TABLE listing_stats");
+            stmt.execute("TRUNCATE TABLE upload_outbox");
+            stmt.execute("TRUNCATE TABLE upload_sessions");
+            stmt.execute("TRUNCATE TABLE stored_objects");
+            stmt.execute("TRUNCATE TABLE storage_deletion_queue");
             stmt.execute("TRUNCATE TABLE favorites");
             stmt.execute("TRUNCATE TABLE price_offers");
             stmt.execute("TRUNCATE TABLE listings");
@@ -47,6 +54,7 @@ public abstract class IntegrationTestSupport {
             stmt.execute("TRUNCATE TABLE transactions");
             stmt.execute("TRUNCATE TABLE notifications");
             stmt.execute("TRUNCATE TABLE email_subscriptions");
+            stmt.execute("TRUNCATE TABLE email_outbox");
             stmt.execute("TRUNCATE TABLE blocks");
             stmt.execute("TRUNCATE TABLE reports");
             stmt.execute("TRUNCATE TABLE moderation_actions");
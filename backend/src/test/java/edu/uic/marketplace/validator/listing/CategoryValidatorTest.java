@@ -4,19 +4,24 @@ import edu.uic.marketplace.exception.listing.CategoryNotFoundException;
 import edu.uic.marketplace.exception.listing.CategoryNotSubCategoryException;
 import edu.uic.marketplace.model.listing.Category;
 import edu.uic.marketplace.repository.listing.CategoryRepository;
+import edu.uic.marketplace.service.listing.CategoryTreeCache;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.never;
 
 @ExtendWith(MockitoExtension.class)
 class CategoryValidatorTest {
@@ -24,9 +29,13 @@ class CategoryValidatorTest {
     @Mock
     private CategoryRepository categoryRepository;
 
-    @InjectMocks
     private CategoryValidator validator;
 
+    @BeforeEach
+    void setUp() {
+        validator = new CategoryValidator(categoryRepository, new CategoryTreeCache(categoryRepository));
+    }
+
     // ---------- helpers ----------
     private Category make(String name, String slug) {
         Category c = Category.builder().name(name).slug(slug).build();
@@ -41,56 +50,74 @@ class CategoryValidatorTest {
         return child;
     }
 
+    /** books(1) > eng(2); elec(3) */
+    private void givenTree() {
+        given(categoryRepository.findTreeRows()).willReturn(List.of(
+                new Object[]{1L, "books", "Books", null},
+                new Object[]{2L, "eng", "Engineering", 1L},
+                new Object[]{3L, "elec", "Electronics", null}));
+    }
+
     // ---------- tests ----------
 
     @Test
-    @DisplayName("validateCategoryBySlug: returns category when found")
+    @DisplayName("validateCategoryBySlug: returns category from the in-memory tree, no slug query")
     void validateCategoryBySlug_ok() {
-        Category books = make("Books", "books");
-        given(categoryRepository.findBySlug("books")).willReturn(Optional.of(books));
+        givenTree();
+
+        Category found = validator.validateCategoryBySlug("eng");
+        assertThat(found.getSlug()).isEqualTo("eng");
+        assertThat(found.getCategoryId()).isEqualTo(2L);
+        assertThat(found.getParent().getSlug()).isEqualTo("books");
 
-        Category found = validator.validateCategoryBySlug("books");
-        assertThat(found.getSlug()).isEqualTo("books");
+        then(categoryRepository).should(never()).findBySlug(anyString());
     }
 
     @Test
     @DisplayName("validateCategoryBySlug: throws CategoryNotFoundException when not found")
     void validateCategoryBySlug_notFound() {
-        given(categoryRepository.findBySlug("nope")).willReturn(Optional.empty());
+        givenTree();
+        given(categoryRepository.existsBySlug("nope")).willReturn(false);
 
         assertThatThrownBy(() -> validator.validateCategoryBySlug("nope"))
                 .isInstanceOf(CategoryNotFoundException.class)
                 .hasMessageContaining("not found");
     }
 
+    @Test
+    @DisplayName("validateCategoryBySlug: a slug created after the snapshot reloads the tree")
+    void validateCategoryBySlug_newSlug_reloads() {
+        givenTree();
+        validator.validateCategoryBySlug("books");
+
+        given(categoryRepository.existsBySlug("games")).willReturn(true);
+        given(categoryRepository.findTreeRows()).willReturn(List.of(
+                new Object[]{1L, "books", "Books", null},
+                new Object[]{4L, "games", "Games", null}));
+
+        assertThat(validator.validateCategoryBySlug("games").getCategoryId()).isEqualTo(4L);
+    }
+
     @Test
     @DisplayName("validateLeafCategory: throws when category has children; passes when leaf")
     void validateLeafCategory_behavior() {
-        Category root = make("Books", "books");
-        Category child = make("Engineering", "eng");
-        linkParent(child, root);
+        givenTree();
 
         // non-leaf
-        given(categoryRepository.findBySlug("books")).willReturn(Optional.of(root));
         assertThatThrownBy(() -> validator.validateLeafCategory("books"))
                 .isInstanceOf(CategoryNotSubCategoryException.class);
 
         // leaf
-        given(categoryRepository.findBySlug("eng")).willReturn(Optional.of(child));
         assertThat(validator.validateLeafCategory("eng").getSlug()).isEqualTo("eng");
     }
 
     @Test
     @DisplayName("validateRootCategory: passes for root; throws for non-root")
     void validateRootCategory_behavior() {
-        Category root = make("Books", "books");
-        Category child = make("Engineering", "eng");
-        linkParent(child, root);
+        givenTree();
 
-        given(categoryRepository.findBySlug("books")).willReturn(Optional.of(root));
         assertThat(validator.validateRootCategory("books").getSlug()).isEqualTo("books");
 
-        given(categoryRepository.findBySlug("eng")).willReturn(Optional.of(child));
         assertThatThrownBy(() -> validator.validateRootCategory("eng"))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("not a root");
@@ -99,34 +126,19 @@ class CategoryValidatorTest {
     @Test
     @DisplayName("validateSubCategory: passes for non-root; throws for root")
     void validateSubCategory_behavior() {
-        Category root = make("Books", "books");
-        Category child = make("Engineering", "eng");
-        linkParent(child, root);
+        givenTree();
 
-        given(categoryRepository.findBySlug("books")).willReturn(Optional.of(root));
         assertThatThrownBy(() -> validator.validateSubCategory("books"))
                 .isInstanceOf(IllegalArgumentException.class)
                 .hasMessageContaining("root category");
 
-        given(categoryRepository.findBySlug("eng")).willReturn(Optional.of(child));
         assertThat(validator.validateSubCategory("eng").getSlug()).isEqualTo("eng");
     }
 
     @Test
     @DisplayName("validateSubCategoryOfParent: passes when child belongs to parent; throws otherwise")
     void validateSubCategoryOfParent_behavior() {
-        Category root = make("Books", "books");
-        root.setCategoryId(1L);
-        Category eng = make("Engineering", "eng");
-        eng.setCategoryId(2L);
-        linkParent(eng, root);
-
-        Category otherRoot = make("Electronics", "elec");
-        otherRoot.setCategoryId(3L);
-
-        given(categoryRepository.findBySlug("books")).willReturn(Optional.of(root));
-        given(categoryRepository.findBySlug("eng")).willReturn(Optional.of(eng));
-        given(categoryRepository.findBySlug("elec")).willReturn(Optional.of(otherRoot));
+        givenTree();
 
         // ok
         assertThat(validator.validateSubCategoryOfParent("books", "eng").getSlug()).isEqualTo("eng");